@@ -0,0 +1,64 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.integration.distributed;
+
+import com.radixdlt.consensus.VerifiedLedgerHeaderAndProof;
+import com.radixdlt.middleware2.store.StoredCommittedCommand;
+import com.radixdlt.statecomputer.UnstoredCommandsStore;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.TreeMap;
+
+/**
+ * An in memory store of unstored commands and epoch proofs used for testing
+ */
+class InMemoryUnstoredCommandsStore implements UnstoredCommandsStore {
+	private final TreeMap<Long, StoredCommittedCommand> commands = new TreeMap<>();
+	private final TreeMap<Long, VerifiedLedgerHeaderAndProof> epochProofs = new TreeMap<>();
+
+	@Override
+	public synchronized void storeCommand(long stateVersion, StoredCommittedCommand command) {
+		commands.put(stateVersion, command);
+	}
+
+	@Override
+	public synchronized Optional<StoredCommittedCommand> getNextCommand(long stateVersion) {
+		return Optional.ofNullable(commands.higherEntry(stateVersion)).map(Entry::getValue);
+	}
+
+	@Override
+	public synchronized TreeMap<Long, StoredCommittedCommand> getCommands(long fromStateVersion, long toStateVersion) {
+		return new TreeMap<>(commands.subMap(fromStateVersion, false, toStateVersion, true));
+	}
+
+	@Override
+	public synchronized OptionalLong getLastStateVersion() {
+		return commands.isEmpty() ? OptionalLong.empty() : OptionalLong.of(commands.lastKey());
+	}
+
+	@Override
+	public synchronized void storeEpochProof(long epoch, VerifiedLedgerHeaderAndProof proof) {
+		epochProofs.put(epoch, proof);
+	}
+
+	@Override
+	public synchronized Optional<VerifiedLedgerHeaderAndProof> getEpochProof(long epoch) {
+		return Optional.ofNullable(epochProofs.get(epoch));
+	}
+}
@@ -34,7 +34,9 @@ import com.radixdlt.consensus.bft.View;
 import com.radixdlt.crypto.Hash;
 import com.radixdlt.middleware2.LedgerAtom;
 import com.radixdlt.serialization.Serialization;
+import com.radixdlt.statecomputer.CommittedAtomsBatcher;
 import com.radixdlt.statecomputer.CommittedCommandsReader;
+import com.radixdlt.statecomputer.UnstoredCommandsStore;
 import com.radixdlt.store.EngineStore;
 import com.radixdlt.store.InMemoryEngineStore;
 
@@ -44,6 +46,23 @@ public class MockedRadixEngineStoreModule extends AbstractModule {
 		bind(CommittedCommandsReader.class).toInstance((stateVersion, limit) -> {
 			throw new UnsupportedOperationException();
 		});
+		bind(CommittedAtomsBatcher.class).toInstance(new CommittedAtomsBatcher() {
+			@Override
+			public void beginBatch() {
+				// In memory engine store stores atoms immediately
+			}
+
+			@Override
+			public void commitBatch() {
+				// In memory engine store stores atoms immediately
+			}
+
+			@Override
+			public void abortBatch() {
+				// In memory engine store stores atoms immediately
+			}
+		});
+		bind(UnstoredCommandsStore.class).to(InMemoryUnstoredCommandsStore.class).in(Scopes.SINGLETON);
 		bind(Serialization.class).toInstance(DefaultSerialization.getInstance());
 		bind(Integer.class).annotatedWith(Names.named("magic")).toInstance(1);
 		bind(new TypeLiteral<EngineStore<LedgerAtom>>() { }).to(new TypeLiteral<InMemoryEngineStore<LedgerAtom>>() { })
@@ -18,15 +18,15 @@
 package com.radixdlt.integration.distributed.deterministic;
 
 import com.google.inject.AbstractModule;
-import com.radixdlt.mempool.LocalMempool;
 import com.radixdlt.mempool.Mempool;
+import com.radixdlt.mempool.OrderedMempool;
 
 /**
- * Just binds Mempool to LocalMempool for now.
+ * Just binds Mempool to the local mempool for now.
  */
 public class DeterministicMempoolModule extends AbstractModule {
 	@Override
 	protected void configure() {
-		bind(Mempool.class).to(LocalMempool.class);
+		bind(Mempool.class).to(OrderedMempool.class);
 	}
 }
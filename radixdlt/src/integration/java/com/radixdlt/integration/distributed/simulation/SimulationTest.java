@@ -80,8 +80,8 @@ import com.radixdlt.integration.distributed.simulation.network.RandomLatencyProv
 import com.radixdlt.integration.distributed.simulation.network.RandomNewViewDropper;
 import com.radixdlt.integration.distributed.simulation.network.SimulationNodes;
 import com.radixdlt.integration.distributed.simulation.network.SimulationNodes.RunningNetwork;
-import com.radixdlt.mempool.LocalMempool;
 import com.radixdlt.mempool.Mempool;
+import com.radixdlt.mempool.OrderedMempool;
 import com.radixdlt.integration.distributed.simulation.invariants.consensus.AllProposalsHaveDirectParentsInvariant;
 import com.radixdlt.integration.distributed.simulation.invariants.consensus.LivenessInvariant;
 import com.radixdlt.integration.distributed.simulation.invariants.consensus.NoTimeoutsInvariant;
@@ -473,7 +473,7 @@ public class SimulationTest {
 					modules.add(new AbstractModule() {
 						@Override
 						protected void configure() {
-							bind(Mempool.class).to(LocalMempool.class);
+							bind(Mempool.class).to(OrderedMempool.class);
 						}
 					});
 					modules.add(new MockedSyncServiceModule());
@@ -522,7 +522,7 @@ public class SimulationTest {
 					modules.add(new AbstractModule() {
 						@Override
 						protected void configure() {
-							bind(Mempool.class).to(LocalMempool.class);
+							bind(Mempool.class).to(OrderedMempool.class);
 						}
 					});
 					modules.add(new RadixEngineModule(epochHighView));
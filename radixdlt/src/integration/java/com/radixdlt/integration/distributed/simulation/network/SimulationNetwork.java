@@ -284,8 +284,8 @@ public class SimulationNetwork {
 		}
 
 		@Override
-		public void sendSyncRequest(BFTNode node, DtoLedgerHeaderAndProof currentHeader) {
-			RemoteSyncRequest syncRequest = new RemoteSyncRequest(thisNode, currentHeader);
+		public void sendSyncRequest(BFTNode node, DtoLedgerHeaderAndProof currentHeader, int maxBytes) {
+			RemoteSyncRequest syncRequest = new RemoteSyncRequest(thisNode, currentHeader, maxBytes);
 			receivedMessages.onNext(MessageInTransit.newMessage(syncRequest, thisNode, node));
 		}
 
@@ -0,0 +1,176 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package org.radix.benchmark;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import com.radixdlt.ModuleRunner;
+import com.radixdlt.consensus.BFTEventsRx;
+import com.radixdlt.consensus.ConsensusEvent;
+import com.radixdlt.consensus.DisruptorEpochManagerRunner;
+import com.radixdlt.consensus.DisruptorEpochManagerRunner.WaitStrategyType;
+import com.radixdlt.consensus.EpochManagerRunner;
+import com.radixdlt.consensus.SyncEpochsRPCRx;
+import com.radixdlt.consensus.SyncVerticesRPCRx;
+import com.radixdlt.consensus.Vote;
+import com.radixdlt.consensus.bft.BFTUpdate;
+import com.radixdlt.consensus.epoch.EpochManager;
+import com.radixdlt.consensus.epoch.GetEpochRequest;
+import com.radixdlt.consensus.epoch.GetEpochResponse;
+import com.radixdlt.consensus.epoch.LocalTimeout;
+import com.radixdlt.consensus.liveness.PacemakerRx;
+import com.radixdlt.consensus.sync.GetVerticesErrorResponse;
+import com.radixdlt.consensus.sync.GetVerticesRequest;
+import com.radixdlt.consensus.sync.GetVerticesResponse;
+import com.radixdlt.epochs.EpochsLedgerUpdate;
+import io.reactivex.rxjava3.subjects.PublishSubject;
+import io.reactivex.rxjava3.subjects.Subject;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.mockito.stubbing.Answer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH driven benchmark comparing the consensus runners, {@link EpochManagerRunner}
+ * (a merge of per-source Rx {@code observeOn} queues) and
+ * {@link DisruptorEpochManagerRunner} (a ring buffer) with each wait strategy.
+ * <p>
+ * Events are emitted round-robin across every source the runners subscribe to
+ * and handled by an {@link EpochManager} stub which only counts them, so the
+ * result is the per-event cost of getting an event to the consensus thread.
+ * <p>
+ * See {@link UInt256Benchmark} for notes on running under gradle.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class ConsensusEventLoopBenchmark {
+	private static final int EVENTS_PER_INVOCATION = 1000;
+	private static final int RING_BUFFER_SIZE = 8192;
+
+	@Param({"RX", "BLOCKING", "YIELDING", "BUSY_SPIN"})
+	private String loop;
+
+	private final List<Runnable> emitters = new ArrayList<>();
+	// Only written on the single consensus thread
+	private volatile long processed;
+	private long emitted;
+
+	private ModuleRunner runner;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		// Stub only, so that invocations are not recorded
+		EpochManager epochManager = mock(EpochManager.class, withSettings().stubOnly());
+		Answer<Void> count = inv -> {
+			this.processed = this.processed + 1;
+			return null;
+		};
+		doAnswer(count).when(epochManager).processLedgerUpdate(any());
+		doAnswer(count).when(epochManager).processBFTUpdate(any());
+		doAnswer(count).when(epochManager).processLocalTimeout(any());
+		doAnswer(count).when(epochManager).processConsensusEvent(any());
+		doAnswer(count).when(epochManager).processGetVerticesRequest(any());
+		doAnswer(count).when(epochManager).processGetVerticesResponse(any());
+		doAnswer(count).when(epochManager).processGetVerticesErrorResponse(any());
+		doAnswer(count).when(epochManager).processGetEpochRequest(any());
+		doAnswer(count).when(epochManager).processGetEpochResponse(any());
+
+		Subject<EpochsLedgerUpdate> ledgerUpdates = source(EpochsLedgerUpdate.class);
+		Subject<BFTUpdate> bftUpdates = source(BFTUpdate.class);
+		Subject<LocalTimeout> localTimeouts = source(LocalTimeout.class);
+		Subject<ConsensusEvent> consensusEvents = source(Vote.class);
+		Subject<GetVerticesRequest> verticesRequests = source(GetVerticesRequest.class);
+		Subject<GetVerticesResponse> verticesResponses = source(GetVerticesResponse.class);
+		Subject<GetVerticesErrorResponse> verticesErrorResponses = source(GetVerticesErrorResponse.class);
+		Subject<GetEpochRequest> epochRequests = source(GetEpochRequest.class);
+		Subject<GetEpochResponse> epochResponses = source(GetEpochResponse.class);
+
+		BFTEventsRx networkRx = () -> consensusEvents;
+		PacemakerRx pacemakerRx = () -> localTimeouts;
+		SyncVerticesRPCRx rpcRx = mock(SyncVerticesRPCRx.class, withSettings().stubOnly());
+		when(rpcRx.requests()).thenReturn(verticesRequests);
+		when(rpcRx.responses()).thenReturn(verticesResponses);
+		when(rpcRx.errorResponses()).thenReturn(verticesErrorResponses);
+		SyncEpochsRPCRx epochsRPCRx = mock(SyncEpochsRPCRx.class, withSettings().stubOnly());
+		when(epochsRPCRx.epochRequests()).thenReturn(epochRequests);
+		when(epochsRPCRx.epochResponses()).thenReturn(epochResponses);
+
+		if ("RX".equals(this.loop)) {
+			this.runner = new EpochManagerRunner(
+				ledgerUpdates, bftUpdates, networkRx, pacemakerRx, rpcRx, epochsRPCRx, epochManager
+			);
+		} else {
+			// Sized so that no network event is dropped within an invocation
+			this.runner = new DisruptorEpochManagerRunner(
+				ledgerUpdates, bftUpdates, networkRx, pacemakerRx, rpcRx, epochsRPCRx, epochManager,
+				RING_BUFFER_SIZE, WaitStrategyType.valueOf(this.loop)
+			);
+		}
+		this.runner.start();
+	}
+
+	private <T, U extends T> Subject<T> source(Class<U> eventClass) {
+		Subject<T> subject = PublishSubject.<T>create().toSerialized();
+		U event = mock(eventClass, withSettings().stubOnly());
+		this.emitters.add(() -> subject.onNext(event));
+		return subject;
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		if (this.runner instanceof EpochManagerRunner) {
+			((EpochManagerRunner) this.runner).shutdown();
+		} else {
+			((DisruptorEpochManagerRunner) this.runner).shutdown();
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(EVENTS_PER_INVOCATION)
+	public long handoff() {
+		for (int i = 0; i < EVENTS_PER_INVOCATION; i++) {
+			this.emitters.get(i % this.emitters.size()).run();
+		}
+		this.emitted += EVENTS_PER_INVOCATION;
+		while (this.processed < this.emitted) {
+			Thread.onSpinWait();
+		}
+		return this.processed;
+	}
+}
@@ -0,0 +1,125 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package org.radix.benchmark;
+
+import com.radixdlt.consensus.Command;
+import com.radixdlt.mempool.ConcurrentMempool;
+import com.radixdlt.mempool.LocalMempool;
+import com.radixdlt.mempool.Mempool;
+import com.radixdlt.mempool.MempoolRejectedException;
+import com.radixdlt.utils.Ints;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+/**
+ * JMH driven benchmark comparing {@link LocalMempool}, which serialises all
+ * operations on a single lock, with {@link ConcurrentMempool} under contention.
+ * <p>
+ * Submitter threads, standing in for API and gossip submissions, add a command
+ * and then remove it as committed, while a proposer thread concurrently reads
+ * proposals from a mempool holding a steady backlog of commands.
+ * <p>
+ * See {@link UInt256Benchmark} for notes on running under gradle.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class MempoolContentionBenchmark {
+	private static final int MAX_SIZE = 100_000;
+	private static final int BACKLOG = 1_000;
+	private static final int COMMANDS_PER_THREAD = 1024;
+	private static final int PROPOSAL_SIZE = 10;
+
+	@Param({"LOCAL", "CONCURRENT"})
+	private String mempoolType;
+
+	private Mempool mempool;
+
+	@State(Scope.Thread)
+	public static class Submitter {
+		private Command[] commands;
+		private int next;
+
+		@Setup(Level.Trial)
+		public void setup(ThreadParams threadParams) {
+			// Thread indices start at zero, leaving -1 for the backlog
+			this.commands = makeCommands(threadParams.getThreadIndex(), COMMANDS_PER_THREAD);
+		}
+
+		Command next() {
+			Command command = this.commands[this.next];
+			this.next = (this.next + 1) % this.commands.length;
+			return command;
+		}
+	}
+
+	@Setup(Level.Iteration)
+	public void setup() throws MempoolRejectedException {
+		this.mempool = "LOCAL".equals(this.mempoolType) ? new LocalMempool(MAX_SIZE) : new ConcurrentMempool(MAX_SIZE);
+		for (Command command : makeCommands(-1, BACKLOG)) {
+			this.mempool.add(command);
+		}
+	}
+
+	@Benchmark
+	@Group("contended")
+	@GroupThreads(3)
+	public void submitAndCommit(Submitter submitter) throws MempoolRejectedException {
+		Command command = submitter.next();
+		this.mempool.add(command);
+		this.mempool.removeCommitted(command);
+	}
+
+	@Benchmark
+	@Group("contended")
+	@GroupThreads(1)
+	public List<Command> propose() {
+		return this.mempool.getCommands(PROPOSAL_SIZE, new HashSet<>());
+	}
+
+	private static Command[] makeCommands(int owner, int count) {
+		Command[] commands = new Command[count];
+		for (int i = 0; i < count; i++) {
+			byte[] payload = new byte[2 * Integer.BYTES];
+			Ints.copyTo(owner, payload, 0);
+			Ints.copyTo(i, payload, Integer.BYTES);
+			commands[i] = new Command(payload);
+			// Hash is cached, so compute it outside the measured operations
+			commands[i].getHash();
+		}
+		return commands;
+	}
+}
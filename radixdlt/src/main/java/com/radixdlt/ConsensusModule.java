@@ -60,7 +60,7 @@ import java.util.Comparator;
  * Module responsible for running BFT validator logic
  */
 public final class ConsensusModule extends AbstractModule {
-	private static final int ROTATING_WEIGHTED_LEADERS_CACHE_SIZE = 10;
+	private static final int ROTATING_WEIGHTED_LEADERS_CHUNK_SIZE = 100;
 	private final long pacemakerTimeout;
 	private final double pacemakerRate;
 	private final int pacemakerMaxExponent;
@@ -132,7 +132,7 @@ public final class ConsensusModule extends AbstractModule {
 		return new WeightedRotatingLeaders(
 			configuration.getValidatorSet(),
 			Comparator.comparing(v -> v.getNode().getKey().euid()),
-			ROTATING_WEIGHTED_LEADERS_CACHE_SIZE
+			ROTATING_WEIGHTED_LEADERS_CHUNK_SIZE
 		);
 	}
 
@@ -168,18 +168,22 @@ public final class ConsensusModule extends AbstractModule {
 	@Provides
 	@Singleton
 	private BFTSync bftSync(
+		@Named("self") BFTNode self,
 		VertexStore vertexStore,
 		Pacemaker pacemaker,
 		SyncVerticesRequestSender requestSender,
 		SyncLedgerRequestSender syncLedgerRequestSender,
+		TimeSupplier timeSupplier,
 		BFTConfiguration configuration
 	) {
 		return new BFTSync(
+			self,
 			vertexStore,
 			pacemaker,
 			Comparator.comparingLong((LedgerHeader h) -> h.getAccumulatorState().getStateVersion()),
 			requestSender,
 			syncLedgerRequestSender,
+			timeSupplier,
 			configuration.getGenesisHeader()
 		);
 	}
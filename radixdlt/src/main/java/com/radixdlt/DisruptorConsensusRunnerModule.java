@@ -0,0 +1,48 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Scopes;
+import com.google.inject.multibindings.MapBinder;
+import com.google.inject.name.Names;
+import com.radixdlt.consensus.DisruptorEpochManagerRunner;
+import com.radixdlt.consensus.DisruptorEpochManagerRunner.WaitStrategyType;
+import java.util.Objects;
+
+/**
+ * Alternative to {@link ConsensusRunnerModule} which runs consensus on a
+ * {@link DisruptorEpochManagerRunner} instead of an Rx event loop.
+ */
+public class DisruptorConsensusRunnerModule extends AbstractModule {
+	private final int ringBufferSize;
+	private final WaitStrategyType waitStrategyType;
+
+	public DisruptorConsensusRunnerModule(int ringBufferSize, WaitStrategyType waitStrategyType) {
+		this.ringBufferSize = ringBufferSize;
+		this.waitStrategyType = Objects.requireNonNull(waitStrategyType);
+	}
+
+	@Override
+	public void configure() {
+		bindConstant().annotatedWith(Names.named("consensusRingBufferSize")).to(ringBufferSize);
+		bind(WaitStrategyType.class).toInstance(waitStrategyType);
+		MapBinder<String, ModuleRunner> moduleRunners = MapBinder.newMapBinder(binder(), String.class, ModuleRunner.class);
+		moduleRunners.addBinding("consensus").to(DisruptorEpochManagerRunner.class).in(Scopes.SINGLETON);
+	}
+}
@@ -20,6 +20,8 @@ package com.radixdlt;
 import com.google.inject.AbstractModule;
 import com.google.inject.Provides;
 import com.google.inject.Scopes;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
 import com.radixdlt.consensus.BFTConfiguration;
 import com.radixdlt.consensus.LedgerHeader;
 import com.radixdlt.consensus.bft.NewViewSigner;
@@ -41,9 +43,11 @@ import com.radixdlt.consensus.epoch.EpochManager;
 import com.radixdlt.consensus.epoch.EpochManager.EpochInfoSender;
 import com.radixdlt.consensus.epoch.EpochView;
 import com.radixdlt.consensus.epoch.LocalTimeout;
+import com.radixdlt.consensus.liveness.AdaptiveBaseTimeout;
 import com.radixdlt.consensus.liveness.ExponentialTimeoutPacemaker;
 import com.radixdlt.consensus.liveness.ExponentialTimeoutPacemaker.ProceedToViewSender;
 import com.radixdlt.consensus.liveness.LocalTimeoutSender;
+import com.radixdlt.consensus.liveness.PacemakerBaseTimeout;
 import com.radixdlt.consensus.liveness.PacemakerFactory;
 import com.radixdlt.consensus.liveness.PacemakerTimeoutSender;
 import com.radixdlt.consensus.liveness.ProposerElection;
@@ -54,21 +58,41 @@ import com.radixdlt.consensus.sync.VertexStoreBFTSyncRequestProcessor.SyncVertic
 import com.radixdlt.consensus.sync.BFTSync;
 import com.radixdlt.consensus.sync.BFTSync.SyncVerticesRequestSender;
 import com.radixdlt.counters.SystemCounters;
+import com.radixdlt.network.TimeSupplier;
 import java.util.Comparator;
 
 /**
  * Module which allows for consensus to have multiple epochs
  */
 public class EpochsConsensusModule extends AbstractModule {
-	private static final int ROTATING_WEIGHTED_LEADERS_CACHE_SIZE = 10;
+	private static final int ROTATING_WEIGHTED_LEADERS_CHUNK_SIZE = 100;
+	// Adaptive pacemaker timeouts: p99 of view latencies with 50% headroom,
+	// moving at most by a factor of 2 per epoch and staying within 10x of the configured timeout
+	private static final double ADAPTIVE_TIMEOUT_PERCENTILE = 0.99;
+	private static final double ADAPTIVE_TIMEOUT_MARGIN = 1.5;
+	private static final double ADAPTIVE_TIMEOUT_MAX_ADJUSTMENT = 2.0;
+	private static final long ADAPTIVE_TIMEOUT_RANGE = 10L;
+	private static final int ADAPTIVE_TIMEOUT_WINDOW_SIZE = 1024;
+	private static final int ADAPTIVE_TIMEOUT_MIN_SAMPLES = 16;
 	private final long pacemakerTimeout;
 	private final double pacemakerRate;
 	private final int pacemakerMaxExponent;
+	private final boolean adaptivePacemakerTimeout;
 
 	public EpochsConsensusModule(long pacemakerTimeout, double pacemakerRate, int pacemakerMaxExponent) {
+		this(pacemakerTimeout, pacemakerRate, pacemakerMaxExponent, false);
+	}
+
+	public EpochsConsensusModule(
+		long pacemakerTimeout,
+		double pacemakerRate,
+		int pacemakerMaxExponent,
+		boolean adaptivePacemakerTimeout
+	) {
 		this.pacemakerTimeout = pacemakerTimeout;
 		this.pacemakerRate = pacemakerRate;
 		this.pacemakerMaxExponent = pacemakerMaxExponent;
+		this.adaptivePacemakerTimeout = adaptivePacemakerTimeout;
 	}
 
 	@Override
@@ -112,22 +136,51 @@ public class EpochsConsensusModule extends AbstractModule {
 		return validatorSet -> new WeightedRotatingLeaders(
 			validatorSet,
 			Comparator.comparing(v -> v.getNode().getKey().euid()),
-			ROTATING_WEIGHTED_LEADERS_CACHE_SIZE
+			ROTATING_WEIGHTED_LEADERS_CHUNK_SIZE
 		);
 	}
 
 	@Provides
-	private PacemakerFactory pacemakerFactory(NewViewSigner newViewSigner, BFTNewViewSender bftNewViewSender) {
+	@Singleton
+	private AdaptiveBaseTimeout adaptiveBaseTimeout() {
+		return new AdaptiveBaseTimeout(
+			this.pacemakerTimeout,
+			Math.max(1L, this.pacemakerTimeout / ADAPTIVE_TIMEOUT_RANGE),
+			this.pacemakerTimeout * ADAPTIVE_TIMEOUT_RANGE,
+			ADAPTIVE_TIMEOUT_PERCENTILE,
+			ADAPTIVE_TIMEOUT_MARGIN,
+			ADAPTIVE_TIMEOUT_MAX_ADJUSTMENT,
+			ADAPTIVE_TIMEOUT_WINDOW_SIZE,
+			ADAPTIVE_TIMEOUT_MIN_SAMPLES
+		);
+	}
+
+	@Provides
+	private PacemakerFactory pacemakerFactory(
+		NewViewSigner newViewSigner,
+		BFTNewViewSender bftNewViewSender,
+		TimeSupplier timeSupplier,
+		AdaptiveBaseTimeout adaptiveBaseTimeout
+	) {
 		return (timeoutSender, infoSender, proposerElection) -> {
 			final ProceedToViewSender proceedToViewSender = new SignedNewViewToLeaderSender(
 				newViewSigner,
 				proposerElection,
 				bftNewViewSender
 			);
+			final PacemakerBaseTimeout baseTimeout;
+			if (this.adaptivePacemakerTimeout) {
+				// A new pacemaker is created for each epoch
+				adaptiveBaseTimeout.nextEpoch();
+				baseTimeout = adaptiveBaseTimeout;
+			} else {
+				baseTimeout = PacemakerBaseTimeout.fixed(this.pacemakerTimeout);
+			}
 			return new ExponentialTimeoutPacemaker(
-				this.pacemakerTimeout,
+				baseTimeout,
 				this.pacemakerRate,
 				this.pacemakerMaxExponent,
+				timeSupplier,
 				proceedToViewSender,
 				timeoutSender,
 				infoSender
@@ -144,16 +197,20 @@ public class EpochsConsensusModule extends AbstractModule {
 
 	@Provides
 	private BFTSyncFactory bftSyncFactory(
+		@Named("self") BFTNode self,
 		SyncVerticesRequestSender requestSender,
 		SyncLedgerRequestSender syncLedgerRequestSender,
+		TimeSupplier timeSupplier,
 		BFTConfiguration configuration
 	) {
 		return (vertexStore, pacemaker) -> new BFTSync(
+			self,
 			vertexStore,
 			pacemaker,
 			Comparator.comparingLong((LedgerHeader h) -> h.getAccumulatorState().getStateVersion()),
 			requestSender,
 			syncLedgerRequestSender,
+			timeSupplier,
 			configuration.getGenesisHeader()
 		);
 	}
@@ -33,8 +33,10 @@ import com.radixdlt.epochs.SyncedEpochSender;
 import com.radixdlt.ledger.AccumulatorState;
 import com.radixdlt.ledger.VerifiedCommandsAndProof;
 import com.radixdlt.ledger.LedgerUpdateProcessor;
+import com.radixdlt.network.TimeSupplier;
 import com.radixdlt.sync.LocalSyncServiceAccumulatorProcessor;
 import com.radixdlt.sync.LocalSyncServiceAccumulatorProcessor.SyncTimeoutScheduler;
+import com.radixdlt.sync.LocalSyncServiceAccumulatorProcessor.VerifiedSyncedCommandsSender;
 import com.radixdlt.sync.RemoteSyncResponseProcessor;
 import com.radixdlt.sync.RemoteSyncResponseValidatorSetVerifier;
 import com.radixdlt.sync.RemoteSyncResponseValidatorSetVerifier.InvalidValidatorSetSender;
@@ -49,14 +51,17 @@ import java.util.function.Function;
  * Epoch+Sync extension
  */
 public class EpochsSyncModule extends AbstractModule {
+	private static final int MAX_IN_FLIGHT_REQUESTS = 4;
+
 	@Override
 	public void configure() {
 		bind(Key.get(new TypeLiteral<LocalSyncServiceProcessor>() { })).to(EpochsLocalSyncServiceProcessor.class);
 		bind(Key.get(new TypeLiteral<RemoteSyncResponseProcessor>() { })).to(EpochsRemoteSyncResponseProcessor.class);
 		Multibinder<LedgerUpdateProcessor<EpochsLedgerUpdate>> ledgerUpdateProcessors =
 			Multibinder.newSetBinder(binder(), new TypeLiteral<LedgerUpdateProcessor<EpochsLedgerUpdate>>() { });
-		ledgerUpdateProcessors.addBinding().to(EpochsRemoteSyncResponseProcessor.class);
+		// Local sync must move to a new epoch before responses held back for that epoch are processed
 		ledgerUpdateProcessors.addBinding().to(EpochsLocalSyncServiceProcessor.class);
+		ledgerUpdateProcessors.addBinding().to(EpochsRemoteSyncResponseProcessor.class);
 
 		bind(EpochsRemoteSyncResponseProcessor.class).in(Scopes.SINGLETON);
 		bind(EpochsLocalSyncServiceProcessor.class).in(Scopes.SINGLETON);
@@ -98,15 +103,20 @@ public class EpochsSyncModule extends AbstractModule {
 	private Function<BFTConfiguration, LocalSyncServiceAccumulatorProcessor> localSyncFactory(
 		Comparator<AccumulatorState> accumulatorComparator,
 		StateSyncNetwork stateSyncNetwork,
-		SyncTimeoutScheduler syncTimeoutScheduler
+		SyncTimeoutScheduler syncTimeoutScheduler,
+		VerifiedSyncedCommandsSender verifiedSyncedCommandsSender,
+		TimeSupplier timeSupplier
 	) {
 		return config ->
 			new LocalSyncServiceAccumulatorProcessor(
 				stateSyncNetwork,
 				syncTimeoutScheduler,
+				verifiedSyncedCommandsSender,
 				accumulatorComparator,
+				timeSupplier,
 				config.getGenesisHeader(),
-				200
+				200,
+				MAX_IN_FLIGHT_REQUESTS
 			);
 	}
 }
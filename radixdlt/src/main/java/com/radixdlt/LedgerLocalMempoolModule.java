@@ -20,18 +20,46 @@ package com.radixdlt;
 import com.google.inject.AbstractModule;
 import com.google.inject.Provides;
 import com.google.inject.Singleton;
+import com.google.inject.multibindings.OptionalBinder;
+import com.radixdlt.mempool.ConcurrentMempool;
+import com.radixdlt.mempool.ConflictIndexer;
+import com.radixdlt.mempool.FeeRate;
 import com.radixdlt.mempool.LocalMempool;
+import com.radixdlt.mempool.OrderedMempool;
 
 public class LedgerLocalMempoolModule extends AbstractModule {
 	private final int maxSize;
+	private final boolean concurrent;
 
 	public LedgerLocalMempoolModule(int maxSize) {
+		this(maxSize, false);
+	}
+
+	/**
+	 * @param maxSize the maximum number of commands in the mempool
+	 * @param concurrent {@code true} to use a {@link ConcurrentMempool}, or
+	 * 	{@code false} to use a {@link LocalMempool}, which serialises all operations on one lock
+	 */
+	public LedgerLocalMempoolModule(int maxSize, boolean concurrent) {
 		this.maxSize = maxSize;
+		this.concurrent = concurrent;
+	}
+
+	@Override
+	protected void configure() {
+		// Fee modules may override this to prioritise commands by fee
+		OptionalBinder.newOptionalBinder(binder(), FeeRate.class)
+			.setDefault().toInstance(FeeRate.NONE);
+		// Store modules may override this to drop conflicting commands on commit
+		OptionalBinder.newOptionalBinder(binder(), ConflictIndexer.class)
+			.setDefault().toInstance(ConflictIndexer.NONE);
 	}
 
 	@Provides
 	@Singleton
-	LocalMempool localMempool() {
-		return new LocalMempool(maxSize);
+	OrderedMempool localMempool(FeeRate feeRate, ConflictIndexer conflictIndexer) {
+		return this.concurrent
+			? new ConcurrentMempool(maxSize, feeRate, conflictIndexer)
+			: new LocalMempool(maxSize, feeRate, conflictIndexer);
 	}
 }
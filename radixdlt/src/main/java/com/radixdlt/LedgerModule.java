@@ -35,12 +35,29 @@ import java.util.Comparator;
  * Module which manages ledger state and synchronization of updates to ledger state
  */
 public class LedgerModule extends AbstractModule {
+	private final Class<? extends LedgerAccumulator> accumulatorClass;
+	private final Class<? extends LedgerAccumulatorVerifier> accumulatorVerifierClass;
+
+	public LedgerModule() {
+		this(SimpleLedgerAccumulatorAndVerifier.class);
+	}
+
+	/**
+	 * Creates a ledger module using the given accumulator. All nodes of a network must use the same accumulator.
+	 *
+	 * @param accumulatorAndVerifierClass the accumulator and verifier implementation
+	 */
+	public <T extends LedgerAccumulator & LedgerAccumulatorVerifier> LedgerModule(Class<T> accumulatorAndVerifierClass) {
+		this.accumulatorClass = accumulatorAndVerifierClass;
+		this.accumulatorVerifierClass = accumulatorAndVerifierClass;
+	}
+
 	@Override
 	protected void configure() {
 		bind(Ledger.class).to(StateComputerLedger.class).in(Scopes.SINGLETON);
 		bind(new TypeLiteral<Comparator<VerifiedLedgerHeaderAndProof>>() { }).to(OrderByEpochAndVersionComparator.class).in(Scopes.SINGLETON);
-		bind(LedgerAccumulator.class).to(SimpleLedgerAccumulatorAndVerifier.class);
-		bind(LedgerAccumulatorVerifier.class).to(SimpleLedgerAccumulatorAndVerifier.class);
+		bind(LedgerAccumulator.class).to(accumulatorClass);
+		bind(LedgerAccumulatorVerifier.class).to(accumulatorVerifierClass);
 	}
 
 	@Provides
@@ -18,11 +18,13 @@
 package com.radixdlt;
 
 import com.google.inject.AbstractModule;
+import com.radixdlt.statecomputer.UnstoredCommandsStore;
 import com.radixdlt.store.CursorStore;
 import com.radixdlt.store.LedgerEntryStore;
 import com.radixdlt.store.LedgerEntryStoreView;
 import com.radixdlt.store.berkeley.BerkeleyCursorStore;
 import com.radixdlt.store.berkeley.BerkeleyLedgerEntryStore;
+import com.radixdlt.store.berkeley.BerkeleyUnstoredCommandsStore;
 
 /**
  * Module which manages persistent storage
@@ -35,5 +37,6 @@ public class PersistenceModule extends AbstractModule {
 		bind(LedgerEntryStore.class).to(BerkeleyLedgerEntryStore.class);
 		bind(LedgerEntryStoreView.class).to(BerkeleyLedgerEntryStore.class);
 		bind(CursorStore.class).to(BerkeleyCursorStore.class);
+		bind(UnstoredCommandsStore.class).to(BerkeleyUnstoredCommandsStore.class);
 	}
 }
@@ -34,18 +34,25 @@ import com.radixdlt.constraintmachine.ConstraintMachine;
 import com.radixdlt.crypto.ECPublicKey;
 import com.radixdlt.engine.AtomChecker;
 import com.radixdlt.engine.RadixEngine;
+import com.radixdlt.statecomputer.CommittedAtomsBatcher;
 import com.radixdlt.statecomputer.CommittedCommandsReader;
+import com.radixdlt.statecomputer.PrecheckingAtomChecker;
 import com.radixdlt.statecomputer.RadixEngineStateComputer;
 import com.radixdlt.middleware2.LedgerAtom;
 import com.radixdlt.serialization.Serialization;
 import com.radixdlt.statecomputer.RadixEngineStateComputer.CommittedAtomSender;
 import com.radixdlt.statecomputer.RadixEngineValidatorSetBuilder;
+import com.radixdlt.statecomputer.StatelessCommandChecker;
+import com.radixdlt.statecomputer.UnstoredCommandsStore;
 import com.radixdlt.store.CMStore;
 import com.radixdlt.store.EngineStore;
 import com.radixdlt.ledger.StateComputerLedger.StateComputer;
 import com.radixdlt.sync.CommittedReader;
+import com.radixdlt.utils.ThreadFactories;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Predicate;
 import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
@@ -69,20 +76,52 @@ public class RadixEngineModule extends AbstractModule {
 	@Provides
 	@Singleton
 	private RadixEngineStateComputer radixEngineStateComputer(
-		Serialization serialization,
+		StatelessCommandChecker statelessCommandChecker,
 		RadixEngine<LedgerAtom> radixEngine,
 		CommittedCommandsReader committedCommandsReader,
-		CommittedAtomSender committedAtomSender
+		CommittedAtomSender committedAtomSender,
+		UnstoredCommandsStore unstoredCommandsStore,
+		CommittedAtomsBatcher committedAtomsBatcher
 	) {
 		return new RadixEngineStateComputer(
-			serialization,
+			statelessCommandChecker,
 			radixEngine,
 			epochHighView,
 			committedCommandsReader,
-			committedAtomSender
+			committedAtomSender,
+			unstoredCommandsStore,
+			committedAtomsBatcher
 		);
 	}
 
+	@Provides
+	@Singleton
+	private PrecheckingAtomChecker precheckingAtomChecker(AtomChecker<LedgerAtom> ledgerAtomChecker) {
+		return new PrecheckingAtomChecker(ledgerAtomChecker);
+	}
+
+	/**
+	 * Worker pool shared by all stateless checks, of committed commands and of submitted atoms.
+	 * Shut down with the node.
+	 */
+	@Provides
+	@Singleton
+	@Named("statelessChecks")
+	private ExecutorService statelessCheckExecutor() {
+		final int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+		return Executors.newFixedThreadPool(threads, ThreadFactories.daemonThreads("StatelessChecker-%d"));
+	}
+
+	@Provides
+	@Singleton
+	private StatelessCommandChecker statelessCommandChecker(
+		Serialization serialization,
+		PrecheckingAtomChecker atomChecker,
+		@Named("statelessChecks") ExecutorService executor
+	) {
+		return new StatelessCommandChecker(serialization, atomChecker, executor);
+	}
+
 	@Provides
 	@Singleton
 	private CMAtomOS buildCMAtomOS(@Named("magic") int magic) {
@@ -121,7 +160,7 @@ public class RadixEngineModule extends AbstractModule {
 		ConstraintMachine constraintMachine,
 		UnaryOperator<CMStore> virtualStoreLayer,
 		EngineStore<LedgerAtom> engineStore,
-		AtomChecker<LedgerAtom> ledgerAtomChecker
+		PrecheckingAtomChecker ledgerAtomChecker
 	) {
 		final int minValidators = 1; // Default 1 so can debug in IDE, possibly from properties at some point
 
@@ -22,6 +22,7 @@ import com.google.inject.Provides;
 import com.google.inject.Scopes;
 import com.google.inject.Singleton;
 import com.google.inject.TypeLiteral;
+import com.google.inject.multibindings.OptionalBinder;
 import com.google.inject.name.Named;
 import com.radixdlt.consensus.AddressBookGenesisValidatorSetProvider;
 import com.radixdlt.consensus.BFTConfiguration;
@@ -37,12 +38,16 @@ import com.radixdlt.consensus.bft.View;
 import com.radixdlt.constraintmachine.Particle;
 import com.radixdlt.constraintmachine.Spin;
 import com.radixdlt.crypto.ECKeyPair;
+import com.radixdlt.mempool.ConflictIndexer;
+import com.radixdlt.mempool.MempoolRevalidator;
 import com.radixdlt.middleware2.ClientAtom;
 import com.radixdlt.middleware2.ClientAtom.LedgerAtomConversionException;
 import com.radixdlt.middleware2.LedgerAtom;
+import com.radixdlt.middleware2.store.AtomConflictIndexer;
 import com.radixdlt.middleware2.store.CommittedAtomsStore;
 import com.radixdlt.middleware2.store.CommittedAtomsStore.AtomIndexer;
 import com.radixdlt.middleware2.store.EngineAtomIndices;
+import com.radixdlt.middleware2.store.EngineStoreCommandValidator;
 import com.radixdlt.network.addressbook.AddressBook;
 import com.radixdlt.serialization.DeserializeException;
 import com.radixdlt.serialization.DsonOutput.Output;
@@ -50,6 +55,7 @@ import com.radixdlt.serialization.Serialization;
 import com.radixdlt.statecomputer.ClientAtomToBinaryConverter;
 import com.radixdlt.middleware2.store.CommandToBinaryConverter;
 import com.radixdlt.statecomputer.CommittedAtom;
+import com.radixdlt.statecomputer.CommittedAtomsBatcher;
 import com.radixdlt.statecomputer.CommittedCommandsReader;
 import com.radixdlt.statecomputer.RadixEngineStateComputer.CommittedAtomSender;
 import com.radixdlt.store.EngineStore;
@@ -70,6 +76,13 @@ public class RadixEngineStoreModule extends AbstractModule {
 	protected void configure() {
 		bind(new TypeLiteral<EngineStore<CommittedAtom>>() { }).to(CommittedAtomsStore.class).in(Scopes.SINGLETON);
 		bind(CommittedCommandsReader.class).to(CommittedAtomsStore.class);
+		bind(CommittedAtomsBatcher.class).to(CommittedAtomsStore.class);
+		// Drop pending mempool commands which conflict with committed atoms
+		OptionalBinder.newOptionalBinder(binder(), ConflictIndexer.class)
+			.setBinding().to(AtomConflictIndexer.class).in(Scopes.SINGLETON);
+		// Revalidate pending mempool commands against the engine store
+		OptionalBinder.newOptionalBinder(binder(), MempoolRevalidator.CommandValidator.class)
+			.setBinding().to(EngineStoreCommandValidator.class).in(Scopes.SINGLETON);
 	}
 
 	@Provides
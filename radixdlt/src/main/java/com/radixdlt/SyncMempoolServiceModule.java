@@ -21,8 +21,13 @@ import com.google.inject.AbstractModule;
 import com.google.inject.Provides;
 import com.google.inject.Scopes;
 import com.google.inject.Singleton;
+import com.google.inject.multibindings.OptionalBinder;
+import com.google.inject.name.Named;
 import com.radixdlt.engine.RadixEngine;
 import com.radixdlt.mempool.Mempool;
+import com.radixdlt.mempool.MempoolPersister;
+import com.radixdlt.mempool.MempoolRevalidator;
+import com.radixdlt.mempool.RecentCommandHashes;
 import com.radixdlt.mempool.SharedMempool;
 import com.radixdlt.mempool.SubmissionControl;
 import com.radixdlt.mempool.SubmissionControlImpl;
@@ -33,6 +38,7 @@ import com.radixdlt.middleware2.LedgerAtom;
 import com.radixdlt.middleware2.converters.AtomConversionException;
 import com.radixdlt.middleware2.converters.AtomToClientAtomConverter;
 import com.radixdlt.serialization.Serialization;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Module which manages synchronization of mempool atoms across of nodes
@@ -42,6 +48,15 @@ public class SyncMempoolServiceModule extends AbstractModule {
 	@Override
 	protected void configure() {
 		bind(Mempool.class).to(SharedMempool.class).in(Scopes.SINGLETON);
+		bind(RecentCommandHashes.class).in(Scopes.SINGLETON);
+		bind(MempoolRevalidator.class).in(Scopes.SINGLETON);
+		// Store modules may override this to validate against engine state
+		OptionalBinder.newOptionalBinder(binder(), MempoolRevalidator.CommandValidator.class)
+			.setDefault().toInstance(MempoolRevalidator.CommandValidator.NONE);
+		bind(MempoolPersister.class).in(Scopes.SINGLETON);
+		// Persistence modules may override this to keep the mempool across restarts
+		OptionalBinder.newOptionalBinder(binder(), MempoolPersister.CommandStore.class)
+			.setDefault().toInstance(MempoolPersister.CommandStore.NONE);
 	}
 
 	@Provides
@@ -51,14 +66,16 @@ public class SyncMempoolServiceModule extends AbstractModule {
 		RadixEngine<LedgerAtom> radixEngine,
 		Serialization serialization,
 		AtomToClientAtomConverter converter,
-		SubmissionControlSender submissionControlSender
+		SubmissionControlSender submissionControlSender,
+		@Named("statelessChecks") ExecutorService executor
 	) {
 		return new SubmissionControlImpl(
 			mempool,
 			radixEngine,
 			serialization,
 			converter,
-			submissionControlSender
+			submissionControlSender,
+			executor
 		);
 	}
 
@@ -26,9 +26,11 @@ import com.radixdlt.consensus.VerifiedLedgerHeaderAndProof;
 import com.radixdlt.counters.SystemCounters;
 import com.radixdlt.counters.SystemCounters.CounterType;
 import com.radixdlt.ledger.AccumulatorState;
-import com.radixdlt.ledger.DtoCommandsAndProof;
 import com.radixdlt.ledger.VerifiedCommandsAndProof;
+import com.radixdlt.network.TimeSupplier;
 import com.radixdlt.sync.CommittedReader;
+import com.radixdlt.sync.LocalSyncServiceAccumulatorProcessor.VerifiedSyncedCommandsSender;
+import com.radixdlt.sync.LocalSyncServiceProcessor;
 import com.radixdlt.sync.RemoteSyncResponseAccumulatorVerifier;
 import com.radixdlt.sync.RemoteSyncResponseAccumulatorVerifier.InvalidAccumulatorSender;
 import com.radixdlt.sync.RemoteSyncResponseAccumulatorVerifier.VerifiedAccumulatorSender;
@@ -49,6 +51,9 @@ import java.util.Comparator;
  */
 public class SyncServiceModule extends AbstractModule {
 	private static final int BATCH_SIZE = 100;
+	// Leaves headroom for proofs and encoding within the 1MiB transport packet limit
+	private static final int MAX_RESPONSE_BYTES = 512 * 1024;
+	private static final int MAX_IN_FLIGHT_REQUESTS = 4;
 
 	@Provides
 	private VerifiedValidatorSetSender verifiedValidatorSetSender(RemoteSyncResponseSignaturesVerifier signaturesVerifier) {
@@ -76,9 +81,13 @@ public class SyncServiceModule extends AbstractModule {
 	}
 
 	@Provides
-	private VerifiedAccumulatorSender verifiedSyncedCommandsSender(SystemCounters counters, Ledger ledger) {
-		return resp -> {
-			DtoCommandsAndProof commandsAndProof = resp.getCommandsAndProof();
+	private VerifiedAccumulatorSender verifiedAccumulatorSender(LocalSyncServiceProcessor localSyncServiceProcessor) {
+		return localSyncServiceProcessor::processVerifiedSyncResponse;
+	}
+
+	@Provides
+	private VerifiedSyncedCommandsSender verifiedSyncedCommandsSender(SystemCounters counters, Ledger ledger) {
+		return commandsAndProof -> {
 			// TODO: Stateful ledger header verification:
 			// TODO: -verify rootHash matches
 			VerifiedLedgerHeaderAndProof nextHeader = new VerifiedLedgerHeaderAndProof(
@@ -104,12 +113,15 @@ public class SyncServiceModule extends AbstractModule {
 	@Singleton
 	private RemoteSyncServiceProcessor remoteSyncServiceProcessor(
 		CommittedReader committedReader,
-		StateSyncNetwork stateSyncNetwork
+		StateSyncNetwork stateSyncNetwork,
+		SystemCounters counters
 	) {
 		return new RemoteSyncServiceProcessor(
 			committedReader,
 			stateSyncNetwork,
-			BATCH_SIZE
+			counters,
+			BATCH_SIZE,
+			MAX_RESPONSE_BYTES
 		);
 	}
 
@@ -132,14 +144,19 @@ public class SyncServiceModule extends AbstractModule {
 		Comparator<AccumulatorState> accumulatorComparator,
 		StateSyncNetwork stateSyncNetwork,
 		SyncTimeoutScheduler syncTimeoutScheduler,
+		VerifiedSyncedCommandsSender verifiedSyncedCommandsSender,
+		TimeSupplier timeSupplier,
 		BFTConfiguration initialConfiguration
 	) {
 		return new LocalSyncServiceAccumulatorProcessor(
 			stateSyncNetwork,
 			syncTimeoutScheduler,
+			verifiedSyncedCommandsSender,
 			accumulatorComparator,
+			timeSupplier,
 			initialConfiguration.getGenesisHeader(),
-			200
+			200,
+			MAX_IN_FLIGHT_REQUESTS
 		);
 	}
 }
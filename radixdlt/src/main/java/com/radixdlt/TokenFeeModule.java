@@ -25,6 +25,7 @@ import com.google.inject.Provides;
 import com.google.inject.Scopes;
 import com.google.inject.Singleton;
 import com.google.inject.TypeLiteral;
+import com.google.inject.multibindings.OptionalBinder;
 import com.radixdlt.atommodel.tokens.FixedSupplyTokenDefinitionParticle;
 import com.radixdlt.atommodel.tokens.MutableSupplyTokenDefinitionParticle;
 import com.radixdlt.atommodel.tokens.TokenDefinitionUtils;
@@ -35,8 +36,10 @@ import com.radixdlt.fees.FeeTable;
 import com.radixdlt.fees.PerBytesFeeEntry;
 import com.radixdlt.fees.PerParticleFeeEntry;
 import com.radixdlt.identifiers.RRI;
+import com.radixdlt.mempool.FeeRate;
 import com.radixdlt.middleware2.LedgerAtom;
 import com.radixdlt.middleware2.TokenFeeLedgerAtomChecker;
+import com.radixdlt.middleware2.TokenFeeRate;
 import com.radixdlt.universe.Universe;
 import com.radixdlt.utils.UInt256;
 
@@ -48,6 +51,9 @@ public class TokenFeeModule extends AbstractModule {
 	@Override
 	protected void configure() {
 		bind(new TypeLiteral<AtomChecker<LedgerAtom>>() { }).to(TokenFeeLedgerAtomChecker.class).in(Scopes.SINGLETON);
+		// Prioritise mempool commands by the fee per byte they pay
+		OptionalBinder.newOptionalBinder(binder(), FeeRate.class)
+			.setBinding().to(TokenFeeRate.class).in(Scopes.SINGLETON);
 	}
 
 	@Provides
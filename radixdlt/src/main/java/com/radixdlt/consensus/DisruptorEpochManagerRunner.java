@@ -0,0 +1,371 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.consensus;
+
+import com.google.common.util.concurrent.RateLimiter;
+import com.lmax.disruptor.BatchEventProcessor;
+import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.BusySpinWaitStrategy;
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.EventTranslatorTwoArg;
+import com.lmax.disruptor.ExceptionHandler;
+import com.lmax.disruptor.LifecycleAware;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.WaitStrategy;
+import com.lmax.disruptor.YieldingWaitStrategy;
+import com.radixdlt.ModuleRunner;
+import com.radixdlt.consensus.bft.BFTUpdate;
+import com.radixdlt.consensus.epoch.EpochManager;
+import com.radixdlt.consensus.epoch.GetEpochRequest;
+import com.radixdlt.consensus.epoch.GetEpochResponse;
+import com.radixdlt.consensus.epoch.LocalTimeout;
+import com.radixdlt.consensus.liveness.PacemakerRx;
+import com.radixdlt.consensus.sync.GetVerticesErrorResponse;
+import com.radixdlt.consensus.sync.GetVerticesRequest;
+import com.radixdlt.consensus.sync.GetVerticesResponse;
+import com.radixdlt.epochs.EpochsLedgerUpdate;
+import com.radixdlt.utils.ThreadFactories;
+
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.disposables.CompositeDisposable;
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Alternative to {@link EpochManagerRunner} which hands consensus events over to
+ * the consensus thread through a preallocated LMAX Disruptor ring buffer rather
+ * than through a merge of per-source Rx {@code observeOn} queues.
+ * <p>
+ * Events are published into reusable slots on the thread that emitted them and
+ * a single consumer thread dispatches them to the {@link EpochManager}, which
+ * therefore remains the only writer of consensus state.
+ * <p>
+ * When the ring buffer is full, events received from the network are dropped and
+ * logged, leaving recovery to the protocol's own timeouts and retries, so network
+ * threads are never held up. Local events, such as ledger updates and timeouts,
+ * must not be lost, so a full ring buffer deliberately applies backpressure to the
+ * threads emitting them. Events raised on the consumer thread itself while it
+ * handles an event, such as the {@link BFTUpdate}s sent when vertices are inserted,
+ * bypass the ring buffer and are dispatched once the current event is handled, as
+ * the consumer would otherwise wait forever for space that only it can free.
+ */
+public final class DisruptorEpochManagerRunner implements ModuleRunner {
+	private static final Logger log = LogManager.getLogger();
+
+	/**
+	 * Strategy used by the consensus thread to wait for new events.
+	 */
+	public enum WaitStrategyType {
+		/**
+		 * Park on a lock until signalled. Lowest CPU usage, highest handoff latency.
+		 */
+		BLOCKING(BlockingWaitStrategy::new),
+		/**
+		 * Spin, then yield the thread. Low latency while leaving some room for other threads.
+		 */
+		YIELDING(YieldingWaitStrategy::new),
+		/**
+		 * Spin continuously. Lowest latency but occupies a whole core.
+		 */
+		BUSY_SPIN(BusySpinWaitStrategy::new);
+
+		private final Supplier<WaitStrategy> factory;
+
+		WaitStrategyType(Supplier<WaitStrategy> factory) {
+			this.factory = factory;
+		}
+
+		public WaitStrategy create() {
+			return this.factory.get();
+		}
+	}
+
+	private enum EventType {
+		START(false),
+		LEDGER_UPDATE(false),
+		BFT_UPDATE(false),
+		LOCAL_TIMEOUT(false),
+		CONSENSUS_EVENT(true),
+		GET_VERTICES_REQUEST(true),
+		GET_VERTICES_RESPONSE(true),
+		GET_VERTICES_ERROR_RESPONSE(true),
+		GET_EPOCH_REQUEST(true),
+		GET_EPOCH_RESPONSE(true);
+
+		// Network events may be dropped when the ring buffer is full
+		private final boolean droppable;
+
+		EventType(boolean droppable) {
+			this.droppable = droppable;
+		}
+	}
+
+	/**
+	 * Preallocated, reusable ring buffer slot.
+	 */
+	private static final class EventSlot {
+		private EventType type;
+		private Object event;
+	}
+
+	private static final EventTranslatorTwoArg<EventSlot, EventType, Object> TRANSLATOR = (slot, sequence, type, event) -> {
+		slot.type = type;
+		slot.event = event;
+	};
+
+	private final Object lock = new Object();
+	private final EpochManager epochManager;
+	private final Observable<EpochsLedgerUpdate> ledgerUpdates;
+	private final Observable<BFTUpdate> bftUpdates;
+	private final BFTEventsRx networkRx;
+	private final PacemakerRx pacemakerRx;
+	private final SyncVerticesRPCRx rpcRx;
+	private final SyncEpochsRPCRx epochsRPCRx;
+	private final RingBuffer<EventSlot> ringBuffer;
+	private final BatchEventProcessor<EventSlot> processor;
+	private final ExecutorService singleThreadExecutor;
+	private final RateLimiter droppedLogLimiter = RateLimiter.create(1.0);
+	private final AtomicLong dropped = new AtomicLong();
+	// Events raised on the consumer thread while it handles an event, only accessed on that thread
+	private final ArrayDeque<EventSlot> raisedEvents = new ArrayDeque<>();
+	private volatile Thread consumerThread;
+	private boolean processorStarted;
+	private CompositeDisposable disposable;
+
+	@Inject
+	public DisruptorEpochManagerRunner(
+		Observable<EpochsLedgerUpdate> ledgerUpdates,
+		Observable<BFTUpdate> bftUpdates,
+		BFTEventsRx networkRx,
+		PacemakerRx pacemakerRx,
+		SyncVerticesRPCRx rpcRx,
+		SyncEpochsRPCRx epochsRPCRx,
+		EpochManager epochManager,
+		@Named("consensusRingBufferSize") int ringBufferSize,
+		WaitStrategyType waitStrategyType
+	) {
+		if (ringBufferSize <= 0 || Integer.bitCount(ringBufferSize) != 1) {
+			throw new IllegalArgumentException("Ring buffer size must be a positive power of 2: " + ringBufferSize);
+		}
+		this.ledgerUpdates = Objects.requireNonNull(ledgerUpdates);
+		this.bftUpdates = Objects.requireNonNull(bftUpdates);
+		this.networkRx = Objects.requireNonNull(networkRx);
+		this.pacemakerRx = Objects.requireNonNull(pacemakerRx);
+		this.rpcRx = Objects.requireNonNull(rpcRx);
+		this.epochsRPCRx = Objects.requireNonNull(epochsRPCRx);
+		this.epochManager = Objects.requireNonNull(epochManager);
+
+		// Events are emitted from several threads (network, timers, ledger), hence multiple producers.
+		// There is exactly one consumer, so all EpochManager logic still runs on a single thread.
+		this.ringBuffer = RingBuffer.createMultiProducer(EventSlot::new, ringBufferSize, waitStrategyType.create());
+		this.processor = new BatchEventProcessor<>(this.ringBuffer, this.ringBuffer.newBarrier(), new Handler());
+		this.processor.setExceptionHandler(new ExitOnExceptionHandler());
+		this.ringBuffer.addGatingSequences(this.processor.getSequence());
+		this.singleThreadExecutor = Executors.newSingleThreadExecutor(ThreadFactories.daemonThreads("ConsensusRunner"));
+	}
+
+	private final class Handler implements EventHandler<EventSlot>, LifecycleAware {
+		@Override
+		public void onStart() {
+			consumerThread = Thread.currentThread();
+		}
+
+		@Override
+		public void onShutdown() {
+			consumerThread = null;
+		}
+
+		@Override
+		public void onEvent(EventSlot slot, long sequence, boolean endOfBatch) {
+			final EventType type = slot.type;
+			final Object event = slot.event;
+			// Don't hold on to events once they have been processed
+			slot.event = null;
+			dispatch(type, event);
+			// Events raised while handling are dispatched before the next event from the ring buffer
+			EventSlot raised;
+			while ((raised = raisedEvents.poll()) != null) {
+				dispatch(raised.type, raised.event);
+			}
+		}
+	}
+
+	private void dispatch(EventType type, Object event) {
+		switch (type) {
+			case START:
+				epochManager.start();
+				break;
+			case LEDGER_UPDATE:
+				epochManager.processLedgerUpdate((EpochsLedgerUpdate) event);
+				break;
+			case BFT_UPDATE:
+				epochManager.processBFTUpdate((BFTUpdate) event);
+				break;
+			case LOCAL_TIMEOUT:
+				epochManager.processLocalTimeout((LocalTimeout) event);
+				break;
+			case CONSENSUS_EVENT:
+				epochManager.processConsensusEvent((ConsensusEvent) event);
+				break;
+			case GET_VERTICES_REQUEST:
+				epochManager.processGetVerticesRequest((GetVerticesRequest) event);
+				break;
+			case GET_VERTICES_RESPONSE:
+				epochManager.processGetVerticesResponse((GetVerticesResponse) event);
+				break;
+			case GET_VERTICES_ERROR_RESPONSE:
+				epochManager.processGetVerticesErrorResponse((GetVerticesErrorResponse) event);
+				break;
+			case GET_EPOCH_REQUEST:
+				epochManager.processGetEpochRequest((GetEpochRequest) event);
+				break;
+			case GET_EPOCH_RESPONSE:
+				epochManager.processGetEpochResponse((GetEpochResponse) event);
+				break;
+			default:
+				throw new IllegalStateException("Unknown event type: " + type);
+		}
+	}
+
+	private void publish(EventType type, Object event) {
+		if (Thread.currentThread() == this.consumerThread) {
+			EventSlot slot = new EventSlot();
+			TRANSLATOR.translateTo(slot, -1L, type, event);
+			this.raisedEvents.add(slot);
+		} else if (type.droppable) {
+			if (!this.ringBuffer.tryPublishEvent(TRANSLATOR, type, event)) {
+				long droppedCount = this.dropped.incrementAndGet();
+				if (this.droppedLogLimiter.tryAcquire()) {
+					log.warn("Consensus ring buffer full, dropped {} event, {} network events dropped in total", type, droppedCount);
+				}
+			}
+		} else {
+			this.ringBuffer.publishEvent(TRANSLATOR, type, event);
+		}
+	}
+
+	private CompositeDisposable subscribe() {
+		return new CompositeDisposable(
+			ledgerUpdates.subscribe(e -> publish(EventType.LEDGER_UPDATE, e), this::onError),
+			bftUpdates.subscribe(e -> publish(EventType.BFT_UPDATE, e), this::onError),
+			pacemakerRx.localTimeouts().subscribe(e -> publish(EventType.LOCAL_TIMEOUT, e), this::onError),
+			networkRx.bftEvents().subscribe(e -> publish(EventType.CONSENSUS_EVENT, e), this::onError),
+			rpcRx.requests().subscribe(e -> publish(EventType.GET_VERTICES_REQUEST, e), this::onError),
+			rpcRx.responses().subscribe(e -> publish(EventType.GET_VERTICES_RESPONSE, e), this::onError),
+			rpcRx.errorResponses().subscribe(e -> publish(EventType.GET_VERTICES_ERROR_RESPONSE, e), this::onError),
+			epochsRPCRx.epochRequests().subscribe(e -> publish(EventType.GET_EPOCH_REQUEST, e), this::onError),
+			epochsRPCRx.epochResponses().subscribe(e -> publish(EventType.GET_EPOCH_RESPONSE, e), this::onError)
+		);
+	}
+
+	private void onError(Throwable e) {
+		// TODO: Implement better error handling especially against Byzantine nodes.
+		// TODO: Exit process for now.
+		log.error("Unexpected exception occurred", e);
+		System.exit(-1);
+	}
+
+	private final class ExitOnExceptionHandler implements ExceptionHandler<EventSlot> {
+		@Override
+		public void handleEventException(Throwable ex, long sequence, EventSlot slot) {
+			onError(ex);
+		}
+
+		@Override
+		public void handleOnStartException(Throwable ex) {
+			onError(ex);
+		}
+
+		@Override
+		public void handleOnShutdownException(Throwable ex) {
+			log.warn("Exception while shutting down consensus event processor", ex);
+		}
+	}
+
+	/**
+	 * Starts processing events. This call is idempotent in that multiple
+	 * calls will not affect execution, only one event handling stream will ever
+	 * occur.
+	 */
+	@Override
+	public void start() {
+		boolean started = false;
+		synchronized (lock) {
+			if (disposable == null) {
+				if (!processorStarted) {
+					singleThreadExecutor.submit(processor);
+					publish(EventType.START, null);
+					processorStarted = true;
+				}
+				disposable = subscribe();
+				started = true;
+			}
+		}
+		if (started) {
+			log.info("Consensus started");
+		}
+	}
+
+	/**
+	 * Stop processing events.
+	 * Events already published to the ring buffer will still be processed.
+	 */
+	@Override
+	public void stop() {
+		boolean stopped = false;
+		synchronized (lock) {
+			if (disposable != null) {
+				disposable.dispose();
+				disposable = null;
+				stopped = true;
+			}
+		}
+		if (stopped) {
+			log.info("Consensus stopped");
+		}
+	}
+
+	/**
+	 * Terminate and stop all threads.
+	 * The runner cannot be restarted once this method is called.
+	 */
+	public void shutdown() {
+		synchronized (lock) {
+			stop();
+			this.processor.halt();
+			this.singleThreadExecutor.shutdown();
+			try {
+				this.singleThreadExecutor.awaitTermination(10L, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				// Not handling this here
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+}
@@ -19,6 +19,7 @@ package com.radixdlt.consensus;
 
 import com.radixdlt.consensus.bft.BFTNode;
 import com.radixdlt.consensus.bft.View;
+import com.radixdlt.consensus.liveness.PacemakerState;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -38,7 +39,12 @@ import com.radixdlt.crypto.ECDSASignature;
 import com.radixdlt.crypto.Hash;
 
 /**
- * Manages pending votes for various vertices.
+ * Manages pending votes for various vertices, accumulating them into quorum
+ * certificates.
+ * <p>
+ * Only votes for views within a window around the current view are kept,
+ * each view occupying a slot in a fixed size ring so that votes for old views
+ * are evicted as a whole once their slot is reused.
  * <p>
  * This class is NOT thread-safe.
  * <p>
@@ -49,6 +55,11 @@ import com.radixdlt.crypto.Hash;
 public final class PendingVotes {
 	private static final Logger log = LogManager.getLogger();
 
+	/**
+	 * Number of views either side of the current view for which votes are kept.
+	 */
+	public static final int DEFAULT_VIEW_WINDOW = 16;
+
 	@VisibleForTesting
 	// Make sure equals tester can access.
 	static final class PreviousVote {
@@ -75,12 +86,33 @@ public final class PendingVotes {
 		}
 	}
 
-	private final Map<Hash, ValidationState> voteState = Maps.newHashMap();
+	private static final class ViewVotes {
+		private final long view;
+		private final Map<Hash, ValidationState> voteState = Maps.newHashMap();
+
+		private ViewVotes(long view) {
+			this.view = view;
+		}
+	}
+
+	private final ViewVotes[] viewVotes;
+	private final long viewWindow;
 	private final Map<BFTNode, PreviousVote> previousVotes = Maps.newHashMap();
 	private final Hasher hasher;
+	private final PacemakerState pacemakerState;
+
+	public PendingVotes(Hasher hasher, PacemakerState pacemakerState) {
+		this(hasher, pacemakerState, DEFAULT_VIEW_WINDOW);
+	}
 
-	public PendingVotes(Hasher hasher) {
+	public PendingVotes(Hasher hasher, PacemakerState pacemakerState, int viewWindow) {
+		if (viewWindow < 0) {
+			throw new IllegalArgumentException("viewWindow must be >= 0 but was " + viewWindow);
+		}
 		this.hasher = Objects.requireNonNull(hasher);
+		this.pacemakerState = Objects.requireNonNull(pacemakerState);
+		this.viewWindow = viewWindow;
+		this.viewVotes = new ViewVotes[2 * viewWindow + 1];
 	}
 
 	/**
@@ -101,14 +133,21 @@ public final class PendingVotes {
 
 		final TimestampedVoteData timestampedVoteData = vote.getTimestampedVoteData();
 		final VoteData voteData = timestampedVoteData.getVoteData();
-		final Hash voteDataHash = this.hasher.hash(voteData);
 		final View voteView = voteData.getProposed().getView();
+		final View currentView = this.pacemakerState.getCurrentView();
+		if (!isInWindow(voteView.number(), currentView.number())) {
+			log.trace("Ignoring vote from {} for view {} outside of window around {}", node::getSimpleName, () -> voteView, () -> currentView);
+			return Optional.empty();
+		}
+
+		final Hash voteDataHash = this.hasher.hash(voteData);
 		if (!replacePreviousVote(node, voteView, voteDataHash)) {
 			return Optional.empty();
 		}
 
 		// If there is no equivocation or duplication, we process the vote.
-		ValidationState validationState = this.voteState.computeIfAbsent(voteDataHash, k -> validatorSet.newValidationState());
+		ValidationState validationState = viewVotesFor(voteView).voteState
+			.computeIfAbsent(voteDataHash, k -> validatorSet.newValidationState());
 
 		// try to form a QC with the added signature according to the requirements
 		final ECDSASignature signature = vote.getSignature().orElseThrow(() -> new IllegalArgumentException("vote is missing signature"));
@@ -137,11 +176,12 @@ public final class PendingVotes {
 
 		// Prune last pending vote from the pending votes.
 		// This limits the number of pending vertices that are in the pipeline.
-		ValidationState validationState = this.voteState.get(previousVote.hash);
+		ViewVotes previousViewVotes = existingViewVotesFor(previousVote.view);
+		ValidationState validationState = previousViewVotes == null ? null : previousViewVotes.voteState.get(previousVote.hash);
 		if (validationState != null) {
 			validationState.removeSignature(author);
 			if (validationState.isEmpty()) {
-				this.voteState.remove(previousVote.hash);
+				previousViewVotes.voteState.remove(previousVote.hash);
 			}
 		}
 
@@ -151,10 +191,40 @@ public final class PendingVotes {
 		return !voteView.equals(previousVote.view);
 	}
 
+	private boolean isInWindow(long view, long currentView) {
+		return Math.abs(view - currentView) <= this.viewWindow;
+	}
+
+	private int slot(View view) {
+		return (int) (view.number() % this.viewVotes.length);
+	}
+
+	private ViewVotes existingViewVotesFor(View view) {
+		final ViewVotes votes = this.viewVotes[slot(view)];
+		return votes != null && votes.view == view.number() ? votes : null;
+	}
+
+	private ViewVotes viewVotesFor(View view) {
+		ViewVotes votes = existingViewVotesFor(view);
+		if (votes == null) {
+			// Any previous occupant of this slot is outside of the window, so evict it
+			votes = new ViewVotes(view.number());
+			this.viewVotes[slot(view)] = votes;
+		}
+		return votes;
+	}
+
 	@VisibleForTesting
 	// Greybox stuff for testing
 	int voteStateSize() {
-		return this.voteState.size();
+		final long currentView = this.pacemakerState.getCurrentView().number();
+		int size = 0;
+		for (ViewVotes votes : this.viewVotes) {
+			if (votes != null && isInWindow(votes.view, currentView)) {
+				size += votes.voteState.size();
+			}
+		}
+		return size;
 	}
 
 	@VisibleForTesting
@@ -134,7 +134,7 @@ public final class BFTBuilder {
 	public BFTEventProcessor build() {
 		final SafetyRules safetyRules = new SafetyRules(self, SafetyState.initialState(), hasher, countingSigner(counters, signer));
 		// PendingVotes needs a hasher that produces unique values, as it indexes by hash
-		final PendingVotes pendingVotes = new PendingVotes(this.hasher);
+		final PendingVotes pendingVotes = new PendingVotes(this.hasher, this.pacemaker);
 
 		BFTEventReducer reducer = new BFTEventReducer(
 			self,
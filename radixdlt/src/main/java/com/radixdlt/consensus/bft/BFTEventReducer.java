@@ -92,6 +92,12 @@ public final class BFTEventReducer implements BFTEventProcessor {
 	private final RTTStatistics rttStatistics = new RTTStatistics();
 	private final Hasher hasher;
 
+	// Command selected ahead of time for the next view in which we are the leader.
+	// Only valid if the proposal for that view ends up extending speculativeParentId.
+	private View speculativeView;
+	private Hash speculativeParentId;
+	private Command speculativeCommand;
+
 	public BFTEventReducer(
 		BFTNode self,
 		NextCommandGenerator nextCommandGenerator,
@@ -145,22 +151,7 @@ public final class BFTEventReducer implements BFTEventProcessor {
 			final QuorumCertificate highestQC = vertexStore.getHighestQC();
 			final QuorumCertificate highestCommitted = vertexStore.getHighestCommittedQC();
 
-			final Command nextCommand;
-
-			// Propose null atom in the case that we are at the end of the epoch
-			// TODO: Remove isEndOfEpoch knowledge from consensus
-			if (highestQC.getProposed().getLedgerHeader().isEndOfEpoch()) {
-				nextCommand = null;
-			} else {
-				final List<VerifiedVertex> preparedVertices = vertexStore.getPathFromRoot(highestQC.getProposed().getVertexId());
-				final Set<Hash> prepared = preparedVertices.stream()
-					.map(VerifiedVertex::getCommand)
-					.filter(Objects::nonNull)
-					.map(Command::getHash)
-					.collect(Collectors.toSet());
-
-				nextCommand = nextCommandGenerator.generateNextCommand(view, prepared);
-			}
+			final Command nextCommand = nextCommand(view, highestQC.getProposed());
 
 			final UnverifiedVertex proposedVertex = UnverifiedVertex.createVertex(highestQC, view, nextCommand);
 			final Proposal proposal = safetyRules.signProposal(proposedVertex, highestCommitted, System.nanoTime());
@@ -192,13 +183,51 @@ public final class BFTEventReducer implements BFTEventProcessor {
 			log.error(() -> new FormattedMessage("PROPOSAL: Rejected {}", proposedVertex), e);
 		}
 
-		// If not currently leader or next leader, Proceed to next view
-		if (!Objects.equals(currentLeader, this.self)) {
-			final BFTNode nextLeader = this.proposerElection.getProposer(updatedView.next());
-			if (!Objects.equals(nextLeader, this.self)) {
-				this.pacemaker.processNextView(updatedView);
-			}
+		final BFTNode nextLeader = this.proposerElection.getProposer(updatedView.next());
+		if (Objects.equals(nextLeader, this.self)) {
+			// Votes for this proposal are now in flight, so prepare our own proposal
+			// extending it in the meantime, rather than once the quorum has formed.
+			prepareSpeculativeCommand(updatedView.next(), header);
+		} else if (!Objects.equals(currentLeader, this.self)) {
+			// If not currently leader or next leader, Proceed to next view
+			this.pacemaker.processNextView(updatedView);
+		}
+	}
+
+	private void prepareSpeculativeCommand(View view, BFTHeader parent) {
+		this.speculativeCommand = generateNextCommand(view, parent);
+		this.speculativeView = view;
+		this.speculativeParentId = parent.getVertexId();
+		log.trace("PROPOSAL: Speculatively prepared command for view {}: {}", () -> view, () -> this.speculativeCommand);
+	}
+
+	private Command nextCommand(View view, BFTHeader parent) {
+		// An empty speculative command may be stale as the mempool could have filled up since
+		final boolean speculationHit = this.speculativeCommand != null
+			&& view.equals(this.speculativeView)
+			&& parent.getVertexId().equals(this.speculativeParentId);
+		final Command command = speculationHit ? this.speculativeCommand : generateNextCommand(view, parent);
+		this.speculativeView = null;
+		this.speculativeParentId = null;
+		this.speculativeCommand = null;
+		return command;
+	}
+
+	private Command generateNextCommand(View view, BFTHeader parent) {
+		// Propose null atom in the case that we are at the end of the epoch
+		// TODO: Remove isEndOfEpoch knowledge from consensus
+		if (parent.getLedgerHeader().isEndOfEpoch()) {
+			return null;
 		}
+
+		final List<VerifiedVertex> preparedVertices = vertexStore.getPathFromRoot(parent.getVertexId());
+		final Set<Hash> prepared = preparedVertices.stream()
+			.map(VerifiedVertex::getCommand)
+			.filter(Objects::nonNull)
+			.map(Command::getHash)
+			.collect(Collectors.toSet());
+
+		return nextCommandGenerator.generateNextCommand(view, prepared);
 	}
 
 	@Override
@@ -18,6 +18,7 @@
 package com.radixdlt.consensus.bft;
 
 import com.google.common.collect.ImmutableBiMap;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.radixdlt.utils.UInt256;
@@ -41,6 +42,16 @@ public final class BFTValidatorSet {
 	// of 2^256 this should never overflow
 	private final transient UInt256 totalPower;
 
+	// Dense index of validators, so that per validator state such as in
+	// ValidationState can be kept in arrays rather than maps
+	private final transient ImmutableMap<BFTNode, Integer> indices;
+	private final transient ImmutableList<BFTValidator> indexedValidators;
+	private final transient UInt256 threshold;
+
+	// Powers and threshold as primitives, only present if the total power fits in a long
+	private final transient long[] primitivePowers;
+	private final transient long primitiveThreshold;
+
 	private BFTValidatorSet(Collection<BFTValidator> validators) {
 		this(validators.stream());
 	}
@@ -53,6 +64,24 @@ public final class BFTValidatorSet {
 			.map(BFTValidator::getPower)
 			.reduce(UInt256::add)
 			.orElse(UInt256.ZERO);
+
+		this.indexedValidators = this.validators.values().asList();
+		final ImmutableMap.Builder<BFTNode, Integer> indicesBuilder = ImmutableMap.builder();
+		for (int i = 0; i < this.indexedValidators.size(); i++) {
+			indicesBuilder.put(this.indexedValidators.get(i).getNode(), i);
+		}
+		this.indices = indicesBuilder.build();
+		this.threshold = ValidationState.threshold(this.totalPower);
+
+		if (this.totalPower.compareTo(UInt256.from(Long.MAX_VALUE)) <= 0) {
+			this.primitivePowers = this.indexedValidators.stream()
+				.mapToLong(v -> v.getPower().getLow().getLow())
+				.toArray();
+			this.primitiveThreshold = this.threshold.getLow().getLow();
+		} else {
+			this.primitivePowers = null;
+			this.primitiveThreshold = -1L;
+		}
 	}
 
 	/**
@@ -112,6 +141,41 @@ public final class BFTValidatorSet {
 		return validators;
 	}
 
+	/**
+	 * Retrieves the dense index of a validator in this set.
+	 *
+	 * @param node the node of the validator
+	 * @return the index of the validator, or -1 if the node is not a validator in this set
+	 */
+	int indexOf(BFTNode node) {
+		final Integer index = this.indices.get(node);
+		return index == null ? -1 : index;
+	}
+
+	BFTValidator validatorAt(int index) {
+		return this.indexedValidators.get(index);
+	}
+
+	int size() {
+		return this.indexedValidators.size();
+	}
+
+	UInt256 getThreshold() {
+		return this.threshold;
+	}
+
+	boolean hasPrimitivePowers() {
+		return this.primitivePowers != null;
+	}
+
+	long primitivePowerAt(int index) {
+		return this.primitivePowers[index];
+	}
+
+	long getPrimitiveThreshold() {
+		return this.primitiveThreshold;
+	}
+
 	@Override
 	public int hashCode() {
 		return Objects.hashCode(this.validators);
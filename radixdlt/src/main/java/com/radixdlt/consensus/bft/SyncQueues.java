@@ -19,10 +19,9 @@ package com.radixdlt.consensus.bft;
 
 import com.radixdlt.consensus.RequiresSyncConsensusEvent;
 import com.radixdlt.crypto.Hash;
+import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.Map;
 import java.util.StringJoiner;
 import javax.annotation.Nullable;
@@ -43,10 +42,10 @@ public final class SyncQueues {
 	}
 
 	class SyncQueue {
-		private final LinkedList<RequiresSyncConsensusEvent> queue;
+		private final ArrayDeque<RequiresSyncConsensusEvent> queue;
 
 		private SyncQueue() {
-			this.queue = new LinkedList<>();
+			this.queue = new ArrayDeque<>();
 		}
 
 		/**
@@ -90,17 +89,13 @@ public final class SyncQueues {
 		}
 
 		public RequiresSyncConsensusEvent clearViewAndGetNext(View view) {
-			Iterator<RequiresSyncConsensusEvent> eventsIterator = queue.iterator();
-			while (eventsIterator.hasNext()) {
-				RequiresSyncConsensusEvent event = eventsIterator.next();
-				if (event.getView().compareTo(view) <= 0) {
-					eventsIterator.remove();
-				} else {
-					return event;
-				}
+			RequiresSyncConsensusEvent event = queue.peekFirst();
+			while (event != null && event.getView().compareTo(view) <= 0) {
+				queue.removeFirst();
+				event = queue.peekFirst();
 			}
 
-			return null;
+			return event;
 		}
 
 		@Override
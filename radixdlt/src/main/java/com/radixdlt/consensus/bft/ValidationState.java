@@ -18,8 +18,8 @@
 package com.radixdlt.consensus.bft;
 
 import com.radixdlt.utils.UInt256;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Objects;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableMap;
@@ -31,14 +31,19 @@ import javax.annotation.concurrent.NotThreadSafe;
 /**
  * Keeps track of current validation state for a thing that
  * needs multiple correct signatures for a quorum.
+ * <p>
+ * Signatures are kept in a slot per validator according to the dense
+ * index of the {@link BFTValidatorSet}, and signed power is accumulated
+ * with primitive arithmetic where the total power of the set allows.
  */
 @NotThreadSafe
 public final class ValidationState {
 
 	private final BFTValidatorSet validatorSet;
-	private final Map<BFTNode, TimestampedECDSASignature> signedNodes;
+	private final TimestampedECDSASignature[] signatures;
+	private final transient BitSet signed;
+	private transient long primitiveSignedPower;
 	private transient UInt256 signedPower;
-	private final transient UInt256 threshold;
 
 	/**
 	 * Construct empty validation state for given hash and set of validator keys.
@@ -51,9 +56,10 @@ public final class ValidationState {
 
 	private ValidationState(BFTValidatorSet validatorSet) {
 		this.validatorSet = Objects.requireNonNull(validatorSet);
-		this.signedNodes = new HashMap<>();
+		this.signatures = new TimestampedECDSASignature[validatorSet.size()];
+		this.signed = new BitSet(validatorSet.size());
+		this.primitiveSignedPower = 0L;
 		this.signedPower = UInt256.ZERO;
-		this.threshold = threshold(validatorSet.getTotalPower());
 	}
 
 	/**
@@ -62,11 +68,15 @@ public final class ValidationState {
 	 * @param node the node who's signature is to be removed
 	 */
 	public void removeSignature(BFTNode node) {
-		if (this.validatorSet.containsNode(node)) {
-			this.signedNodes.computeIfPresent(node, (k, v) -> {
-				this.signedPower = this.signedPower.subtract(this.validatorSet.getPower(node));
-				return null;
-			});
+		final int index = this.validatorSet.indexOf(node);
+		if (index >= 0 && this.signed.get(index)) {
+			this.signed.clear(index);
+			this.signatures[index] = null;
+			if (this.validatorSet.hasPrimitivePowers()) {
+				this.primitiveSignedPower -= this.validatorSet.primitivePowerAt(index);
+			} else {
+				this.signedPower = this.signedPower.subtract(this.validatorSet.validatorAt(index).getPower());
+			}
 		}
 	}
 
@@ -81,16 +91,20 @@ public final class ValidationState {
 	 * @return whether the key was added or not
 	 */
 	public boolean addSignature(BFTNode node, long timestamp, ECDSASignature signature) {
-		if (validatorSet.containsNode(node)
-			&& !this.signedNodes.containsKey(node)) {
-			this.signedNodes.computeIfAbsent(node, k -> {
-				UInt256 weight = this.validatorSet.getPower(node);
-				this.signedPower = this.signedPower.add(weight);
-				return TimestampedECDSASignature.from(timestamp, weight, signature);
-			});
-			return true;
+		final int index = this.validatorSet.indexOf(node);
+		if (index < 0 || this.signed.get(index)) {
+			return false;
 		}
-		return false;
+
+		final UInt256 weight = this.validatorSet.validatorAt(index).getPower();
+		this.signed.set(index);
+		this.signatures[index] = TimestampedECDSASignature.from(timestamp, weight, signature);
+		if (this.validatorSet.hasPrimitivePowers()) {
+			this.primitiveSignedPower += this.validatorSet.primitivePowerAt(index);
+		} else {
+			this.signedPower = this.signedPower.add(weight);
+		}
+		return true;
 	}
 
 	/**
@@ -98,7 +112,7 @@ public final class ValidationState {
 	 * @return {@code true} if we have not accumulated any signatures, {@code false} otherwise.
 	 */
 	public boolean isEmpty() {
-		return this.signedNodes.isEmpty();
+		return this.signed.isEmpty();
 	}
 
 	/**
@@ -107,7 +121,10 @@ public final class ValidationState {
 	 * @return {@code true} if we have enough valid signatures to form a quorum,
 	 */
 	public boolean complete() {
-		return signedPower.compareTo(threshold) >= 0;
+		if (this.validatorSet.hasPrimitivePowers()) {
+			return this.primitiveSignedPower >= this.validatorSet.getPrimitiveThreshold();
+		}
+		return this.signedPower.compareTo(this.validatorSet.getThreshold()) >= 0;
 	}
 
 	/**
@@ -116,7 +133,15 @@ public final class ValidationState {
 	 * @return an {@link ECDSASignatures} object for our current set of valid signatures
 	 */
 	public TimestampedECDSASignatures signatures() {
-		return new TimestampedECDSASignatures(ImmutableMap.copyOf(this.signedNodes));
+		return new TimestampedECDSASignatures(signedNodes());
+	}
+
+	private ImmutableMap<BFTNode, TimestampedECDSASignature> signedNodes() {
+		final ImmutableMap.Builder<BFTNode, TimestampedECDSASignature> builder = ImmutableMap.builder();
+		for (int i = this.signed.nextSetBit(0); i >= 0; i = this.signed.nextSetBit(i + 1)) {
+			builder.put(this.validatorSet.validatorAt(i).getNode(), this.signatures[i]);
+		}
+		return builder.build();
 	}
 
 	@VisibleForTesting
@@ -133,7 +158,7 @@ public final class ValidationState {
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(validatorSet, signedNodes);
+		return Objects.hash(validatorSet, Arrays.hashCode(signatures));
 	}
 
 	@Override
@@ -144,7 +169,7 @@ public final class ValidationState {
 		if (obj instanceof ValidationState) {
 			ValidationState that = (ValidationState) obj;
 			return Objects.equals(this.validatorSet, that.validatorSet)
-				&& Objects.equals(this.signedNodes, that.signedNodes);
+				&& Arrays.equals(this.signatures, that.signatures);
 		}
 		return false;
 	}
@@ -152,6 +177,6 @@ public final class ValidationState {
 	@Override
 	public String toString() {
 		return String.format("%s[validatorSet=%s, signedNodes=%s]",
-			getClass().getSimpleName(), validatorSet, signedNodes);
+			getClass().getSimpleName(), validatorSet, signedNodes());
 	}
 }
@@ -30,9 +30,11 @@ import com.radixdlt.crypto.Hash;
 import com.google.common.collect.ImmutableList;
 import com.radixdlt.ledger.VerifiedCommandsAndProof;
 import com.radixdlt.utils.Pair;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -59,11 +61,25 @@ public final class VertexStore {
 	private final BFTUpdateSender bftUpdateSender;
 	private final Ledger ledger;
 	private final SystemCounters counters;
-	private final Map<Hash, VerifiedVertex> vertices = new HashMap<>();
-	private final Map<Hash, Integer> vertexNumChildren = new HashMap<>();
+	/**
+	 * A vertex in the tree of vertices rooted at the last committed vertex.
+	 * Parent and child links allow traversals without further map lookups.
+	 */
+	private static final class VertexNode {
+		private final VerifiedVertex vertex;
+		private final List<VertexNode> children = new ArrayList<>(1);
+		private VertexNode parent;
+
+		private VertexNode(VerifiedVertex vertex, VertexNode parent) {
+			this.vertex = vertex;
+			this.parent = parent;
+		}
+	}
+
+	private final Map<Hash, VertexNode> vertices = new HashMap<>();
 
 	// These should never be null
-	private Hash rootId;
+	private VertexNode root;
 	private QuorumCertificate highestQC;
 	private QuorumCertificate highestCommittedQC;
 	private VerifiedLedgerHeaderAndProof ledgerHeaderAndProof;
@@ -109,7 +125,7 @@ public final class VertexStore {
 	}
 
 	public VerifiedVertex getRoot() {
-		return this.vertices.get(this.rootId);
+		return this.root.vertex;
 	}
 
 	public void rebuild(VerifiedVertex rootVertex, QuorumCertificate rootQC, QuorumCertificate rootCommitQC, List<VerifiedVertex> vertices) {
@@ -127,12 +143,11 @@ public final class VertexStore {
 		}
 
 		this.vertices.clear();
-		this.vertexNumChildren.clear();
-		this.rootId = rootVertex.getId();
+		this.root = new VertexNode(rootVertex, null);
 		this.highestQC = rootQC;
 		this.vertexStoreEventSender.highQC(rootQC);
 		this.highestCommittedQC = rootCommitQC;
-		this.vertices.put(rootVertex.getId(), rootVertex);
+		this.vertices.put(rootVertex.getId(), this.root);
 
 		for (VerifiedVertex vertex : vertices) {
 			if (!addQC(vertex.getQC())) {
@@ -180,7 +195,8 @@ public final class VertexStore {
 	}
 
 	public BFTHeader insertVertex(VerifiedVertex vertex) {
-		if (!vertices.containsKey(vertex.getParentId())) {
+		final VertexNode parent = vertices.get(vertex.getParentId());
+		if (parent == null) {
 			throw new MissingParentException(vertex.getParentId());
 		}
 
@@ -195,9 +211,10 @@ public final class VertexStore {
 		LedgerHeader ledgerHeader = ledger.prepare(vertex);
 
 		if (!vertices.containsKey(vertex.getId())) {
-			vertices.put(vertex.getId(), vertex);
-			int numChildren = vertexNumChildren.merge(vertex.getParentId(), 1, Integer::sum);
-			if (numChildren > 1) {
+			final VertexNode node = new VertexNode(vertex, parent);
+			vertices.put(vertex.getId(), node);
+			parent.children.add(node);
+			if (parent.children.size() > 1) {
 				this.counters.increment(CounterType.BFT_VERTEX_STORE_FORKS);
 			}
 
@@ -211,7 +228,8 @@ public final class VertexStore {
 	}
 
 	/**
-	 * Commit a vertex. Executes the atom and prunes the tree. Returns
+	 * Commit a vertex. Executes the atom and prunes the tree, such that
+	 * only the committed vertex and its descendants remain. Returns
 	 * the Vertex if commit was successful. If the store is ahead of
 	 * what is to be committed, returns an empty optional
 	 *
@@ -223,18 +241,13 @@ public final class VertexStore {
 		}
 
 		final Hash vertexId = header.getVertexId();
-		final VerifiedVertex tipVertex = vertices.get(vertexId);
-		if (tipVertex == null) {
+		final VertexNode tipNode = vertices.get(vertexId);
+		if (tipNode == null) {
 			throw new IllegalStateException("Committing vertex not in store: " + header);
 		}
 
-		final ImmutableList<VerifiedVertex> path = ImmutableList.copyOf(getPathFromRoot(tipVertex.getId()));
-
-		// TODO: Must prune all other children of root
-		path.forEach(v -> {
-			vertices.remove(v.getParentId());
-			vertexNumChildren.remove(v.getParentId());
-		});
+		final ImmutableList<VerifiedVertex> path = pathFromRoot(tipNode);
+		pruneTo(tipNode);
 
 		final ImmutableList<Command> commands = path.stream()
 			.map(VerifiedVertex::getCommand)
@@ -251,21 +264,61 @@ public final class VertexStore {
 		VerifiedCommandsAndProof verifiedCommandsAndProof = new VerifiedCommandsAndProof(commands, proof);
 		this.ledger.commit(verifiedCommandsAndProof);
 
-		rootId = header.getVertexId();
-
 		updateVertexStoreSize();
 	}
 
-	public LinkedList<VerifiedVertex> getPathFromRoot(Hash vertexId) {
-		final LinkedList<VerifiedVertex> path = new LinkedList<>();
+	/**
+	 * Makes the given node the new root, removing all vertices which
+	 * are not descendants of it, including forks off the committed path.
+	 */
+	private void pruneTo(VertexNode newRoot) {
+		VertexNode keep = newRoot;
+		VertexNode node = newRoot.parent;
+		while (node != null) {
+			for (VertexNode child : node.children) {
+				if (child != keep) {
+					removeSubtree(child);
+				}
+			}
+			vertices.remove(node.vertex.getId());
+			keep = node;
+			node = node.parent;
+		}
+
+		newRoot.parent = null;
+		this.root = newRoot;
+	}
 
-		VerifiedVertex vertex = vertices.get(vertexId);
-		while (vertex != null && !vertex.getId().equals(rootId)) {
-			path.addFirst(vertex);
-			vertex = vertices.get(vertex.getParentId());
+	private void removeSubtree(VertexNode subtreeRoot) {
+		// Iterative rather than recursive, as long chains can build up during timeouts
+		final Deque<VertexNode> toRemove = new ArrayDeque<>();
+		toRemove.push(subtreeRoot);
+		while (!toRemove.isEmpty()) {
+			final VertexNode node = toRemove.pop();
+			vertices.remove(node.vertex.getId());
+			node.children.forEach(toRemove::push);
 		}
+	}
+
+	/**
+	 * Retrieves the path of vertices from the root (exclusive) to the given
+	 * vertex (inclusive).
+	 *
+	 * @param vertexId the id of the last vertex in the path
+	 * @return the path from the root, or an empty list if the vertex is not in the store
+	 */
+	public List<VerifiedVertex> getPathFromRoot(Hash vertexId) {
+		final VertexNode node = vertices.get(vertexId);
+		return node == null ? ImmutableList.of() : pathFromRoot(node);
+	}
 
-		return path;
+	private ImmutableList<VerifiedVertex> pathFromRoot(VertexNode tip) {
+		final List<VerifiedVertex> path = new ArrayList<>();
+		for (VertexNode node = tip; node != null && node != this.root; node = node.parent) {
+			path.add(node.vertex);
+		}
+		Collections.reverse(path);
+		return ImmutableList.copyOf(path);
 	}
 
 	/**
@@ -298,16 +351,15 @@ public final class VertexStore {
 	 * @return the list of vertices if all found, otherwise an empty list
 	 */
 	public Optional<ImmutableList<VerifiedVertex>> getVertices(Hash vertexId, int count) {
-		Hash nextId = vertexId;
+		VertexNode node = this.vertices.get(vertexId);
 		ImmutableList.Builder<VerifiedVertex> builder = ImmutableList.builderWithExpectedSize(count);
 		for (int i = 0; i < count; i++) {
-			VerifiedVertex vertex = this.vertices.get(nextId);
-			if (vertex == null) {
+			if (node == null) {
 				return Optional.empty();
 			}
 
-			builder.add(vertex);
-			nextId = vertex.getParentId();
+			builder.add(node.vertex);
+			node = node.parent;
 		}
 
 		return Optional.of(builder.build());
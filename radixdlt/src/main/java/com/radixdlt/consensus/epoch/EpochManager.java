@@ -34,6 +34,7 @@ import com.radixdlt.consensus.Timeout;
 import com.radixdlt.consensus.VerifiedLedgerHeaderAndProof;
 import com.radixdlt.consensus.sync.GetVerticesRequest;
 import com.radixdlt.consensus.sync.BFTSyncResponseProcessor;
+import com.radixdlt.consensus.sync.BFTSyncTimeoutProcessor;
 import com.radixdlt.consensus.bft.BFTUpdate;
 import com.radixdlt.consensus.bft.BFTUpdateProcessor;
 import com.radixdlt.consensus.bft.BFTSyncRequestProcessor;
@@ -60,12 +61,8 @@ import com.radixdlt.epochs.EpochsLedgerUpdate;
 import com.radixdlt.ledger.LedgerUpdate;
 import com.radixdlt.ledger.LedgerUpdateProcessor;
 import com.radixdlt.sync.LocalSyncRequest;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import javax.annotation.concurrent.NotThreadSafe;
 import javax.inject.Inject;
@@ -117,6 +114,9 @@ public final class EpochManager implements BFTSyncRequestProcessor, BFTUpdatePro
 	}
 
 	private static final Logger log = LogManager.getLogger();
+	// Bounds on consensus events queued for the next epoch
+	private static final int MAX_QUEUED_EVENTS_PER_SENDER = 32;
+	private static final int MAX_QUEUED_EVENTS = 4096;
 	private final BFTNode self;
 	private final SyncEpochsRPCSender epochsRPCSender;
 	private final PacemakerFactory pacemakerFactory;
@@ -127,19 +127,19 @@ public final class EpochManager implements BFTSyncRequestProcessor, BFTUpdatePro
 	private final SystemCounters counters;
 	private final LocalTimeoutSender localTimeoutSender;
 	private final Ledger ledger;
-	private final Map<Long, List<ConsensusEvent>> queuedEvents;
+	private final QueuedConsensusEvents queuedEvents;
 	private final BFTFactory bftFactory;
 	private final VertexStoreEventSender vertexStoreEventSender;
 	private final EpochInfoSender epochInfoSender;
 	private final SyncLedgerRequestSender syncRequestSender;
 
 	private EpochChange currentEpoch;
-	private int numQueuedConsensusEvents = 0;
 
 	private BFTSyncResponseProcessor syncBFTResponseProcessor;
 	private BFTUpdateProcessor syncBFTUpdateProcessor;
 	private LedgerUpdateProcessor<LedgerUpdate> syncLedgerUpdateProcessor;
 	private BFTSyncRequestProcessor syncRequestProcessor;
+	private BFTSyncTimeoutProcessor syncTimeoutProcessor;
 	private BFTEventProcessor bftEventProcessor;
 
 	@Inject
@@ -175,7 +175,7 @@ public final class EpochManager implements BFTSyncRequestProcessor, BFTUpdatePro
 		this.counters = Objects.requireNonNull(counters);
 		this.vertexStoreEventSender = Objects.requireNonNull(vertexStoreEventSender);
 		this.epochInfoSender = Objects.requireNonNull(epochInfoSender);
-		this.queuedEvents = new HashMap<>();
+		this.queuedEvents = new QueuedConsensusEvents(MAX_QUEUED_EVENTS_PER_SENDER, MAX_QUEUED_EVENTS);
 	}
 
 	private void updateEpochState() {
@@ -188,6 +188,7 @@ public final class EpochManager implements BFTSyncRequestProcessor, BFTUpdatePro
 			this.syncRequestProcessor = req -> { };
 			this.syncLedgerUpdateProcessor = update -> { };
 			this.syncBFTUpdateProcessor = update -> { };
+			this.syncTimeoutProcessor = () -> { };
 			return;
 		}
 
@@ -240,6 +241,7 @@ public final class EpochManager implements BFTSyncRequestProcessor, BFTUpdatePro
 		this.syncBFTResponseProcessor = bftSync;
 		this.syncBFTUpdateProcessor = bftSync;
 		this.syncLedgerUpdateProcessor = bftSync;
+		this.syncTimeoutProcessor = bftSync;
 
 		this.syncRequestProcessor = bftSyncRequestProcessorFactory.create(vertexStore);
 
@@ -291,15 +293,12 @@ public final class EpochManager implements BFTSyncRequestProcessor, BFTUpdatePro
 		this.updateEpochState();
 		this.bftEventProcessor.start();
 
-		// Execute any queued up consensus events
-		final List<ConsensusEvent> queuedEventsForEpoch = queuedEvents.getOrDefault(epochChange.getEpoch(), Collections.emptyList());
+		// Execute any queued up consensus events, only events for this epoch are ever queued
+		final List<ConsensusEvent> queuedEventsForEpoch = queuedEvents.drain();
+		counters.set(CounterType.EPOCH_MANAGER_QUEUED_CONSENSUS_EVENTS, 0);
 		for (ConsensusEvent consensusEvent : queuedEventsForEpoch) {
 			this.processConsensusEventInternal(consensusEvent);
 		}
-
-		numQueuedConsensusEvents -= queuedEventsForEpoch.size();
-		counters.set(CounterType.EPOCH_MANAGER_QUEUED_CONSENSUS_EVENTS, numQueuedConsensusEvents);
-		queuedEvents.remove(epochChange.getEpoch());
 	}
 
 	private void logEpochChange(EpochChange epochChange, String message) {
@@ -382,11 +381,12 @@ public final class EpochManager implements BFTSyncRequestProcessor, BFTUpdatePro
 				this.self::getSimpleName, () -> consensusEvent, this::currentEpoch
 			);
 
-			// queue higher epoch events for later processing
-			// TODO: need to clear this by some rule (e.g. timeout or max size) or else memory leak attack possible
-			queuedEvents.computeIfAbsent(consensusEvent.getEpoch(), e -> new ArrayList<>()).add(consensusEvent);
-			numQueuedConsensusEvents++;
-			counters.set(CounterType.EPOCH_MANAGER_QUEUED_CONSENSUS_EVENTS, numQueuedConsensusEvents);
+			// queue next epoch events for later processing, anything beyond will need a sync anyway
+			if (consensusEvent.getEpoch() == this.currentEpoch() + 1 && queuedEvents.add(consensusEvent)) {
+				counters.set(CounterType.EPOCH_MANAGER_QUEUED_CONSENSUS_EVENTS, queuedEvents.size());
+			} else {
+				counters.increment(CounterType.EPOCH_MANAGER_DROPPED_CONSENSUS_EVENTS);
+			}
 
 			// Send request for higher epoch proof
 			epochsRPCSender.sendGetEpochRequest(consensusEvent.getAuthor(), this.currentEpoch());
@@ -404,6 +404,9 @@ public final class EpochManager implements BFTSyncRequestProcessor, BFTUpdatePro
 	}
 
 	public void processLocalTimeout(LocalTimeout localTimeout) {
+		// Local timeouts keep firing while consensus makes no progress, so use them to retry syncs
+		syncTimeoutProcessor.processSyncTimeouts();
+
 		if (localTimeout.getEpoch() != this.currentEpoch()) {
 			return;
 		}
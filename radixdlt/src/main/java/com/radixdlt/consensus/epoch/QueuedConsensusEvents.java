@@ -0,0 +1,173 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.consensus.epoch;
+
+import com.radixdlt.consensus.ConsensusEvent;
+import com.radixdlt.consensus.NewView;
+import com.radixdlt.consensus.Proposal;
+import com.radixdlt.consensus.Vote;
+import com.radixdlt.consensus.bft.BFTNode;
+import com.radixdlt.consensus.bft.View;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Bounded queue of consensus events received ahead of an epoch change.
+ * <p>
+ * Events are deduplicated per sender by event type and view, at most
+ * {@code maxEventsPerSender} events are kept per sender (newest views win)
+ * and at most {@code maxEvents} in total. Events are replayed with
+ * proposals first, then new views (which carry QCs), then votes, each in
+ * ascending view order.
+ */
+@NotThreadSafe
+final class QueuedConsensusEvents {
+	private static final Comparator<EventKey> REPLAY_ORDER = Comparator
+		.comparingInt((EventKey k) -> k.typeRank)
+		.thenComparingLong(k -> k.view);
+
+	private static final class EventKey implements Comparable<EventKey> {
+		private final long view;
+		private final int typeRank;
+
+		private EventKey(long view, int typeRank) {
+			this.view = view;
+			this.typeRank = typeRank;
+		}
+
+		@Override
+		public int compareTo(EventKey other) {
+			int cmp = Long.compare(this.view, other.view);
+			return cmp != 0 ? cmp : Integer.compare(this.typeRank, other.typeRank);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(this.view, this.typeRank);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof EventKey)) {
+				return false;
+			}
+			EventKey other = (EventKey) o;
+			return this.view == other.view && this.typeRank == other.typeRank;
+		}
+	}
+
+	private final int maxEventsPerSender;
+	private final int maxEvents;
+	private final Map<BFTNode, TreeMap<EventKey, ConsensusEvent>> eventsBySender = new HashMap<>();
+	private int size;
+
+	QueuedConsensusEvents(int maxEventsPerSender, int maxEvents) {
+		if (maxEventsPerSender <= 0) {
+			throw new IllegalArgumentException("maxEventsPerSender must be > 0 but was " + maxEventsPerSender);
+		}
+		if (maxEvents < maxEventsPerSender) {
+			throw new IllegalArgumentException("maxEvents must be >= maxEventsPerSender but was " + maxEvents);
+		}
+		this.maxEventsPerSender = maxEventsPerSender;
+		this.maxEvents = maxEvents;
+	}
+
+	/**
+	 * Queues an event.
+	 * @param event the event to queue
+	 * @return {@code true} if the event was queued, {@code false} if it was
+	 * 	a duplicate or did not fit within the bounds
+	 */
+	boolean add(ConsensusEvent event) {
+		final EventKey key = new EventKey(viewOf(event).number(), typeRank(event));
+		TreeMap<EventKey, ConsensusEvent> senderEvents = this.eventsBySender.get(event.getAuthor());
+		if (senderEvents == null) {
+			if (this.size >= this.maxEvents) {
+				return false;
+			}
+			senderEvents = new TreeMap<>();
+			this.eventsBySender.put(event.getAuthor(), senderEvents);
+		} else if (senderEvents.containsKey(key)) {
+			return false;
+		}
+		if (senderEvents.size() >= this.maxEventsPerSender) {
+			// Keep the most recent views for this sender
+			if (key.compareTo(senderEvents.firstKey()) < 0) {
+				return false;
+			}
+			senderEvents.pollFirstEntry();
+			this.size -= 1;
+		} else if (this.size >= this.maxEvents) {
+			return false;
+		}
+		senderEvents.put(key, event);
+		this.size += 1;
+		return true;
+	}
+
+	/**
+	 * Removes and returns all queued events in replay order.
+	 * @return the queued events
+	 */
+	List<ConsensusEvent> drain() {
+		final List<Map.Entry<EventKey, ConsensusEvent>> entries = new ArrayList<>(this.size);
+		this.eventsBySender.values().forEach(senderEvents -> entries.addAll(senderEvents.entrySet()));
+		entries.sort(Map.Entry.comparingByKey(REPLAY_ORDER));
+		final List<ConsensusEvent> events = new ArrayList<>(entries.size());
+		entries.forEach(e -> events.add(e.getValue()));
+		clear();
+		return events;
+	}
+
+	void clear() {
+		this.eventsBySender.clear();
+		this.size = 0;
+	}
+
+	int size() {
+		return this.size;
+	}
+
+	private static int typeRank(ConsensusEvent event) {
+		if (event instanceof Proposal) {
+			return 0;
+		} else if (event instanceof NewView) {
+			return 1;
+		} else if (event instanceof Vote) {
+			return 2;
+		}
+		throw new IllegalStateException("Unknown consensus event: " + event);
+	}
+
+	private static View viewOf(ConsensusEvent event) {
+		if (event instanceof Proposal) {
+			return ((Proposal) event).getView();
+		} else if (event instanceof NewView) {
+			return ((NewView) event).getView();
+		} else if (event instanceof Vote) {
+			return ((Vote) event).getVoteData().getProposed().getView();
+		}
+		throw new IllegalStateException("Unknown consensus event: " + event);
+	}
+}
@@ -0,0 +1,139 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.consensus.liveness;
+
+import java.util.Arrays;
+
+/**
+ * A pacemaker base timeout derived from observed view latencies.
+ * <p>
+ * Latencies are collected over a sliding window of recently completed views.
+ * At each epoch change ({@link #nextEpoch()}) the base timeout moves towards
+ * a high percentile of those latencies multiplied by a safety margin. The move
+ * is limited to a factor of {@code maxAdjustment} per epoch, and the result is
+ * always kept within {@code [minTimeoutMillis, maxTimeoutMillis]}.
+ * <p>
+ * This class is not thread-safe and is expected to be used from the consensus thread.
+ */
+public final class AdaptiveBaseTimeout implements PacemakerBaseTimeout {
+	private final long minTimeoutMillis;
+	private final long maxTimeoutMillis;
+	private final double percentile;
+	private final double margin;
+	private final double maxAdjustment;
+	private final int minSamples;
+	private final long[] samples;
+
+	private int nextSample;
+	private int sampleCount;
+	private long baseTimeoutMillis;
+
+	public AdaptiveBaseTimeout(
+		long initialTimeoutMillis,
+		long minTimeoutMillis,
+		long maxTimeoutMillis,
+		double percentile,
+		double margin,
+		double maxAdjustment,
+		int windowSize,
+		int minSamples
+	) {
+		if (minTimeoutMillis <= 0) {
+			throw new IllegalArgumentException("minTimeoutMillis must be > 0 but was " + minTimeoutMillis);
+		}
+		if (maxTimeoutMillis < minTimeoutMillis) {
+			throw new IllegalArgumentException(
+				String.format("maxTimeoutMillis %s must be >= minTimeoutMillis %s", maxTimeoutMillis, minTimeoutMillis)
+			);
+		}
+		if (initialTimeoutMillis < minTimeoutMillis || initialTimeoutMillis > maxTimeoutMillis) {
+			throw new IllegalArgumentException("initialTimeoutMillis must be within bounds but was " + initialTimeoutMillis);
+		}
+		if (percentile <= 0.0 || percentile > 1.0) {
+			throw new IllegalArgumentException("percentile must be in (0.0, 1.0] but was " + percentile);
+		}
+		if (margin < 1.0) {
+			throw new IllegalArgumentException("margin must be >= 1.0 but was " + margin);
+		}
+		if (maxAdjustment < 1.0) {
+			throw new IllegalArgumentException("maxAdjustment must be >= 1.0 but was " + maxAdjustment);
+		}
+		if (windowSize <= 0) {
+			throw new IllegalArgumentException("windowSize must be > 0 but was " + windowSize);
+		}
+		if (minSamples <= 0 || minSamples > windowSize) {
+			throw new IllegalArgumentException("minSamples must be in [1, windowSize] but was " + minSamples);
+		}
+		this.baseTimeoutMillis = initialTimeoutMillis;
+		this.minTimeoutMillis = minTimeoutMillis;
+		this.maxTimeoutMillis = maxTimeoutMillis;
+		this.percentile = percentile;
+		this.margin = margin;
+		this.maxAdjustment = maxAdjustment;
+		this.minSamples = minSamples;
+		this.samples = new long[windowSize];
+	}
+
+	@Override
+	public long baseTimeoutMillis() {
+		return this.baseTimeoutMillis;
+	}
+
+	@Override
+	public long maxBaseTimeoutMillis() {
+		return this.maxTimeoutMillis;
+	}
+
+	@Override
+	public void viewCompleted(long latencyMillis) {
+		if (latencyMillis < 0L) {
+			return;
+		}
+		this.samples[this.nextSample] = latencyMillis;
+		this.nextSample = (this.nextSample + 1) % this.samples.length;
+		this.sampleCount = Math.min(this.sampleCount + 1, this.samples.length);
+	}
+
+	/**
+	 * Recomputes the base timeout from the latencies observed so far.
+	 * Expected to be called once per epoch, before the epoch's pacemaker is created.
+	 *
+	 * @return the new base timeout in milliseconds
+	 */
+	public long nextEpoch() {
+		if (this.sampleCount < this.minSamples) {
+			return this.baseTimeoutMillis;
+		}
+		long[] sorted = Arrays.copyOf(this.samples, this.sampleCount);
+		Arrays.sort(sorted);
+		int index = Math.max(0, (int) Math.ceil(this.percentile * sorted.length) - 1);
+		double target = sorted[index] * this.margin;
+		double lower = this.baseTimeoutMillis / this.maxAdjustment;
+		double upper = this.baseTimeoutMillis * this.maxAdjustment;
+		long adjusted = Math.round(Math.max(lower, Math.min(upper, target)));
+		this.baseTimeoutMillis = Math.max(this.minTimeoutMillis, Math.min(this.maxTimeoutMillis, adjusted));
+		return this.baseTimeoutMillis;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s[%sms, %s samples, p%s*%s in [%s, %s]ms]",
+			getClass().getSimpleName(), this.baseTimeoutMillis, this.sampleCount,
+			this.percentile * 100.0, this.margin, this.minTimeoutMillis, this.maxTimeoutMillis);
+	}
+}
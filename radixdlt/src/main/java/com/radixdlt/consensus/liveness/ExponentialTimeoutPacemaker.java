@@ -23,6 +23,7 @@ import com.radixdlt.consensus.NewView;
 import com.radixdlt.consensus.QuorumCertificate;
 import com.radixdlt.consensus.bft.View;
 import com.radixdlt.consensus.bft.BFTValidatorSet;
+import com.radixdlt.network.TimeSupplier;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -30,7 +31,9 @@ import java.util.Objects;
 import java.util.Optional;
 
 /**
- * A pacemaker which utilizes a fixed timeout (aka requires a synchronous network).
+ * A pacemaker which utilizes a base timeout, exponentially increased with the number
+ * of uncommitted views (aka requires a synchronous network). The base timeout is either
+ * fixed or adapted to observed view latencies, see {@link PacemakerBaseTimeout}.
  */
 public final class ExponentialTimeoutPacemaker implements Pacemaker {
 
@@ -61,9 +64,10 @@ public final class ExponentialTimeoutPacemaker implements Pacemaker {
 
 	private static final Logger log = LogManager.getLogger();
 
-	private final long timeoutMilliseconds;
+	private final PacemakerBaseTimeout baseTimeout;
 	private final double rate;
 	private final int maxExponent;
+	private final TimeSupplier timeSupplier;
 
 	private final ProceedToViewSender proceedToViewSender;
 	private final PacemakerTimeoutSender timeoutSender;
@@ -79,6 +83,8 @@ public final class ExponentialTimeoutPacemaker implements Pacemaker {
 	private View lastSyncView = View.genesis();
 	// Highest view in which a commit happened
 	private View highestCommitView = View.genesis();
+	// Time at which the current view was started
+	private long currentViewStartTime;
 
 	public ExponentialTimeoutPacemaker(
 		long timeoutMilliseconds,
@@ -88,28 +94,46 @@ public final class ExponentialTimeoutPacemaker implements Pacemaker {
 		PacemakerTimeoutSender timeoutSender,
 		PacemakerInfoSender pacemakerInfoSender
 	) {
-		if (timeoutMilliseconds <= 0) {
-			throw new IllegalArgumentException("timeoutMilliseconds must be > 0 but was " + timeoutMilliseconds);
-		}
+		this(
+			PacemakerBaseTimeout.fixed(timeoutMilliseconds),
+			rate,
+			maxExponent,
+			System::currentTimeMillis,
+			proceedToViewSender,
+			timeoutSender,
+			pacemakerInfoSender
+		);
+	}
+
+	public ExponentialTimeoutPacemaker(
+		PacemakerBaseTimeout baseTimeout,
+		double rate,
+		int maxExponent,
+		TimeSupplier timeSupplier,
+		ProceedToViewSender proceedToViewSender,
+		PacemakerTimeoutSender timeoutSender,
+		PacemakerInfoSender pacemakerInfoSender
+	) {
 		if (rate <= 1.0) {
 			throw new IllegalArgumentException("rate must be > 1.0, but was " + rate);
 		}
 		if (maxExponent < 0) {
 			throw new IllegalArgumentException("maxExponent must be >= 0, but was " + maxExponent);
 		}
-		double maxTimeout = timeoutMilliseconds * Math.pow(rate, maxExponent);
+		double maxTimeout = baseTimeout.maxBaseTimeoutMillis() * Math.pow(rate, maxExponent);
 		if (maxTimeout > Long.MAX_VALUE) {
 			throw new IllegalArgumentException("Maximum timeout value of " + maxTimeout + " is too large");
 		}
-		this.timeoutMilliseconds = timeoutMilliseconds;
+		this.baseTimeout = baseTimeout;
 		this.rate = rate;
 		this.maxExponent = maxExponent;
+		this.timeSupplier = Objects.requireNonNull(timeSupplier);
 		this.proceedToViewSender = Objects.requireNonNull(proceedToViewSender);
 		this.timeoutSender = Objects.requireNonNull(timeoutSender);
 		this.pacemakerInfoSender = Objects.requireNonNull(pacemakerInfoSender);
-		this.pendingNewViews = new PendingNewViews();
+		this.pendingNewViews = new PendingNewViews(this::getCurrentView);
 		log.debug("{} with max timeout {}*{}^{}ms",
-			getClass().getSimpleName(), this.timeoutMilliseconds, this.rate, this.maxExponent);
+			getClass().getSimpleName(), this.baseTimeout, this.rate, this.maxExponent);
 
 	}
 
@@ -123,6 +147,7 @@ public final class ExponentialTimeoutPacemaker implements Pacemaker {
 		long timeout = timeout(uncommittedViews(nextView));
 		log.log(logLevel, "Starting View: {} with timeout {}ms", nextView, timeout);
 		this.currentView = nextView;
+		this.currentViewStartTime = this.timeSupplier.currentTime();
 		this.timeoutSender.scheduleTimeout(this.currentView, timeout);
 		this.proceedToViewSender.sendProceedToNextView(this.currentView, qc, highestCommittedQC);
 		this.pacemakerInfoSender.sendCurrentView(this.currentView);
@@ -168,6 +193,9 @@ public final class ExponentialTimeoutPacemaker implements Pacemaker {
 
 	@Override
 	public void processQC(QuorumCertificate qc, QuorumCertificate highestCommittedQC) {
+		if (!this.currentView.isGenesis() && qc.getView().equals(this.currentView)) {
+			this.baseTimeout.viewCompleted(this.timeSupplier.currentTime() - this.currentViewStartTime);
+		}
 		this.qc = qc;
 		this.highestCommittedQC = highestCommittedQC;
 		this.highestCommitView = highestCommittedQC.getView();
@@ -195,6 +223,6 @@ public final class ExponentialTimeoutPacemaker implements Pacemaker {
 
 	private long timeout(long uncommittedViews) {
 		double exponential = Math.pow(this.rate, Math.min(this.maxExponent, uncommittedViews));
-		return Math.round(this.timeoutMilliseconds * exponential);
+		return Math.round(this.baseTimeout.baseTimeoutMillis() * exponential);
 	}
 }
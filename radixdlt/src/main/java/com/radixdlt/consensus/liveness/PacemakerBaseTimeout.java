@@ -0,0 +1,74 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.consensus.liveness;
+
+/**
+ * Source of the base timeout to which a pacemaker applies its exponential backoff.
+ */
+public interface PacemakerBaseTimeout {
+	/**
+	 * Retrieves the current base timeout
+	 * @return the base timeout in milliseconds
+	 */
+	long baseTimeoutMillis();
+
+	/**
+	 * Retrieves the largest base timeout which may ever be returned by {@link #baseTimeoutMillis()}
+	 * @return the maximum base timeout in milliseconds
+	 */
+	long maxBaseTimeoutMillis();
+
+	/**
+	 * Signifies that a view has completed, i.e. a quorum certificate was
+	 * obtained for it, after the given latency
+	 * @param latencyMillis time from the start of the view until its quorum certificate was seen
+	 */
+	void viewCompleted(long latencyMillis);
+
+	/**
+	 * Creates a base timeout which never changes
+	 * @param timeoutMilliseconds the base timeout in milliseconds
+	 * @return a fixed base timeout
+	 */
+	static PacemakerBaseTimeout fixed(long timeoutMilliseconds) {
+		if (timeoutMilliseconds <= 0) {
+			throw new IllegalArgumentException("timeoutMilliseconds must be > 0 but was " + timeoutMilliseconds);
+		}
+		return new PacemakerBaseTimeout() {
+			@Override
+			public long baseTimeoutMillis() {
+				return timeoutMilliseconds;
+			}
+
+			@Override
+			public long maxBaseTimeoutMillis() {
+				return timeoutMilliseconds;
+			}
+
+			@Override
+			public void viewCompleted(long latencyMillis) {
+				// Nothing to do here
+			}
+
+			@Override
+			public String toString() {
+				return String.format("Fixed[%sms]", timeoutMilliseconds);
+			}
+		};
+	}
+}
@@ -21,6 +21,7 @@ import com.radixdlt.consensus.bft.BFTNode;
 import java.util.Map;
 import java.util.Optional;
 
+import java.util.Objects;
 import javax.annotation.concurrent.NotThreadSafe;
 
 import org.apache.logging.log4j.LogManager;
@@ -37,7 +38,11 @@ import com.radixdlt.consensus.bft.BFTValidatorSet;
 import com.radixdlt.crypto.ECDSASignature;
 
 /**
- * Manages pending {@link NewView} items.
+ * Manages pending {@link NewView} items until a quorum is formed.
+ * <p>
+ * Only new-views for views within a window around the current view are kept,
+ * each view occupying a slot in a fixed size ring so that state for old views
+ * is evicted as a whole once their slot is reused.
  * <p>
  * This class is NOT thread-safe.
  * <p>
@@ -48,8 +53,38 @@ import com.radixdlt.crypto.ECDSASignature;
 public final class PendingNewViews {
 	private static final Logger log = LogManager.getLogger();
 
-	private final Map<View, ValidationState> newViewState = Maps.newHashMap();
+	/**
+	 * Number of views either side of the current view for which new-views are kept.
+	 */
+	public static final int DEFAULT_VIEW_WINDOW = 16;
+
+	private static final class ViewNewViews {
+		private final long view;
+		private final ValidationState validationState;
+
+		private ViewNewViews(long view, ValidationState validationState) {
+			this.view = view;
+			this.validationState = validationState;
+		}
+	}
+
+	private final ViewNewViews[] newViewState;
+	private final long viewWindow;
 	private final Map<BFTNode, View> previousNewView = Maps.newHashMap();
+	private final PacemakerState pacemakerState;
+
+	public PendingNewViews(PacemakerState pacemakerState) {
+		this(pacemakerState, DEFAULT_VIEW_WINDOW);
+	}
+
+	public PendingNewViews(PacemakerState pacemakerState, int viewWindow) {
+		if (viewWindow < 0) {
+			throw new IllegalArgumentException("viewWindow must be >= 0 but was " + viewWindow);
+		}
+		this.pacemakerState = Objects.requireNonNull(pacemakerState);
+		this.viewWindow = viewWindow;
+		this.newViewState = new ViewNewViews[2 * viewWindow + 1];
+	}
 
 	/**
 	 * Inserts a {@link NewView}, attempting to form a quorum certificate.
@@ -70,11 +105,17 @@ public final class PendingNewViews {
 
 		final ECDSASignature signature = newView.getSignature().orElseThrow(() -> new IllegalArgumentException("new-view is missing signature"));
 		final View thisView = newView.getView();
+		final View currentView = this.pacemakerState.getCurrentView();
+		if (!isInWindow(thisView.number(), currentView.number())) {
+			log.trace("Ignoring new view from {} for view {} outside of window around {}", node::getSimpleName, () -> thisView, () -> currentView);
+			return Optional.empty();
+		}
+
 		if (!replacePreviousNewView(node, thisView)) {
 			return Optional.empty();
 		}
 
-		ValidationState validationState = this.newViewState.computeIfAbsent(thisView, k -> validatorSet.newValidationState());
+		ValidationState validationState = validationStateFor(thisView, validatorSet);
 
 		// check if we have gotten enough new-views to proceed
 		// NewView timestamps here are not required, so we use 0L below
@@ -101,20 +142,50 @@ public final class PendingNewViews {
 
 		// Prune last pending NewView from pending.
 		// This limits the number of pending new views that are in the pipeline.
-		ValidationState validationState = this.newViewState.get(previousView);
-		if (validationState != null) {
-			validationState.removeSignature(author);
-			if (validationState.isEmpty()) {
-				this.newViewState.remove(previousView);
+		ViewNewViews previous = existingNewViewsFor(previousView);
+		if (previous != null) {
+			previous.validationState.removeSignature(author);
+			if (previous.validationState.isEmpty()) {
+				this.newViewState[slot(previousView)] = null;
 			}
 		}
 		return true;
 	}
 
+	private boolean isInWindow(long view, long currentView) {
+		return Math.abs(view - currentView) <= this.viewWindow;
+	}
+
+	private int slot(View view) {
+		return (int) (view.number() % this.newViewState.length);
+	}
+
+	private ViewNewViews existingNewViewsFor(View view) {
+		final ViewNewViews newViews = this.newViewState[slot(view)];
+		return newViews != null && newViews.view == view.number() ? newViews : null;
+	}
+
+	private ValidationState validationStateFor(View view, BFTValidatorSet validatorSet) {
+		ViewNewViews newViews = existingNewViewsFor(view);
+		if (newViews == null) {
+			// Any previous occupant of this slot is outside of the window, so evict it
+			newViews = new ViewNewViews(view.number(), validatorSet.newValidationState());
+			this.newViewState[slot(view)] = newViews;
+		}
+		return newViews.validationState;
+	}
+
 	@VisibleForTesting
 	// Greybox stuff for testing
 	int newViewStateSize() {
-		return this.newViewState.size();
+		final long currentView = this.pacemakerState.getCurrentView().number();
+		int size = 0;
+		for (ViewNewViews newViews : this.newViewState) {
+			if (newViews != null && isInWindow(newViews.view, currentView)) {
+				size += 1;
+			}
+		}
+		return size;
 	}
 
 	@VisibleForTesting
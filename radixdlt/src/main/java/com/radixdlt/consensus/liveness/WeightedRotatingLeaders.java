@@ -21,14 +21,14 @@ import com.radixdlt.consensus.bft.View;
 import com.radixdlt.consensus.bft.BFTNode;
 import com.radixdlt.consensus.bft.BFTValidator;
 import com.radixdlt.consensus.bft.BFTValidatorSet;
+import com.radixdlt.utils.ThreadFactories;
 import com.radixdlt.utils.UInt256;
-import com.radixdlt.utils.UInt256s;
 import com.radixdlt.utils.UInt384;
-import java.util.Arrays;
 import java.util.Comparator;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 /**
  * Rotates leaders with those having more power being proposed more often
@@ -38,138 +38,304 @@ import java.util.Map.Entry;
  * previous view and thus computing the leader for an arbitrary view can
  * be quite expensive.
  *
- * We resolve this by keeping a cache of some given size of the previous
- * views closest to the highest view calculated.
+ * We resolve this by precomputing the schedule of leaders in chunks of
+ * consecutive views. The chunk following the current one is generated
+ * ahead of time on a background executor, so that looking up the leader
+ * of any view in the previous, current or next chunk is a constant time
+ * array access. Where the total power fits, weights are tracked with
+ * primitive arithmetic.
+ *
+ * As every validator is chosen exactly in proportion to its power, the
+ * weights from view 1 onwards repeat every total power views, which allows
+ * restarting the computation close to an arbitrary view.
  *
  * This class stateful and is NOT thread-safe.
  */
 public final class WeightedRotatingLeaders implements ProposerElection {
 	private static final UInt384 POW_2_256 = UInt384.from(UInt256.MAX_VALUE).increment();
+	// Weights stay within a small multiple of the total power, so this leaves plenty of headroom
+	private static final UInt256 MAX_PRIMITIVE_TOTAL_POWER = UInt256.from(Long.MAX_VALUE / 8);
+	private static final Executor BACKGROUND_EXECUTOR =
+		Executors.newSingleThreadExecutor(ThreadFactories.daemonThreads("LeaderSchedule"));
+
+	/**
+	 * Weight state of all validators, indexed by their position in the
+	 * validators array.
+	 */
+	private interface Weights {
+		/**
+		 * Updates weights by one view, returning the index of the leader for that view.
+		 * @param previousLeader index of the leader for the previous view
+		 * @return index of the leader for the next view
+		 */
+		int next(int previousLeader);
 
-	private final BFTValidatorSet validatorSet;
-	private final Comparator<Entry<BFTValidator, UInt384>> weightsComparator;
-	private final CachingNextLeaderComputer nextLeaderComputer;
+		int heaviest();
 
-	public WeightedRotatingLeaders(BFTValidatorSet validatorSet, Comparator<BFTValidator> comparator, int cacheSize) {
-		this.validatorSet = validatorSet;
-		this.weightsComparator = Comparator
-			.comparing(Entry<BFTValidator, UInt384>::getValue)
-			.thenComparing(Entry::getKey, comparator);
-		this.nextLeaderComputer = new CachingNextLeaderComputer(validatorSet, weightsComparator, cacheSize);
+		Weights copy();
 	}
 
-	private static class CachingNextLeaderComputer {
-		private final BFTValidatorSet validatorSet;
-		private final Comparator<Entry<BFTValidator, UInt384>> weightsComparator;
-		private final Map<BFTValidator, UInt384> weights;
-		private final BFTValidator[] cache;
-		private final Long lcm;
-		private View curView;
-
-		private CachingNextLeaderComputer(BFTValidatorSet validatorSet, Comparator<Entry<BFTValidator, UInt384>> weightsComparator, int cacheSize) {
-			this.validatorSet = validatorSet;
-			this.weightsComparator = weightsComparator;
-			this.weights = new HashMap<>();
-			this.cache = new BFTValidator[cacheSize];
-
-			UInt256[] powerArray = validatorSet.getValidators().stream().map(BFTValidator::getPower).toArray(UInt256[]::new);
-			// after cappedLCM is executed, the following invariant will be true:
-			// (lcm > 0 && lcm < 2^63 -1 ) || lcm == null
-			// This is due to use of 2^63 - 1 cap and also the invariant from ValidatorSet
-			// that powerArray will always be non-zero
-			UInt256 lcm256 = UInt256s.cappedLCM(UInt256.from(Long.MAX_VALUE), powerArray);
-			this.lcm = lcm256 == null ? null : lcm256.getLow().getLow();
-
-			this.resetToView(View.of(0));
-		}
-
-		private BFTValidator computeHeaviest() {
-			final Entry<BFTValidator, UInt384> max = weights.entrySet().stream()
-				.max(weightsComparator)
-				.orElseThrow(() -> new IllegalStateException("Weights cannot be empty"));
-			return max.getKey();
-		}
-
-		private void computeNext() {
-			// Reset current leader by subtracting total power
-			final int curIndex = (int) (this.curView.number() % cache.length);
-			final BFTValidator curLeader = cache[curIndex];
-			weights.merge(curLeader, UInt384.from(validatorSet.getTotalPower()), UInt384::subtract);
-
-			// Add weights relative to each validator's power
-			for (BFTValidator validator : validatorSet.getValidators()) {
-				weights.merge(validator, UInt384.from(validator.getPower()), UInt384::add);
-			}
+	/**
+	 * Weights relative to the common 2^256 starting offset, which does not
+	 * affect which validator is heaviest.
+	 */
+	private static final class LongWeights implements Weights {
+		private final long[] weights;
+		private final long[] powers;
+		private final long totalPower;
+		private final int[] ranks;
 
-			// Compute next leader by getting heaviest validator
-			this.curView = this.curView.next();
-			int index = (int) (this.curView.number() % cache.length);
-			cache[index] = computeHeaviest();
+		private LongWeights(long[] weights, long[] powers, long totalPower, int[] ranks) {
+			this.weights = weights;
+			this.powers = powers;
+			this.totalPower = totalPower;
+			this.ranks = ranks;
 		}
 
-		private BFTValidator checkCacheForProposer(View view) {
-			if (view.compareTo(curView) <= 0 && view.number() > curView.number() - cache.length) {
-				final int index = (int) (view.number() % cache.length);
-				return cache[index];
+		@Override
+		public int next(int previousLeader) {
+			weights[previousLeader] = Math.subtractExact(weights[previousLeader], totalPower);
+			for (int i = 0; i < weights.length; i++) {
+				weights[i] = Math.addExact(weights[i], powers[i]);
 			}
+			return heaviest();
+		}
 
-			return null;
+		@Override
+		public int heaviest() {
+			int heaviest = 0;
+			for (int i = 1; i < weights.length; i++) {
+				if (weights[i] > weights[heaviest] || (weights[i] == weights[heaviest] && ranks[i] > ranks[heaviest])) {
+					heaviest = i;
+				}
+			}
+			return heaviest;
 		}
 
-		private void computeToView(View view) {
-			while (view.compareTo(curView) > 0) {
-				computeNext();
+		@Override
+		public Weights copy() {
+			return new LongWeights(weights.clone(), powers, totalPower, ranks);
+		}
+	}
+
+	private static final class UInt384Weights implements Weights {
+		private final UInt384[] weights;
+		private final UInt384[] powers;
+		private final UInt384 totalPower;
+		private final int[] ranks;
+
+		private UInt384Weights(UInt384[] weights, UInt384[] powers, UInt384 totalPower, int[] ranks) {
+			this.weights = weights;
+			this.powers = powers;
+			this.totalPower = totalPower;
+			this.ranks = ranks;
+		}
+
+		@Override
+		public int next(int previousLeader) {
+			weights[previousLeader] = weights[previousLeader].subtract(totalPower);
+			for (int i = 0; i < weights.length; i++) {
+				weights[i] = weights[i].add(powers[i]);
 			}
+			return heaviest();
 		}
 
-		private BFTValidator resetToView(View view) {
-			// reset if view isn't in cache
-			if (curView == null || view.number() < curView.number() - cache.length) {
-				if (lcm == null || lcm > view.number()) {
-					curView = View.genesis();
-				} else {
-					long multipleOfLCM = view.number() / lcm;
-					curView = View.of(multipleOfLCM * lcm);
+		@Override
+		public int heaviest() {
+			int heaviest = 0;
+			for (int i = 1; i < weights.length; i++) {
+				int cmp = weights[i].compareTo(weights[heaviest]);
+				if (cmp > 0 || (cmp == 0 && ranks[i] > ranks[heaviest])) {
+					heaviest = i;
 				}
+			}
+			return heaviest;
+		}
 
-				for (BFTValidator validator : validatorSet.getValidators()) {
-					weights.put(validator, POW_2_256.subtract(validator.getPower()));
-				}
-				cache[0] = computeHeaviest();
+		@Override
+		public Weights copy() {
+			return new UInt384Weights(weights.clone(), powers, totalPower, ranks);
+		}
+	}
+
+	/**
+	 * Leaders for a range of consecutive views along with the weight
+	 * state at the last of those views. Immutable once constructed.
+	 */
+	private static final class ScheduleChunk {
+		private final long startView;
+		private final int[] leaders;
+		private final Weights lastWeights;
+
+		private ScheduleChunk(long startView, int[] leaders, Weights lastWeights) {
+			this.startView = startView;
+			this.leaders = leaders;
+			this.lastWeights = lastWeights;
+		}
+
+		private boolean contains(long view) {
+			return view >= startView && view - startView < leaders.length;
+		}
+
+		private int leaderFor(long view) {
+			return leaders[(int) (view - startView)];
+		}
+
+		private int lastLeader() {
+			return leaders[leaders.length - 1];
+		}
+
+		private long endView() {
+			return startView + leaders.length;
+		}
+	}
+
+	private final BFTValidator[] validators;
+	private final int[] ranks;
+	private final UInt256 totalPower;
+	private final Long period;
+	private final int chunkSize;
+	private final Executor executor;
+
+	private ScheduleChunk previous;
+	private ScheduleChunk current;
+	private CompletableFuture<ScheduleChunk> next;
+
+	public WeightedRotatingLeaders(BFTValidatorSet validatorSet, Comparator<BFTValidator> comparator, int chunkSize) {
+		this(validatorSet, comparator, chunkSize, BACKGROUND_EXECUTOR);
+	}
+
+	public WeightedRotatingLeaders(BFTValidatorSet validatorSet, Comparator<BFTValidator> comparator, int chunkSize, Executor executor) {
+		if (chunkSize <= 0) {
+			throw new IllegalArgumentException("chunkSize must be > 0 but was " + chunkSize);
+		}
+		this.chunkSize = chunkSize;
+		this.executor = Objects.requireNonNull(executor);
+		this.validators = validatorSet.getValidators().stream()
+			.sorted(comparator)
+			.toArray(BFTValidator[]::new);
+		if (this.validators.length == 0) {
+			throw new IllegalArgumentException("Validator set cannot be empty");
+		}
+
+		// Validators which compare equal share a rank, ties in weight go to the highest rank
+		this.ranks = new int[this.validators.length];
+		for (int i = 1; i < this.validators.length; i++) {
+			boolean sameRank = comparator.compare(this.validators[i - 1], this.validators[i]) == 0;
+			this.ranks[i] = sameRank ? this.ranks[i - 1] : this.ranks[i - 1] + 1;
+		}
+
+		this.totalPower = validatorSet.getTotalPower();
+		this.period = this.totalPower.compareTo(UInt256.from(Long.MAX_VALUE)) <= 0
+			? this.totalPower.getLow().getLow()
+			: null;
+
+		this.current = computeChunkContaining(0L);
+		scheduleNext();
+	}
+
+	private Weights initialWeights() {
+		final int size = this.validators.length;
+		if (this.totalPower.compareTo(MAX_PRIMITIVE_TOTAL_POWER) <= 0) {
+			final long[] powers = new long[size];
+			final long[] weights = new long[size];
+			for (int i = 0; i < size; i++) {
+				powers[i] = this.validators[i].getPower().getLow().getLow();
+				weights[i] = -powers[i];
+			}
+			return new LongWeights(weights, powers, this.totalPower.getLow().getLow(), this.ranks);
+		} else {
+			final UInt384[] powers = new UInt384[size];
+			final UInt384[] weights = new UInt384[size];
+			for (int i = 0; i < size; i++) {
+				powers[i] = UInt384.from(this.validators[i].getPower());
+				weights[i] = POW_2_256.subtract(this.validators[i].getPower());
 			}
+			return new UInt384Weights(weights, powers, UInt384.from(this.totalPower), this.ranks);
+		}
+	}
 
-			// compute to view
-			computeToView(view);
+	private ScheduleChunk computeChunk(long startView, Weights weights, int firstLeader) {
+		final int[] leaders = new int[this.chunkSize];
+		leaders[0] = firstLeader;
+		for (int i = 1; i < leaders.length; i++) {
+			leaders[i] = weights.next(leaders[i - 1]);
+		}
+		return new ScheduleChunk(startView, leaders, weights);
+	}
+
+	private ScheduleChunk computeFollowing(ScheduleChunk chunk) {
+		final Weights weights = chunk.lastWeights.copy();
+		final int firstLeader = weights.next(chunk.lastLeader());
+		return computeChunk(chunk.endView(), weights, firstLeader);
+	}
 
-			// guaranteed to return non-null;
-			return cache[(int) (view.number() % cache.length)];
+	private long restartViewFor(long view) {
+		if (this.period == null || view <= this.period) {
+			return 0L;
 		}
+		return 1L + ((view - 1L) / this.period) * this.period;
+	}
 
-		@Override
-		public String toString() {
-			return String.format("%s %s %s", this.curView, Arrays.toString(this.cache), this.weights);
+	private ScheduleChunk computeChunkContaining(long view) {
+		final Weights weights = initialWeights();
+		final int genesisLeader = weights.heaviest();
+		final long restartView = restartViewFor(view);
+		ScheduleChunk chunk;
+		if (restartView == 0L) {
+			chunk = computeChunk(0L, weights, genesisLeader);
+		} else {
+			// Weights at the restart view are the same as those at view 1
+			chunk = computeChunk(restartView, weights, weights.next(genesisLeader));
+		}
+		while (!chunk.contains(view)) {
+			chunk = computeFollowing(chunk);
+		}
+		return chunk;
+	}
+
+	private void scheduleNext() {
+		final ScheduleChunk chunk = this.current;
+		this.next = CompletableFuture.supplyAsync(() -> computeFollowing(chunk), this.executor);
+	}
+
+	private void advanceTo(long view) {
+		if (restartViewFor(view) >= this.current.endView() + this.chunkSize) {
+			// Cheaper to restart from where the schedule repeats than to compute every view up to it
+			this.previous = null;
+			this.current = computeChunkContaining(view);
+			scheduleNext();
+			return;
+		}
+
+		while (!this.current.contains(view)) {
+			this.previous = this.current;
+			this.current = this.next.join();
+			scheduleNext();
 		}
 	}
 
 	@Override
 	public BFTNode getProposer(View view) {
-		nextLeaderComputer.computeToView(view);
-
-		// validator will only be null if the view supplied is before the cache
-		// window
-		BFTValidator validator = nextLeaderComputer.checkCacheForProposer(view);
-		if (validator != null) {
-			// dynamic program cache successful
-			return validator.getNode();
+		final long viewNumber = view.number();
+		final ScheduleChunk chunk;
+		if (this.current.contains(viewNumber)) {
+			chunk = this.current;
+		} else if (this.previous != null && this.previous.contains(viewNumber)) {
+			chunk = this.previous;
+		} else if (viewNumber >= this.current.endView()) {
+			advanceTo(viewNumber);
+			chunk = this.current;
 		} else {
-			// cache doesn't have value, do the expensive operation
-			CachingNextLeaderComputer computer = new CachingNextLeaderComputer(validatorSet, weightsComparator, 1);
-			return computer.resetToView(view).getNode();
+			// view is before the precomputed window, do the expensive operation
+			chunk = computeChunkContaining(viewNumber);
 		}
+
+		return this.validators[chunk.leaderFor(viewNumber)].getNode();
 	}
 
 	@Override
 	public String toString() {
-		return String.format("%s %s", this.getClass().getSimpleName(), this.nextLeaderComputer);
+		return String.format("%s{views=[%s, %s)}", this.getClass().getSimpleName(), this.current.startView, this.current.endView());
 	}
 }
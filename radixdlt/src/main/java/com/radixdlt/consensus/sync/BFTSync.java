@@ -33,17 +33,21 @@ import com.radixdlt.consensus.liveness.Pacemaker;
 import com.radixdlt.crypto.Hash;
 import com.radixdlt.ledger.LedgerUpdate;
 import com.radixdlt.ledger.LedgerUpdateProcessor;
+import com.radixdlt.network.TimeSupplier;
 import com.radixdlt.sync.LocalSyncRequest;
 import com.radixdlt.utils.Pair;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.TreeMap;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
@@ -51,9 +55,21 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 /**
- * Manages keeping the VertexStore and pacemaker in sync for consensus
+ * Manages keeping the VertexStore and pacemaker in sync for consensus.
+ * <p>
+ * Vertices are requested from several of the signers of the QC being synced to
+ * in parallel, with the first valid response winning. Identical requests from
+ * different syncs share a single in-flight request. Peers which do not respond
+ * within a timeout or respond with an error are scored down and replaced with
+ * the next best peer, as soon as the timeout is noticed or the error arrives.
+ * Peers which respond with an error are not asked again, and a request is retried
+ * for a bounded number of rounds over its candidates before it is dropped
+ * together with the syncs waiting on it. Timeouts are checked
+ * whenever BFTSync processes an event, and on every pacemaker local timeout so
+ * that an otherwise idle node still retries.
  */
-public final class BFTSync implements BFTSyncResponseProcessor, BFTUpdateProcessor, BFTSyncer, LedgerUpdateProcessor<LedgerUpdate> {
+public final class BFTSync implements BFTSyncResponseProcessor, BFTUpdateProcessor, BFTSyncer, LedgerUpdateProcessor<LedgerUpdate>,
+	BFTSyncTimeoutProcessor {
 	private enum SyncStage {
 		PREPARING,
 		GET_COMMITTED_VERTICES,
@@ -68,10 +84,11 @@ public final class BFTSync implements BFTSyncResponseProcessor, BFTUpdateProcess
 		private final BFTHeader committedHeader;
 		private final VerifiedLedgerHeaderAndProof committedProof;
 		private final BFTNode author;
+		private final ImmutableList<BFTNode> candidates;
 		private SyncStage syncStage;
-		private final LinkedList<VerifiedVertex> fetched = new LinkedList<>();
+		private final ArrayDeque<VerifiedVertex> fetched = new ArrayDeque<>();
 
-		SyncState(QuorumCertificate qc, QuorumCertificate committedQC, BFTNode author) {
+		SyncState(QuorumCertificate qc, QuorumCertificate committedQC, BFTNode author, ImmutableList<BFTNode> candidates) {
 			this.localSyncId = qc.getProposed().getVertexId();
 			Pair<BFTHeader, VerifiedLedgerHeaderAndProof> pair = committedQC.getCommittedAndLedgerStateProof()
 				.orElseThrow(() -> new IllegalStateException("committedQC must have a commit"));
@@ -80,6 +97,7 @@ public final class BFTSync implements BFTSyncResponseProcessor, BFTUpdateProcess
 			this.qc = qc;
 			this.committedQC = committedQC;
 			this.author = author;
+			this.candidates = candidates;
 			this.syncStage = SyncStage.PREPARING;
 		}
 
@@ -97,6 +115,24 @@ public final class BFTSync implements BFTSyncResponseProcessor, BFTUpdateProcess
 		}
 	}
 
+	/**
+	 * A GetVertices request which may be in flight to several peers at once
+	 */
+	private static class SyncRequestState {
+		private final List<Hash> syncIds = new ArrayList<>();
+		private final ImmutableList<BFTNode> candidates;
+		// Peers currently asked, and the time at which each one times out
+		private final Map<BFTNode, Long> inFlight = new HashMap<>();
+		private final Set<BFTNode> tried = new HashSet<>();
+		// Peers which responded with an error, and are not asked again
+		private final Set<BFTNode> errored = new HashSet<>();
+		private int rounds = 1;
+
+		SyncRequestState(ImmutableList<BFTNode> candidates) {
+			this.candidates = candidates;
+		}
+	}
+
 
 	/**
 	 * An asynchronous supplier which retrieves data for a vertex with a given id
@@ -115,33 +151,52 @@ public final class BFTSync implements BFTSyncResponseProcessor, BFTUpdateProcess
 	}
 
 	private static final Logger log = LogManager.getLogger();
+	// Number of peers asked in parallel for the same vertices
+	private static final int SYNC_REQUEST_FANOUT = 3;
+	private static final long SYNC_REQUEST_TIMEOUT_MS = 1000L;
+	// Number of times each candidate may be asked for the same vertices
+	private static final int SYNC_REQUEST_MAX_ROUNDS = 3;
+	private static final int PEER_SCORE_MIN = -10;
+	private static final int PEER_SCORE_MAX = 10;
+	private static final int PEER_SCORE_SUCCESS = 1;
+	private static final int PEER_SCORE_ERROR = -1;
+	private static final int PEER_SCORE_TIMEOUT = -2;
+	private final BFTNode self;
 	private final VertexStore vertexStore;
 	private final Pacemaker pacemaker;
 	private final Map<Hash, SyncState> syncing = new HashMap<>();
 	private final TreeMap<LedgerHeader, List<Hash>> ledgerSyncing;
-	private final Map<Pair<Hash, Integer>, List<Hash>> bftSyncing = new HashMap<>();
+	private final Map<Pair<Hash, Integer>, SyncRequestState> bftSyncing = new HashMap<>();
+	private final Map<BFTNode, Integer> peerScores = new HashMap<>();
 	private final SyncVerticesRequestSender requestSender;
 	private final SyncLedgerRequestSender syncLedgerRequestSender;
+	private final TimeSupplier timeSupplier;
 	private VerifiedLedgerHeaderAndProof currentLedgerHeader;
 
 	public BFTSync(
+		BFTNode self,
 		VertexStore vertexStore,
 		Pacemaker pacemaker,
 		Comparator<LedgerHeader> ledgerHeaderComparator,
 		SyncVerticesRequestSender requestSender,
 		SyncLedgerRequestSender syncLedgerRequestSender,
+		TimeSupplier timeSupplier,
 		VerifiedLedgerHeaderAndProof currentLedgerHeader
 	) {
+		this.self = Objects.requireNonNull(self);
 		this.vertexStore = vertexStore;
 		this.pacemaker = pacemaker;
 		this.ledgerSyncing = new TreeMap<>(ledgerHeaderComparator);
 		this.requestSender = requestSender;
 		this.syncLedgerRequestSender = syncLedgerRequestSender;
+		this.timeSupplier = Objects.requireNonNull(timeSupplier);
 		this.currentLedgerHeader = Objects.requireNonNull(currentLedgerHeader);
 	}
 
 	@Override
 	public SyncResult syncToQC(QuorumCertificate qc, QuorumCertificate committedQC, @Nullable BFTNode author) {
+		processRequestTimeouts();
+
 		final Hash vertexId = qc.getProposed().getVertexId();
 		if (qc.getProposed().getView().compareTo(vertexStore.getRoot().getView()) < 0) {
 			return SyncResult.INVALID;
@@ -185,8 +240,17 @@ public final class BFTSync implements BFTSyncResponseProcessor, BFTUpdateProcess
 		return false;
 	}
 
+	private ImmutableList<BFTNode> syncCandidates(QuorumCertificate qc, BFTNode author) {
+		// Author first, as it is most likely to have the vertices, then the other signers of the QC
+		final Set<BFTNode> candidates = new LinkedHashSet<>();
+		candidates.add(author);
+		candidates.addAll(qc.getTimestampedSignatures().getSignatures().keySet());
+		candidates.remove(this.self);
+		return candidates.isEmpty() ? ImmutableList.of(author) : ImmutableList.copyOf(candidates);
+	}
+
 	private void startSync(QuorumCertificate qc, QuorumCertificate committedQC, BFTNode author) {
-		final SyncState syncState = new SyncState(qc, committedQC, author);
+		final SyncState syncState = new SyncState(qc, committedQC, author, syncCandidates(qc, author));
 		syncing.put(syncState.localSyncId, syncState);
 		if (requiresLedgerSync(syncState)) {
 			this.doCommittedSync(syncState);
@@ -210,14 +274,113 @@ public final class BFTSync implements BFTSyncResponseProcessor, BFTUpdateProcess
 	}
 
 	private void sendBFTSyncRequest(SyncState syncState, Hash vertexId, int count) {
-		bftSyncing.compute(Pair.of(vertexId, count), (pair, syncing) -> {
-			if (syncing == null) {
-				syncing = new ArrayList<>();
+		final Pair<Hash, Integer> requestInfo = Pair.of(vertexId, count);
+		SyncRequestState request = bftSyncing.get(requestInfo);
+		if (request == null) {
+			request = new SyncRequestState(syncState.candidates);
+			request.syncIds.add(syncState.localSyncId);
+			bftSyncing.put(requestInfo, request);
+			if (!sendToPeers(requestInfo, request, SYNC_REQUEST_FANOUT)) {
+				bftSyncing.remove(requestInfo);
+				dropSyncs(requestInfo, request);
 			}
-			syncing.add(syncState.localSyncId);
-			return syncing;
-		});
-		requestSender.sendGetVerticesRequest(syncState.author, vertexId, count);
+		} else {
+			// Already in flight, the first response will serve this sync too
+			request.syncIds.add(syncState.localSyncId);
+		}
+	}
+
+	/**
+	 * Sends a request to up to {@code numPeers} more peers.
+	 *
+	 * @return {@code false} if the request can no longer succeed and should be dropped
+	 */
+	private boolean sendToPeers(Pair<Hash, Integer> requestInfo, SyncRequestState request, int numPeers) {
+		if (request.syncIds.stream().noneMatch(syncing::containsKey)) {
+			// Every sync waiting on this request has finished or been dropped
+			return false;
+		}
+		List<BFTNode> untried = untriedPeers(request);
+		if (untried.isEmpty() && request.rounds < SYNC_REQUEST_MAX_ROUNDS) {
+			// Every candidate has been asked, start another round with those not currently in flight
+			request.rounds++;
+			request.tried.retainAll(request.inFlight.keySet());
+			untried = untriedPeers(request);
+		}
+		if (untried.isEmpty()) {
+			// Nothing left to ask, wait for any peers still in flight
+			return !request.inFlight.isEmpty();
+		}
+		// Stable sort, so equally scored peers keep candidate order
+		untried.sort(Comparator.comparingInt(this::peerScore).reversed());
+
+		final long timeout = this.timeSupplier.currentTime() + SYNC_REQUEST_TIMEOUT_MS;
+		for (BFTNode peer : untried.subList(0, Math.min(numPeers, untried.size()))) {
+			request.tried.add(peer);
+			request.inFlight.put(peer, timeout);
+			requestSender.sendGetVerticesRequest(peer, requestInfo.getFirst(), requestInfo.getSecond());
+		}
+		return true;
+	}
+
+	private List<BFTNode> untriedPeers(SyncRequestState request) {
+		return request.candidates.stream()
+			.filter(peer -> !request.tried.contains(peer) && !request.errored.contains(peer))
+			.collect(Collectors.toList());
+	}
+
+	// Drops the syncs waiting on a dropped request, so that a later syncToQC can start them afresh.
+	// Only touches syncing, so may be called while iterating over bftSyncing.
+	private void dropSyncs(Pair<Hash, Integer> requestInfo, SyncRequestState request) {
+		log.info("SYNC_VERTICES: Giving up on {} after {} rounds, {} peers errored", requestInfo, request.rounds, request.errored.size());
+		for (Hash syncId : request.syncIds) {
+			this.syncing.remove(syncId);
+		}
+	}
+
+	@Override
+	public void processSyncTimeouts() {
+		processRequestTimeouts();
+	}
+
+	private void processRequestTimeouts() {
+		if (bftSyncing.isEmpty()) {
+			return;
+		}
+		final long now = this.timeSupplier.currentTime();
+		Iterator<Map.Entry<Pair<Hash, Integer>, SyncRequestState>> requestIterator = bftSyncing.entrySet().iterator();
+		while (requestIterator.hasNext()) {
+			Map.Entry<Pair<Hash, Integer>, SyncRequestState> entry = requestIterator.next();
+			Pair<Hash, Integer> requestInfo = entry.getKey();
+			SyncRequestState request = entry.getValue();
+			int timedOut = 0;
+			Iterator<Map.Entry<BFTNode, Long>> inFlightIterator = request.inFlight.entrySet().iterator();
+			while (inFlightIterator.hasNext()) {
+				Map.Entry<BFTNode, Long> peerTimeout = inFlightIterator.next();
+				if (peerTimeout.getValue() <= now) {
+					inFlightIterator.remove();
+					adjustPeerScore(peerTimeout.getKey(), PEER_SCORE_TIMEOUT);
+					timedOut++;
+				}
+			}
+			boolean alive = request.syncIds.stream().anyMatch(syncing::containsKey);
+			if (alive && timedOut > 0) {
+				log.debug("SYNC_VERTICES: {} peers timed out for {}, retrying", timedOut, requestInfo);
+				alive = sendToPeers(requestInfo, request, timedOut);
+			}
+			if (!alive) {
+				requestIterator.remove();
+				dropSyncs(requestInfo, request);
+			}
+		}
+	}
+
+	private int peerScore(BFTNode peer) {
+		return this.peerScores.getOrDefault(peer, 0);
+	}
+
+	private void adjustPeerScore(BFTNode peer, int delta) {
+		this.peerScores.merge(peer, delta, (score, d) -> Math.max(PEER_SCORE_MIN, Math.min(PEER_SCORE_MAX, score + d)));
 	}
 
 	private void rebuildAndSyncQC(SyncState syncState) {
@@ -225,9 +388,10 @@ public final class BFTSync implements BFTSyncResponseProcessor, BFTUpdateProcess
 
 		// TODO: check if there are any vertices which haven't been local sync processed yet
 		if (requiresLedgerSync(syncState)) {
-			syncState.fetched.sort(Comparator.comparing(VerifiedVertex::getView));
-			List<VerifiedVertex> nonRootVertices = syncState.fetched.stream().skip(1).collect(Collectors.toList());
-			vertexStore.rebuild(syncState.fetched.get(0), syncState.fetched.get(1).getQC(), syncState.committedQC, nonRootVertices);
+			List<VerifiedVertex> fetched = new ArrayList<>(syncState.fetched);
+			fetched.sort(Comparator.comparing(VerifiedVertex::getView));
+			List<VerifiedVertex> nonRootVertices = fetched.subList(1, fetched.size());
+			vertexStore.rebuild(fetched.get(0), fetched.get(1).getQC(), syncState.committedQC, nonRootVertices);
 		} else {
 			log.info("SYNC_STATE: skipping rebuild");
 		}
@@ -240,7 +404,7 @@ public final class BFTSync implements BFTSyncResponseProcessor, BFTUpdateProcess
 	private void processVerticesResponseForCommittedSync(SyncState syncState, GetVerticesResponse response) {
 		log.info("SYNC_STATE: Processing vertices {} View {} From {}", syncState, response.getVertices().get(0).getView(), response.getSender());
 
-		ImmutableList<BFTNode> signers = ImmutableList.of(syncState.author);
+		ImmutableList<BFTNode> signers = syncState.candidates;
 		syncState.fetched.addAll(response.getVertices());
 
 		// TODO: verify actually extends rather than just state version comparison
@@ -296,6 +460,23 @@ public final class BFTSync implements BFTSyncResponseProcessor, BFTUpdateProcess
 
 		log.info("SYNC_VERTICES: Received GetVerticesErrorResponse {} ", response);
 
+		// Peer does not have the vertices, so ask someone else for any request it was serving
+		final BFTNode sender = response.getSender();
+		adjustPeerScore(sender, PEER_SCORE_ERROR);
+		Iterator<Map.Entry<Pair<Hash, Integer>, SyncRequestState>> requestIterator = bftSyncing.entrySet().iterator();
+		while (requestIterator.hasNext()) {
+			Map.Entry<Pair<Hash, Integer>, SyncRequestState> entry = requestIterator.next();
+			SyncRequestState request = entry.getValue();
+			if (request.inFlight.remove(sender) != null) {
+				request.errored.add(sender);
+				// Replace the peer right away, rather than waiting for the others in flight to time out
+				if (!sendToPeers(entry.getKey(), request, 1)) {
+					requestIterator.remove();
+					dropSyncs(entry.getKey(), request);
+				}
+			}
+		}
+
 		// error response indicates that the node has moved on from last sync so try and sync to a new sync
 		this.syncToQC(response.getHighestQC(), response.getHighestCommittedQC(), response.getSender());
 	}
@@ -306,11 +487,22 @@ public final class BFTSync implements BFTSyncResponseProcessor, BFTUpdateProcess
 
 		log.trace("SYNC_VERTICES: Received GetVerticesResponse {}", response);
 
+		processRequestTimeouts();
+
+		if (response.getVertices().isEmpty()) {
+			adjustPeerScore(response.getSender(), PEER_SCORE_ERROR);
+			return;
+		}
+
 		VerifiedVertex firstVertex = response.getVertices().get(0);
 		Pair<Hash, Integer> requestInfo = Pair.of(firstVertex.getId(), response.getVertices().size());
-		List<Hash> syncs = bftSyncing.remove(requestInfo);
-		if (syncs != null) {
-			for (Hash syncTo : syncs) {
+		// First response wins, any later responses for the same request are ignored
+		SyncRequestState request = bftSyncing.remove(requestInfo);
+		if (request != null) {
+			if (request.inFlight.containsKey(response.getSender())) {
+				adjustPeerScore(response.getSender(), PEER_SCORE_SUCCESS);
+			}
+			for (Hash syncTo : request.syncIds) {
 				SyncState syncState = syncing.get(syncTo);
 				if (syncState == null) {
 					continue; // sync requirements already satisfied by another sync
@@ -331,6 +523,7 @@ public final class BFTSync implements BFTSyncResponseProcessor, BFTUpdateProcess
 
 	@Override
 	public void processBFTUpdate(BFTUpdate update) {
+		processRequestTimeouts();
 	}
 
 	// TODO: Verify headers match
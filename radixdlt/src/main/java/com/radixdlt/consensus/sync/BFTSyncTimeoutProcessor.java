@@ -0,0 +1,28 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.consensus.sync;
+
+/**
+ * Processor of periodic ticks used to retry sync requests which have timed out
+ */
+public interface BFTSyncTimeoutProcessor {
+	/**
+	 * Check in flight sync requests for timeouts, retrying or dropping them as required
+	 */
+	void processSyncTimeouts();
+}
@@ -40,6 +40,7 @@ public interface SystemCounters {
 		BFT_VOTE_RTT_MIN("bft.vote_rtt.min"),
 		BFT_VOTE_RTT_SIGMA("bft.vote_rtt.sigma"),
 
+		EPOCH_MANAGER_DROPPED_CONSENSUS_EVENTS("epoch_manager.dropped_consensus_events"),
 		EPOCH_MANAGER_QUEUED_CONSENSUS_EVENTS("epoch_manager.queued_consensus_events"),
 
 		LEDGER_PROCESSED("ledger.processed"),
@@ -47,9 +48,14 @@ public interface SystemCounters {
 
 		SYNC_INVALID_COMMANDS_RECEIVED("sync.invalid_commands_received"),
 		SYNC_PROCESSED("sync.processed"),
+		SYNC_RESPONSE_CACHE_HITS("sync.response_cache_hits"),
 
 		MEMPOOL_COUNT("mempool.count"),
 		MEMPOOL_MAXCOUNT("mempool.maxcount"),
+		MEMPOOL_RECENT_DUPLICATES("mempool.recent_duplicates"),
+		MEMPOOL_EXPIRED("mempool.expired"),
+		MEMPOOL_INVALIDATED("mempool.invalidated"),
+		MEMPOOL_RELOADED("mempool.reloaded"),
 
 		MESSAGES_INBOUND_BADSIGNATURE("messages.inbound.badsignature"),
 		MESSAGES_INBOUND_DISCARDED("messages.inbound.discarded"),
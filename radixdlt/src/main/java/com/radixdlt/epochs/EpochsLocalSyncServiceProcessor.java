@@ -19,35 +19,52 @@ package com.radixdlt.epochs;
 
 import com.google.inject.Inject;
 import com.radixdlt.consensus.BFTConfiguration;
+import com.radixdlt.consensus.LedgerHeader;
 import com.radixdlt.consensus.VerifiedLedgerHeaderAndProof;
+import com.radixdlt.consensus.bft.View;
 import com.radixdlt.consensus.epoch.EpochChange;
+import com.radixdlt.ledger.DtoLedgerHeaderAndProof;
 import com.radixdlt.ledger.LedgerUpdateProcessor;
 import com.radixdlt.sync.LocalSyncServiceAccumulatorProcessor;
 import com.radixdlt.sync.LocalSyncServiceAccumulatorProcessor.SyncInProgress;
 import com.radixdlt.sync.LocalSyncRequest;
 import com.radixdlt.sync.LocalSyncServiceProcessor;
+import com.radixdlt.sync.RemoteSyncResponse;
+import com.radixdlt.sync.RemoteSyncResponseValidatorSetVerifier;
 import com.radixdlt.sync.StateSyncNetwork;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.TreeMap;
 import java.util.function.Function;
+import java.util.stream.Stream;
 import javax.annotation.concurrent.NotThreadSafe;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 /**
  * Manages the syncing service across epochs
+ * <p>
+ * Requests targeting the ends of later epochs, such as the chain of end of epoch proofs
+ * received in response to an epoch sync request, are kept so that once an epoch has been
+ * synced the next one is synced without another epoch sync request. The first range of
+ * commands of each of the next few of these epochs is requested ahead of time.
  */
 @NotThreadSafe
 public class EpochsLocalSyncServiceProcessor implements LocalSyncServiceProcessor, LedgerUpdateProcessor<EpochsLedgerUpdate> {
 	private static final Logger log = LogManager.getLogger();
+	private static final int MAX_PREFETCHED_EPOCHS = 4;
 
 	private final Function<BFTConfiguration, LocalSyncServiceAccumulatorProcessor> localSyncFactory;
 	private final SyncedEpochSender syncedEpochSender;
 	private final StateSyncNetwork stateSyncNetwork;
 	private final TreeMap<Long, List<LocalSyncRequest>> outsideOfCurrentEpochRequests = new TreeMap<>();
+	// Requests targeting the end of the current or a later epoch, keyed by that epoch
+	private final TreeMap<Long, LocalSyncRequest> endOfEpochRequests = new TreeMap<>();
+	private final Set<Long> prefetchedEpochs = new HashSet<>();
 
 	private EpochChange currentEpoch;
 	private VerifiedLedgerHeaderAndProof currentHeader;
@@ -82,11 +99,21 @@ public class EpochsLocalSyncServiceProcessor implements LocalSyncServiceProcesso
 
 			// TODO: Cleanup further requests
 			this.outsideOfCurrentEpochRequests.headMap(epochChange.getEpoch()).clear();
-			this.outsideOfCurrentEpochRequests.values().stream().flatMap(List::stream)
+			this.endOfEpochRequests.headMap(epochChange.getEpoch()).clear();
+			this.prefetchedEpochs.removeIf(epoch -> epoch <= epochChange.getEpoch());
+			if (this.syncToEndOfEpoch()) {
+				this.prefetchEpochs();
+				return;
+			}
+
+			Stream.concat(
+				this.endOfEpochRequests.values().stream(),
+				this.outsideOfCurrentEpochRequests.values().stream().flatMap(List::stream)
+			)
 				.findFirst()
 				.ifPresent(request -> {
 					log.info("Epoch updated sending further sync requests to {}", request.getTargetNodes().get(0));
-					stateSyncNetwork.sendSyncRequest(request.getTargetNodes().get(0), currentEpoch.getProof().toDto());
+					stateSyncNetwork.sendSyncRequest(request.getTargetNodes().get(0), currentEpoch.getProof().toDto(), 0);
 				});
 		} else {
 			this.currentHeader = ledgerUpdate.getTail();
@@ -94,18 +121,93 @@ public class EpochsLocalSyncServiceProcessor implements LocalSyncServiceProcesso
 		}
 	}
 
+	private boolean syncToEndOfEpoch() {
+		final LocalSyncRequest request = this.endOfEpochRequests.get(currentEpoch.getEpoch());
+		if (request == null) {
+			return false;
+		}
+
+		// An epoch without commands is only completed by the verified response to an epoch sync request
+		if (Objects.equals(request.getTarget().getAccumulatorState(), this.currentHeader.getAccumulatorState())) {
+			return false;
+		}
+
+		// The target is only synced towards, what gets committed are the fully verified responses
+		if (!RemoteSyncResponseValidatorSetVerifier.hasQuorum(
+			currentEpoch.getBFTConfiguration().getValidatorSet(),
+			request.getTarget().getSignatures()
+		)) {
+			log.warn("End of epoch request {} is not signed by a quorum of epoch {}", request, currentEpoch.getEpoch());
+			this.endOfEpochRequests.clear();
+			return false;
+		}
+
+		log.info("Epoch updated syncing to end of epoch {}", request.getTarget());
+		this.localSyncServiceProcessor.processLocalSyncRequest(request);
+		return true;
+	}
+
+	private void prefetchEpochs() {
+		final long current = currentEpoch.getEpoch();
+		for (long epoch = current + 1; epoch <= current + MAX_PREFETCHED_EPOCHS; epoch++) {
+			final LocalSyncRequest start = this.endOfEpochRequests.get(epoch - 1);
+			final LocalSyncRequest end = this.endOfEpochRequests.get(epoch);
+			if (start == null || end == null) {
+				return;
+			}
+
+			if (Objects.equals(start.getTarget().getAccumulatorState(), end.getTarget().getAccumulatorState())
+				|| !this.prefetchedEpochs.add(epoch)) {
+				continue;
+			}
+
+			stateSyncNetwork.sendSyncRequest(end.getTargetNodes().get(0), epochStart(start.getTarget()), 0);
+		}
+	}
+
+	// Requests starting at the end of an epoch are answered with the proof of the following epoch,
+	// so commands are requested from a header at the start of their epoch with the same state
+	private static DtoLedgerHeaderAndProof epochStart(VerifiedLedgerHeaderAndProof endOfPreviousEpoch) {
+		final DtoLedgerHeaderAndProof dto = endOfPreviousEpoch.toDto();
+		return new DtoLedgerHeaderAndProof(
+			dto.getOpaque0(),
+			dto.getOpaque1(),
+			dto.getOpaque2(),
+			dto.getOpaque3(),
+			LedgerHeader.create(
+				endOfPreviousEpoch.getEpoch() + 1,
+				View.genesis(),
+				endOfPreviousEpoch.getAccumulatorState(),
+				endOfPreviousEpoch.timestamp(),
+				false
+			),
+			dto.getSignatures()
+		);
+	}
+
 	@Override
 	public void processLocalSyncRequest(LocalSyncRequest request) {
 		final long targetEpoch = request.getTarget().getEpoch();
+		final boolean isEndOfEpoch = request.getTarget().isEndOfEpoch();
+		if (isEndOfEpoch && targetEpoch >= currentEpoch.getEpoch()) {
+			this.endOfEpochRequests.put(targetEpoch, request);
+		}
+
 		if (targetEpoch > currentEpoch.getEpoch()) {
-			log.warn("Request {} is a different epoch from current {} sending epoch sync", request, currentEpoch.getEpoch());
-
-			outsideOfCurrentEpochRequests.compute(targetEpoch, (epoch, list) -> {
-				List<LocalSyncRequest> requests = list == null ? new ArrayList<>() : list;
-				requests.add(request);
-				return requests;
-			});
-			stateSyncNetwork.sendSyncRequest(request.getTargetNodes().get(0), currentEpoch.getProof().toDto());
+			if (!isEndOfEpoch) {
+				outsideOfCurrentEpochRequests.compute(targetEpoch, (epoch, list) -> {
+					List<LocalSyncRequest> requests = list == null ? new ArrayList<>() : list;
+					requests.add(request);
+					return requests;
+				});
+			}
+
+			// Once the end of the next epoch is known the epochs up to the target are synced one after another
+			if (!this.endOfEpochRequests.containsKey(currentEpoch.getEpoch() + 1)) {
+				log.warn("Request {} is a different epoch from current {} sending epoch sync", request, currentEpoch.getEpoch());
+				stateSyncNetwork.sendSyncRequest(request.getTargetNodes().get(0), currentEpoch.getProof().toDto(), 0);
+			}
+			this.prefetchEpochs();
 			return;
 		}
 
@@ -128,4 +230,9 @@ public class EpochsLocalSyncServiceProcessor implements LocalSyncServiceProcesso
 	public void processSyncTimeout(SyncInProgress timeout) {
 		localSyncServiceProcessor.processSyncTimeout(timeout);
 	}
+
+	@Override
+	public void processVerifiedSyncResponse(RemoteSyncResponse syncResponse) {
+		localSyncServiceProcessor.processVerifiedSyncResponse(syncResponse);
+	}
 }
@@ -21,6 +21,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.inject.Inject;
 import com.radixdlt.consensus.BFTConfiguration;
 import com.radixdlt.consensus.VerifiedLedgerHeaderAndProof;
+import com.radixdlt.consensus.bft.BFTNode;
 import com.radixdlt.consensus.epoch.EpochChange;
 import com.radixdlt.consensus.sync.SyncLedgerRequestSender;
 import com.radixdlt.ledger.DtoCommandsAndProof;
@@ -30,8 +31,11 @@ import com.radixdlt.sync.LocalSyncRequest;
 import com.radixdlt.sync.RemoteSyncResponse;
 import com.radixdlt.sync.RemoteSyncResponseProcessor;
 import com.radixdlt.sync.RemoteSyncResponseValidatorSetVerifier;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.function.Function;
 import javax.annotation.concurrent.NotThreadSafe;
 import org.apache.logging.log4j.LogManager;
@@ -40,13 +44,18 @@ import org.apache.logging.log4j.Logger;
 /**
  * Processes remote sync responses with the current epoch
  * in mind.
+ * <p>
+ * Responses for later epochs can only be verified once the validator set of their
+ * epoch is known, so a bounded number of them is held back until the epoch changes.
  */
 @NotThreadSafe
 public final class EpochsRemoteSyncResponseProcessor implements RemoteSyncResponseProcessor, LedgerUpdateProcessor<EpochsLedgerUpdate> {
 	private static final Logger log = LogManager.getLogger();
+	private static final int MAX_LATER_EPOCH_RESPONSES = 16;
 
 	private final Function<BFTConfiguration, RemoteSyncResponseValidatorSetVerifier> verifierFactory;
 	private final SyncLedgerRequestSender localSyncRequestSender;
+	private final TreeMap<Long, List<RemoteSyncResponse>> laterEpochResponses = new TreeMap<>();
 
 	private RemoteSyncResponseValidatorSetVerifier currentVerifier;
 	private EpochChange currentEpoch;
@@ -75,13 +84,27 @@ public final class EpochsRemoteSyncResponseProcessor implements RemoteSyncRespon
 			this.currentEpoch = epochChange;
 			this.currentHeader = ledgerUpdate.getTail();
 			this.currentVerifier = verifierFactory.apply(epochChange.getBFTConfiguration());
+
+			this.laterEpochResponses.headMap(epochChange.getEpoch()).clear();
+			List<RemoteSyncResponse> responses = this.laterEpochResponses.remove(epochChange.getEpoch());
+			if (responses != null) {
+				responses.forEach(this::processSyncResponse);
+			}
 		}
 	}
 
 	@Override
 	public void processSyncResponse(RemoteSyncResponse syncResponse) {
 		DtoCommandsAndProof dtoCommandsAndProof = syncResponse.getCommandsAndProof();
-		if (dtoCommandsAndProof.getTail().getLedgerHeader().getEpoch() != currentEpoch.getEpoch()) {
+		final long responseEpoch = dtoCommandsAndProof.getTail().getLedgerHeader().getEpoch();
+		if (responseEpoch > currentEpoch.getEpoch()
+			&& this.laterEpochResponses.values().stream().mapToInt(List::size).sum() < MAX_LATER_EPOCH_RESPONSES) {
+			log.debug("Response {} is a later epoch than current {}, holding back", syncResponse, currentEpoch.getEpoch());
+			this.laterEpochResponses.computeIfAbsent(responseEpoch, e -> new ArrayList<>()).add(syncResponse);
+			return;
+		}
+
+		if (responseEpoch != currentEpoch.getEpoch()) {
 			log.warn("Response {} is a different epoch from current {}", syncResponse, currentEpoch.getEpoch());
 			return;
 		}
@@ -105,23 +128,44 @@ public final class EpochsRemoteSyncResponseProcessor implements RemoteSyncRespon
 					syncResponse.getSender(), mockedDtoCommandsAndProof
 				);
 				currentVerifier.processSyncResponse(mockedResponse);
-				return;
+			} else {
+				// TODO: verify
+				LocalSyncRequest localSyncRequest = new LocalSyncRequest(toVerified(dto), ImmutableList.of(syncResponse.getSender()));
+				localSyncRequestSender.sendLocalSyncRequest(localSyncRequest);
 			}
 
-			// TODO: verify
-			VerifiedLedgerHeaderAndProof verified = new VerifiedLedgerHeaderAndProof(
-				dto.getOpaque0(),
-				dto.getOpaque1(),
-				dto.getOpaque2(),
-				dto.getOpaque3(),
-				dto.getLedgerHeader(),
-				dto.getSignatures()
-			);
-			LocalSyncRequest localSyncRequest = new LocalSyncRequest(verified, ImmutableList.of(syncResponse.getSender()));
-			localSyncRequestSender.sendLocalSyncRequest(localSyncRequest);
+			this.sendLaterEpochProofs(syncResponse.getSender(), dto, dtoCommandsAndProof.getEpochProofs());
 			return;
 		}
 
 		currentVerifier.processSyncResponse(syncResponse);
 	}
+
+	// Proofs of later epochs are verified against the validator set of their epoch once it is reached
+	private void sendLaterEpochProofs(BFTNode sender, DtoLedgerHeaderAndProof epochProof, List<DtoLedgerHeaderAndProof> laterEpochProofs) {
+		DtoLedgerHeaderAndProof previous = epochProof;
+		for (DtoLedgerHeaderAndProof next : laterEpochProofs) {
+			if (!next.getLedgerHeader().isEndOfEpoch()
+				|| next.getLedgerHeader().getEpoch() != previous.getLedgerHeader().getEpoch() + 1
+				|| next.getLedgerHeader().getAccumulatorState().getStateVersion()
+					< previous.getLedgerHeader().getAccumulatorState().getStateVersion()) {
+				log.warn("Bad epoch proof chain from {} at {}", sender, next);
+				return;
+			}
+
+			localSyncRequestSender.sendLocalSyncRequest(new LocalSyncRequest(toVerified(next), ImmutableList.of(sender)));
+			previous = next;
+		}
+	}
+
+	private static VerifiedLedgerHeaderAndProof toVerified(DtoLedgerHeaderAndProof dto) {
+		return new VerifiedLedgerHeaderAndProof(
+			dto.getOpaque0(),
+			dto.getOpaque1(),
+			dto.getOpaque2(),
+			dto.getOpaque3(),
+			dto.getLedgerHeader(),
+			dto.getSignatures()
+		);
+	}
 }
@@ -19,6 +19,7 @@ package com.radixdlt.ledger;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
 import com.radixdlt.crypto.Hash;
 import com.radixdlt.serialization.DsonOutput;
 import com.radixdlt.serialization.DsonOutput.Output;
@@ -43,13 +44,24 @@ public final class AccumulatorState {
 	@DsonOutput(Output.ALL)
 	private final Hash accumulatorHash;
 
+	// Roots of the Merkle accumulator subtrees, empty for accumulators which do not use them
+	@JsonProperty("peaks")
+	@DsonOutput(Output.ALL)
+	private final ImmutableList<Hash> peaks;
+
+	public AccumulatorState(long stateVersion, Hash accumulatorHash) {
+		this(stateVersion, accumulatorHash, ImmutableList.of());
+	}
+
 	@JsonCreator
 	public AccumulatorState(
 		@JsonProperty("state_version") long stateVersion,
-		@JsonProperty("accumulator_hash") Hash accumulatorHash
+		@JsonProperty("accumulator_hash") Hash accumulatorHash,
+		@JsonProperty("peaks") ImmutableList<Hash> peaks
 	) {
 		this.stateVersion = stateVersion;
 		this.accumulatorHash = Objects.requireNonNull(accumulatorHash);
+		this.peaks = peaks == null ? ImmutableList.of() : peaks;
 	}
 
 	public long getStateVersion() {
@@ -60,6 +72,17 @@ public final class AccumulatorState {
 		return accumulatorHash;
 	}
 
+	/**
+	 * Retrieves the roots of the subtrees making up a Merkle accumulator, ordered from the oldest
+	 * and largest subtree to the newest. These are determined by the same ledger contents as the
+	 * accumulator hash and so are not taken into account for equality.
+	 *
+	 * @return the subtree roots, or an empty list if the accumulator does not track them
+	 */
+	public ImmutableList<Hash> getPeaks() {
+		return peaks;
+	}
+
 	@Override
 	public int hashCode() {
 		return Objects.hash(stateVersion, accumulatorHash);
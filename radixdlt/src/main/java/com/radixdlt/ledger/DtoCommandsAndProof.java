@@ -52,15 +52,29 @@ public class DtoCommandsAndProof {
 	@DsonOutput(Output.ALL)
 	private final DtoLedgerHeaderAndProof tail;
 
+	@JsonProperty("epoch_proofs")
+	@DsonOutput(Output.ALL)
+	private final ImmutableList<DtoLedgerHeaderAndProof> epochProofs;
+
+	public DtoCommandsAndProof(
+		ImmutableList<Command> commands,
+		DtoLedgerHeaderAndProof head,
+		DtoLedgerHeaderAndProof tail
+	) {
+		this(commands, head, tail, ImmutableList.of());
+	}
+
 	@JsonCreator
 	public DtoCommandsAndProof(
 		@JsonProperty("commands") ImmutableList<Command> commands,
 		@JsonProperty("head") DtoLedgerHeaderAndProof head,
-		@JsonProperty("tail") DtoLedgerHeaderAndProof tail
+		@JsonProperty("tail") DtoLedgerHeaderAndProof tail,
+		@JsonProperty("epoch_proofs") ImmutableList<DtoLedgerHeaderAndProof> epochProofs
 	) {
 		this.commands = commands == null ? ImmutableList.of() : commands;
 		this.head = Objects.requireNonNull(head);
 		this.tail = Objects.requireNonNull(tail);
+		this.epochProofs = epochProofs == null ? ImmutableList.of() : epochProofs;
 	}
 
 	public ImmutableList<Command> getCommands() {
@@ -75,6 +89,16 @@ public class DtoCommandsAndProof {
 		return tail;
 	}
 
+	/**
+	 * Proofs of the ends of the epochs following the tail, in epoch order.
+	 * Only present in responses to epoch sync requests.
+	 *
+	 * @return end of epoch proofs after the tail
+	 */
+	public ImmutableList<DtoLedgerHeaderAndProof> getEpochProofs() {
+		return epochProofs;
+	}
+
 	@Override
 	public String toString() {
 		return String.format("%s{cmds=%s head=%s tail=%s}", this.getClass().getSimpleName(), commands, head, tail);
@@ -28,5 +28,40 @@ import java.util.Optional;
  */
 public interface LedgerAccumulatorVerifier {
 	boolean verify(AccumulatorState head, ImmutableList<Command> commands, AccumulatorState tail);
-	Optional<ImmutableList<Command>> verifyAndGetExtension(AccumulatorState current, ImmutableList<Command> commands, AccumulatorState tail);
+
+	/**
+	 * Retrieves the commands which extend {@code current} up to {@code tail}, given commands
+	 * ending at {@code tail} which may start before {@code current}.
+	 *
+	 * @param current the state to extend
+	 * @param commands the commands ending at {@code tail}
+	 * @param tail the state after the last command
+	 * @return the commands following {@code current}, or empty if there are versions missing
+	 * 	between {@code current} and the commands, {@code tail} is behind {@code current},
+	 * 	or the commands do not extend {@code current}
+	 */
+	default Optional<ImmutableList<Command>> verifyAndGetExtension(
+		AccumulatorState current,
+		ImmutableList<Command> commands,
+		AccumulatorState tail
+	) {
+		final long firstVersion = tail.getStateVersion() - commands.size() + 1;
+		if (current.getStateVersion() + 1 < firstVersion) {
+			// Missing versions
+			return Optional.empty();
+		}
+		if (current.getStateVersion() > tail.getStateVersion()) {
+			// Already ahead of the commands
+			return Optional.empty();
+		}
+
+		final int startIndex = (int) (current.getStateVersion() + 1 - firstVersion);
+		final ImmutableList<Command> extension = commands.subList(startIndex, commands.size());
+		if (!verify(current, extension, tail)) {
+			// Does not extend
+			return Optional.empty();
+		}
+
+		return Optional.of(extension);
+	}
 }
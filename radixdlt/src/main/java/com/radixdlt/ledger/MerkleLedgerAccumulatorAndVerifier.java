@@ -0,0 +1,326 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.ledger;
+
+import com.google.common.collect.ImmutableList;
+import com.google.inject.Inject;
+import com.radixdlt.consensus.Command;
+import com.radixdlt.consensus.Hasher;
+import com.radixdlt.crypto.Hash;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.LongFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Append-only Merkle accumulator (a Merkle mountain range) and verifier.
+ * <p>
+ * The ledger at state version {@code v} is made up of {@code v + 1} leaves, where leaf 0 is the
+ * genesis accumulator hash and leaf {@code i > 0} is the hash of the command committed at version {@code i}.
+ * The leaves are covered by one perfect binary tree per set bit of the leaf count, largest first.
+ * The roots of these trees are kept in {@link AccumulatorState#getPeaks()} and folded into the
+ * accumulator hash.
+ * <p>
+ * A batch of commands is appended as a sequence of aligned subtrees which do not depend on each
+ * other, so large batches are hashed concurrently. The roots of those subtrees also form a compact
+ * consistency proof between two accumulator states, and the path from a leaf up to its peak forms
+ * an inclusion proof for a single command.
+ */
+@ThreadSafe
+public class MerkleLedgerAccumulatorAndVerifier implements LedgerAccumulator, LedgerAccumulatorVerifier {
+	private static final int HASH_BYTES = 32;
+	private static final byte LEAF_PREFIX = 0;
+	private static final byte NODE_PREFIX = 1;
+	private static final byte PEAK_PREFIX = 2;
+	// Batches smaller than this are hashed on the calling thread
+	private static final int PARALLEL_THRESHOLD = 1024;
+
+	private final Hasher hasher;
+
+	@Inject
+	public MerkleLedgerAccumulatorAndVerifier(Hasher hasher) {
+		this.hasher = hasher;
+	}
+
+	@Override
+	public AccumulatorState accumulate(AccumulatorState parent, Command nextCommand) {
+		return extend(parent, ImmutableList.of(nextCommand))
+			.orElseThrow(() -> new IllegalStateException("Accumulator state has no valid peaks: " + parent));
+	}
+
+	@Override
+	public boolean verify(AccumulatorState start, ImmutableList<Command> commands, AccumulatorState end) {
+		return extend(start, commands)
+			.map(state -> Objects.equals(state, end))
+			.orElse(false);
+	}
+
+	/**
+	 * Computes a proof that the accumulator state reached by appending the given commands to
+	 * {@code start} extends {@code start}, without having to ship the commands themselves.
+	 * The proof has at most two hashes per bit of the resulting state version.
+	 *
+	 * @param start the state to prove consistency from
+	 * @param commands the commands following {@code start}
+	 * @return the consistency proof
+	 */
+	public ImmutableList<Hash> consistencyProof(AccumulatorState start, ImmutableList<Command> commands) {
+		final long firstVersion = start.getStateVersion() + 1;
+		return subtreeRoots(firstVersion, subtrees(firstVersion, firstVersion + commands.size()), commands);
+	}
+
+	/**
+	 * Verifies a proof created by {@link #consistencyProof(AccumulatorState, ImmutableList)}.
+	 *
+	 * @param start the earlier state
+	 * @param proof the consistency proof
+	 * @param end the later state
+	 * @return {@code true} if {@code end} is an extension of {@code start}
+	 */
+	public boolean verifyConsistency(AccumulatorState start, ImmutableList<Hash> proof, AccumulatorState end) {
+		if (end.getStateVersion() < start.getStateVersion()) {
+			return false;
+		}
+		final Optional<ImmutableList<Hash>> startPeaks = peaksOf(start);
+		if (!startPeaks.isPresent()) {
+			return false;
+		}
+
+		final List<Subtree> subtrees = subtrees(start.getStateVersion() + 1, end.getStateVersion() + 1);
+		if (subtrees.size() != proof.size()) {
+			return false;
+		}
+
+		final List<Hash> peaks = new ArrayList<>(startPeaks.get());
+		for (int i = 0; i < subtrees.size(); i++) {
+			appendSubtree(peaks, subtrees.get(i), proof.get(i));
+		}
+		return bag(peaks).equals(end.getAccumulatorHash());
+	}
+
+	/**
+	 * Computes a proof that the command committed at the given state version is included in
+	 * the given accumulator state. This needs the leaf hashes of the whole subtree the command
+	 * lives in, which for old commands may span a large part of the ledger.
+	 *
+	 * @param state the state to prove inclusion in
+	 * @param stateVersion the state version the command was committed at, must be greater than zero
+	 * @param leafHashes the leaf hash for a given state version: the genesis accumulator hash
+	 * 	for version zero and {@link #leafHash(Command)} of the committed command otherwise
+	 * @return the sibling hashes from the command's leaf up to its subtree root
+	 */
+	public ImmutableList<Hash> inclusionProof(AccumulatorState state, long stateVersion, LongFunction<Hash> leafHashes) {
+		if (stateVersion < 1 || stateVersion > state.getStateVersion()) {
+			throw new IllegalArgumentException("State version " + stateVersion + " is not a command of " + state);
+		}
+
+		final Subtree subtree = peakContaining(state.getStateVersion() + 1, stateVersion);
+		List<Hash> level = new ArrayList<>();
+		for (long i = 0; i < subtree.size(); i++) {
+			level.add(leafHashes.apply(subtree.position + i));
+		}
+
+		final ImmutableList.Builder<Hash> proof = ImmutableList.builder();
+		long index = stateVersion - subtree.position;
+		while (level.size() > 1) {
+			proof.add(level.get((int) (index ^ 1)));
+			level = nextLevel(level);
+			index >>>= 1;
+		}
+		return proof.build();
+	}
+
+	/**
+	 * Verifies a proof created by {@link #inclusionProof(AccumulatorState, long, LongFunction)}.
+	 *
+	 * @param state the state the command should be included in
+	 * @param stateVersion the state version the command should have been committed at
+	 * @param command the command
+	 * @param proof the inclusion proof
+	 * @return {@code true} if the command was committed at the given state version
+	 */
+	public boolean verifyInclusion(AccumulatorState state, long stateVersion, Command command, ImmutableList<Hash> proof) {
+		if (stateVersion < 1 || stateVersion > state.getStateVersion()) {
+			return false;
+		}
+		final Optional<ImmutableList<Hash>> peaks = peaksOf(state);
+		if (!peaks.isPresent()) {
+			return false;
+		}
+
+		final Subtree subtree = peakContaining(state.getStateVersion() + 1, stateVersion);
+		if (proof.size() != subtree.height) {
+			return false;
+		}
+
+		Hash hash = leafHash(command);
+		long index = stateVersion - subtree.position;
+		for (Hash sibling : proof) {
+			hash = (index & 1) == 0 ? node(hash, sibling) : node(sibling, hash);
+			index >>>= 1;
+		}
+		final int peakIndex = Long.bitCount(subtree.position);
+		return hash.equals(peaks.get().get(peakIndex));
+	}
+
+	/**
+	 * Computes the leaf hash of a command.
+	 *
+	 * @param command the command
+	 * @return the hash of the command's leaf
+	 */
+	public Hash leafHash(Command command) {
+		byte[] concat = new byte[1 + HASH_BYTES];
+		concat[0] = LEAF_PREFIX;
+		command.getHash().copyTo(concat, 1);
+		return hasher.hashBytes(concat);
+	}
+
+	private Optional<AccumulatorState> extend(AccumulatorState start, List<Command> commands) {
+		final Optional<ImmutableList<Hash>> startPeaks = peaksOf(start);
+		if (!startPeaks.isPresent()) {
+			return Optional.empty();
+		}
+
+		final long firstVersion = start.getStateVersion() + 1;
+		final List<Subtree> subtrees = subtrees(firstVersion, firstVersion + commands.size());
+		final ImmutableList<Hash> roots = subtreeRoots(firstVersion, subtrees, commands);
+		final List<Hash> peaks = new ArrayList<>(startPeaks.get());
+		for (int i = 0; i < subtrees.size(); i++) {
+			appendSubtree(peaks, subtrees.get(i), roots.get(i));
+		}
+		return Optional.of(new AccumulatorState(start.getStateVersion() + commands.size(), bag(peaks), ImmutableList.copyOf(peaks)));
+	}
+
+	private Optional<ImmutableList<Hash>> peaksOf(AccumulatorState state) {
+		final ImmutableList<Hash> peaks = state.getPeaks().isEmpty() && state.getStateVersion() == 0
+			? ImmutableList.of(state.getAccumulatorHash())
+			: state.getPeaks();
+		if (peaks.size() != Long.bitCount(state.getStateVersion() + 1) || !bag(peaks).equals(state.getAccumulatorHash())) {
+			return Optional.empty();
+		}
+		return Optional.of(peaks);
+	}
+
+	private ImmutableList<Hash> subtreeRoots(long firstVersion, List<Subtree> subtrees, List<Command> commands) {
+		final Stream<Subtree> stream = commands.size() < PARALLEL_THRESHOLD ? subtrees.stream() : subtrees.parallelStream();
+		return stream
+			.map(subtree -> subtreeRoot(commands.subList((int) (subtree.position - firstVersion), (int) (subtree.end() - firstVersion))))
+			.collect(ImmutableList.toImmutableList());
+	}
+
+	private Hash subtreeRoot(List<Command> commands) {
+		List<Hash> level = commands.stream().map(this::leafHash).collect(Collectors.toList());
+		while (level.size() > 1) {
+			level = nextLevel(level);
+		}
+		return level.get(0);
+	}
+
+	private List<Hash> nextLevel(List<Hash> level) {
+		final List<Hash> next = new ArrayList<>(level.size() / 2);
+		for (int i = 0; i < level.size(); i += 2) {
+			next.add(node(level.get(i), level.get(i + 1)));
+		}
+		return next;
+	}
+
+	private void appendSubtree(List<Hash> peaks, Subtree subtree, Hash root) {
+		Hash merged = root;
+		// Merge with the previous peak for as long as it is the left sibling of the merged tree
+		for (long index = subtree.position >>> subtree.height; (index & 1) == 1; index >>>= 1) {
+			merged = node(peaks.remove(peaks.size() - 1), merged);
+		}
+		peaks.add(merged);
+	}
+
+	private Hash bag(List<Hash> peaks) {
+		Hash bagged = peaks.get(peaks.size() - 1);
+		for (int i = peaks.size() - 2; i >= 0; i--) {
+			bagged = hash(PEAK_PREFIX, peaks.get(i), bagged);
+		}
+		return bagged;
+	}
+
+	private Hash node(Hash left, Hash right) {
+		return hash(NODE_PREFIX, left, right);
+	}
+
+	private Hash hash(byte prefix, Hash first, Hash second) {
+		byte[] concat = new byte[1 + HASH_BYTES * 2];
+		concat[0] = prefix;
+		first.copyTo(concat, 1);
+		second.copyTo(concat, 1 + HASH_BYTES);
+		return hasher.hashBytes(concat);
+	}
+
+	/**
+	 * Splits the leaves {@code [from, to)} into the largest aligned perfect subtrees, in order.
+	 */
+	private static List<Subtree> subtrees(long from, long to) {
+		final List<Subtree> subtrees = new ArrayList<>();
+		long position = from;
+		while (position < to) {
+			int height = Long.numberOfTrailingZeros(position);
+			while (position + (1L << height) > to) {
+				height--;
+			}
+			subtrees.add(new Subtree(position, height));
+			position += 1L << height;
+		}
+		return subtrees;
+	}
+
+	/**
+	 * Finds the peak subtree of a ledger with the given number of leaves which contains a leaf.
+	 */
+	private static Subtree peakContaining(long leafCount, long leaf) {
+		long position = 0;
+		for (int height = Long.SIZE - 2; height >= 0; height--) {
+			if ((leafCount & (1L << height)) != 0) {
+				if (leaf < position + (1L << height)) {
+					return new Subtree(position, height);
+				}
+				position += 1L << height;
+			}
+		}
+		throw new IllegalArgumentException("Leaf " + leaf + " is not within " + leafCount + " leaves");
+	}
+
+	private static final class Subtree {
+		private final long position;
+		private final int height;
+
+		private Subtree(long position, int height) {
+			this.position = position;
+			this.height = height;
+		}
+
+		private long size() {
+			return 1L << height;
+		}
+
+		private long end() {
+			return position + size();
+		}
+	}
+}
@@ -146,7 +146,7 @@ public final class StateComputerLedger implements Ledger, NextCommandGenerator {
 			this.currentLedgerHeader = nextHeader;
 			this.counters.set(CounterType.LEDGER_STATE_VERSION, this.currentLedgerHeader.getStateVersion());
 
-			verifiedExtension.get().forEach(cmd -> this.mempool.removeCommitted(cmd.getHash()));
+			verifiedExtension.get().forEach(this.mempool::removeCommitted);
 			BaseLedgerUpdate ledgerUpdate = new BaseLedgerUpdate(commandsToStore, validatorSet.orElse(null));
 			ledgerUpdateSender.sendLedgerUpdate(ledgerUpdate);
 		}
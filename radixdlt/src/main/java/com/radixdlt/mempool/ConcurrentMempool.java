@@ -0,0 +1,250 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.mempool;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.radixdlt.consensus.Command;
+import com.radixdlt.crypto.Hash;
+import com.radixdlt.network.TimeSupplier;
+import com.radixdlt.utils.UInt256;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local-only mempool with the same ordering, eviction and conflict
+ * semantics as {@link LocalMempool}, but without a global lock.
+ * <p>
+ * Commands are held in concurrent maps and a concurrent skip list ordered
+ * by fee per byte and then insertion order, so that adds, removals and
+ * proposal reads from different threads do not block each other.
+ * Ownership of an entry is decided by conditional removal from the
+ * command map, so each entry is removed and counted exactly once.
+ * Proposal reads are weakly consistent, and may miss commands added
+ * concurrently, as are slices in insertion order, which may skip a
+ * command added concurrently with an earlier sequence number.  Threadsafe.
+ */
+public final class ConcurrentMempool implements OrderedMempool {
+	private final ConcurrentHashMap<Hash, MempoolEntry> data = new ConcurrentHashMap<>();
+	private final ConcurrentSkipListSet<MempoolEntry> ordered = new ConcurrentSkipListSet<>(MempoolEntry.PRIORITY_ORDER);
+	private final ConcurrentSkipListMap<Long, MempoolEntry> bySequence = new ConcurrentSkipListMap<>();
+	private final ConcurrentHashMap<Object, Set<Hash>> byConflictKey = new ConcurrentHashMap<>();
+	private final AtomicLong sequence = new AtomicLong();
+	// Reserved slots, may briefly exceed the number of entries while adds are in progress
+	private final AtomicInteger size = new AtomicInteger();
+
+	private final int maxSize;
+	private final FeeRate feeRate;
+	private final ConflictIndexer conflictIndexer;
+	private final TimeSupplier timeSupplier;
+
+	public ConcurrentMempool(int maxSize) {
+		this(maxSize, FeeRate.NONE, ConflictIndexer.NONE);
+	}
+
+	public ConcurrentMempool(int maxSize, FeeRate feeRate, ConflictIndexer conflictIndexer) {
+		this(maxSize, feeRate, conflictIndexer, System::currentTimeMillis);
+	}
+
+	public ConcurrentMempool(int maxSize, FeeRate feeRate, ConflictIndexer conflictIndexer, TimeSupplier timeSupplier) {
+		if (maxSize <= 0) {
+			throw new IllegalArgumentException("mempool.maxSize must be positive: " + maxSize);
+		}
+		this.maxSize = maxSize;
+		this.feeRate = Objects.requireNonNull(feeRate);
+		this.conflictIndexer = Objects.requireNonNull(conflictIndexer);
+		this.timeSupplier = Objects.requireNonNull(timeSupplier);
+	}
+
+	@Override
+	public void add(Command command) throws MempoolFullException, MempoolDuplicateException {
+		final Hash cmdHash = command.getHash();
+		final UInt256 feePerByte = this.feeRate.feePerByte(command);
+		final ImmutableSet<?> conflictKeys = this.conflictIndexer.conflictKeys(command);
+		final MempoolEntry entry = new MempoolEntry(
+			command, feePerByte, conflictKeys, this.sequence.getAndIncrement(), this.timeSupplier.currentTime()
+		);
+
+		if (this.data.putIfAbsent(cmdHash, entry) != null) {
+			throw new MempoolDuplicateException(command, String.format("Mempool already has command %s", cmdHash));
+		}
+		if (this.size.incrementAndGet() > this.maxSize && !evictLowerPriorityThan(entry)) {
+			removeEntry(entry);
+			throw new MempoolFullException(command, String.format("Mempool full: %s of %s items", this.data.size(), this.maxSize));
+		}
+		this.ordered.add(entry);
+		this.bySequence.put(entry.getSequence(), entry);
+		for (Object conflictKey : conflictKeys) {
+			this.byConflictKey.compute(conflictKey, (k, hashes) -> {
+				Set<Hash> updated = hashes == null ? ConcurrentHashMap.newKeySet() : hashes;
+				updated.add(cmdHash);
+				return updated;
+			});
+		}
+		if (this.data.get(cmdHash) != entry) {
+			// Removed while being added, so undo anything the remover could not see
+			unindex(entry);
+		}
+	}
+
+	private boolean evictLowerPriorityThan(MempoolEntry entry) {
+		while (true) {
+			Iterator<MempoolEntry> lowestFirst = this.ordered.descendingIterator();
+			if (!lowestFirst.hasNext()) {
+				return false;
+			}
+			MempoolEntry lowest = lowestFirst.next();
+			if (lowest.getFeePerByte().compareTo(entry.getFeePerByte()) >= 0) {
+				return false;
+			}
+			if (removeEntry(lowest)) {
+				return true;
+			}
+			// Lost a race to remove it, so try the next lowest
+		}
+	}
+
+	@Override
+	public void removeCommitted(Command command) {
+		final Hash cmdHash = command.getHash();
+		final MempoolEntry entry = this.data.get(cmdHash);
+		final ImmutableSet<?> conflictKeys = entry != null ? entry.getConflictKeys() : this.conflictIndexer.conflictKeys(command);
+		if (entry != null) {
+			removeEntry(entry);
+		}
+		for (Object conflictKey : conflictKeys) {
+			Set<Hash> conflicting = this.byConflictKey.get(conflictKey);
+			if (conflicting != null) {
+				for (Hash conflictingHash : List.copyOf(conflicting)) {
+					MempoolEntry conflictingEntry = this.data.get(conflictingHash);
+					if (conflictingEntry != null) {
+						removeEntry(conflictingEntry);
+					}
+				}
+			}
+		}
+	}
+
+	@Override
+	public void removeRejected(Hash cmdHash) {
+		// A rejected command claims nothing, so pending commands
+		// which conflict with it may still be committed.
+		final MempoolEntry entry = this.data.get(cmdHash);
+		if (entry != null) {
+			removeEntry(entry);
+		}
+	}
+
+	// Returns true if this call removed the entry
+	private boolean removeEntry(MempoolEntry entry) {
+		if (this.data.remove(entry.getCommand().getHash(), entry)) {
+			this.size.decrementAndGet();
+			unindex(entry);
+			return true;
+		}
+		return false;
+	}
+
+	private void unindex(MempoolEntry entry) {
+		this.ordered.remove(entry);
+		this.bySequence.remove(entry.getSequence(), entry);
+		final Hash cmdHash = entry.getCommand().getHash();
+		for (Object conflictKey : entry.getConflictKeys()) {
+			this.byConflictKey.computeIfPresent(conflictKey, (k, hashes) -> {
+				hashes.remove(cmdHash);
+				return hashes.isEmpty() ? null : hashes;
+			});
+		}
+	}
+
+	@Override
+	public List<Command> getCommands(int count, Set<Hash> seen) {
+		if (count <= 0 || this.data.isEmpty()) {
+			return Collections.emptyList();
+		}
+		List<Command> commands = Lists.newArrayList();
+		Iterator<MempoolEntry> i = this.ordered.iterator();
+		while (commands.size() < count && i.hasNext()) {
+			MempoolEntry entry = i.next();
+			Command command = entry.getCommand();
+			if (this.data.get(command.getHash()) == entry && seen.add(command.getHash())) {
+				commands.add(command);
+			}
+		}
+		return commands;
+	}
+
+	@Override
+	public int count() {
+		return this.data.size();
+	}
+
+	@Override
+	public int maxCount() {
+		return this.maxSize;
+	}
+
+	@Override
+	public Slice getCommandsAddedAfter(long cursor, int count) {
+		ImmutableList.Builder<Command> commands = ImmutableList.builder();
+		long nextCursor = cursor;
+		Iterator<MempoolEntry> i = this.bySequence.tailMap(cursor, false).values().iterator();
+		int n = 0;
+		while (n < count && i.hasNext()) {
+			MempoolEntry entry = i.next();
+			if (this.data.get(entry.getCommand().getHash()) == entry) {
+				commands.add(entry.getCommand());
+				nextCursor = entry.getSequence();
+				n += 1;
+			}
+		}
+		return new Slice(commands.build(), nextCursor);
+	}
+
+	@Override
+	public ImmutableList<Command> removeAddedBefore(long timestamp) {
+		ImmutableList.Builder<Command> removed = ImmutableList.builder();
+		// Insertion order is close enough to time order for expiry
+		Iterator<MempoolEntry> i = this.bySequence.values().iterator();
+		while (i.hasNext()) {
+			MempoolEntry entry = i.next();
+			if (entry.getAddedAt() >= timestamp) {
+				break;
+			}
+			if (removeEntry(entry)) {
+				removed.add(entry.getCommand());
+			}
+		}
+		return removed.build();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s[%x:%s/%s]",
+			getClass().getSimpleName(), System.identityHashCode(this), count(), this.maxSize);
+	}
+}
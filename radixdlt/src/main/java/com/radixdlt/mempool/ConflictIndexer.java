@@ -0,0 +1,34 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.mempool;
+
+import com.google.common.collect.ImmutableSet;
+import com.radixdlt.consensus.Command;
+
+/**
+ * Computes the keys of the resources a command claims exclusively,
+ * such that at most one command claiming a given key can be committed.
+ */
+public interface ConflictIndexer {
+	/**
+	 * Indexer for mempools with no conflict detection.
+	 */
+	ConflictIndexer NONE = command -> ImmutableSet.of();
+
+	ImmutableSet<?> conflictKeys(Command command);
+}
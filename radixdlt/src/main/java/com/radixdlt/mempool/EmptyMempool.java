@@ -33,7 +33,7 @@ public class EmptyMempool implements Mempool {
 	}
 
 	@Override
-	public void removeCommitted(Hash cmdHash) {
+	public void removeCommitted(Command command) {
 		// No-op
 	}
 
@@ -18,61 +18,185 @@ package com.radixdlt.mempool;
 
 import com.radixdlt.consensus.Command;
 import com.radixdlt.crypto.Hash;
+import com.radixdlt.network.TimeSupplier;
+import com.radixdlt.utils.UInt256;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import javax.annotation.concurrent.GuardedBy;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 
 /**
  * Local-only mempool.
  * <p>
  * Performs no validation and does not share contents with
- * network.  Threadsafe.
+ * network.  Commands are ordered by the fee per byte they pay, and
+ * then in insertion order.  When full, the lowest priority command
+ * is evicted to make space for a command paying a strictly higher
+ * fee per byte.
+ * <p>
+ * Commands are also indexed by the conflict keys they claim, such as
+ * the particles they spin down.  Committing a command drops every
+ * pending command which shares a conflict key with it.  Threadsafe,
+ * with all operations serialised on a single lock.
  */
-public final class LocalMempool implements Mempool {
+public final class LocalMempool implements OrderedMempool {
 	private final Object lock = new Object();
 	@GuardedBy("lock")
-	private final LinkedHashMap<Hash, Command> data = Maps.newLinkedHashMap();
+	private final HashMap<Hash, MempoolEntry> data = new HashMap<>();
+	@GuardedBy("lock")
+	private final TreeSet<MempoolEntry> ordered = new TreeSet<>(MempoolEntry.PRIORITY_ORDER);
+	@GuardedBy("lock")
+	private final TreeMap<Long, MempoolEntry> bySequence = new TreeMap<>();
+	@GuardedBy("lock")
+	private final HashMap<Object, Set<Hash>> byConflictKey = new HashMap<>();
+	@GuardedBy("lock")
+	private long sequence = 0L;
 
 	private final int maxSize;
+	private final FeeRate feeRate;
+	private final ConflictIndexer conflictIndexer;
+	private final TimeSupplier timeSupplier;
 
 	public LocalMempool(int maxSize) {
+		this(maxSize, FeeRate.NONE);
+	}
+
+	public LocalMempool(int maxSize, FeeRate feeRate) {
+		this(maxSize, feeRate, ConflictIndexer.NONE);
+	}
+
+	public LocalMempool(int maxSize, FeeRate feeRate, ConflictIndexer conflictIndexer) {
+		this(maxSize, feeRate, conflictIndexer, System::currentTimeMillis);
+	}
+
+	public LocalMempool(int maxSize, FeeRate feeRate, ConflictIndexer conflictIndexer, TimeSupplier timeSupplier) {
 		if (maxSize <= 0) {
 			throw new IllegalArgumentException("mempool.maxSize must be positive: " + maxSize);
 		}
 		this.maxSize = maxSize;
+		this.feeRate = Objects.requireNonNull(feeRate);
+		this.conflictIndexer = Objects.requireNonNull(conflictIndexer);
+		this.timeSupplier = Objects.requireNonNull(timeSupplier);
 	}
 
 	@Override
 	public void add(Command command) throws MempoolFullException, MempoolDuplicateException {
+		// Computed outside the lock, as these may require deserialising the command
+		final UInt256 feePerByte = this.feeRate.feePerByte(command);
+		final ImmutableSet<?> conflictKeys = this.conflictIndexer.conflictKeys(command);
+		synchronized (this.lock) {
+			addEntry(command, feePerByte, conflictKeys);
+		}
+	}
+
+	@Override
+	public ImmutableList<Optional<MempoolRejectedException>> addAll(List<Command> commands) {
+		final List<UInt256> feesPerByte = Lists.newArrayListWithCapacity(commands.size());
+		final List<ImmutableSet<?>> conflictKeys = Lists.newArrayListWithCapacity(commands.size());
+		for (Command command : commands) {
+			feesPerByte.add(this.feeRate.feePerByte(command));
+			conflictKeys.add(this.conflictIndexer.conflictKeys(command));
+		}
+		final ImmutableList.Builder<Optional<MempoolRejectedException>> results = ImmutableList.builder();
 		synchronized (this.lock) {
-			if (this.data.size() >= this.maxSize) {
-				throw new MempoolFullException(command, String.format("Mempool full: %s of %s items", this.data.size(), this.maxSize));
+			for (int i = 0; i < commands.size(); i++) {
+				try {
+					addEntry(commands.get(i), feesPerByte.get(i), conflictKeys.get(i));
+					results.add(Optional.empty());
+				} catch (MempoolRejectedException e) {
+					results.add(Optional.of(e));
+				}
 			}
-			if (null != this.data.put(command.getHash(), command)) {
-				throw new MempoolDuplicateException(command, String.format("Mempool already has command %s", command.getHash()));
+		}
+		return results.build();
+	}
+
+	@GuardedBy("lock")
+	private void addEntry(Command command, UInt256 feePerByte, ImmutableSet<?> conflictKeys)
+		throws MempoolFullException, MempoolDuplicateException {
+		if (this.data.containsKey(command.getHash())) {
+			throw new MempoolDuplicateException(command, String.format("Mempool already has command %s", command.getHash()));
+		}
+		if (this.data.size() >= this.maxSize) {
+			MempoolEntry lowest = this.ordered.last();
+			if (feePerByte.compareTo(lowest.getFeePerByte()) <= 0) {
+				throw new MempoolFullException(
+					command,
+					String.format("Mempool full: %s of %s items, lowest fee per byte %s", this.data.size(), this.maxSize, lowest.getFeePerByte())
+				);
 			}
+			removeEntry(lowest.getCommand().getHash());
+		}
+		MempoolEntry entry = new MempoolEntry(command, feePerByte, conflictKeys, this.sequence++, this.timeSupplier.currentTime());
+		this.data.put(command.getHash(), entry);
+		this.ordered.add(entry);
+		this.bySequence.put(entry.getSequence(), entry);
+		for (Object conflictKey : conflictKeys) {
+			this.byConflictKey.computeIfAbsent(conflictKey, k -> new HashSet<>()).add(command.getHash());
 		}
 	}
 
 	@Override
-	public void removeCommitted(Hash cmdHash) {
+	public void removeCommitted(Command command) {
+		final Hash cmdHash = command.getHash();
+		ImmutableSet<?> conflictKeys = null;
+		synchronized (this.lock) {
+			MempoolEntry entry = this.data.get(cmdHash);
+			if (entry != null) {
+				conflictKeys = entry.getConflictKeys();
+			}
+		}
+		if (conflictKeys == null) {
+			// Not one of ours, so compute outside the lock as for add
+			conflictKeys = this.conflictIndexer.conflictKeys(command);
+		}
 		synchronized (this.lock) {
-			this.data.remove(cmdHash);
+			removeEntry(cmdHash);
+			for (Object conflictKey : conflictKeys) {
+				Set<Hash> conflicting = this.byConflictKey.get(conflictKey);
+				if (conflicting != null) {
+					// Copy, as removal updates the index
+					for (Hash conflictingHash : List.copyOf(conflicting)) {
+						removeEntry(conflictingHash);
+					}
+				}
+			}
 		}
 	}
 
 	@Override
 	public void removeRejected(Hash cmdHash) {
-		// For now we just treat this the same as committed atoms.
-		// Once we have a more complete mempool implementation, we
-		// can use this to remove dependent atoms too.
-		removeCommitted(cmdHash);
+		// A rejected command claims nothing, so pending commands
+		// which conflict with it may still be committed.
+		synchronized (this.lock) {
+			removeEntry(cmdHash);
+		}
+	}
+
+	@GuardedBy("lock")
+	private void removeEntry(Hash cmdHash) {
+		MempoolEntry entry = this.data.remove(cmdHash);
+		if (entry != null) {
+			this.ordered.remove(entry);
+			this.bySequence.remove(entry.getSequence());
+			for (Object conflictKey : entry.getConflictKeys()) {
+				Set<Hash> hashes = this.byConflictKey.get(conflictKey);
+				if (hashes != null && hashes.remove(cmdHash) && hashes.isEmpty()) {
+					this.byConflictKey.remove(conflictKey);
+				}
+			}
+		}
 	}
 
 	@Override
@@ -81,9 +205,9 @@ public final class LocalMempool implements Mempool {
 			int size = Math.min(count, this.data.size());
 			if (size > 0) {
 				List<Command> commands = Lists.newArrayList();
-				Iterator<Command> i = this.data.values().iterator();
+				Iterator<MempoolEntry> i = this.ordered.iterator();
 				while (commands.size() < size && i.hasNext()) {
-					Command a = i.next();
+					Command a = i.next().getCommand();
 					if (seen.add(a.getHash())) {
 						commands.add(a);
 					}
@@ -102,11 +226,40 @@ public final class LocalMempool implements Mempool {
 		}
 	}
 
-	// Used by SharedMempool
-	int maxCount() {
+	@Override
+	public int maxCount() {
 		return this.maxSize;
 	}
 
+	@Override
+	public Slice getCommandsAddedAfter(long cursor, int count) {
+		synchronized (this.lock) {
+			ImmutableList.Builder<Command> commands = ImmutableList.builder();
+			long nextCursor = cursor;
+			Iterator<MempoolEntry> i = this.bySequence.tailMap(cursor, false).values().iterator();
+			for (int n = 0; n < count && i.hasNext(); n++) {
+				MempoolEntry entry = i.next();
+				commands.add(entry.getCommand());
+				nextCursor = entry.getSequence();
+			}
+			return new Slice(commands.build(), nextCursor);
+		}
+	}
+
+	@Override
+	public ImmutableList<Command> removeAddedBefore(long timestamp) {
+		synchronized (this.lock) {
+			ImmutableList.Builder<Command> removed = ImmutableList.builder();
+			// Insertion order is close enough to time order for expiry
+			while (!this.bySequence.isEmpty() && this.bySequence.firstEntry().getValue().getAddedAt() < timestamp) {
+				MempoolEntry entry = this.bySequence.firstEntry().getValue();
+				removeEntry(entry.getCommand().getHash());
+				removed.add(entry.getCommand());
+			}
+			return removed.build();
+		}
+	}
+
 	@Override
 	public String toString() {
 		return String.format("%s[%x:%s/%s]",
@@ -16,9 +16,11 @@
  */
 package com.radixdlt.mempool;
 
+import com.google.common.collect.ImmutableList;
 import com.radixdlt.consensus.Command;
 import com.radixdlt.crypto.Hash;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 /**
@@ -26,7 +28,8 @@ import java.util.Set;
  * Implementations are expected to be thread safe.
  * <p>
  * Note that conceptually, a mempoolcan be thought of as a list indexable
- * by hash and ordered FIFO by {@link #add(Command)} call order.
+ * by hash and ordered by priority, with FIFO {@link #add(Command)} call
+ * order among commands of equal priority.
  */
 public interface Mempool {
 	/**
@@ -40,16 +43,42 @@ public interface Mempool {
 	void add(Command command) throws MempoolFullException, MempoolDuplicateException;
 
 	/**
-	 * Remove the referenced atom from the local mempool after it has
-	 * been committed by consensus.
+	 * Add several commands to the local mempool in a single operation.
+	 * Should be called after atoms have been validated.
+	 * <p>
+	 * Commands are added in list order, so a later command may be rejected
+	 * as a duplicate of an earlier one.  Implementations should override
+	 * this where one operation is cheaper than adding commands one by one.
 	 *
-	 * @param cmdHash The hash of the command to remove
+	 * @param commands The commands to add.
+	 * @return for each command, in order, empty if it was added, or the reason it was rejected
+	 */
+	default ImmutableList<Optional<MempoolRejectedException>> addAll(List<Command> commands) {
+		ImmutableList.Builder<Optional<MempoolRejectedException>> results = ImmutableList.builder();
+		for (Command command : commands) {
+			try {
+				add(command);
+				results.add(Optional.empty());
+			} catch (MempoolRejectedException e) {
+				results.add(Optional.of(e));
+			}
+		}
+		return results.build();
+	}
+
+	/**
+	 * Remove the specified command from the local mempool after it has
+	 * been committed by consensus, together with any pending commands
+	 * which conflict with it.
+	 *
+	 * @param command The committed command
 	 */
-	void removeCommitted(Hash cmdHash);
+	void removeCommitted(Command command);
 
 	/**
 	 * Remove the referenced atom from the local mempool after it has
-	 * been rejected by consensus.
+	 * been rejected by consensus.  Pending commands which conflict with
+	 * it are retained, as a rejected command does not claim anything.
 	 *
 	 * @param cmdHash The hash of the command to remove
 	 */
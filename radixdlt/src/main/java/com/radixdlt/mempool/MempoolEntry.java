@@ -0,0 +1,70 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.mempool;
+
+import com.google.common.collect.ImmutableSet;
+import com.radixdlt.consensus.Command;
+import com.radixdlt.utils.UInt256;
+import java.util.Comparator;
+
+/**
+ * A command held in a mempool, along with the values it is ordered and
+ * indexed by.
+ */
+final class MempoolEntry {
+	/**
+	 * Highest fee per byte first, then oldest first.
+	 */
+	static final Comparator<MempoolEntry> PRIORITY_ORDER = Comparator
+		.comparing(MempoolEntry::getFeePerByte, Comparator.reverseOrder())
+		.thenComparingLong(MempoolEntry::getSequence);
+
+	private final Command command;
+	private final UInt256 feePerByte;
+	private final ImmutableSet<?> conflictKeys;
+	private final long sequence;
+	private final long addedAt;
+
+	MempoolEntry(Command command, UInt256 feePerByte, ImmutableSet<?> conflictKeys, long sequence, long addedAt) {
+		this.command = command;
+		this.feePerByte = feePerByte;
+		this.conflictKeys = conflictKeys;
+		this.sequence = sequence;
+		this.addedAt = addedAt;
+	}
+
+	Command getCommand() {
+		return this.command;
+	}
+
+	UInt256 getFeePerByte() {
+		return this.feePerByte;
+	}
+
+	ImmutableSet<?> getConflictKeys() {
+		return this.conflictKeys;
+	}
+
+	long getSequence() {
+		return this.sequence;
+	}
+
+	long getAddedAt() {
+		return this.addedAt;
+	}
+}
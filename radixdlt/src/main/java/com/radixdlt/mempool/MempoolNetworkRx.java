@@ -17,6 +17,7 @@
 
 package com.radixdlt.mempool;
 
+import com.google.common.collect.ImmutableList;
 import com.radixdlt.consensus.Command;
 import io.reactivex.rxjava3.core.Observable;
 
@@ -26,10 +27,10 @@ import io.reactivex.rxjava3.core.Observable;
 public interface MempoolNetworkRx {
 
 	/**
-	 * Returns the stream of mempool atoms as they are received from the
-	 * network.
+	 * Returns the stream of batches of mempool atoms as they are received
+	 * from the network.
 	 *
-	 * @return hot observable of atom messages
+	 * @return hot observable of batches of atoms
 	 */
-	Observable<Command> commands();
+	Observable<ImmutableList<Command>> commands();
 }
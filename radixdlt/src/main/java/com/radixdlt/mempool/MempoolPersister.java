@@ -0,0 +1,232 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.mempool;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.radixdlt.consensus.Command;
+import com.radixdlt.counters.SystemCounters;
+import com.radixdlt.counters.SystemCounters.CounterType;
+import com.radixdlt.crypto.Hash;
+import com.radixdlt.utils.ThreadFactories;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.concurrent.GuardedBy;
+import javax.inject.Inject;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Keeps the contents of the local mempool in a {@link CommandStore} so that
+ * pending commands survive a restart of the node.
+ * <p>
+ * The store is brought up to date with the mempool periodically and on
+ * {@link #stop()}, rather than on every change, so that persistence stays off
+ * the submission and commit paths.  Each update writes the commands added to
+ * the mempool since the previous update and deletes those which have left it,
+ * keeping the store no larger than the mempool.
+ * <p>
+ * Commands reloaded on {@link #start()} are revalidated against the current
+ * engine state, and are not gossiped again.
+ */
+public final class MempoolPersister {
+	private static final Logger log = LogManager.getLogger();
+
+	/**
+	 * Persistent store of pending commands.
+	 */
+	public interface CommandStore {
+		/**
+		 * Store which persists nothing, used when mempool persistence is disabled.
+		 */
+		CommandStore NONE = new CommandStore() {
+			@Override
+			public ImmutableList<Command> loadAll() {
+				return ImmutableList.of();
+			}
+
+			@Override
+			public void update(List<Command> added, Collection<Hash> removed) {
+				// Nothing to do
+			}
+		};
+
+		/**
+		 * @return all stored commands, in the order they were added
+		 */
+		ImmutableList<Command> loadAll();
+
+		/**
+		 * Atomically adds and removes commands.
+		 *
+		 * @param added commands to add, in mempool order
+		 * @param removed hashes of commands to remove
+		 */
+		void update(List<Command> added, Collection<Hash> removed);
+	}
+
+	static final long INTERVAL_MS = 10_000L;
+	static final int SLICE_SIZE = 1024;
+
+	private final OrderedMempool localMempool;
+	private final CommandStore commandStore;
+	private final MempoolRevalidator.CommandValidator commandValidator;
+	private final RecentCommandHashes recentCommandHashes;
+	private final SystemCounters counters;
+
+	private final Object startLock = new Object();
+	private ScheduledExecutorService executor;
+	private ScheduledFuture<?> task;
+
+	private final Object persistLock = new Object();
+	@GuardedBy("persistLock")
+	private Set<Hash> persisted = new HashSet<>();
+
+	@Inject
+	public MempoolPersister(
+		OrderedMempool localMempool,
+		CommandStore commandStore,
+		MempoolRevalidator.CommandValidator commandValidator,
+		RecentCommandHashes recentCommandHashes,
+		SystemCounters counters
+	) {
+		this.localMempool = Objects.requireNonNull(localMempool);
+		this.commandStore = Objects.requireNonNull(commandStore);
+		this.commandValidator = Objects.requireNonNull(commandValidator);
+		this.recentCommandHashes = Objects.requireNonNull(recentCommandHashes);
+		this.counters = Objects.requireNonNull(counters);
+	}
+
+	/**
+	 * Reloads persisted commands into the mempool, and starts persisting
+	 * the mempool periodically.  Does nothing if persistence is disabled.
+	 */
+	public void start() {
+		synchronized (this.startLock) {
+			if (this.task == null && this.commandStore != CommandStore.NONE) {
+				load();
+				this.executor = Executors.newSingleThreadScheduledExecutor(ThreadFactories.daemonThreads("MempoolPersister"));
+				this.task = this.executor.scheduleWithFixedDelay(this::persistSafely, INTERVAL_MS, INTERVAL_MS, TimeUnit.MILLISECONDS);
+			}
+		}
+	}
+
+	/**
+	 * Stops periodic persistence, and persists the current contents of the mempool.
+	 */
+	public void stop() {
+		synchronized (this.startLock) {
+			if (this.task != null) {
+				this.task.cancel(false);
+				this.task = null;
+				this.executor.shutdown();
+				this.executor = null;
+				persistSafely();
+			}
+		}
+	}
+
+	boolean running() {
+		synchronized (this.startLock) {
+			return this.task != null;
+		}
+	}
+
+	private void persistSafely() {
+		try {
+			persist();
+		} catch (Exception e) {
+			// Exceptions would cancel further scheduled updates
+			log.error("Mempool persistence failed", e);
+		}
+	}
+
+	// Package-private for testing
+	void load() {
+		synchronized (this.persistLock) {
+			ImmutableList<Command> stored = this.commandStore.loadAll();
+			List<Command> valid = Lists.newArrayListWithCapacity(stored.size());
+			Set<Hash> dropped = new HashSet<>();
+			for (Command command : stored) {
+				if (this.commandValidator.isValid(command)) {
+					valid.add(command);
+				} else {
+					dropped.add(command.getHash());
+				}
+			}
+
+			ImmutableList<Optional<MempoolRejectedException>> results = this.localMempool.addAll(valid);
+			for (int i = 0; i < valid.size(); i++) {
+				Hash cmdHash = valid.get(i).getHash();
+				if (results.get(i).isEmpty()) {
+					this.persisted.add(cmdHash);
+					// Drop the same commands gossiped back to us by peers
+					this.recentCommandHashes.add(cmdHash);
+				} else {
+					dropped.add(cmdHash);
+				}
+			}
+			if (!dropped.isEmpty()) {
+				this.commandStore.update(ImmutableList.of(), dropped);
+			}
+
+			this.counters.add(CounterType.MEMPOOL_RELOADED, this.persisted.size());
+			this.counters.set(CounterType.MEMPOOL_COUNT, this.localMempool.count());
+			log.info("Reloaded {} of {} persisted mempool commands", this.persisted.size(), stored.size());
+		}
+	}
+
+	// Single update, package-private for testing
+	void persist() {
+		synchronized (this.persistLock) {
+			List<Command> current = Lists.newArrayList();
+			long cursor = OrderedMempool.START_CURSOR;
+			OrderedMempool.Slice slice;
+			do {
+				slice = this.localMempool.getCommandsAddedAfter(cursor, SLICE_SIZE);
+				current.addAll(slice.getCommands());
+				cursor = slice.getNextCursor();
+			} while (slice.getCommands().size() == SLICE_SIZE);
+
+			Set<Hash> currentHashes = Sets.newHashSetWithExpectedSize(current.size());
+			List<Command> added = Lists.newArrayList();
+			for (Command command : current) {
+				currentHashes.add(command.getHash());
+				if (!this.persisted.contains(command.getHash())) {
+					added.add(command);
+				}
+			}
+			Set<Hash> removed = Sets.difference(this.persisted, currentHashes).immutableCopy();
+
+			if (!added.isEmpty() || !removed.isEmpty()) {
+				this.commandStore.update(added, removed);
+				this.persisted = currentHashes;
+			}
+		}
+	}
+}
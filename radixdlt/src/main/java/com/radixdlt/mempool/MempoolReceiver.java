@@ -17,8 +17,14 @@
 
 package com.radixdlt.mempool;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
 import com.radixdlt.consensus.Command;
+import com.radixdlt.counters.SystemCounters;
+import com.radixdlt.counters.SystemCounters.CounterType;
+import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 
 import com.google.inject.Inject;
 
@@ -35,6 +41,8 @@ public final class MempoolReceiver {
 
 	private final MempoolNetworkRx mempoolRx;
 	private final SubmissionControl submissionControl;
+	private final RecentCommandHashes recentCommandHashes;
+	private final SystemCounters counters;
 
 	private final Object startLock = new Object();
 	private Disposable disposable;
@@ -42,17 +50,21 @@ public final class MempoolReceiver {
 	@Inject
 	public MempoolReceiver(
 		MempoolNetworkRx mempoolRx,
-		SubmissionControl submissionControl
+		SubmissionControl submissionControl,
+		RecentCommandHashes recentCommandHashes,
+		SystemCounters counters
 	) {
 		this.mempoolRx = Objects.requireNonNull(mempoolRx);
 		this.submissionControl = Objects.requireNonNull(submissionControl);
+		this.recentCommandHashes = Objects.requireNonNull(recentCommandHashes);
+		this.counters = Objects.requireNonNull(counters);
 	}
 
 	public void start() {
 		synchronized (this.startLock) {
 			if (this.disposable == null) {
 				this.disposable = this.mempoolRx.commands()
-					.subscribe(this::processCommand);
+					.subscribe(this::processCommands);
 			}
 		}
 	}
@@ -74,11 +86,26 @@ public final class MempoolReceiver {
 		}
 	}
 
-	private void processCommand(Command command) {
-		try {
-			this.submissionControl.submitCommand(command);
-		} catch (MempoolRejectedException ex) {
-			log.info(String.format("Mempool rejected command %s: %s", command.getHash(), ex.getMessage()));
+	private void processCommands(ImmutableList<Command> commands) {
+		final List<Command> unseen = Lists.newArrayListWithCapacity(commands.size());
+		for (Command command : commands) {
+			// Checked before the submission is deserialised
+			if (this.recentCommandHashes.contains(command.getHash())) {
+				this.counters.increment(CounterType.MEMPOOL_RECENT_DUPLICATES);
+			} else {
+				unseen.add(command);
+			}
+		}
+		if (unseen.isEmpty()) {
+			return;
+		}
+
+		final ImmutableList<SubmissionResult> results = this.submissionControl.submitCommands(unseen);
+		for (int i = 0; i < results.size(); i++) {
+			final Optional<Exception> error = results.get(i).getError();
+			if (error.isPresent()) {
+				log.info(String.format("Mempool rejected command %s: %s", unseen.get(i).getHash(), error.get().getMessage()));
+			}
 		}
 	}
 }
@@ -0,0 +1,152 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.mempool;
+
+import com.google.common.collect.ImmutableList;
+import com.radixdlt.consensus.Command;
+import com.radixdlt.counters.SystemCounters;
+import com.radixdlt.counters.SystemCounters.CounterType;
+import com.radixdlt.network.TimeSupplier;
+import com.radixdlt.utils.ThreadFactories;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Inject;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Periodically drops mempool commands which have expired, or which are no
+ * longer valid against the current engine state.
+ * <p>
+ * Each pass revalidates a bounded slice of the mempool, continuing from where
+ * the previous pass stopped, so that the whole mempool is covered over
+ * successive passes without holding the mempool lock for long.
+ */
+public final class MempoolRevalidator {
+	private static final Logger log = LogManager.getLogger();
+
+	/**
+	 * Checks whether a pending command can still be committed.
+	 */
+	public interface CommandValidator {
+		/**
+		 * Validator which never invalidates commands.
+		 */
+		CommandValidator NONE = command -> true;
+
+		boolean isValid(Command command);
+	}
+
+	static final long INTERVAL_MS = 1_000L;
+	static final int SLICE_SIZE = 128;
+	static final long TTL_MS = TimeUnit.MINUTES.toMillis(10);
+
+	private final OrderedMempool localMempool;
+	private final CommandValidator commandValidator;
+	private final SystemCounters counters;
+	private final TimeSupplier timeSupplier;
+
+	private final Object startLock = new Object();
+	private ScheduledExecutorService executor;
+	private ScheduledFuture<?> task;
+
+	// Only accessed from revalidate(), which is not run concurrently
+	private long cursor = OrderedMempool.START_CURSOR;
+
+	@Inject
+	public MempoolRevalidator(
+		OrderedMempool localMempool,
+		CommandValidator commandValidator,
+		SystemCounters counters
+	) {
+		this(localMempool, commandValidator, counters, System::currentTimeMillis);
+	}
+
+	MempoolRevalidator(
+		OrderedMempool localMempool,
+		CommandValidator commandValidator,
+		SystemCounters counters,
+		TimeSupplier timeSupplier
+	) {
+		this.localMempool = Objects.requireNonNull(localMempool);
+		this.commandValidator = Objects.requireNonNull(commandValidator);
+		this.counters = Objects.requireNonNull(counters);
+		this.timeSupplier = Objects.requireNonNull(timeSupplier);
+	}
+
+	public void start() {
+		synchronized (this.startLock) {
+			if (this.task == null) {
+				this.executor = Executors.newSingleThreadScheduledExecutor(ThreadFactories.daemonThreads("MempoolRevalidator"));
+				this.task = this.executor.scheduleWithFixedDelay(this::revalidateSafely, INTERVAL_MS, INTERVAL_MS, TimeUnit.MILLISECONDS);
+			}
+		}
+	}
+
+	void stop() {
+		synchronized (this.startLock) {
+			if (this.task != null) {
+				this.task.cancel(false);
+				this.task = null;
+				this.executor.shutdown();
+				this.executor = null;
+			}
+		}
+	}
+
+	boolean running() {
+		synchronized (this.startLock) {
+			return this.task != null;
+		}
+	}
+
+	private void revalidateSafely() {
+		try {
+			revalidate();
+		} catch (Exception e) {
+			// Exceptions would cancel further scheduled passes
+			log.error("Mempool revalidation failed", e);
+		}
+	}
+
+	// Single pass, package-private for testing
+	void revalidate() {
+		ImmutableList<Command> expired = this.localMempool.removeAddedBefore(this.timeSupplier.currentTime() - TTL_MS);
+		this.counters.add(CounterType.MEMPOOL_EXPIRED, expired.size());
+
+		OrderedMempool.Slice slice = this.localMempool.getCommandsAddedAfter(this.cursor, SLICE_SIZE);
+		int invalid = 0;
+		for (Command command : slice.getCommands()) {
+			if (!this.commandValidator.isValid(command)) {
+				this.localMempool.removeRejected(command.getHash());
+				invalid += 1;
+			}
+		}
+		this.counters.add(CounterType.MEMPOOL_INVALIDATED, invalid);
+		// Start again from the oldest command once the end is reached
+		this.cursor = slice.getCommands().size() < SLICE_SIZE ? OrderedMempool.START_CURSOR : slice.getNextCursor();
+
+		if (!expired.isEmpty() || invalid > 0) {
+			this.counters.set(CounterType.MEMPOOL_COUNT, this.localMempool.count());
+		}
+	}
+}
@@ -0,0 +1,77 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.mempool;
+
+import com.google.common.collect.ImmutableList;
+import com.radixdlt.consensus.Command;
+
+/**
+ * Local mempool whose commands can also be walked and expired in the
+ * order they were added, as needed by {@link MempoolRevalidator} and
+ * {@link MempoolPersister}.
+ */
+public interface OrderedMempool extends Mempool {
+	/**
+	 * Cursor for a slice starting at the oldest command.
+	 */
+	long START_CURSOR = -1L;
+
+	/**
+	 * Commands in insertion order, and the cursor to continue from.
+	 */
+	final class Slice {
+		private final ImmutableList<Command> commands;
+		private final long nextCursor;
+
+		public Slice(ImmutableList<Command> commands, long nextCursor) {
+			this.commands = commands;
+			this.nextCursor = nextCursor;
+		}
+
+		public ImmutableList<Command> getCommands() {
+			return this.commands;
+		}
+
+		public long getNextCursor() {
+			return this.nextCursor;
+		}
+	}
+
+	/**
+	 * Returns up to {@code count} commands in the order they were added,
+	 * starting after the specified cursor.
+	 *
+	 * @param cursor {@link #START_CURSOR}, or the next cursor of a previous slice
+	 * @param count the maximum number of commands to return
+	 * @return the commands, and the cursor to continue from
+	 */
+	Slice getCommandsAddedAfter(long cursor, int count);
+
+	/**
+	 * Removes commands added before the specified time.
+	 *
+	 * @param timestamp time in milliseconds since the epoch
+	 * @return the removed commands
+	 */
+	ImmutableList<Command> removeAddedBefore(long timestamp);
+
+	/**
+	 * @return the maximum number of commands the mempool holds
+	 */
+	int maxCount();
+}
@@ -0,0 +1,69 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.mempool;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.radixdlt.crypto.Hash;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Inject;
+
+/**
+ * Bounded, time windowed set of the hashes of commands recently added to
+ * or committed from the mempool.  Used to drop duplicate gossip before
+ * the command is deserialised.  Threadsafe.
+ */
+public final class RecentCommandHashes {
+	static final int MAX_SIZE = 16 * 1024;
+	static final long RETENTION_MS = 60_000L;
+
+	private final Cache<Hash, Boolean> hashes;
+
+	@Inject
+	public RecentCommandHashes() {
+		this(MAX_SIZE, RETENTION_MS, Ticker.systemTicker());
+	}
+
+	RecentCommandHashes(int maxSize, long retentionMs, Ticker ticker) {
+		this.hashes = CacheBuilder.newBuilder()
+			.maximumSize(maxSize)
+			.expireAfterWrite(retentionMs, TimeUnit.MILLISECONDS)
+			.ticker(ticker)
+			.build();
+	}
+
+	/**
+	 * Records the specified command hash as recently seen.
+	 *
+	 * @param cmdHash the hash of the command added or committed
+	 */
+	public void add(Hash cmdHash) {
+		this.hashes.put(cmdHash, Boolean.TRUE);
+	}
+
+	/**
+	 * Returns {@code true} if the specified command hash was seen within
+	 * the retention window, and has not since been displaced.
+	 *
+	 * @param cmdHash the hash of the command to check
+	 */
+	public boolean contains(Hash cmdHash) {
+		return this.hashes.getIfPresent(cmdHash) != null;
+	}
+}
@@ -17,10 +17,12 @@
 
 package com.radixdlt.mempool;
 
+import com.google.common.collect.ImmutableList;
 import com.radixdlt.consensus.Command;
 import com.radixdlt.crypto.Hash;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 
 import javax.inject.Inject;
@@ -35,27 +37,51 @@ import com.radixdlt.counters.SystemCounters.CounterType;
  * Threadsafe.
  */
 public class SharedMempool implements Mempool {
-	private final LocalMempool localMempool;
+	private final OrderedMempool localMempool;
 	private final MempoolNetworkTx networkSender;
 	private final SystemCounters counters;
+	private final RecentCommandHashes recentCommandHashes;
 
 	@Inject
-	SharedMempool(SystemCounters counters, LocalMempool localMempool, MempoolNetworkTx networkSender) {
+	SharedMempool(
+		SystemCounters counters,
+		OrderedMempool localMempool,
+		MempoolNetworkTx networkSender,
+		RecentCommandHashes recentCommandHashes
+	) {
 		this.localMempool = Objects.requireNonNull(localMempool);
 		this.networkSender = Objects.requireNonNull(networkSender);
 		this.counters = Objects.requireNonNull(counters);
+		this.recentCommandHashes = Objects.requireNonNull(recentCommandHashes);
 	}
 
 	@Override
 	public void add(Command command) throws MempoolFullException, MempoolDuplicateException {
 		this.localMempool.add(command);
+		this.recentCommandHashes.add(command.getHash());
 		updateCounts();
 		this.networkSender.sendMempoolSubmission(command);
 	}
 
 	@Override
-	public void removeCommitted(Hash cmdHash) {
-		this.localMempool.removeCommitted(cmdHash);
+	public ImmutableList<Optional<MempoolRejectedException>> addAll(List<Command> commands) {
+		ImmutableList<Optional<MempoolRejectedException>> results = this.localMempool.addAll(commands);
+		updateCounts();
+		for (int i = 0; i < commands.size(); i++) {
+			if (results.get(i).isEmpty()) {
+				Command command = commands.get(i);
+				this.recentCommandHashes.add(command.getHash());
+				this.networkSender.sendMempoolSubmission(command);
+			}
+		}
+		return results;
+	}
+
+	@Override
+	public void removeCommitted(Command command) {
+		this.localMempool.removeCommitted(command);
+		// Stop late gossip from re-adding the command
+		this.recentCommandHashes.add(command.getHash());
 		updateCounts();
 	}
 
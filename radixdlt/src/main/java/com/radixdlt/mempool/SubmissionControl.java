@@ -17,7 +17,9 @@
 package com.radixdlt.mempool;
 
 import com.radixdlt.consensus.Command;
+import com.google.common.collect.ImmutableList;
 import com.radixdlt.middleware2.ClientAtom;
+import java.util.List;
 import java.util.function.Consumer;
 
 import org.json.JSONObject;
@@ -32,6 +34,17 @@ public interface SubmissionControl {
 	 */
 	void submitCommand(Command command) throws MempoolRejectedException;
 
+	/**
+	 * Handle a batch of command submissions from the network.
+	 * Deserialisation and stateless checks of the commands run in parallel, and
+	 * the commands which pass them are added to the mempool in a single operation.
+	 * Failures are reported per command, and do not affect other commands in the batch.
+	 *
+	 * @param commands the commands to deserialise and check
+	 * @return the result of each submission, in the order of {@code commands}
+	 */
+	ImmutableList<SubmissionResult> submitCommands(List<Command> commands);
+
 	/**
 	 * Handle atom submission from API or network as an {@link ClientAtom}.
 	 *
@@ -51,4 +64,17 @@ public interface SubmissionControl {
 	 */
 	void submitAtom(JSONObject atomJson, Consumer<ClientAtom> deserialisationCallback)
 		throws MempoolFullException, MempoolDuplicateException;
+
+	/**
+	 * Handle a batch of atom submissions from API as {@link JSONObject}s.
+	 * Deserialisation and stateless checks of the atoms run in parallel, and
+	 * the atoms which pass them are added to the mempool in a single operation.
+	 * Failures are reported per atom, and do not affect other atoms in the batch.
+	 *
+	 * @param atomJsons the {@link JSONObject}s to deserialise for the atoms
+	 * @param deserialisationCallback the callback to call for each atom which passes the checks,
+	 * 	before any atom is added to the mempool
+	 * @return the result of each submission, in the order of {@code atomJsons}
+	 */
+	ImmutableList<SubmissionResult> submitAtoms(List<JSONObject> atomJsons, Consumer<ClientAtom> deserialisationCallback);
 }
@@ -17,6 +17,9 @@
 
 package com.radixdlt.mempool;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.radixdlt.consensus.Command;
 import com.radixdlt.engine.RadixEngineException;
 import com.radixdlt.middleware2.ClientAtom;
@@ -25,7 +28,12 @@ import com.radixdlt.middleware2.converters.AtomConversionException;
 import com.radixdlt.middleware2.converters.AtomToClientAtomConverter;
 import com.radixdlt.serialization.DeserializeException;
 import com.radixdlt.serialization.DsonOutput.Output;
+import com.radixdlt.utils.ParallelChunks;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 
 import org.apache.logging.log4j.LogManager;
@@ -44,11 +52,36 @@ public class SubmissionControlImpl implements SubmissionControl {
 		void sendRadixEngineFailure(ClientAtom clientAtom, RadixEngineException e);
 	}
 
+	/**
+	 * An atom of a batch which has been through the stateless checks, holding
+	 * either the command to add to the mempool or the result of a failed check.
+	 */
+	private static final class CheckedAtom {
+		private final ClientAtom atom;
+		private final Command command;
+		private final SubmissionResult failure;
+
+		private CheckedAtom(ClientAtom atom, Command command, SubmissionResult failure) {
+			this.atom = atom;
+			this.command = command;
+			this.failure = failure;
+		}
+
+		static CheckedAtom passed(ClientAtom atom, Command command) {
+			return new CheckedAtom(atom, command, null);
+		}
+
+		static CheckedAtom failed(SubmissionResult failure) {
+			return new CheckedAtom(null, null, failure);
+		}
+	}
+
 	private final Mempool mempool;
 	private final RadixEngine<LedgerAtom> radixEngine;
 	private final Serialization serialization;
 	private final AtomToClientAtomConverter converter;
 	private final SubmissionControlSender submissionControlSender;
+	private final Executor executor;
 
 	public SubmissionControlImpl(
 		Mempool mempool,
@@ -56,12 +89,24 @@ public class SubmissionControlImpl implements SubmissionControl {
 		Serialization serialization,
 		AtomToClientAtomConverter converter,
 		SubmissionControlSender submissionControlSender
+	) {
+		this(mempool, radixEngine, serialization, converter, submissionControlSender, MoreExecutors.directExecutor());
+	}
+
+	public SubmissionControlImpl(
+		Mempool mempool,
+		RadixEngine<LedgerAtom> radixEngine,
+		Serialization serialization,
+		AtomToClientAtomConverter converter,
+		SubmissionControlSender submissionControlSender,
+		Executor executor
 	) {
 		this.mempool = Objects.requireNonNull(mempool);
 		this.radixEngine = Objects.requireNonNull(radixEngine);
 		this.serialization = Objects.requireNonNull(serialization);
 		this.submissionControlSender = Objects.requireNonNull(submissionControlSender);
 		this.converter = Objects.requireNonNull(converter);
+		this.executor = Objects.requireNonNull(executor);
 	}
 
 	@Override
@@ -89,14 +134,7 @@ public class SubmissionControlImpl implements SubmissionControl {
 			Command command = new Command(payload);
 			this.mempool.add(command);
 		} catch (RadixEngineException e) {
-			log.info(
-				"Rejecting atom {} with error '{}' at '{}' with message '{}'.",
-				atom.getAID(),
-				e.getErrorCode(),
-				e.getDataPointer(),
-				e.getMessage()
-			);
-			this.submissionControlSender.sendRadixEngineFailure(atom, e);
+			rejectForEngineFailure(atom, e);
 		}
 	}
 
@@ -108,12 +146,100 @@ public class SubmissionControlImpl implements SubmissionControl {
 			deserialisationCallback.accept(atom);
 			submitAtom(atom);
 		} catch (AtomConversionException e) {
-			log.info(
-				"Rejecting atom {} due to conversion issues.",
-				rawAtom.getAID()
-			);
-			this.submissionControlSender.sendDeserializeFailure(rawAtom, e);
+			rejectForConversionFailure(rawAtom, e);
+		}
+	}
+
+	@Override
+	public ImmutableList<SubmissionResult> submitCommands(List<Command> commands) {
+		return addChecked(ParallelChunks.map(commands, this.executor, this::checkCommand), atom -> { });
+	}
+
+	@Override
+	public ImmutableList<SubmissionResult> submitAtoms(List<JSONObject> atomJsons, Consumer<ClientAtom> deserialisationCallback) {
+		return addChecked(ParallelChunks.map(atomJsons, this.executor, this::check), deserialisationCallback);
+	}
+
+	// Adds the atoms which passed the checks to the mempool in one operation
+	private ImmutableList<SubmissionResult> addChecked(List<CheckedAtom> checkedAtoms, Consumer<ClientAtom> deserialisationCallback) {
+		final List<Command> commands = Lists.newArrayListWithCapacity(checkedAtoms.size());
+		for (CheckedAtom checkedAtom : checkedAtoms) {
+			if (checkedAtom.failure == null) {
+				deserialisationCallback.accept(checkedAtom.atom);
+				commands.add(checkedAtom.command);
+			}
 		}
+		final Iterator<Optional<MempoolRejectedException>> added = this.mempool.addAll(commands).iterator();
+
+		final ImmutableList.Builder<SubmissionResult> results = ImmutableList.builder();
+		for (CheckedAtom checkedAtom : checkedAtoms) {
+			if (checkedAtom.failure != null) {
+				results.add(checkedAtom.failure);
+			} else {
+				final Optional<MempoolRejectedException> rejection = added.next();
+				results.add(rejection.isPresent()
+					? SubmissionResult.rejected(checkedAtom.atom.getAID(), rejection.get())
+					: SubmissionResult.accepted(checkedAtom.atom.getAID()));
+			}
+		}
+		return results.build();
+	}
+
+	private CheckedAtom checkCommand(Command command) {
+		final ClientAtom atom;
+		try {
+			atom = this.serialization.fromDson(command.getPayload(), ClientAtom.class);
+		} catch (DeserializeException e) {
+			return CheckedAtom.failed(SubmissionResult.rejected(null, new MempoolRejectedException(command, "Bad atom")));
+		}
+		return staticCheck(atom);
+	}
+
+	private CheckedAtom check(JSONObject atomJson) {
+		final Atom rawAtom;
+		try {
+			rawAtom = this.serialization.fromJsonObject(atomJson, Atom.class);
+		} catch (IllegalArgumentException e) {
+			return CheckedAtom.failed(SubmissionResult.rejected(null, e));
+		}
+
+		final ClientAtom atom;
+		try {
+			atom = this.converter.convert(rawAtom);
+		} catch (AtomConversionException e) {
+			rejectForConversionFailure(rawAtom, e);
+			return CheckedAtom.failed(SubmissionResult.rejected(rawAtom.getAID(), e));
+		}
+		return staticCheck(atom);
+	}
+
+	private CheckedAtom staticCheck(ClientAtom atom) {
+		try {
+			this.radixEngine.staticCheck(atom);
+		} catch (RadixEngineException e) {
+			rejectForEngineFailure(atom, e);
+			return CheckedAtom.failed(SubmissionResult.rejected(atom.getAID(), e));
+		}
+		return CheckedAtom.passed(atom, new Command(serialization.toDson(atom, Output.ALL)));
+	}
+
+	private void rejectForConversionFailure(Atom rawAtom, AtomConversionException e) {
+		log.info(
+			"Rejecting atom {} due to conversion issues.",
+			rawAtom.getAID()
+		);
+		this.submissionControlSender.sendDeserializeFailure(rawAtom, e);
+	}
+
+	private void rejectForEngineFailure(ClientAtom atom, RadixEngineException e) {
+		log.info(
+			"Rejecting atom {} with error '{}' at '{}' with message '{}'.",
+			atom.getAID(),
+			e.getErrorCode(),
+			e.getDataPointer(),
+			e.getMessage()
+		);
+		this.submissionControlSender.sendRadixEngineFailure(atom, e);
 	}
 
 	@Override
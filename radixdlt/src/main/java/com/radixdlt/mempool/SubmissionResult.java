@@ -0,0 +1,87 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.mempool;
+
+import com.radixdlt.identifiers.AID;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Outcome of a single atom submitted as part of a batch, see
+ * {@link SubmissionControl#submitAtoms(java.util.List, java.util.function.Consumer)}
+ * and {@link SubmissionControl#submitCommands(java.util.List)}.
+ */
+public final class SubmissionResult {
+	// Null if the atom could not be deserialised
+	private final AID aid;
+	// Null if the atom was added to the mempool
+	private final Exception error;
+
+	private SubmissionResult(AID aid, Exception error) {
+		this.aid = aid;
+		this.error = error;
+	}
+
+	public static SubmissionResult accepted(AID aid) {
+		return new SubmissionResult(Objects.requireNonNull(aid), null);
+	}
+
+	public static SubmissionResult rejected(AID aid, Exception error) {
+		return new SubmissionResult(aid, Objects.requireNonNull(error));
+	}
+
+	/**
+	 * @return the id of the submitted atom, or empty if the atom could not be deserialised
+	 */
+	public Optional<AID> getAid() {
+		return Optional.ofNullable(this.aid);
+	}
+
+	public boolean isAccepted() {
+		return this.error == null;
+	}
+
+	/**
+	 * @return the reason the atom was rejected, or empty if it was added to the mempool
+	 */
+	public Optional<Exception> getError() {
+		return Optional.ofNullable(this.error);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(this.aid, this.error);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof SubmissionResult)) {
+			return false;
+		}
+		SubmissionResult other = (SubmissionResult) o;
+		return Objects.equals(this.aid, other.aid) && Objects.equals(this.error, other.error);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s[%s:%s]", getClass().getSimpleName(), this.aid, isAccepted() ? "accepted" : this.error);
+	}
+}
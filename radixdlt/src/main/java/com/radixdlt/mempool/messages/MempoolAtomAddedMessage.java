@@ -18,6 +18,7 @@
 package com.radixdlt.mempool.messages;
 
 import com.radixdlt.consensus.Command;
+import com.radixdlt.network.messaging.SharedMessage;
 import java.util.Objects;
 
 import org.radix.network.messaging.Message;
@@ -28,7 +29,7 @@ import com.radixdlt.serialization.DsonOutput.Output;
 import com.radixdlt.serialization.SerializerId2;
 
 @SerializerId2("message.mempool.atomadded")
-public class MempoolAtomAddedMessage extends Message {
+public class MempoolAtomAddedMessage extends Message implements SharedMessage {
 	@JsonProperty("command")
 	@DsonOutput(Output.ALL)
 	private final Command command;
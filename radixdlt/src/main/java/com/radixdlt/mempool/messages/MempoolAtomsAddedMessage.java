@@ -0,0 +1,58 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.mempool.messages;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
+import com.radixdlt.consensus.Command;
+import com.radixdlt.network.messaging.SharedMessage;
+import com.radixdlt.serialization.DsonOutput;
+import com.radixdlt.serialization.DsonOutput.Output;
+import com.radixdlt.serialization.SerializerId2;
+import java.util.Objects;
+import org.radix.network.messaging.Message;
+
+/**
+ * Gossip message carrying a batch of commands added to a mempool.
+ */
+@SerializerId2("message.mempool.atomsadded")
+public final class MempoolAtomsAddedMessage extends Message implements SharedMessage {
+	@JsonProperty("commands")
+	@DsonOutput(Output.ALL)
+	private final ImmutableList<Command> commands;
+
+	MempoolAtomsAddedMessage() {
+		// Serializer only
+		super(0);
+		this.commands = null;
+	}
+
+	public MempoolAtomsAddedMessage(int magic, ImmutableList<Command> commands) {
+		super(magic);
+		this.commands = Objects.requireNonNull(commands);
+	}
+
+	public ImmutableList<Command> commands() {
+		return this.commands == null ? ImmutableList.of() : this.commands;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s{commands=%s}", getClass().getSimpleName(), commands);
+	}
+}
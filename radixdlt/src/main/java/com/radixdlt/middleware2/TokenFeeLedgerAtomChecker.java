@@ -99,6 +99,17 @@ public class TokenFeeLedgerAtomChecker implements AtomChecker<LedgerAtom> {
 		return Result.success();
 	}
 
+	/**
+	 * Computes the total fee paid in the fee token by the fee groups of the specified atom.
+	 *
+	 * @param atom the atom to compute the fee paid for
+	 * @return the fee paid, or zero if the atom has no fee groups
+	 */
+	public UInt256 feePaid(ClientAtom atom) {
+		Atom completeAtom = ClientAtom.convertToApiAtom(atom);
+		return computeFeePaid(completeAtom.particleGroups().filter(this::isFeeGroup));
+	}
+
 	private boolean isFeeGroup(ParticleGroup pg) {
 		// No free storage in metadata
 		if (!pg.getMetaData().isEmpty()) {
@@ -0,0 +1,58 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.middleware2;
+
+import com.radixdlt.consensus.Command;
+import com.radixdlt.mempool.FeeRate;
+import com.radixdlt.serialization.DeserializeException;
+import com.radixdlt.serialization.Serialization;
+import com.radixdlt.utils.UInt256;
+import java.util.Objects;
+import javax.inject.Inject;
+
+/**
+ * Computes the mempool priority of a command as the fee paid in the
+ * fee token, as determined by {@link TokenFeeLedgerAtomChecker}, divided
+ * by the size of the serialized command.
+ */
+public final class TokenFeeRate implements FeeRate {
+	private final TokenFeeLedgerAtomChecker feeChecker;
+	private final Serialization serialization;
+
+	@Inject
+	public TokenFeeRate(TokenFeeLedgerAtomChecker feeChecker, Serialization serialization) {
+		this.feeChecker = Objects.requireNonNull(feeChecker);
+		this.serialization = Objects.requireNonNull(serialization);
+	}
+
+	@Override
+	public UInt256 feePerByte(Command command) {
+		final byte[] payload = command.getPayload();
+		if (payload == null || payload.length == 0) {
+			return UInt256.ZERO;
+		}
+		final ClientAtom clientAtom;
+		try {
+			clientAtom = this.serialization.fromDson(payload, ClientAtom.class);
+		} catch (DeserializeException e) {
+			// Not an atom, so pays no fee
+			return UInt256.ZERO;
+		}
+		return this.feeChecker.feePaid(clientAtom).divide(UInt256.from(payload.length));
+	}
+}
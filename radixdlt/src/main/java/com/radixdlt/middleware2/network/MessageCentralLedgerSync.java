@@ -17,6 +17,8 @@
 
 package com.radixdlt.middleware2.network;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.radixdlt.consensus.bft.BFTNode;
 import com.radixdlt.ledger.DtoLedgerHeaderAndProof;
 import com.radixdlt.network.addressbook.AddressBook;
@@ -29,15 +31,25 @@ import com.radixdlt.ledger.DtoCommandsAndProof;
 import com.radixdlt.universe.Universe;
 import io.reactivex.rxjava3.core.Observable;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 import javax.inject.Inject;
 
 /**
  * Network interface for syncing committed state using the MessageCentral
  */
 public final class MessageCentralLedgerSync implements StateSyncNetwork {
+	// Well within the time to live of messages
+	private static final long RESPONSE_MESSAGE_REUSE_SECONDS = 5L;
+	private static final long MAX_REUSED_RESPONSE_MESSAGES = 64L;
+
 	private final int magic;
 	private final MessageCentral messageCentral;
 	private final AddressBook addressBook;
+	// The same response sent to several peers is sent as the same message so that it is only encoded once
+	private final Cache<DtoCommandsAndProof, SyncResponseMessage> responseMessages = CacheBuilder.newBuilder()
+		.maximumSize(MAX_REUSED_RESPONSE_MESSAGES)
+		.expireAfterWrite(RESPONSE_MESSAGE_REUSE_SECONDS, TimeUnit.SECONDS)
+		.build();
 
 	@Inject
 	public MessageCentralLedgerSync(
@@ -70,7 +82,7 @@ public final class MessageCentralLedgerSync implements StateSyncNetwork {
 			MessageListener<SyncRequestMessage> listener = (src, msg) -> {
 				if (src.hasSystem()) {
 					BFTNode node = BFTNode.create(src.getSystem().getKey());
-					emitter.onNext(new RemoteSyncRequest(node, msg.getCurrentHeader()));
+					emitter.onNext(new RemoteSyncRequest(node, msg.getCurrentHeader(), msg.getMaxBytes()));
 				}
 			};
 			this.messageCentral.addListener(SyncRequestMessage.class, listener);
@@ -79,10 +91,10 @@ public final class MessageCentralLedgerSync implements StateSyncNetwork {
 	}
 
 	@Override
-	public void sendSyncRequest(BFTNode node, DtoLedgerHeaderAndProof header) {
+	public void sendSyncRequest(BFTNode node, DtoLedgerHeaderAndProof header, int maxBytes) {
 		addressBook.peer(node.getKey().euid()).ifPresent(peer -> {
 			if (peer.hasSystem()) {
-				final SyncRequestMessage syncRequestMessage = new SyncRequestMessage(this.magic, header);
+				final SyncRequestMessage syncRequestMessage = new SyncRequestMessage(this.magic, header, maxBytes);
 				this.messageCentral.send(peer, syncRequestMessage);
 			}
 		});
@@ -92,9 +104,17 @@ public final class MessageCentralLedgerSync implements StateSyncNetwork {
 	public void sendSyncResponse(BFTNode node, DtoCommandsAndProof commands) {
 		addressBook.peer(node.getKey().euid()).ifPresent(peer -> {
 			if (peer.hasSystem()) {
-				final SyncResponseMessage syncResponseMessage = new SyncResponseMessage(this.magic, commands);
-				this.messageCentral.send(peer, syncResponseMessage);
+				this.messageCentral.send(peer, syncResponseMessage(commands));
 			}
 		});
 	}
+
+	private SyncResponseMessage syncResponseMessage(DtoCommandsAndProof commands) {
+		SyncResponseMessage syncResponseMessage = this.responseMessages.getIfPresent(commands);
+		if (syncResponseMessage == null) {
+			syncResponseMessage = new SyncResponseMessage(this.magic, commands);
+			this.responseMessages.put(commands, syncResponseMessage);
+		}
+		return syncResponseMessage;
+	}
 }
@@ -17,17 +17,29 @@
 
 package com.radixdlt.middleware2.network;
 
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableList;
 import com.radixdlt.consensus.Command;
 import com.radixdlt.mempool.MempoolNetworkRx;
 import com.radixdlt.mempool.MempoolNetworkTx;
+import com.radixdlt.utils.ThreadFactories;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
+import javax.annotation.concurrent.GuardedBy;
 import javax.inject.Inject;
 
+import org.radix.Radix;
 import org.radix.universe.system.LocalSystem;
 
 import com.radixdlt.identifiers.EUID;
 import com.radixdlt.mempool.messages.MempoolAtomAddedMessage;
+import com.radixdlt.mempool.messages.MempoolAtomsAddedMessage;
 import com.radixdlt.network.addressbook.AddressBook;
 import com.radixdlt.network.addressbook.Peer;
 import com.radixdlt.network.addressbook.PeerWithSystem;
@@ -38,15 +50,33 @@ import io.reactivex.rxjava3.core.Observable;
 import io.reactivex.rxjava3.subjects.PublishSubject;
 
 /**
- * Overly simplistic network implementation that does absolutely nothing right now.
+ * Simple network implementation which gossips mempool submissions to all peers.
+ * <p>
+ * Submissions are accumulated for a short window, or until a byte budget is
+ * reached, and then sent to each peer as a single batch message.  Peers which
+ * predate batched gossip, and batches of one, get single command messages.
  */
 public class SimpleMempoolNetwork implements MempoolNetworkRx, MempoolNetworkTx {
+	// Maximum time a submission waits before being gossiped
+	static final long BATCH_WINDOW_MS = 50L;
+	// Payload bytes at which a batch is sent without waiting for the window
+	static final int MAX_BATCH_BYTES = 64 * 1024;
+
 	private final PeerWithSystem localPeer;
 	private final int magic;
 	private final AddressBook addressBook;
 	private final MessageCentral messageCentral;
+	private final ScheduledExecutorService executor;
+
+	private final PublishSubject<ImmutableList<Command>> commands;
 
-	private final PublishSubject<Command> commands;
+	private final Object batchLock = new Object();
+	@GuardedBy("batchLock")
+	private List<Command> pendingCommands = new ArrayList<>();
+	@GuardedBy("batchLock")
+	private int pendingBytes = 0;
+	@GuardedBy("batchLock")
+	private boolean flushScheduled = false;
 
 	@Inject
 	public SimpleMempoolNetwork(
@@ -54,35 +84,109 @@ public class SimpleMempoolNetwork implements MempoolNetworkRx, MempoolNetworkTx
 		Universe universe,
 		AddressBook addressBook,
 		MessageCentral messageCentral
+	) {
+		this(
+			system,
+			universe,
+			addressBook,
+			messageCentral,
+			Executors.newSingleThreadScheduledExecutor(ThreadFactories.daemonThreads("MempoolGossip"))
+		);
+	}
+
+	SimpleMempoolNetwork(
+		LocalSystem system,
+		Universe universe,
+		AddressBook addressBook,
+		MessageCentral messageCentral,
+		ScheduledExecutorService executor
 	) {
 		this.magic = universe.getMagic();
 		this.addressBook = Objects.requireNonNull(addressBook);
 		this.messageCentral = Objects.requireNonNull(messageCentral);
+		this.executor = Objects.requireNonNull(executor);
 		this.localPeer = new PeerWithSystem(system);
 
 		this.commands = PublishSubject.create();
 
 		// TODO: Should be handled in start()/stop() once we have lifetimes sorted out
 		this.messageCentral.addListener(MempoolAtomAddedMessage.class, this::handleMempoolAtomMessage);
+		this.messageCentral.addListener(MempoolAtomsAddedMessage.class, this::handleMempoolAtomsMessage);
 	}
 
-
 	@Override
 	public void sendMempoolSubmission(Command command) {
-		MempoolAtomAddedMessage message = new MempoolAtomAddedMessage(this.magic, command);
+		final ImmutableList<Command> batch;
+		synchronized (this.batchLock) {
+			this.pendingCommands.add(command);
+			this.pendingBytes += command.getPayload().length;
+			if (this.pendingBytes < MAX_BATCH_BYTES) {
+				if (!this.flushScheduled) {
+					this.flushScheduled = true;
+					this.executor.schedule(this::flush, BATCH_WINDOW_MS, TimeUnit.MILLISECONDS);
+				}
+				return;
+			}
+			batch = takePendingCommands();
+		}
+		sendBatch(batch);
+	}
+
+	private void flush() {
+		final ImmutableList<Command> batch;
+		synchronized (this.batchLock) {
+			this.flushScheduled = false;
+			batch = takePendingCommands();
+		}
+		if (!batch.isEmpty()) {
+			sendBatch(batch);
+		}
+	}
+
+	@GuardedBy("batchLock")
+	private ImmutableList<Command> takePendingCommands() {
+		ImmutableList<Command> batch = ImmutableList.copyOf(this.pendingCommands);
+		this.pendingCommands = new ArrayList<>();
+		this.pendingBytes = 0;
+		return batch;
+	}
+
+	private void sendBatch(ImmutableList<Command> batch) {
+		// Same message instances for every peer, so each is only encoded once
+		final MempoolAtomsAddedMessage batchMessage = batch.size() > 1 ? new MempoolAtomsAddedMessage(this.magic, batch) : null;
+		final Supplier<ImmutableList<MempoolAtomAddedMessage>> singleMessages = Suppliers.memoize(() -> batch.stream()
+			.map(command -> new MempoolAtomAddedMessage(this.magic, command))
+			.collect(ImmutableList.toImmutableList()));
 		final EUID self = this.localPeer.getNID();
 		this.addressBook.peers()
 			.filter(Peer::hasSystem) // Only peers with systems (and therefore transports)
 			.filter(p -> !self.equals(p.getNID())) // Exclude self, already sent
-			.forEach(peer -> this.messageCentral.send(peer, message));
+			.forEach(peer -> {
+				if (batchMessage != null && acceptsBatches(peer)) {
+					this.messageCentral.send(peer, batchMessage);
+				} else {
+					singleMessages.get().forEach(message -> this.messageCentral.send(peer, message));
+				}
+			});
+	}
+
+	private static boolean acceptsBatches(Peer peer) {
+		return peer.getSystem().getAgentVersion() >= Radix.MEMPOOL_BATCH_AGENT_VERSION;
 	}
 
 	@Override
-	public Observable<Command> commands() {
+	public Observable<ImmutableList<Command>> commands() {
 		return this.commands;
 	}
 
 	private void handleMempoolAtomMessage(Peer source, MempoolAtomAddedMessage message) {
-		this.commands.onNext(message.command());
+		// Single command messages from peers which do not batch
+		this.commands.onNext(ImmutableList.of(message.command()));
+	}
+
+	private void handleMempoolAtomsMessage(Peer source, MempoolAtomsAddedMessage message) {
+		if (!message.commands().isEmpty()) {
+			this.commands.onNext(message.commands());
+		}
 	}
 }
@@ -34,23 +34,33 @@ public final class SyncRequestMessage extends Message {
 	@DsonOutput(Output.ALL)
 	private final DtoLedgerHeaderAndProof currentHeader;
 
+	@JsonProperty("maxBytes")
+	@DsonOutput(Output.ALL)
+	private final int maxBytes;
+
 	SyncRequestMessage() {
 		// Serializer only
 		super(0);
 		this.currentHeader = null;
+		this.maxBytes = 0;
 	}
 
-	public SyncRequestMessage(int magic, DtoLedgerHeaderAndProof currentHeader) {
+	public SyncRequestMessage(int magic, DtoLedgerHeaderAndProof currentHeader, int maxBytes) {
 		super(magic);
 		this.currentHeader = currentHeader;
+		this.maxBytes = maxBytes;
 	}
 
 	public DtoLedgerHeaderAndProof getCurrentHeader() {
 		return currentHeader;
 	}
 
+	public int getMaxBytes() {
+		return maxBytes;
+	}
+
 	@Override
 	public String toString() {
-		return String.format("%s{current=%s}", getClass().getSimpleName(), currentHeader);
+		return String.format("%s{current=%s maxBytes=%s}", getClass().getSimpleName(), currentHeader, maxBytes);
 	}
 }
@@ -22,13 +22,14 @@ import com.radixdlt.serialization.DsonOutput;
 import com.radixdlt.serialization.DsonOutput.Output;
 import com.radixdlt.serialization.SerializerId2;
 import com.radixdlt.ledger.DtoCommandsAndProof;
+import com.radixdlt.network.messaging.SharedMessage;
 import org.radix.network.messaging.Message;
 
 /**
  * Message with sync atoms as a response to sync request
  */
 @SerializerId2("message.sync.response")
-public final class SyncResponseMessage extends Message {
+public final class SyncResponseMessage extends Message implements SharedMessage {
 	@JsonProperty("commands")
 	@DsonOutput(Output.ALL)
 	private final DtoCommandsAndProof commands;
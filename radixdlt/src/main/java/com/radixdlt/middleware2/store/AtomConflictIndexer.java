@@ -0,0 +1,60 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.middleware2.store;
+
+import com.google.common.collect.ImmutableSet;
+import com.radixdlt.consensus.Command;
+import com.radixdlt.mempool.ConflictIndexer;
+import com.radixdlt.middleware2.ClientAtom;
+import com.radixdlt.middleware2.store.CommittedAtomsStore.AtomIndexer;
+import com.radixdlt.serialization.DeserializeException;
+import com.radixdlt.serialization.Serialization;
+import java.util.Objects;
+import javax.inject.Inject;
+
+/**
+ * Indexes mempool commands by the unique store indices of their atoms,
+ * that is the particles they spin up or down.  Two atoms sharing a
+ * unique index cannot both be committed.
+ */
+public final class AtomConflictIndexer implements ConflictIndexer {
+	private final AtomIndexer atomIndexer;
+	private final Serialization serialization;
+
+	@Inject
+	public AtomConflictIndexer(AtomIndexer atomIndexer, Serialization serialization) {
+		this.atomIndexer = Objects.requireNonNull(atomIndexer);
+		this.serialization = Objects.requireNonNull(serialization);
+	}
+
+	@Override
+	public ImmutableSet<?> conflictKeys(Command command) {
+		final byte[] payload = command.getPayload();
+		if (payload == null || payload.length == 0) {
+			return ImmutableSet.of();
+		}
+		final ClientAtom clientAtom;
+		try {
+			clientAtom = this.serialization.fromDson(payload, ClientAtom.class);
+		} catch (DeserializeException e) {
+			// Not an atom, so cannot conflict
+			return ImmutableSet.of();
+		}
+		return ImmutableSet.copyOf(this.atomIndexer.getIndices(clientAtom).getUniqueIndices());
+	}
+}
@@ -35,6 +35,7 @@ import com.radixdlt.statecomputer.CommittedAtom;
 import com.radixdlt.middleware2.LedgerAtom;
 import com.radixdlt.statecomputer.CommittedCommandsReader;
 import com.radixdlt.statecomputer.CommittedAtoms;
+import com.radixdlt.statecomputer.CommittedAtomsBatcher;
 import com.radixdlt.statecomputer.RadixEngineStateComputer.CommittedAtomSender;
 import com.radixdlt.store.SearchCursor;
 import com.radixdlt.store.StoreIndex;
@@ -42,10 +43,17 @@ import com.radixdlt.store.LedgerSearchMode;
 import com.radixdlt.store.EngineStore;
 import com.radixdlt.store.LedgerEntry;
 import com.radixdlt.store.LedgerEntryStore;
+import com.radixdlt.store.LedgerEntryStoreResult;
+import com.radixdlt.store.SpinStateMachine;
 
 import com.radixdlt.store.StoreIndex.LedgerIndexType;
 import com.radixdlt.store.berkeley.NextCommittedLimitReachedException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.TreeMap;
 import java.util.function.BiFunction;
 import java.util.stream.Collectors;
@@ -54,7 +62,7 @@ import org.apache.logging.log4j.Logger;
 
 import java.util.Optional;
 
-public final class CommittedAtomsStore implements EngineStore<CommittedAtom>, CommittedCommandsReader {
+public final class CommittedAtomsStore implements EngineStore<CommittedAtom>, CommittedCommandsReader, CommittedAtomsBatcher {
 	private static final Logger log = LogManager.getLogger();
 
 	private final Serialization serialization;
@@ -64,6 +72,11 @@ public final class CommittedAtomsStore implements EngineStore<CommittedAtom>, Co
 	private final ClientAtomToBinaryConverter clientAtomToBinaryConverter;
 	private final CommittedAtomSender committedAtomSender;
 
+	private final Object batchLock = new Object();
+	// Atoms stored while a batch is in progress and the spins they lead to, persisted on commitBatch
+	private List<CommittedAtom> batchAtoms;
+	private final Map<EUID, Spin> batchSpins = new HashMap<>();
+
 	public interface AtomIndexer {
 		EngineAtomIndices getIndices(LedgerAtom atom);
 	}
@@ -104,9 +117,89 @@ public final class CommittedAtomsStore implements EngineStore<CommittedAtom>, Co
 		}
 	}
 
+	@Override
+	public void beginBatch() {
+		synchronized (batchLock) {
+			if (this.batchAtoms != null) {
+				throw new IllegalStateException("Batch already in progress");
+			}
+			this.batchAtoms = new ArrayList<>();
+		}
+	}
+
+	@Override
+	public void commitBatch() {
+		final List<CommittedAtom> atoms;
+		synchronized (batchLock) {
+			if (this.batchAtoms == null) {
+				throw new IllegalStateException("No batch in progress");
+			}
+			atoms = this.batchAtoms;
+		}
+
+		if (!atoms.isEmpty()) {
+			final List<LedgerEntry> ledgerEntries = new ArrayList<>(atoms.size());
+			final Map<AID, Set<StoreIndex>> uniqueIndices = new HashMap<>();
+			final Map<AID, Set<StoreIndex>> duplicateIndices = new HashMap<>();
+			final List<EngineAtomIndices> atomIndices = new ArrayList<>(atoms.size());
+			for (CommittedAtom committedAtom : atoms) {
+				EngineAtomIndices engineAtomIndices = atomIndexer.getIndices(committedAtom);
+				ledgerEntries.add(toLedgerEntry(committedAtom));
+				uniqueIndices.put(committedAtom.getAID(), engineAtomIndices.getUniqueIndices());
+				duplicateIndices.put(committedAtom.getAID(), engineAtomIndices.getDuplicateIndices());
+				atomIndices.add(engineAtomIndices);
+			}
+
+			LedgerEntryStoreResult result = store.storeCommitted(ledgerEntries, uniqueIndices, duplicateIndices);
+			if (!result.isSuccess()) {
+				throw new IllegalStateException("Could not store batch of " + atoms.size() + " committed atoms: " + result.getConflictInfo());
+			}
+
+			for (int i = 0; i < atoms.size(); i++) {
+				sendCommitted(atoms.get(i), atomIndices.get(i));
+			}
+		}
+
+		synchronized (batchLock) {
+			this.batchAtoms = null;
+			this.batchSpins.clear();
+		}
+	}
+
+	@Override
+	public void abortBatch() {
+		synchronized (batchLock) {
+			if (this.batchAtoms != null) {
+				log.warn("Discarding batch of {} committed atoms", this.batchAtoms.size());
+			}
+			this.batchAtoms = null;
+			this.batchSpins.clear();
+		}
+	}
+
 	// TODO: Save proof in a separate index
 	@Override
 	public void storeAtom(CommittedAtom committedAtom) {
+		synchronized (batchLock) {
+			if (this.batchAtoms != null) {
+				this.batchAtoms.add(committedAtom);
+				this.batchSpins.putAll(nextSpins(committedAtom.getClientAtom()));
+				return;
+			}
+		}
+
+		LedgerEntry ledgerEntry = toLedgerEntry(committedAtom);
+		EngineAtomIndices engineAtomIndices = atomIndexer.getIndices(committedAtom);
+
+		// TODO: Replace Store + Commit with a single commit
+		// TODO: How it's done depends on how mempool and prepare phases are implemented
+        store.store(ledgerEntry, engineAtomIndices.getUniqueIndices(), engineAtomIndices.getDuplicateIndices());
+        store.commit(committedAtom.getAID());
+
+		sendCommitted(committedAtom, engineAtomIndices);
+    }
+
+	private LedgerEntry toLedgerEntry(CommittedAtom committedAtom) {
 		// TODO: Remove serialization/deserialization
 		byte[] payload = clientAtomToBinaryConverter.toLedgerEntryContent(committedAtom.getClientAtom());
 		Command command = new Command(payload);
@@ -114,26 +207,44 @@ public final class CommittedAtomsStore implements EngineStore<CommittedAtom>, Co
 		final VerifiedLedgerHeaderAndProof proof = committedAtom.getStateAndProof();
 		StoredCommittedCommand storedCommittedCommand = new StoredCommittedCommand(command, proof);
 		byte[] binaryAtom = commandToBinaryConverter.toLedgerEntryContent(storedCommittedCommand);
-		LedgerEntry ledgerEntry = new LedgerEntry(
+		return new LedgerEntry(
 			binaryAtom,
 			committedAtom.getStateVersion(),
 			committedAtom.getStateAndProof().getStateVersion(),
 			committedAtom.getAID()
 		);
-		EngineAtomIndices engineAtomIndices = atomIndexer.getIndices(committedAtom);
-
-		// TODO: Replace Store + Commit with a single commit
-		// TODO: How it's done depends on how mempool and prepare phases are implemented
-        store.store(ledgerEntry, engineAtomIndices.getUniqueIndices(), engineAtomIndices.getDuplicateIndices());
-        store.commit(committedAtom.getAID());
+	}
 
+	private void sendCommitted(CommittedAtom committedAtom, EngineAtomIndices engineAtomIndices) {
 		final ImmutableSet<EUID> indicies = engineAtomIndices.getDuplicateIndices().stream()
 			.filter(e -> e.getPrefix() == EngineAtomIndices.IndexType.DESTINATION.getValue())
 			.map(e -> EngineAtomIndices.toEUID(e.asKey()))
 			.collect(ImmutableSet.toImmutableSet());
 
 		committedAtomSender.sendCommittedAtom(CommittedAtoms.success(committedAtom, indicies));
-    }
+	}
+
+	/**
+	 * Computes the spins of the particles pushed by an atom, as indexed by {@link EngineAtomIndices}.
+	 */
+	private static Map<EUID, Spin> nextSpins(ClientAtom clientAtom) {
+		final Map<Particle, Spin> curSpins = new HashMap<>();
+		for (CMMicroInstruction instruction : clientAtom.getCMInstruction().getMicroInstructions()) {
+			if (instruction.isCheckSpin()) {
+				curSpins.put(instruction.getParticle(), instruction.getCheckSpin());
+			}
+		}
+
+		final Map<EUID, Spin> nextSpins = new HashMap<>();
+		for (CMMicroInstruction instruction : clientAtom.getCMInstruction().getMicroInstructions()) {
+			if (instruction.getMicroOp() == CMMicroInstruction.CMMicroOp.PUSH) {
+				Spin nextSpin = SpinStateMachine.next(curSpins.get(instruction.getParticle()));
+				curSpins.put(instruction.getParticle(), nextSpin);
+				nextSpins.put(instruction.getParticle().euid(), nextSpin);
+			}
+		}
+		return nextSpins;
+	}
 
 	@Override
 	public <U extends Particle, V> V compute(
@@ -155,19 +266,39 @@ public final class CommittedAtomsStore implements EngineStore<CommittedAtom>, Co
 				LedgerEntry entry = ledgerEntry.get();
 				StoredCommittedCommand committedCommand = commandToBinaryConverter.toCommand(entry.getContent());
 				ClientAtom clientAtom = committedCommand.getCommand().map(clientAtomToBinaryConverter::toAtom);
-				for (CMMicroInstruction cmMicroInstruction : clientAtom.getCMInstruction().getMicroInstructions()) {
-					if (particleClass.isInstance(cmMicroInstruction.getParticle())
-						&& cmMicroInstruction.isCheckSpin()) {
-						if (cmMicroInstruction.getCheckSpin() == Spin.NEUTRAL) {
-							v = outputReducer.apply(v, particleClass.cast(cmMicroInstruction.getParticle()));
-						} else {
-							v = inputReducer.apply(v, particleClass.cast(cmMicroInstruction.getParticle()));
-						}
-					}
-				}
+				v = reduce(clientAtom, particleClass, v, outputReducer, inputReducer);
 			}
 			cursor = cursor.next();
 		}
+
+		synchronized (batchLock) {
+			if (this.batchAtoms != null) {
+				for (CommittedAtom committedAtom : this.batchAtoms) {
+					v = reduce(committedAtom.getClientAtom(), particleClass, v, outputReducer, inputReducer);
+				}
+			}
+		}
+		return v;
+	}
+
+	private static <U extends Particle, V> V reduce(
+		ClientAtom clientAtom,
+		Class<U> particleClass,
+		V initial,
+		BiFunction<V, U, V> outputReducer,
+		BiFunction<V, U, V> inputReducer
+	) {
+		V v = initial;
+		for (CMMicroInstruction cmMicroInstruction : clientAtom.getCMInstruction().getMicroInstructions()) {
+			if (particleClass.isInstance(cmMicroInstruction.getParticle())
+				&& cmMicroInstruction.isCheckSpin()) {
+				if (cmMicroInstruction.getCheckSpin() == Spin.NEUTRAL) {
+					v = outputReducer.apply(v, particleClass.cast(cmMicroInstruction.getParticle()));
+				} else {
+					v = inputReducer.apply(v, particleClass.cast(cmMicroInstruction.getParticle()));
+				}
+			}
+		}
 		return v;
 	}
 
@@ -187,6 +318,13 @@ public final class CommittedAtomsStore implements EngineStore<CommittedAtom>, Co
 
 	@Override
 	public Spin getSpin(Particle particle) {
+		synchronized (batchLock) {
+			Spin batchSpin = this.batchSpins.get(particle.euid());
+			if (batchSpin != null) {
+				return batchSpin;
+			}
+		}
+
 		if (getAtomByParticle(particle, true).isPresent()) {
 			return Spin.DOWN;
 		} else if (getAtomByParticle(particle, false).isPresent()) {
@@ -0,0 +1,83 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.middleware2.store;
+
+import com.radixdlt.consensus.Command;
+import com.radixdlt.constraintmachine.CMMicroInstruction;
+import com.radixdlt.constraintmachine.Spin;
+import com.radixdlt.mempool.MempoolRevalidator;
+import com.radixdlt.middleware2.ClientAtom;
+import com.radixdlt.serialization.DeserializeException;
+import com.radixdlt.serialization.Serialization;
+import com.radixdlt.statecomputer.CommittedAtom;
+import com.radixdlt.store.EngineStore;
+import java.util.Objects;
+import javax.inject.Inject;
+
+/**
+ * Checks pending mempool commands against the spins of their particles in
+ * the engine store.
+ * <p>
+ * A command is invalid once any particle it checks has already moved past
+ * the checked spin, for example when an input has been spent by another
+ * atom.  Particles which have not yet reached the checked spin may be
+ * created by other pending commands, so are not treated as invalid.
+ */
+public final class EngineStoreCommandValidator implements MempoolRevalidator.CommandValidator {
+	private final EngineStore<CommittedAtom> engineStore;
+	private final Serialization serialization;
+
+	@Inject
+	public EngineStoreCommandValidator(EngineStore<CommittedAtom> engineStore, Serialization serialization) {
+		this.engineStore = Objects.requireNonNull(engineStore);
+		this.serialization = Objects.requireNonNull(serialization);
+	}
+
+	@Override
+	public boolean isValid(Command command) {
+		final ClientAtom clientAtom;
+		try {
+			clientAtom = this.serialization.fromDson(command.getPayload(), ClientAtom.class);
+		} catch (DeserializeException e) {
+			return false;
+		}
+		for (CMMicroInstruction instruction : clientAtom.getCMInstruction().getMicroInstructions()) {
+			if (instruction.isCheckSpin()) {
+				Spin currentSpin = this.engineStore.getSpin(instruction.getParticle());
+				if (spinOrder(currentSpin) > spinOrder(instruction.getCheckSpin())) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	// Position of a spin in the NEUTRAL -> UP -> DOWN lifecycle of a particle
+	private static int spinOrder(Spin spin) {
+		switch (spin) {
+			case NEUTRAL:
+				return 0;
+			case UP:
+				return 1;
+			case DOWN:
+				return 2;
+			default:
+				throw new IllegalStateException("Unknown spin " + spin);
+		}
+	}
+}
@@ -22,6 +22,8 @@ import java.io.UncheckedIOException;
 import java.util.concurrent.CompletableFuture;
 import org.radix.Radix;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.radixdlt.counters.SystemCounters;
 import com.radixdlt.counters.SystemCounters.CounterType;
 import com.radixdlt.identifiers.EUID;
@@ -51,7 +53,15 @@ import org.xerial.snappy.Snappy;
  */
 class MessageDispatcher {
 	private static final Logger log = LogManager.getLogger();
+	private static final long MAX_ENCODED_BYTES = 16L * 1024L * 1024L;
 
+	// Messages are sent asynchronously so are not modified once sent, which allows the encoding
+	// of a shared message sent to several peers to be reused for as long as the message is around
+	private final Cache<Message, byte[]> encodedMessages = CacheBuilder.newBuilder()
+		.weakKeys()
+		.maximumWeight(MAX_ENCODED_BYTES)
+		.weigher((Message message, byte[] bytes) -> bytes.length)
+		.build();
 	private final long messageTtlMs;
 	private final SystemCounters counters;
 	private final Serialization serialization;
@@ -216,9 +226,21 @@ class MessageDispatcher {
 	}
 
 	private byte[] serialize(Message out) {
+		final boolean shared = out instanceof SharedMessage;
+		if (shared) {
+			final byte[] encoded = this.encodedMessages.getIfPresent(out);
+			if (encoded != null) {
+				return encoded;
+			}
+		}
+
 		try {
 			byte[] uncompressed = serialization.toDson(out, Output.WIRE);
-			return Snappy.compress(uncompressed);
+			byte[] compressed = Snappy.compress(uncompressed);
+			if (shared) {
+				this.encodedMessages.put(out, compressed);
+			}
+			return compressed;
 		} catch (IOException e) {
 			throw new UncheckedIOException("While serializing message", e);
 		}
@@ -0,0 +1,41 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.statecomputer;
+
+/**
+ * Groups committed atoms stored by the Radix Engine into a batch. Atoms stored during a batch are
+ * checked against an in-memory overlay of the spins of the batch so far, so that they may depend
+ * on each other, and are persisted together when the batch is committed.
+ */
+public interface CommittedAtomsBatcher {
+	/**
+	 * Starts a batch, atoms stored after this are held in memory until {@link #commitBatch()}.
+	 */
+	void beginBatch();
+
+	/**
+	 * Persists all atoms stored since {@link #beginBatch()} in a single operation.
+	 */
+	void commitBatch();
+
+	/**
+	 * Discards all atoms stored since {@link #beginBatch()} without persisting them, ending the
+	 * batch. Does nothing if no batch is in progress, such as after a {@link #commitBatch()}.
+	 */
+	void abortBatch();
+}
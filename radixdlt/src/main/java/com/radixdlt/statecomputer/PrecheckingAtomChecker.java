@@ -0,0 +1,81 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.statecomputer;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.radixdlt.atomos.Result;
+import com.radixdlt.engine.AtomChecker;
+import com.radixdlt.identifiers.AID;
+import com.radixdlt.middleware2.LedgerAtom;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Atom checker which allows the stateless checks of atoms to be run ahead of time, off the
+ * serialized commit path. Successful results of {@link #precheck(LedgerAtom)} are remembered
+ * and handed out once to the Radix Engine when it checks the same atom.
+ * <p>
+ * Results for atoms which are prechecked but never committed are evicted once the
+ * cache is full or the retention window passes, in which case the atom is simply
+ * checked again.
+ */
+@ThreadSafe
+public final class PrecheckingAtomChecker implements AtomChecker<LedgerAtom> {
+	static final int MAX_PRECHECKED = 4096;
+	static final long RETENTION_MS = 60_000L;
+
+	private final AtomChecker<LedgerAtom> checker;
+	private final Cache<AID, Result> prechecked;
+
+	public PrecheckingAtomChecker(AtomChecker<LedgerAtom> checker) {
+		this(checker, MAX_PRECHECKED, RETENTION_MS, Ticker.systemTicker());
+	}
+
+	PrecheckingAtomChecker(AtomChecker<LedgerAtom> checker, int maxPrechecked, long retentionMs, Ticker ticker) {
+		this.checker = Objects.requireNonNull(checker);
+		this.prechecked = CacheBuilder.newBuilder()
+			.maximumSize(maxPrechecked)
+			.expireAfterWrite(retentionMs, TimeUnit.MILLISECONDS)
+			.ticker(ticker)
+			.build();
+	}
+
+	/**
+	 * Checks an atom ahead of the Radix Engine, may be called from any thread.
+	 *
+	 * @param atom the atom to check
+	 * @return the result of the check
+	 */
+	public Result precheck(LedgerAtom atom) {
+		final Result result = checker.check(atom);
+		if (result.isSuccess()) {
+			prechecked.put(atom.getAID(), result);
+		}
+		return result;
+	}
+
+	@Override
+	public Result check(LedgerAtom atom) {
+		// Removal through the map view hands out each result at most once, even to concurrent callers
+		final Result result = prechecked.asMap().remove(atom.getAID());
+		return result != null ? result : checker.check(atom);
+	}
+}
@@ -29,18 +29,19 @@ import com.radixdlt.engine.RadixEngineException;
 import com.radixdlt.identifiers.EUID;
 import com.radixdlt.ledger.DtoLedgerHeaderAndProof;
 import com.radixdlt.middleware2.ClientAtom;
-import com.radixdlt.serialization.DeserializeException;
 import com.radixdlt.middleware2.store.StoredCommittedCommand;
-import com.radixdlt.serialization.Serialization;
 import com.radixdlt.middleware2.LedgerAtom;
 import com.radixdlt.ledger.VerifiedCommandsAndProof;
 import com.radixdlt.ledger.StateComputerLedger.StateComputer;
 import com.radixdlt.store.berkeley.NextCommittedLimitReachedException;
 import com.radixdlt.sync.CommittedReader;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.function.Consumer;
 
@@ -62,35 +63,72 @@ public final class RadixEngineStateComputer implements StateComputer, CommittedR
 		void sendCommittedAtom(CommittedAtomWithResult committedAtomWithResult);
 	}
 
-	private final Serialization serialization;
+	private static final int MAX_CACHED_UNSTORED_COMMANDS = 1024;
+	private static final int MAX_CACHED_EPOCH_PROOFS = 8;
+
+	private final StatelessCommandChecker statelessCommandChecker;
 	private final RadixEngine<LedgerAtom> radixEngine;
 	private final View epochChangeView;
 	private final CommittedCommandsReader committedCommandsReader;
 	private final CommittedAtomSender committedAtomSender;
+	private final UnstoredCommandsStore unstoredCommandsStore;
+	private final CommittedAtomsBatcher committedAtomsBatcher;
 	private final Object lock = new Object();
+	// Most recent unstored commands and epoch proofs, the full history is kept in unstoredCommandsStore
 	private final TreeMap<Long, StoredCommittedCommand> unstoredCommittedAtoms = new TreeMap<>();
 	private final TreeMap<Long, VerifiedLedgerHeaderAndProof> epochProofs = new TreeMap<>();
+	// All unstored commands after this state version are in unstoredCommittedAtoms
+	private long cachedAfterStateVersion;
 
 	public RadixEngineStateComputer(
-		Serialization serialization,
+		StatelessCommandChecker statelessCommandChecker,
 		RadixEngine<LedgerAtom> radixEngine,
 		View epochChangeView,
 		CommittedCommandsReader committedCommandsReader,
-		CommittedAtomSender committedAtomSender
+		CommittedAtomSender committedAtomSender,
+		UnstoredCommandsStore unstoredCommandsStore,
+		CommittedAtomsBatcher committedAtomsBatcher
 	) {
 		if (epochChangeView.isGenesis()) {
 			throw new IllegalArgumentException("Epoch change view must not be genesis.");
 		}
 
-		this.serialization = Objects.requireNonNull(serialization);
+		this.statelessCommandChecker = Objects.requireNonNull(statelessCommandChecker);
 		this.radixEngine = Objects.requireNonNull(radixEngine);
 		this.epochChangeView = epochChangeView;
 		this.committedCommandsReader = Objects.requireNonNull(committedCommandsReader);
 		this.committedAtomSender = Objects.requireNonNull(committedAtomSender);
+		this.unstoredCommandsStore = Objects.requireNonNull(unstoredCommandsStore);
+		this.cachedAfterStateVersion = unstoredCommandsStore.getLastStateVersion().orElse(-1L);
+		this.committedAtomsBatcher = Objects.requireNonNull(committedAtomsBatcher);
 	}
 
 	public VerifiedLedgerHeaderAndProof getEpochProof(long epoch) {
-		return epochProofs.get(epoch);
+		synchronized (lock) {
+			VerifiedLedgerHeaderAndProof epochProof = epochProofs.get(epoch);
+			if (epochProof != null) {
+				return epochProof;
+			}
+		}
+		return unstoredCommandsStore.getEpochProof(epoch).orElse(null);
+	}
+
+	private Optional<StoredCommittedCommand> getNextUnstoredCommand(long stateVersion) {
+		synchronized (lock) {
+			if (stateVersion >= cachedAfterStateVersion) {
+				return Optional.ofNullable(unstoredCommittedAtoms.higherEntry(stateVersion)).map(Entry::getValue);
+			}
+		}
+		return unstoredCommandsStore.getNextCommand(stateVersion);
+	}
+
+	private Map<Long, StoredCommittedCommand> getUnstoredCommands(long fromStateVersion, long toStateVersion) {
+		synchronized (lock) {
+			if (fromStateVersion >= cachedAfterStateVersion) {
+				return new TreeMap<>(unstoredCommittedAtoms.subMap(fromStateVersion, false, toStateVersion, true));
+			}
+		}
+		return unstoredCommandsStore.getCommands(fromStateVersion, toStateVersion);
 	}
 
 	// TODO Move this to a different class class when unstored committed atoms is fixed
@@ -99,7 +137,7 @@ public final class RadixEngineStateComputer implements StateComputer, CommittedR
 		if (start.getLedgerHeader().isEndOfEpoch()) {
 			long currentEpoch = start.getLedgerHeader().getEpoch() + 1;
 			long nextEpoch = currentEpoch + 1;
-			VerifiedLedgerHeaderAndProof nextEpochProof = epochProofs.get(nextEpoch);
+			VerifiedLedgerHeaderAndProof nextEpochProof = getEpochProof(nextEpoch);
 			if (nextEpochProof == null) {
 				return null;
 			}
@@ -124,19 +162,14 @@ public final class RadixEngineStateComputer implements StateComputer, CommittedR
 		if (storedCommittedAtoms.firstEntry() != null) {
 			nextHeader = storedCommittedAtoms.firstEntry().getValue().getStateAndProof();
 		} else {
-			Entry<Long, StoredCommittedCommand> uncommittedEntry = unstoredCommittedAtoms.higherEntry(stateVersion);
-			if (uncommittedEntry == null) {
+			Optional<StoredCommittedCommand> uncommittedCommand = getNextUnstoredCommand(stateVersion);
+			if (!uncommittedCommand.isPresent()) {
 				return null;
 			}
-			nextHeader = uncommittedEntry.getValue().getStateAndProof();
+			nextHeader = uncommittedCommand.get().getStateAndProof();
 		}
 
-		synchronized (lock) {
-			final long proofStateVersion = nextHeader.getStateVersion();
-			Map<Long, StoredCommittedCommand> unstoredToReturn
-				= unstoredCommittedAtoms.subMap(stateVersion, false, proofStateVersion, true);
-			storedCommittedAtoms.putAll(unstoredToReturn);
-		}
+		storedCommittedAtoms.putAll(getUnstoredCommands(stateVersion, nextHeader.getStateVersion()));
 
 		return new VerifiedCommandsAndProof(
 			storedCommittedAtoms.values().stream().map(StoredCommittedCommand::getCommand).collect(ImmutableList.toImmutableList()),
@@ -149,39 +182,38 @@ public final class RadixEngineStateComputer implements StateComputer, CommittedR
 		return vertex.getView().compareTo(epochChangeView) >= 0;
 	}
 
-	private ClientAtom mapCommand(Command command) {
-		try {
-			return serialization.fromDson(command.getPayload(), ClientAtom.class);
-		} catch (DeserializeException e) {
-			return null;
-		}
-	}
-
-	private void commitCommand(long version, Command command, VerifiedLedgerHeaderAndProof proof) {
-		boolean storedInRadixEngine = false;
-		final ClientAtom clientAtom = this.mapCommand(command);
-		if (clientAtom != null) {
-			final CommittedAtom committedAtom = new CommittedAtom(clientAtom, version, proof);
+	// Returns true if the command was stored in the Radix Engine, adding any engine failure to failures
+	private boolean commitCommand(
+		long version,
+		Optional<ClientAtom> clientAtom,
+		VerifiedLedgerHeaderAndProof proof,
+		List<CommittedAtomWithResult> failures
+	) {
+		if (clientAtom.isPresent()) {
+			final CommittedAtom committedAtom = new CommittedAtom(clientAtom.get(), version, proof);
 			try {
-				// TODO: execute list of commands instead
 				this.radixEngine.checkAndStore(committedAtom);
-				storedInRadixEngine = true;
+				return true;
 			} catch (RadixEngineException e) {
 				// TODO: Don't check for state computer errors for now so that we don't
 				// TODO: have to deal with failing leader proposals
 				// TODO: Reinstate this when ProposalGenerator + Mempool can guarantee correct proposals
 
 				// TODO: move VIRTUAL_STATE_CONFLICT to static check
-				committedAtomSender.sendCommittedAtom(CommittedAtoms.error(committedAtom, e));
+				failures.add(CommittedAtoms.error(committedAtom, e));
 			}
 		}
+		return false;
+	}
 
-		if (!storedInRadixEngine) {
-			StoredCommittedCommand storedCommittedCommand = new StoredCommittedCommand(
-				command,
-				proof
-			);
-			this.unstoredCommittedAtoms.put(version, storedCommittedCommand);
+	private void storeUnstoredCommands(SortedMap<Long, StoredCommittedCommand> unstoredCommands) {
+		unstoredCommands.forEach(this.unstoredCommandsStore::storeCommand);
+		synchronized (lock) {
+			this.unstoredCommittedAtoms.putAll(unstoredCommands);
+			while (this.unstoredCommittedAtoms.size() > MAX_CACHED_UNSTORED_COMMANDS) {
+				long evictedVersion = this.unstoredCommittedAtoms.pollFirstEntry().getKey();
+				this.cachedAfterStateVersion = Math.max(this.cachedAfterStateVersion, evictedVersion);
+			}
 		}
 	}
 
@@ -190,12 +222,39 @@ public final class RadixEngineStateComputer implements StateComputer, CommittedR
 		final VerifiedLedgerHeaderAndProof headerAndProof = verifiedCommandsAndProof.getHeader();
 		long stateVersion = headerAndProof.getAccumulatorState().getStateVersion();
 		long firstVersion = stateVersion - verifiedCommandsAndProof.getCommands().size() + 1;
-		for (int i = 0; i < verifiedCommandsAndProof.getCommands().size(); i++) {
-			this.commitCommand(firstVersion + i, verifiedCommandsAndProof.getCommands().get(i), headerAndProof);
+		// Stateless checks run in parallel ahead of the serialized stateful checks
+		ImmutableList<Optional<ClientAtom>> clientAtoms = this.statelessCommandChecker.check(verifiedCommandsAndProof.getCommands());
+		// Atoms are checked against the spins of the batch so far and persisted together. Commands the
+		// engine does not store, and engine failures, are held back until the engine's batch is persisted.
+		final TreeMap<Long, StoredCommittedCommand> unstoredCommands = new TreeMap<>();
+		final List<CommittedAtomWithResult> failures = new ArrayList<>();
+		this.committedAtomsBatcher.beginBatch();
+		try {
+			for (int i = 0; i < verifiedCommandsAndProof.getCommands().size(); i++) {
+				final long version = firstVersion + i;
+				if (!this.commitCommand(version, clientAtoms.get(i), headerAndProof, failures)) {
+					final Command command = verifiedCommandsAndProof.getCommands().get(i);
+					unstoredCommands.put(version, new StoredCommittedCommand(command, headerAndProof));
+				}
+			}
+			this.committedAtomsBatcher.commitBatch();
+		} catch (RuntimeException e) {
+			// Nothing of a partially processed batch is persisted or published, and the store is left ready for the next one
+			this.committedAtomsBatcher.abortBatch();
+			throw e;
 		}
+		storeUnstoredCommands(unstoredCommands);
+		failures.forEach(this.committedAtomSender::sendCommittedAtom);
 
 		if (headerAndProof.isEndOfEpoch()) {
-			this.epochProofs.put(headerAndProof.getEpoch() + 1, headerAndProof);
+			final long nextEpoch = headerAndProof.getEpoch() + 1;
+			this.unstoredCommandsStore.storeEpochProof(nextEpoch, headerAndProof);
+			synchronized (lock) {
+				this.epochProofs.put(nextEpoch, headerAndProof);
+				while (this.epochProofs.size() > MAX_CACHED_EPOCH_PROOFS) {
+					this.epochProofs.pollFirstEntry();
+				}
+			}
 			RadixEngineValidatorSetBuilder validatorSetBuilder = this.radixEngine.getComputedState(RadixEngineValidatorSetBuilder.class);
 			return Optional.of(validatorSetBuilder.build());
 		}
@@ -0,0 +1,71 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.statecomputer;
+
+import com.google.common.collect.ImmutableList;
+import com.radixdlt.consensus.Command;
+import com.radixdlt.middleware2.ClientAtom;
+import com.radixdlt.serialization.DeserializeException;
+import com.radixdlt.serialization.Serialization;
+import com.radixdlt.utils.ParallelChunks;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Runs the checks of committed commands which do not depend on ledger state, deserialization into
+ * client atoms and the fee checks, on a pool of worker threads. This leaves only the state dependent
+ * checks on the serialized commit path.
+ */
+@ThreadSafe
+public final class StatelessCommandChecker {
+	private final Serialization serialization;
+	private final PrecheckingAtomChecker atomChecker;
+	private final Executor executor;
+
+	public StatelessCommandChecker(Serialization serialization, PrecheckingAtomChecker atomChecker, Executor executor) {
+		this.serialization = Objects.requireNonNull(serialization);
+		this.atomChecker = Objects.requireNonNull(atomChecker);
+		this.executor = Objects.requireNonNull(executor);
+	}
+
+	/**
+	 * Deserializes and prechecks a list of commands.
+	 *
+	 * @param commands the commands to check
+	 * @return the client atom of each command, in order, or empty for commands which are not atoms
+	 */
+	public ImmutableList<Optional<ClientAtom>> check(List<Command> commands) {
+		return ParallelChunks.map(commands, executor, this::check);
+	}
+
+	private Optional<ClientAtom> check(Command command) {
+		final ClientAtom clientAtom;
+		try {
+			clientAtom = serialization.fromDson(command.getPayload(), ClientAtom.class);
+		} catch (DeserializeException e) {
+			return Optional.empty();
+		}
+
+		// Failures are left for the Radix Engine to report when the atom is committed
+		atomChecker.precheck(clientAtom);
+		return Optional.of(clientAtom);
+	}
+}
@@ -0,0 +1,72 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.statecomputer;
+
+import com.radixdlt.consensus.VerifiedLedgerHeaderAndProof;
+import com.radixdlt.middleware2.store.StoredCommittedCommand;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.TreeMap;
+
+/**
+ * Persistent store of the committed commands which are not stored by the Radix Engine,
+ * such as malformed or failed commands, and of the proofs which start each epoch.
+ */
+public interface UnstoredCommandsStore {
+	/**
+	 * Stores a committed command which was not stored by the Radix Engine.
+	 * @param stateVersion the state version of the command
+	 * @param command the command with its proof
+	 */
+	void storeCommand(long stateVersion, StoredCommittedCommand command);
+
+	/**
+	 * Retrieve the first stored command after a given state version.
+	 * @param stateVersion the state version to start on (exclusively)
+	 * @return the next command, if any
+	 */
+	Optional<StoredCommittedCommand> getNextCommand(long stateVersion);
+
+	/**
+	 * Retrieve the stored commands within a range of state versions.
+	 * @param fromStateVersion the state version to start on (exclusively)
+	 * @param toStateVersion the state version to end on (inclusively)
+	 * @return the commands by state version
+	 */
+	TreeMap<Long, StoredCommittedCommand> getCommands(long fromStateVersion, long toStateVersion);
+
+	/**
+	 * Retrieve the state version of the last stored command.
+	 * @return the last state version, or empty if no commands are stored
+	 */
+	OptionalLong getLastStateVersion();
+
+	/**
+	 * Stores the proof which starts an epoch.
+	 * @param epoch the epoch started by the proof
+	 * @param proof the end of epoch proof of the previous epoch
+	 */
+	void storeEpochProof(long epoch, VerifiedLedgerHeaderAndProof proof);
+
+	/**
+	 * Retrieve the proof which starts an epoch.
+	 * @param epoch the epoch
+	 * @return the proof, if stored
+	 */
+	Optional<VerifiedLedgerHeaderAndProof> getEpochProof(long epoch);
+}
@@ -19,6 +19,8 @@ package com.radixdlt.store;
 
 import com.radixdlt.identifiers.AID;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -56,6 +58,21 @@ public interface LedgerEntryStore extends LedgerEntryStoreView {
 	 */
 	LedgerEntryStoreResult replace(Set<AID> aids, LedgerEntry ledgerEntry, Set<StoreIndex> uniqueIndices, Set<StoreIndex> duplicateIndices);
 
+	/**
+	 * Stores and commits a batch of {@link LedgerEntry}s in a single atomic operation,
+	 * without passing through the 'pending' state.
+	 *
+	 * @param ledgerEntries The ledger entries, in state version order
+	 * @param uniqueIndices The unique indices of each ledger entry by aid
+	 * @param duplicateIndices The duplicate indices of each ledger entry by aid
+	 * @return Whether all {@link LedgerEntry}s were stored, none are stored on conflict
+	 */
+	LedgerEntryStoreResult storeCommitted(
+		List<LedgerEntry> ledgerEntries,
+		Map<AID, Set<StoreIndex>> uniqueIndices,
+		Map<AID, Set<StoreIndex>> duplicateIndices
+	);
+
 	void reset();
 
 	void close();
@@ -59,6 +59,7 @@ import org.radix.database.DatabaseEnvironment;
 
 import java.text.MessageFormat;
 import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -332,6 +333,36 @@ public class BerkeleyLedgerEntryStore implements LedgerEntryStore {
 		throw new IllegalStateException("Should never reach here");
 	}
 
+	@Override
+	public LedgerEntryStoreResult storeCommitted(
+		List<LedgerEntry> ledgerEntries,
+		Map<AID, Set<StoreIndex>> uniqueIndices,
+		Map<AID, Set<StoreIndex>> duplicateIndices
+	) {
+		Transaction transaction = dbEnv.getEnvironment().beginTransaction(null, null);
+		try {
+			for (LedgerEntry entry : ledgerEntries) {
+				byte[] atomData = serialization.toDson(entry, Output.PERSIST);
+				LedgerEntryIndices indices = LedgerEntryIndices.from(
+					entry,
+					uniqueIndices.getOrDefault(entry.getAID(), ImmutableSet.of()),
+					duplicateIndices.getOrDefault(entry.getAID(), ImmutableSet.of())
+				);
+				// transaction is aborted in doStore in case of conflict
+				LedgerEntryStoreResult result = doStore(PREFIX_COMMITTED, entry.getStateVersion(), entry.getAID(), atomData, indices, transaction);
+				if (!result.isSuccess()) {
+					return result;
+				}
+			}
+			transaction.commit();
+			return LedgerEntryStoreResult.success();
+		} catch (Exception e) {
+			transaction.abort();
+			fail("Store of " + ledgerEntries.size() + " committed atoms failed", e);
+		}
+		throw new IllegalStateException("Should never reach here");
+	}
+
 	private LedgerEntryStoreResult doStorePending(
 		LedgerEntry entry,
 		Set<StoreIndex> uniqueIndices,
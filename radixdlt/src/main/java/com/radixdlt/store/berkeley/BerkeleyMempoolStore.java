@@ -0,0 +1,147 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.store.berkeley;
+
+import com.google.common.collect.ImmutableList;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.radixdlt.consensus.Command;
+import com.radixdlt.crypto.Hash;
+import com.radixdlt.mempool.MempoolPersister;
+import com.sleepycat.je.Cursor;
+import com.sleepycat.je.Database;
+import com.sleepycat.je.DatabaseConfig;
+import com.sleepycat.je.DatabaseEntry;
+import com.sleepycat.je.Environment;
+import com.sleepycat.je.LockMode;
+import com.sleepycat.je.OperationStatus;
+import com.sleepycat.je.Transaction;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.radix.database.DatabaseEnvironment;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Berkeley backed store of pending mempool commands, keyed by command hash.
+ * Each value is a big-endian long giving the order in which the command was
+ * stored, followed by the command payload.
+ */
+@Singleton
+public final class BerkeleyMempoolStore implements MempoolPersister.CommandStore {
+	private static final String MEMPOOL_DB_NAME = "radix.mempool";
+	private static final Logger logger = LogManager.getLogger();
+
+	private final DatabaseEnvironment dbEnv;
+	private Database commands; // Order and payload by command hash
+	private long nextOrder;
+
+	@Inject
+	public BerkeleyMempoolStore(DatabaseEnvironment dbEnv) {
+		this.dbEnv = Objects.requireNonNull(dbEnv, "dbEnv is required");
+
+		this.open();
+	}
+
+	private void fail(String message) {
+		logger.error(message);
+		throw new BerkeleyStoreException(message);
+	}
+
+	private void fail(String message, Exception cause) {
+		logger.error(message, cause);
+		throw new BerkeleyStoreException(message, cause);
+	}
+
+	private void open() {
+		DatabaseConfig config = new DatabaseConfig();
+		config.setAllowCreate(true);
+		config.setTransactional(true);
+
+		try {
+			// This SuppressWarnings here is valid, as ownership of the underlying
+			// resource is not changed here, the resource is just accessed.
+			@SuppressWarnings("resource")
+			Environment env = this.dbEnv.getEnvironment();
+			this.commands = env.openDatabase(null, MEMPOOL_DB_NAME, config);
+		} catch (Exception e) {
+			throw new BerkeleyStoreException("Error while opening database", e);
+		}
+
+		// Continue numbering after commands stored before a restart
+		TreeMap<Long, Command> stored = readAll();
+		this.nextOrder = stored.isEmpty() ? 0L : stored.lastKey() + 1;
+	}
+
+	public void close() {
+		if (this.commands != null) {
+			this.commands.close();
+		}
+	}
+
+	@Override
+	public synchronized ImmutableList<Command> loadAll() {
+		return ImmutableList.copyOf(readAll().values());
+	}
+
+	@Override
+	public synchronized void update(List<Command> added, Collection<Hash> removed) {
+		Transaction transaction = dbEnv.getEnvironment().beginTransaction(null, null);
+		try {
+			for (Hash cmdHash : removed) {
+				// Not found is fine, the command may never have been stored
+				this.commands.delete(transaction, new DatabaseEntry(cmdHash.toByteArray()));
+			}
+			long order = this.nextOrder;
+			for (Command command : added) {
+				byte[] payload = command.getPayload();
+				byte[] value = ByteBuffer.allocate(Long.BYTES + payload.length).putLong(order++).put(payload).array();
+				OperationStatus status = this.commands.put(transaction, new DatabaseEntry(command.getHash().toByteArray()), new DatabaseEntry(value));
+				if (status != OperationStatus.SUCCESS) {
+					fail("Database returned status " + status + " for put operation");
+				}
+			}
+
+			transaction.commit();
+			this.nextOrder = order;
+		} catch (Exception e) {
+			transaction.abort();
+			fail("Error while updating mempool commands", e);
+		}
+	}
+
+	private TreeMap<Long, Command> readAll() {
+		TreeMap<Long, Command> result = new TreeMap<>();
+		try (Cursor cursor = this.commands.openCursor(null, null)) {
+			DatabaseEntry key = new DatabaseEntry();
+			DatabaseEntry value = new DatabaseEntry();
+			while (cursor.getNext(key, value, LockMode.DEFAULT) == OperationStatus.SUCCESS) {
+				byte[] data = value.getData();
+				long order = ByteBuffer.wrap(data).getLong();
+				result.put(order, new Command(Arrays.copyOfRange(data, Long.BYTES, data.length)));
+			}
+		}
+		return result;
+	}
+}
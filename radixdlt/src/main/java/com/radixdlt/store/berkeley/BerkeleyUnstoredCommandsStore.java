@@ -0,0 +1,191 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.store.berkeley;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.radixdlt.consensus.VerifiedLedgerHeaderAndProof;
+import com.radixdlt.middleware2.store.StoredCommittedCommand;
+import com.radixdlt.serialization.DeserializeException;
+import com.radixdlt.serialization.DsonOutput.Output;
+import com.radixdlt.serialization.Serialization;
+import com.radixdlt.statecomputer.UnstoredCommandsStore;
+import com.radixdlt.utils.Longs;
+import com.sleepycat.je.Cursor;
+import com.sleepycat.je.Database;
+import com.sleepycat.je.DatabaseConfig;
+import com.sleepycat.je.DatabaseEntry;
+import com.sleepycat.je.Environment;
+import com.sleepycat.je.LockMode;
+import com.sleepycat.je.OperationStatus;
+import com.sleepycat.je.Transaction;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.radix.database.DatabaseEnvironment;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.TreeMap;
+
+/**
+ * Berkeley backed store of committed commands not stored by the Radix Engine and of epoch proofs,
+ * both keyed by big-endian longs so that keys sort by state version and epoch.
+ */
+@Singleton
+public final class BerkeleyUnstoredCommandsStore implements UnstoredCommandsStore {
+	private static final String COMMANDS_DB_NAME = "radix.unstored_commands";
+	private static final String EPOCH_PROOFS_DB_NAME = "radix.epoch_proofs";
+	private static final Logger logger = LogManager.getLogger();
+
+	private final Serialization serialization;
+	private final DatabaseEnvironment dbEnv;
+	private Database commands; // StoredCommittedCommands by state version
+	private Database epochProofs; // VerifiedLedgerHeaderAndProofs by the epoch they start
+
+	@Inject
+	public BerkeleyUnstoredCommandsStore(Serialization serialization, DatabaseEnvironment dbEnv) {
+		this.serialization = Objects.requireNonNull(serialization);
+		this.dbEnv = Objects.requireNonNull(dbEnv, "dbEnv is required");
+
+		this.open();
+	}
+
+	private void fail(String message) {
+		logger.error(message);
+		throw new BerkeleyStoreException(message);
+	}
+
+	private void fail(String message, Exception cause) {
+		logger.error(message, cause);
+		throw new BerkeleyStoreException(message, cause);
+	}
+
+	private void open() {
+		DatabaseConfig config = new DatabaseConfig();
+		config.setAllowCreate(true);
+		config.setTransactional(true);
+
+		try {
+			// This SuppressWarnings here is valid, as ownership of the underlying
+			// resource is not changed here, the resource is just accessed.
+			@SuppressWarnings("resource")
+			Environment env = this.dbEnv.getEnvironment();
+			this.commands = env.openDatabase(null, COMMANDS_DB_NAME, config);
+			this.epochProofs = env.openDatabase(null, EPOCH_PROOFS_DB_NAME, config);
+		} catch (Exception e) {
+			throw new BerkeleyStoreException("Error while opening databases", e);
+		}
+	}
+
+	public void close() {
+		if (this.commands != null) {
+			this.commands.close();
+		}
+		if (this.epochProofs != null) {
+			this.epochProofs.close();
+		}
+	}
+
+	@Override
+	public void storeCommand(long stateVersion, StoredCommittedCommand command) {
+		put(this.commands, stateVersion, serialization.toDson(command, Output.PERSIST), "command at state version " + stateVersion);
+	}
+
+	@Override
+	public Optional<StoredCommittedCommand> getNextCommand(long stateVersion) {
+		try (Cursor cursor = this.commands.openCursor(null, null)) {
+			DatabaseEntry key = new DatabaseEntry(Longs.toByteArray(stateVersion + 1));
+			DatabaseEntry value = new DatabaseEntry();
+			if (cursor.getSearchKeyRange(key, value, LockMode.DEFAULT) == OperationStatus.SUCCESS) {
+				return Optional.of(fromDson(value.getData(), StoredCommittedCommand.class));
+			}
+		}
+		return Optional.empty();
+	}
+
+	@Override
+	public TreeMap<Long, StoredCommittedCommand> getCommands(long fromStateVersion, long toStateVersion) {
+		TreeMap<Long, StoredCommittedCommand> result = new TreeMap<>();
+		try (Cursor cursor = this.commands.openCursor(null, null)) {
+			DatabaseEntry key = new DatabaseEntry(Longs.toByteArray(fromStateVersion + 1));
+			DatabaseEntry value = new DatabaseEntry();
+			OperationStatus status = cursor.getSearchKeyRange(key, value, LockMode.DEFAULT);
+			while (status == OperationStatus.SUCCESS) {
+				long stateVersion = Longs.fromByteArray(key.getData());
+				if (stateVersion > toStateVersion) {
+					break;
+				}
+				result.put(stateVersion, fromDson(value.getData(), StoredCommittedCommand.class));
+				status = cursor.getNext(key, value, LockMode.DEFAULT);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public OptionalLong getLastStateVersion() {
+		try (Cursor cursor = this.commands.openCursor(null, null)) {
+			DatabaseEntry key = new DatabaseEntry();
+			if (cursor.getLast(key, null, LockMode.DEFAULT) == OperationStatus.SUCCESS) {
+				return OptionalLong.of(Longs.fromByteArray(key.getData()));
+			}
+		}
+		return OptionalLong.empty();
+	}
+
+	@Override
+	public void storeEpochProof(long epoch, VerifiedLedgerHeaderAndProof proof) {
+		put(this.epochProofs, epoch, serialization.toDson(proof, Output.PERSIST), "proof for epoch " + epoch);
+	}
+
+	@Override
+	public Optional<VerifiedLedgerHeaderAndProof> getEpochProof(long epoch) {
+		DatabaseEntry key = new DatabaseEntry(Longs.toByteArray(epoch));
+		DatabaseEntry value = new DatabaseEntry();
+		OperationStatus status = this.epochProofs.get(null, key, value, LockMode.DEFAULT);
+		if (status == OperationStatus.SUCCESS) {
+			return Optional.of(fromDson(value.getData(), VerifiedLedgerHeaderAndProof.class));
+		}
+		return Optional.empty();
+	}
+
+	private void put(Database database, long key, byte[] value, String what) {
+		Transaction transaction = dbEnv.getEnvironment().beginTransaction(null, null);
+		try {
+			OperationStatus status = database.put(transaction, new DatabaseEntry(Longs.toByteArray(key)), new DatabaseEntry(value));
+			if (status != OperationStatus.SUCCESS) {
+				fail("Database returned status " + status + " for put operation");
+			}
+
+			transaction.commit();
+		} catch (Exception e) {
+			transaction.abort();
+			fail("Error while storing " + what, e);
+		}
+	}
+
+	private <T> T fromDson(byte[] bytes, Class<T> c) {
+		try {
+			return serialization.fromDson(bytes, c);
+		} catch (DeserializeException e) {
+			throw new BerkeleyStoreException("Error while deserializing " + c.getSimpleName(), e);
+		}
+	}
+}
@@ -20,11 +20,21 @@ package com.radixdlt.sync;
 import com.google.common.collect.ImmutableList;
 import com.radixdlt.consensus.VerifiedLedgerHeaderAndProof;
 import com.radixdlt.consensus.bft.BFTNode;
+import com.radixdlt.consensus.Command;
 import com.radixdlt.ledger.AccumulatorState;
+import com.radixdlt.ledger.DtoCommandsAndProof;
+import com.radixdlt.ledger.DtoLedgerHeaderAndProof;
 import com.radixdlt.ledger.LedgerUpdate;
 import com.radixdlt.ledger.LedgerUpdateProcessor;
+import com.radixdlt.network.TimeSupplier;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.ThreadLocalRandom;
 import javax.annotation.concurrent.NotThreadSafe;
 import org.apache.logging.log4j.LogManager;
@@ -32,6 +42,18 @@ import org.apache.logging.log4j.Logger;
 
 /**
  * Processes sync service messages and manages sync requests and responses.
+ * <p>
+ * Requests for disjoint state version ranges are sent to several target nodes at once.
+ * A range starts at a signed ledger header which is already known locally: the current
+ * header, the target of an earlier sync request or the tail of a response which has not
+ * yet been committed. Verified responses are buffered and only passed on for commit once
+ * they extend the current state. Nodes which do not respond in time are given a longer
+ * timeout and are preferred less for subsequent requests.
+ * <p>
+ * Each request carries a byte budget for the response. The budget for a node is sized so
+ * that a response takes about half the patience period at the throughput last measured
+ * from that node.
+ * <p>
  * Thread-safety must be handled by caller.
  */
 @NotThreadSafe
@@ -57,39 +79,139 @@ public final class LocalSyncServiceAccumulatorProcessor implements LocalSyncServ
 		void scheduleTimeout(SyncInProgress syncInProgress, long milliseconds);
 	}
 
+	/**
+	 * Sender of verified commands which directly extend the current ledger state.
+	 */
+	public interface VerifiedSyncedCommandsSender {
+		void sendVerifiedCommands(DtoCommandsAndProof commandsAndProof);
+	}
+
+	private static final class InFlightRequest {
+		private final BFTNode node;
+		private final long sentAt;
+		private final long deadline;
+		private final int maxBytes;
+
+		private InFlightRequest(BFTNode node, long sentAt, long deadline, int maxBytes) {
+			this.node = node;
+			this.sentAt = sentAt;
+			this.deadline = deadline;
+			this.maxBytes = maxBytes;
+		}
+	}
+
+	/**
+	 * Round trip estimate for a single node, smoothed as for TCP retransmission timeouts,
+	 * and the byte budget for the next request to it.
+	 */
+	private static final class NodeStats {
+		private long smoothedRtt = -1L;
+		private long rttVariance;
+		private int consecutiveTimeouts;
+		private int requestBytes = INITIAL_REQUEST_BYTES;
+
+		private void responseReceived(long rtt, long responseBytes, int requestedBytes, long targetMilliseconds) {
+			if (this.smoothedRtt < 0) {
+				this.smoothedRtt = rtt;
+				this.rttVariance = rtt / 2;
+			} else {
+				this.rttVariance = (3 * this.rttVariance + Math.abs(this.smoothedRtt - rtt)) / 4;
+				this.smoothedRtt = (7 * this.smoothedRtt + rtt) / 8;
+			}
+			this.consecutiveTimeouts = 0;
+
+			// A response well short of its budget says nothing about throughput, only that few commands were left
+			if (responseBytes * 2 >= requestedBytes) {
+				long throughputBytes = responseBytes * targetMilliseconds / Math.max(rtt, 1L);
+				long nextBytes = Math.max(this.requestBytes / 2L, Math.min(throughputBytes, this.requestBytes * 2L));
+				this.requestBytes = (int) Math.max(MIN_REQUEST_BYTES, Math.min(nextBytes, MAX_REQUEST_BYTES));
+			}
+		}
+
+		private void timedOut() {
+			this.consecutiveTimeouts = Math.min(this.consecutiveTimeouts + 1, MAX_BACKOFF_EXPONENT);
+			this.requestBytes = Math.max(MIN_REQUEST_BYTES, this.requestBytes / 2);
+		}
+
+		private long expectedLatency(long patienceMilliseconds) {
+			long base = this.smoothedRtt < 0 ? patienceMilliseconds : this.smoothedRtt;
+			return base << this.consecutiveTimeouts;
+		}
+
+		private long timeout(long patienceMilliseconds) {
+			long base = this.smoothedRtt < 0
+				? patienceMilliseconds
+				: Math.max(patienceMilliseconds, this.smoothedRtt + 4 * this.rttVariance);
+			return Math.min(base << this.consecutiveTimeouts, patienceMilliseconds * MAX_TIMEOUT_MULTIPLIER);
+		}
+	}
+
 	private static final Logger log = LogManager.getLogger();
 
+	private static final int MAX_BACKOFF_EXPONENT = 4;
+	private static final long MAX_TIMEOUT_MULTIPLIER = 32L;
+	private static final int MAX_BUFFERED_RESPONSES = 64;
+	private static final int MIN_REQUEST_BYTES = 16 * 1024;
+	private static final int INITIAL_REQUEST_BYTES = 64 * 1024;
+	private static final int MAX_REQUEST_BYTES = 512 * 1024;
+
 	private final SyncTimeoutScheduler syncTimeoutScheduler;
+	private final VerifiedSyncedCommandsSender verifiedSyncedCommandsSender;
 	private final long patienceMilliseconds;
+	private final int maxInFlightRequests;
 	private final StateSyncNetwork stateSyncNetwork;
 	private final Comparator<AccumulatorState> accComparator;
+	private final TimeSupplier timeSupplier;
+
+	// Signed headers, keyed by state version, from which the next range is still to be fetched
+	private final TreeMap<Long, DtoLedgerHeaderAndProof> rangeStarts = new TreeMap<>();
+	private final Map<Long, InFlightRequest> inFlightRequests = new HashMap<>();
+	// Verified responses which do not yet extend the current state, keyed by their head state version
+	private final TreeMap<Long, DtoCommandsAndProof> bufferedResponses = new TreeMap<>();
+	private final Map<BFTNode, NodeStats> statsByNode = new HashMap<>();
+
+	private SyncInProgress syncInProgress;
 	private VerifiedLedgerHeaderAndProof targetHeader;
-	private VerifiedLedgerHeaderAndProof currentHeader;
+	private AccumulatorState currentAccumulatorState;
+	private DtoLedgerHeaderAndProof currentHeader;
 
 	public LocalSyncServiceAccumulatorProcessor(
 		StateSyncNetwork stateSyncNetwork,
 		SyncTimeoutScheduler syncTimeoutScheduler,
+		VerifiedSyncedCommandsSender verifiedSyncedCommandsSender,
 		Comparator<AccumulatorState> accComparator,
+		TimeSupplier timeSupplier,
 		VerifiedLedgerHeaderAndProof current,
-		long patienceMilliseconds
+		long patienceMilliseconds,
+		int maxInFlightRequests
 	) {
 		if (patienceMilliseconds <= 0) {
 			throw new IllegalArgumentException();
 		}
+		if (maxInFlightRequests <= 0) {
+			throw new IllegalArgumentException();
+		}
 
 		this.stateSyncNetwork = Objects.requireNonNull(stateSyncNetwork);
 		this.syncTimeoutScheduler = Objects.requireNonNull(syncTimeoutScheduler);
+		this.verifiedSyncedCommandsSender = Objects.requireNonNull(verifiedSyncedCommandsSender);
 		this.patienceMilliseconds = patienceMilliseconds;
+		this.maxInFlightRequests = maxInFlightRequests;
 		this.accComparator = Objects.requireNonNull(accComparator);
-		this.currentHeader = current;
+		this.timeSupplier = Objects.requireNonNull(timeSupplier);
+		this.currentAccumulatorState = current.getAccumulatorState();
+		this.currentHeader = current.toDto();
 		this.targetHeader = current;
 	}
 
 	@Override
 	public void processLedgerUpdate(LedgerUpdate ledgerUpdate) {
 		VerifiedLedgerHeaderAndProof updatedHeader = ledgerUpdate.getTail();
-		if (accComparator.compare(updatedHeader.getAccumulatorState(), this.currentHeader.getAccumulatorState()) > 0) {
-			this.currentHeader = updatedHeader;
+		if (accComparator.compare(updatedHeader.getAccumulatorState(), this.currentAccumulatorState) > 0) {
+			this.currentAccumulatorState = updatedHeader.getAccumulatorState();
+			this.currentHeader = updatedHeader.toDto();
+			this.commitBufferedResponses();
+			this.sendRequests();
 		}
 	}
 
@@ -102,25 +224,175 @@ public final class LocalSyncServiceAccumulatorProcessor implements LocalSyncServ
 			return;
 		}
 
+		// The previous target is a signed header within the range still to be synced,
+		// so the remainder can be fetched alongside the range leading up to it
+		if (this.syncInProgress != null
+			&& accComparator.compare(this.targetHeader.getAccumulatorState(), this.currentAccumulatorState) > 0) {
+			this.rangeStarts.putIfAbsent(this.targetHeader.getStateVersion(), this.targetHeader.toDto());
+		}
+
 		this.targetHeader = nextTargetHeader;
-		SyncInProgress syncInProgress = new SyncInProgress(request.getTarget(), request.getTargetNodes());
-		this.refreshRequest(syncInProgress);
+		this.syncInProgress = new SyncInProgress(request.getTarget(), request.getTargetNodes());
+		this.sendRequests();
 	}
 
 	@Override
 	public void processSyncTimeout(SyncInProgress syncInProgress) {
-		this.refreshRequest(syncInProgress);
+		final long now = timeSupplier.currentTime();
+		Iterator<InFlightRequest> requests = this.inFlightRequests.values().iterator();
+		while (requests.hasNext()) {
+			InFlightRequest request = requests.next();
+			if (request.deadline <= now) {
+				nodeStats(request.node).timedOut();
+				requests.remove();
+			}
+		}
+
+		this.sendRequests();
+	}
+
+	@Override
+	public void processVerifiedSyncResponse(RemoteSyncResponse syncResponse) {
+		final DtoCommandsAndProof commandsAndProof = syncResponse.getCommandsAndProof();
+		final long headVersion = commandsAndProof.getHead().getLedgerHeader().getAccumulatorState().getStateVersion();
+		final DtoLedgerHeaderAndProof tail = commandsAndProof.getTail();
+		final long tailVersion = tail.getLedgerHeader().getAccumulatorState().getStateVersion();
+
+		InFlightRequest request = this.inFlightRequests.remove(headVersion);
+		if (request != null && request.node.equals(syncResponse.getSender())) {
+			nodeStats(request.node).responseReceived(
+				timeSupplier.currentTime() - request.sentAt,
+				size(commandsAndProof),
+				request.maxBytes,
+				this.patienceMilliseconds / 2
+			);
+		}
+
+		final long currentVersion = this.currentAccumulatorState.getStateVersion();
+		if (tailVersion <= currentVersion) {
+			// Nothing new to commit, but an end of epoch proof for the current state must still reach the ledger
+			if (tail.getLedgerHeader().isEndOfEpoch()) {
+				this.verifiedSyncedCommandsSender.sendVerifiedCommands(commandsAndProof);
+			}
+			return;
+		}
+
+		final boolean requested = this.rangeStarts.remove(headVersion) != null;
+		if (this.bufferedResponses.containsKey(headVersion) || (headVersion > currentVersion && !requested)) {
+			log.debug("SYNC_RESPONSE: Ignoring duplicate or unrequested response {}", syncResponse);
+			return;
+		}
+
+		this.bufferedResponses.put(headVersion, commandsAndProof);
+
+		// Continue from the tail unless another range already starts within this response
+		if (accComparator.compare(tail.getLedgerHeader().getAccumulatorState(), this.targetHeader.getAccumulatorState()) < 0
+			&& this.rangeStarts.subMap(headVersion, false, tailVersion, true).isEmpty()
+			&& this.bufferedResponses.subMap(headVersion, false, tailVersion, true).isEmpty()) {
+			this.rangeStarts.put(tailVersion, tail);
+		}
+
+		this.commitBufferedResponses();
+		this.sendRequests();
 	}
 
-	private void refreshRequest(SyncInProgress syncInProgress) {
-		VerifiedLedgerHeaderAndProof requestTargetHeader = syncInProgress.getTargetHeader();
-		if (accComparator.compare(requestTargetHeader.getAccumulatorState(), this.currentHeader.getAccumulatorState()) <= 0) {
+	private void commitBufferedResponses() {
+		while (!this.bufferedResponses.isEmpty()
+			&& this.bufferedResponses.firstKey() <= this.currentAccumulatorState.getStateVersion()) {
+			DtoCommandsAndProof next = this.bufferedResponses.pollFirstEntry().getValue();
+			AccumulatorState nextState = next.getTail().getLedgerHeader().getAccumulatorState();
+			if (nextState.getStateVersion() > this.currentAccumulatorState.getStateVersion()) {
+				this.verifiedSyncedCommandsSender.sendVerifiedCommands(next);
+				this.currentAccumulatorState = nextState;
+				this.currentHeader = next.getTail();
+			}
+		}
+
+		final long currentVersion = this.currentAccumulatorState.getStateVersion();
+		this.rangeStarts.headMap(currentVersion, false).clear();
+		this.inFlightRequests.keySet().removeIf(version -> version < currentVersion);
+	}
+
+	private void sendRequests() {
+		if (this.syncInProgress == null) {
+			return;
+		}
+
+		if (accComparator.compare(this.targetHeader.getAccumulatorState(), this.currentAccumulatorState) <= 0) {
+			this.rangeStarts.clear();
+			this.inFlightRequests.clear();
+			this.bufferedResponses.clear();
 			return;
 		}
 
-		ImmutableList<BFTNode> targetNodes = syncInProgress.getTargetNodes();
-		BFTNode node = targetNodes.get(ThreadLocalRandom.current().nextInt(targetNodes.size()));
-		stateSyncNetwork.sendSyncRequest(node, this.currentHeader.toDto());
-		syncTimeoutScheduler.scheduleTimeout(syncInProgress, patienceMilliseconds);
+		final long currentVersion = this.currentAccumulatorState.getStateVersion();
+		this.rangeStarts.putIfAbsent(currentVersion, this.currentHeader);
+
+		final long now = timeSupplier.currentTime();
+		for (Map.Entry<Long, DtoLedgerHeaderAndProof> rangeStart : this.rangeStarts.entrySet()) {
+			if (this.inFlightRequests.size() >= this.maxInFlightRequests) {
+				break;
+			}
+
+			// Always allow the range which would extend the current state so the buffer can drain
+			if (this.bufferedResponses.size() >= MAX_BUFFERED_RESPONSES && rangeStart.getKey() != currentVersion) {
+				break;
+			}
+
+			if (this.inFlightRequests.containsKey(rangeStart.getKey())) {
+				continue;
+			}
+
+			BFTNode node = this.selectIdleNode();
+			if (node == null) {
+				break;
+			}
+
+			NodeStats stats = nodeStats(node);
+			long timeout = stats.timeout(this.patienceMilliseconds);
+			stateSyncNetwork.sendSyncRequest(node, rangeStart.getValue(), stats.requestBytes);
+			this.inFlightRequests.put(rangeStart.getKey(), new InFlightRequest(node, now, now + timeout, stats.requestBytes));
+			syncTimeoutScheduler.scheduleTimeout(this.syncInProgress, timeout);
+		}
+	}
+
+	private BFTNode selectIdleNode() {
+		ImmutableList<BFTNode> targetNodes = this.syncInProgress.getTargetNodes();
+		if (targetNodes.isEmpty()) {
+			return null;
+		}
+
+		Set<BFTNode> busyNodes = new HashSet<>();
+		this.inFlightRequests.values().forEach(request -> busyNodes.add(request.node));
+
+		// Random starting point so that equally fast nodes share the load
+		final int offset = ThreadLocalRandom.current().nextInt(targetNodes.size());
+		BFTNode bestNode = null;
+		long bestLatency = Long.MAX_VALUE;
+		for (int i = 0; i < targetNodes.size(); i++) {
+			BFTNode node = targetNodes.get((offset + i) % targetNodes.size());
+			if (busyNodes.contains(node)) {
+				continue;
+			}
+
+			long latency = nodeStats(node).expectedLatency(this.patienceMilliseconds);
+			if (latency < bestLatency) {
+				bestNode = node;
+				bestLatency = latency;
+			}
+		}
+		return bestNode;
+	}
+
+	private NodeStats nodeStats(BFTNode node) {
+		return this.statsByNode.computeIfAbsent(node, n -> new NodeStats());
+	}
+
+	private static long size(DtoCommandsAndProof commandsAndProof) {
+		long bytes = 0L;
+		for (Command command : commandsAndProof.getCommands()) {
+			bytes += command.getPayload().length;
+		}
+		return bytes;
 	}
 }
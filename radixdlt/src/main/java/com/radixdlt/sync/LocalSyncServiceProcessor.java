@@ -22,4 +22,5 @@ import com.radixdlt.sync.LocalSyncServiceAccumulatorProcessor.SyncInProgress;
 public interface LocalSyncServiceProcessor {
 	void processLocalSyncRequest(LocalSyncRequest request);
 	void processSyncTimeout(SyncInProgress timeout);
+	void processVerifiedSyncResponse(RemoteSyncResponse syncResponse);
 }
@@ -27,10 +27,12 @@ import java.util.Objects;
 public final class RemoteSyncRequest {
 	private final DtoLedgerHeaderAndProof currentHeader;
 	private final BFTNode node;
+	private final int maxBytes;
 
-	public RemoteSyncRequest(BFTNode node, DtoLedgerHeaderAndProof currentHeader) {
+	public RemoteSyncRequest(BFTNode node, DtoLedgerHeaderAndProof currentHeader, int maxBytes) {
 		this.node = Objects.requireNonNull(node);
 		this.currentHeader = currentHeader;
+		this.maxBytes = maxBytes;
 	}
 
 	public BFTNode getNode() {
@@ -41,8 +43,16 @@ public final class RemoteSyncRequest {
 		return currentHeader;
 	}
 
+	/**
+	 * Upper bound requested on the size of the commands in the response.
+	 * @return the maximum number of bytes, or zero if the requester did not specify one
+	 */
+	public int getMaxBytes() {
+		return maxBytes;
+	}
+
 	@Override
 	public String toString() {
-		return String.format("%s{current=%s}", this.getClass().getSimpleName(), currentHeader);
+		return String.format("%s{current=%s maxBytes=%s}", this.getClass().getSimpleName(), currentHeader, maxBytes);
 	}
 }
@@ -17,6 +17,7 @@
 
 package com.radixdlt.sync;
 
+import com.radixdlt.consensus.TimestampedECDSASignatures;
 import com.radixdlt.consensus.bft.BFTValidatorSet;
 import com.radixdlt.consensus.bft.ValidationState;
 import com.radixdlt.ledger.DtoCommandsAndProof;
@@ -50,16 +51,27 @@ public final class RemoteSyncResponseValidatorSetVerifier implements RemoteSyncR
 		this.validatorSet = Objects.requireNonNull(validatorSet);
 	}
 
-	@Override
-	public void processSyncResponse(RemoteSyncResponse syncResponse) {
+	/**
+	 * Checks whether signatures are from a quorum of a validator set.
+	 * The signatures themselves are not verified.
+	 *
+	 * @param validatorSet the validator set
+	 * @param signatures the signatures
+	 * @return true if the signers form a quorum, false otherwise
+	 */
+	public static boolean hasQuorum(BFTValidatorSet validatorSet, TimestampedECDSASignatures signatures) {
 		ValidationState validationState = validatorSet.newValidationState();
-		DtoCommandsAndProof commandsAndProof = syncResponse.getCommandsAndProof();
-
-		commandsAndProof.getTail().getSignatures().getSignatures().forEach((node, signature) ->
+		signatures.getSignatures().forEach((node, signature) ->
 			validationState.addSignature(node, signature.timestamp(), signature.signature())
 		);
+		return validationState.complete();
+	}
+
+	@Override
+	public void processSyncResponse(RemoteSyncResponse syncResponse) {
+		DtoCommandsAndProof commandsAndProof = syncResponse.getCommandsAndProof();
 
-		if (!validationState.complete()) {
+		if (!hasQuorum(validatorSet, commandsAndProof.getTail().getSignatures())) {
 			invalidValidatorSetSender.sendInvalid(syncResponse);
 			return;
 		}
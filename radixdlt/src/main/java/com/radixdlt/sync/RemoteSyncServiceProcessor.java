@@ -17,54 +17,182 @@
 
 package com.radixdlt.sync;
 
+import com.google.common.collect.ImmutableList;
+import com.radixdlt.consensus.Command;
+import com.radixdlt.consensus.LedgerHeader;
+import com.radixdlt.consensus.VerifiedLedgerHeaderAndProof;
+import com.radixdlt.counters.SystemCounters;
+import com.radixdlt.counters.SystemCounters.CounterType;
 import com.radixdlt.ledger.DtoCommandsAndProof;
 import com.radixdlt.ledger.DtoLedgerHeaderAndProof;
 import com.radixdlt.ledger.VerifiedCommandsAndProof;
+import com.radixdlt.utils.Pair;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 /**
- * Service which serves remote sync requests
+ * Service which serves remote sync requests.
+ * <p>
+ * A response always contains the first proven batch of commands after the requested
+ * header, and is extended with further proven batches until the byte budget is reached.
+ * The budget is the smaller of the requester's budget and this node's maximum, and is
+ * reduced while this node has a backlog of network messages to process.
+ * <p>
+ * A request starting at the end of an epoch is answered with the proof of the end of the
+ * following epoch, together with the proofs of the ends of as many further epochs as are
+ * known, so that a node several epochs behind learns its sync targets in a single exchange.
+ * <p>
+ * Responses which can no longer grow, as they end an epoch or used up their byte budget,
+ * are cached by requested header and byte budget. Nodes catching up from the same header
+ * are then served the same response instance, whose encoding can be shared between them.
  */
 public class RemoteSyncServiceProcessor {
 	private static final Logger log = LogManager.getLogger();
 
+	// Each multiple of this many pending messages halves the byte budget
+	private static final long PENDING_MESSAGES_PER_HALVING = 256L;
+	private static final int MAX_LOAD_HALVINGS = 3;
+	// Keeps the proofs, each carrying a signature per validator, well within the transport packet limit
+	private static final int MAX_EPOCH_PROOFS = 32;
+	private static final int MAX_CACHED_RESPONSES = 64;
+
 	private final CommittedReader committedReader;
 	private final StateSyncNetwork stateSyncNetwork;
+	private final SystemCounters counters;
 
 	private final int batchSize;
+	private final int maxResponseBytes;
+	private final Map<Pair<LedgerHeader, Long>, DtoCommandsAndProof> cachedResponses =
+		new LinkedHashMap<Pair<LedgerHeader, Long>, DtoCommandsAndProof>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Pair<LedgerHeader, Long>, DtoCommandsAndProof> eldest) {
+				return size() > MAX_CACHED_RESPONSES;
+			}
+		};
 
 	public RemoteSyncServiceProcessor(
 		CommittedReader committedReader,
 		StateSyncNetwork stateSyncNetwork,
-		int batchSize
+		SystemCounters counters,
+		int batchSize,
+		int maxResponseBytes
 	) {
 		if (batchSize <= 0) {
 			throw new IllegalArgumentException();
 		}
+		if (maxResponseBytes <= 0) {
+			throw new IllegalArgumentException();
+		}
 		this.committedReader = Objects.requireNonNull(committedReader);
 		this.batchSize = batchSize;
+		this.maxResponseBytes = maxResponseBytes;
 		this.stateSyncNetwork = Objects.requireNonNull(stateSyncNetwork);
+		this.counters = Objects.requireNonNull(counters);
 	}
 
 	public void processRemoteSyncRequest(RemoteSyncRequest syncRequest) {
 		log.info("REMOTE_SYNC_REQUEST: {}", syncRequest);
 		DtoLedgerHeaderAndProof currentHeader = syncRequest.getCurrentHeader();
+		final long byteBudget = byteBudget(syncRequest.getMaxBytes());
+		// Responses to epoch sync requests grow with every epoch so are never cached
+		final Pair<LedgerHeader, Long> cacheKey = currentHeader.getLedgerHeader().isEndOfEpoch()
+			? null
+			: Pair.of(currentHeader.getLedgerHeader(), byteBudget);
+		final DtoCommandsAndProof cachedResponse = cacheKey == null ? null : this.cachedResponses.get(cacheKey);
+		if (cachedResponse != null) {
+			log.info("REMOTE_SYNC_REQUEST: Sending cached response {}", cachedResponse);
+			this.counters.increment(CounterType.SYNC_RESPONSE_CACHE_HITS);
+			stateSyncNetwork.sendSyncResponse(syncRequest.getNode(), cachedResponse);
+			return;
+		}
+
 		VerifiedCommandsAndProof committedCommands = committedReader.getNextCommittedCommands(currentHeader, batchSize);
 		if (committedCommands == null) {
 			log.warn("REMOTE_SYNC_REQUEST: Unable to serve sync request {}.", syncRequest);
 			return;
 		}
 
+		final ImmutableList.Builder<Command> commands = ImmutableList.builder();
+		commands.addAll(committedCommands.getCommands());
+		long responseBytes = size(committedCommands.getCommands());
+		boolean budgetUsed = responseBytes >= byteBudget;
+		VerifiedLedgerHeaderAndProof tail = committedCommands.getHeader();
+
+		// Epoch changes are synced separately, so never extend a response beyond the end of an epoch
+		while (!tail.isEndOfEpoch() && !budgetUsed) {
+			VerifiedCommandsAndProof nextCommands = committedReader.getNextCommittedCommands(tail.toDto(), batchSize);
+			if (nextCommands == null
+				|| nextCommands.getCommands().isEmpty()
+				|| nextCommands.getHeader().getStateVersion() <= tail.getStateVersion()) {
+				break;
+			}
+
+			long nextBytes = size(nextCommands.getCommands());
+			if (responseBytes + nextBytes > byteBudget) {
+				budgetUsed = true;
+				break;
+			}
+
+			commands.addAll(nextCommands.getCommands());
+			responseBytes += nextBytes;
+			budgetUsed = responseBytes >= byteBudget;
+			tail = nextCommands.getHeader();
+		}
+
+		final ImmutableList<DtoLedgerHeaderAndProof> epochProofs = currentHeader.getLedgerHeader().isEndOfEpoch()
+			? nextEpochProofs(tail)
+			: ImmutableList.of();
+
 		DtoCommandsAndProof verifiable = new DtoCommandsAndProof(
-			committedCommands.getCommands(),
+			commands.build(),
 			currentHeader,
-			committedCommands.getHeader().toDto()
+			tail.toDto(),
+			epochProofs
 		);
 
+		if (cacheKey != null && (tail.isEndOfEpoch() || budgetUsed)) {
+			this.cachedResponses.put(cacheKey, verifiable);
+		}
+
 		log.info("REMOTE_SYNC_REQUEST: Sending response {}", verifiable);
 
 		stateSyncNetwork.sendSyncResponse(syncRequest.getNode(), verifiable);
 	}
+
+	private ImmutableList<DtoLedgerHeaderAndProof> nextEpochProofs(VerifiedLedgerHeaderAndProof epochProof) {
+		final ImmutableList.Builder<DtoLedgerHeaderAndProof> epochProofs = ImmutableList.builder();
+		VerifiedLedgerHeaderAndProof last = epochProof;
+		for (int i = 0; i < MAX_EPOCH_PROOFS && last.isEndOfEpoch(); i++) {
+			VerifiedCommandsAndProof next = committedReader.getNextCommittedCommands(last.toDto(), batchSize);
+			if (next == null
+				|| !next.getHeader().isEndOfEpoch()
+				|| next.getHeader().getEpoch() != last.getEpoch() + 1) {
+				break;
+			}
+
+			last = next.getHeader();
+			epochProofs.add(last.toDto());
+		}
+		return epochProofs.build();
+	}
+
+	private long byteBudget(int requestedBytes) {
+		final long budget = requestedBytes > 0 ? Math.min(requestedBytes, this.maxResponseBytes) : this.maxResponseBytes;
+		final long pendingMessages = this.counters.get(CounterType.MESSAGES_INBOUND_PENDING)
+			+ this.counters.get(CounterType.MESSAGES_OUTBOUND_PENDING);
+		final long halvings = Math.min(pendingMessages / PENDING_MESSAGES_PER_HALVING, MAX_LOAD_HALVINGS);
+		return budget >> halvings;
+	}
+
+	private static long size(List<Command> commands) {
+		long bytes = 0L;
+		for (Command command : commands) {
+			bytes += command.getPayload().length;
+		}
+		return bytes;
+	}
 }
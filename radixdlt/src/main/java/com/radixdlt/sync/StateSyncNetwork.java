@@ -44,8 +44,9 @@ public interface StateSyncNetwork {
 	 *
 	 * @param node node to send request to
 	 * @param currentHeader this nodes current verified header
+	 * @param maxBytes upper bound on the size of the commands in the response, or zero to leave it to the peer
 	 */
-	void sendSyncRequest(BFTNode node, DtoLedgerHeaderAndProof currentHeader);
+	void sendSyncRequest(BFTNode node, DtoLedgerHeaderAndProof currentHeader, int maxBytes);
 
 	/**
 	 * Sends a sync response to a peer node
@@ -0,0 +1,70 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.utils;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Utility methods for mapping lists in parallel, a chunk of elements per task.
+ */
+public final class ParallelChunks {
+	/**
+	 * Number of elements mapped by a single task.
+	 */
+	public static final int CHUNK_SIZE = 16;
+
+	private ParallelChunks() {
+		throw new IllegalStateException("Can't construct");
+	}
+
+	/**
+	 * Maps each element of a list, splitting the list into chunks of {@link #CHUNK_SIZE}
+	 * elements which are mapped concurrently on the specified executor.  Lists of no more
+	 * than one chunk are mapped on the calling thread.  Blocks until all chunks are mapped.
+	 *
+	 * @param elements the elements to map
+	 * @param executor the executor to map chunks on
+	 * @param mapper the function to apply to each element, must not return {@code null}
+	 * @return the mapped elements, in order
+	 */
+	public static <T, R> ImmutableList<R> map(List<T> elements, Executor executor, Function<? super T, ? extends R> mapper) {
+		if (elements.size() <= CHUNK_SIZE) {
+			return mapChunk(elements, mapper);
+		}
+
+		final List<CompletableFuture<ImmutableList<R>>> futures = Lists.partition(elements, CHUNK_SIZE).stream()
+			.map(chunk -> CompletableFuture.supplyAsync(() -> mapChunk(chunk, mapper), executor))
+			.collect(Collectors.toList());
+		return futures.stream()
+			.map(CompletableFuture::join)
+			.flatMap(List::stream)
+			.collect(ImmutableList.toImmutableList());
+	}
+
+	private static <T, R> ImmutableList<R> mapChunk(List<T> elements, Function<? super T, ? extends R> mapper) {
+		return elements.stream()
+			.map(mapper)
+			.collect(ImmutableList.toImmutableList());
+	}
+}
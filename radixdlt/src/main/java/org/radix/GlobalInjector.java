@@ -23,16 +23,19 @@ import com.google.inject.Injector;
 import com.google.inject.Module;
 import com.google.inject.Scopes;
 import com.google.inject.name.Names;
+import com.google.inject.util.Modules;
 import com.radixdlt.ConsensusModule;
 import com.radixdlt.ConsensusRunnerModule;
 import com.radixdlt.ConsensusRxModule;
 import com.radixdlt.CryptoModule;
 import com.radixdlt.EpochsConsensusModule;
+import com.radixdlt.DisruptorConsensusRunnerModule;
 import com.radixdlt.EpochsSyncModule;
 import com.radixdlt.LedgerCommandGeneratorModule;
 import com.radixdlt.EpochsLedgerUpdateModule;
 import com.radixdlt.EpochsLedgerUpdateRxModule;
 import com.radixdlt.LedgerLocalMempoolModule;
+import com.radixdlt.MempoolPersistenceModule;
 import com.radixdlt.PersistenceModule;
 import com.radixdlt.PowFeeModule;
 import com.radixdlt.RadixEngineModule;
@@ -46,10 +49,13 @@ import com.radixdlt.LedgerModule;
 import com.radixdlt.SyncRxModule;
 import com.radixdlt.SystemInfoRxModule;
 import com.radixdlt.TokenFeeModule;
+import com.radixdlt.consensus.DisruptorEpochManagerRunner;
 import com.radixdlt.consensus.bft.BFTNode;
 import com.radixdlt.consensus.bft.View;
 import com.radixdlt.identifiers.RadixAddress;
 import com.radixdlt.identifiers.EUID;
+import com.radixdlt.ledger.MerkleLedgerAccumulatorAndVerifier;
+import com.radixdlt.ledger.SimpleLedgerAccumulatorAndVerifier;
 import com.radixdlt.crypto.ECKeyPair;
 import com.radixdlt.crypto.ECPublicKey;
 import com.radixdlt.middleware2.InfoSupplier;
@@ -100,10 +106,46 @@ public class GlobalInjector {
 		final long pacemakerTimeout = properties.get("consensus.pacemaker_timeout_millis", 1000L);
 		final double pacemakerRate = properties.get("consensus.pacemaker_rate", 2.0);
 		final int pacemakerMaxExponent = properties.get("consensus.pacemaker_max_exponent", 6);
+		final boolean pacemakerAdaptive = properties.get("consensus.pacemaker_adaptive", false);
 
 		final int fixedNodeCount = properties.get("consensus.fixed_node_count", 1);
 		final View epochHighView = View.of(properties.get("epochs.views_per_epoch", 100L));
 		final int mempoolMaxSize = properties.get("mempool.maxSize", 1000);
+		final boolean mempoolConcurrent = properties.get("mempool.concurrent", false);
+		final Module mempoolPersistenceModule = properties.get("mempool.persist.enable", false)
+			? new MempoolPersistenceModule()
+			: Modules.EMPTY_MODULE;
+
+		final Module consensusRunnerModule;
+		final String consensusRunnerName = properties.get("consensus.runner", "rx");
+		switch (consensusRunnerName.toLowerCase()) {
+		case "rx":
+			consensusRunnerModule = new ConsensusRunnerModule();
+			break;
+		case "disruptor":
+			final int ringBufferSize = properties.get("consensus.runner.ring_buffer_size", 8192);
+			final String waitStrategy = properties.get("consensus.runner.wait_strategy", "blocking");
+			consensusRunnerModule = new DisruptorConsensusRunnerModule(
+				ringBufferSize,
+				DisruptorEpochManagerRunner.WaitStrategyType.valueOf(waitStrategy.toUpperCase())
+			);
+			break;
+		default:
+			throw new IllegalStateException("No such consensus runner: " + consensusRunnerName);
+		}
+
+		final Module ledgerModule;
+		final String accumulatorName = properties.get("ledger.accumulator", "simple");
+		switch (accumulatorName.toLowerCase()) {
+		case "simple":
+			ledgerModule = new LedgerModule(SimpleLedgerAccumulatorAndVerifier.class);
+			break;
+		case "merkle":
+			ledgerModule = new LedgerModule(MerkleLedgerAccumulatorAndVerifier.class);
+			break;
+		default:
+			throw new IllegalStateException("No such ledger accumulator: " + accumulatorName);
+		}
 
 		final Module feeModule;
 		final String feeModuleName = properties.get("debug.fee_module", "token");
@@ -126,13 +168,13 @@ public class GlobalInjector {
 			new CryptoModule(),
 			new ConsensusModule(pacemakerTimeout, pacemakerRate, pacemakerMaxExponent),
 			new ConsensusRxModule(),
-			new ConsensusRunnerModule(),
+			consensusRunnerModule,
 
 			// Ledger
-			new LedgerModule(),
+			ledgerModule,
 			new LedgerRxModule(),
 			new LedgerCommandGeneratorModule(),
-			new LedgerLocalMempoolModule(mempoolMaxSize),
+			new LedgerLocalMempoolModule(mempoolMaxSize, mempoolConcurrent),
 
 			// Sync
 			new SyncRunnerModule(),
@@ -141,7 +183,7 @@ public class GlobalInjector {
 			new SyncMempoolServiceModule(),
 
 			// Epochs - Consensus
-			new EpochsConsensusModule(pacemakerTimeout, pacemakerRate, pacemakerMaxExponent),
+			new EpochsConsensusModule(pacemakerTimeout, pacemakerRate, pacemakerMaxExponent, pacemakerAdaptive),
 			// Epochs - Ledger
 			new EpochsLedgerUpdateModule(),
 			new EpochsLedgerUpdateRxModule(),
@@ -157,6 +199,7 @@ public class GlobalInjector {
 			feeModule,
 
 			new PersistenceModule(),
+			mempoolPersistenceModule,
 
 			// System Info
 			new SystemInfoModule(properties),
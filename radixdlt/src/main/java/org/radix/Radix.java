@@ -20,13 +20,16 @@ package org.radix;
 import com.google.common.collect.ImmutableMap;
 import com.google.inject.Key;
 import com.google.inject.TypeLiteral;
+import com.google.inject.name.Names;
 import com.radixdlt.ModuleRunner;
 import com.radixdlt.DefaultSerialization;
 import com.radixdlt.statecomputer.ClientAtomToBinaryConverter;
 import com.radixdlt.systeminfo.InMemorySystemInfoManager;
 import com.radixdlt.api.CommittedAtomsRx;
 import com.radixdlt.api.SubmissionErrorsRx;
+import com.radixdlt.mempool.MempoolPersister;
 import com.radixdlt.mempool.MempoolReceiver;
+import com.radixdlt.mempool.MempoolRevalidator;
 import com.radixdlt.mempool.SubmissionControl;
 import com.radixdlt.middleware2.store.CommandToBinaryConverter;
 import com.radixdlt.network.addressbook.AddressBook;
@@ -39,6 +42,7 @@ import com.radixdlt.universe.Universe;
 import com.radixdlt.utils.Bytes;
 
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.commons.cli.ParseException;
@@ -66,9 +70,11 @@ public final class Radix
 
 	public static final int 	PROTOCOL_VERSION 		= 100;
 
-	public static final int 	AGENT_VERSION 			= 2710000;
+	public static final int 	AGENT_VERSION 			= 2710001;
 	public static final int 	MAJOR_AGENT_VERSION 	= 2709999;
 	public static final int 	REFUSE_AGENT_VERSION 	= 2709999;
+	// First agent version which accepts batched mempool gossip
+	public static final int 	MEMPOOL_BATCH_AGENT_VERSION = 2710001;
 	public static final String 	AGENT 					= "/Radix:/"+AGENT_VERSION;
 
 	static {
@@ -163,8 +169,17 @@ public final class Radix
 		LocalSystem localSystem = globalInjector.getInjector().getInstance(LocalSystem.class);
 		peerManager.start();
 
+		// Reload persisted mempool contents before gossip arrives, and persist them again on shutdown
+		MempoolPersister mempoolPersister = globalInjector.getInjector().getInstance(MempoolPersister.class);
+		mempoolPersister.start();
+		Runtime.getRuntime().addShutdownHook(new Thread(mempoolPersister::stop, "MempoolPersister shutdown"));
+		ExecutorService statelessCheckExecutor = globalInjector.getInjector()
+			.getInstance(Key.get(ExecutorService.class, Names.named("statelessChecks")));
+		Runtime.getRuntime().addShutdownHook(new Thread(statelessCheckExecutor::shutdownNow, "StatelessChecker shutdown"));
+
 		// Start mempool receiver
 		globalInjector.getInjector().getInstance(MempoolReceiver.class).start();
+		globalInjector.getInjector().getInstance(MempoolRevalidator.class).start();
 
 		InMemorySystemInfoManager infoStateRunner = globalInjector.getInjector().getInstance(InMemorySystemInfoManager.class);
 		infoStateRunner.start();
@@ -20,6 +20,7 @@ package org.radix.api.jsonrpc;
 import com.google.common.io.CharStreams;
 import com.radixdlt.ModuleRunner;
 import com.radixdlt.identifiers.RadixAddress;
+import com.radixdlt.mempool.SubmissionResult;
 import com.radixdlt.store.SearchCursor;
 import com.radixdlt.store.StoreIndex;
 import com.radixdlt.store.LedgerSearchMode;
@@ -242,6 +243,21 @@ public final class RadixJsonRpcServer {
 							.put("timestamp", System.currentTimeMillis());
 					}
 					break;
+				case "Atoms.submitAtoms":
+					if (!(paramsObject instanceof JSONObject) || !((JSONObject) paramsObject).has("atoms")) {
+						return JsonRpcUtil.errorResponse(id, -32000, "No atoms present", new JSONObject());
+					} else {
+						JSONArray jsonAtoms = ((JSONObject) paramsObject).getJSONArray("atoms");
+						List<JSONObject> atoms = new ArrayList<>(jsonAtoms.length());
+						for (int i = 0; i < jsonAtoms.length(); i++) {
+							atoms.add(jsonAtoms.getJSONObject(i));
+						}
+						final long timestamp = System.currentTimeMillis();
+						result = atomsService.submitAtoms(atoms).stream()
+							.map(submission -> submissionResultToJson(submission, timestamp))
+							.collect(Collectors.toList());
+					}
+					break;
 				case "Atoms.getAtomStatus":
 					if (!(paramsObject instanceof JSONObject) || !((JSONObject) paramsObject).has("aid")) {
 						return JsonRpcUtil.errorResponse(id, -32000, "No aid present", new JSONObject());
@@ -286,6 +302,16 @@ public final class RadixJsonRpcServer {
 		}
 	}
 
+	private static JSONObject submissionResultToJson(SubmissionResult submission, long timestamp) {
+		JSONObject json = new JSONObject();
+		submission.getAid().ifPresent(aid -> json.put("aid", aid));
+		submission.getError().ifPresentOrElse(
+			e -> json.put("error", String.valueOf(e.getMessage())),
+			() -> json.put("status", AtomStatus.PENDING_CM_VERIFICATION).put("timestamp", timestamp)
+		);
+		return json;
+	}
+
 	private Stream<Peer> selfAndOthers(Stream<Peer> others) {
 		return Stream.concat(Stream.of(this.localPeer), others).distinct();
 	}
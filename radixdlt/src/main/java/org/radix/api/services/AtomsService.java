@@ -17,6 +17,7 @@
 
 package org.radix.api.services;
 
+import com.google.common.collect.ImmutableList;
 import com.radixdlt.DefaultSerialization;
 import com.radixdlt.api.DeserializationFailure;
 import com.radixdlt.api.CommittedAtomsRx;
@@ -25,6 +26,7 @@ import com.radixdlt.api.SubmissionFailure;
 import com.radixdlt.atommodel.Atom;
 import com.radixdlt.mempool.MempoolRejectedException;
 import com.radixdlt.mempool.SubmissionControl;
+import com.radixdlt.mempool.SubmissionResult;
 
 import com.radixdlt.middleware2.store.StoredCommittedCommand;
 import com.radixdlt.statecomputer.ClientAtomToBinaryConverter;
@@ -183,6 +185,18 @@ public class AtomsService {
 		}
 	}
 
+	/**
+	 * Submits a batch of atoms, checking them in parallel and adding those which pass to the
+	 * mempool in a single operation.  The status of the accepted atoms may be followed with
+	 * {@link #subscribeAtomStatusNotifications(AID, AtomStatusListener)}.
+	 *
+	 * @param jsonAtoms the atoms to submit
+	 * @return the result of each submission, in the order of {@code jsonAtoms}
+	 */
+	public ImmutableList<SubmissionResult> submitAtoms(List<JSONObject> jsonAtoms) {
+		return this.submissionControl.submitAtoms(jsonAtoms, atom -> { });
+	}
+
 	private void subscribeToSubmission(SingleAtomListener subscriber, ClientAtom atom) {
 		if (subscriber != null) {
 			this.deleteOnEventSingleAtomObservers.compute(atom.getAID(), (aid, oldSubscribers) -> {
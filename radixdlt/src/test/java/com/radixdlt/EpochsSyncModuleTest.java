@@ -35,8 +35,10 @@ import com.radixdlt.consensus.sync.SyncLedgerRequestSender;
 import com.radixdlt.counters.SystemCounters;
 import com.radixdlt.epochs.SyncedEpochSender;
 import com.radixdlt.ledger.AccumulatorState;
+import com.radixdlt.network.TimeSupplier;
 import com.radixdlt.sync.LocalSyncServiceAccumulatorProcessor;
 import com.radixdlt.sync.LocalSyncServiceAccumulatorProcessor.SyncTimeoutScheduler;
+import com.radixdlt.sync.LocalSyncServiceAccumulatorProcessor.VerifiedSyncedCommandsSender;
 import com.radixdlt.sync.RemoteSyncResponseValidatorSetVerifier;
 import com.radixdlt.sync.RemoteSyncResponseValidatorSetVerifier.InvalidValidatorSetSender;
 import com.radixdlt.sync.RemoteSyncResponseValidatorSetVerifier.VerifiedValidatorSetSender;
@@ -67,6 +69,8 @@ public class EpochsSyncModuleTest {
 				bind(InvalidValidatorSetSender.class).toInstance(mock(InvalidValidatorSetSender.class));
 				bind(StateSyncNetwork.class).toInstance(mock(StateSyncNetwork.class));
 				bind(SyncTimeoutScheduler.class).toInstance(mock(SyncTimeoutScheduler.class));
+				bind(VerifiedSyncedCommandsSender.class).toInstance(mock(VerifiedSyncedCommandsSender.class));
+				bind(TimeSupplier.class).toInstance(mock(TimeSupplier.class));
 				bind(new TypeLiteral<Comparator<AccumulatorState>>() { }).toInstance(TypedMocks.rmock(Comparator.class));
 			}
 		};
@@ -35,9 +35,11 @@ import com.radixdlt.consensus.bft.View;
 import com.radixdlt.crypto.ECKeyPair;
 import com.radixdlt.middleware2.LedgerAtom;
 import com.radixdlt.serialization.Serialization;
+import com.radixdlt.statecomputer.CommittedAtomsBatcher;
 import com.radixdlt.statecomputer.CommittedCommandsReader;
 import com.radixdlt.statecomputer.RadixEngineStateComputer;
 import com.radixdlt.statecomputer.RadixEngineStateComputer.CommittedAtomSender;
+import com.radixdlt.statecomputer.UnstoredCommandsStore;
 import com.radixdlt.store.EngineStore;
 import com.radixdlt.utils.TypedMocks;
 
@@ -52,6 +54,8 @@ public class RadixEngineModuleTest {
 			bind(ECKeyPair.class).annotatedWith(Names.named("self")).toInstance(ECKeyPair.generateNew());
 			bind(new TypeLiteral<EngineStore<LedgerAtom>>() { }).toInstance(TypedMocks.rmock(EngineStore.class));
 			bind(CommittedCommandsReader.class).toInstance(mock(CommittedCommandsReader.class));
+			bind(UnstoredCommandsStore.class).toInstance(mock(UnstoredCommandsStore.class));
+			bind(CommittedAtomsBatcher.class).toInstance(mock(CommittedAtomsBatcher.class));
 			bind(Integer.class).annotatedWith(Names.named("magic")).toInstance(1);
 			BFTValidatorSet validatorSet = mock(BFTValidatorSet.class);
 			BFTValidator validator1 = mock(BFTValidator.class);
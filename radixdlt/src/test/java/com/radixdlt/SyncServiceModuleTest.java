@@ -44,8 +44,11 @@ import com.radixdlt.ledger.AccumulatorState;
 import com.radixdlt.ledger.DtoCommandsAndProof;
 import com.radixdlt.ledger.DtoLedgerHeaderAndProof;
 import com.radixdlt.ledger.LedgerAccumulatorVerifier;
+import com.radixdlt.network.TimeSupplier;
 import com.radixdlt.sync.CommittedReader;
 import com.radixdlt.sync.LocalSyncServiceAccumulatorProcessor.SyncTimeoutScheduler;
+import com.radixdlt.sync.LocalSyncServiceAccumulatorProcessor.VerifiedSyncedCommandsSender;
+import com.radixdlt.sync.LocalSyncServiceProcessor;
 import com.radixdlt.sync.RemoteSyncResponse;
 import com.radixdlt.sync.RemoteSyncResponseAccumulatorVerifier.VerifiedAccumulatorSender;
 import com.radixdlt.sync.StateSyncNetwork;
@@ -58,7 +61,11 @@ public class SyncServiceModuleTest {
 	@Inject
 	private VerifiedAccumulatorSender verifiedAccumulatorSender;
 
+	@Inject
+	private VerifiedSyncedCommandsSender verifiedSyncedCommandsSender;
+
 	private Ledger ledger = mock(Ledger.class);
+	private LocalSyncServiceProcessor localSyncServiceProcessor = mock(LocalSyncServiceProcessor.class);
 
 	public Module getExternalModule() {
 		return new AbstractModule() {
@@ -74,16 +81,28 @@ public class SyncServiceModuleTest {
 				bind(StateSyncNetwork.class).toInstance(mock(StateSyncNetwork.class));
 				bind(Key.get(new TypeLiteral<Comparator<AccumulatorState>>() { })).toInstance(TypedMocks.rmock(Comparator.class));
 				bind(BFTConfiguration.class).toInstance(mock(BFTConfiguration.class));
+				bind(TimeSupplier.class).toInstance(mock(TimeSupplier.class));
+				bind(LocalSyncServiceProcessor.class).toInstance(localSyncServiceProcessor);
 			}
 		};
 	}
 
 	@Test
-	public void given_configured_with_correct_interfaces__when_send_verified_accumulator__then_should_commit_to_ledger() {
+	public void given_configured_with_correct_interfaces__when_send_verified_accumulator__then_should_forward_to_local_sync() {
 		Injector injector = Guice.createInjector(new SyncServiceModule(), getExternalModule());
 		injector.injectMembers(this);
 
 		RemoteSyncResponse response = mock(RemoteSyncResponse.class);
+		verifiedAccumulatorSender.sendVerifiedAccumulator(response);
+
+		verify(localSyncServiceProcessor, times(1)).processVerifiedSyncResponse(response);
+	}
+
+	@Test
+	public void given_configured_with_correct_interfaces__when_send_verified_commands__then_should_commit_to_ledger() {
+		Injector injector = Guice.createInjector(new SyncServiceModule(), getExternalModule());
+		injector.injectMembers(this);
+
 		DtoCommandsAndProof dtoCommandsAndProof = mock(DtoCommandsAndProof.class);
 		when(dtoCommandsAndProof.getCommands()).thenReturn(ImmutableList.of());
 		DtoLedgerHeaderAndProof dtoLedgerHeaderAndProof = mock(DtoLedgerHeaderAndProof.class);
@@ -93,9 +112,8 @@ public class SyncServiceModuleTest {
 		when(dtoLedgerHeaderAndProof.getLedgerHeader()).thenReturn(mock(LedgerHeader.class));
 		when(dtoLedgerHeaderAndProof.getSignatures()).thenReturn(mock(TimestampedECDSASignatures.class));
 		when(dtoCommandsAndProof.getTail()).thenReturn(dtoLedgerHeaderAndProof);
-		when(response.getCommandsAndProof()).thenReturn(dtoCommandsAndProof);
 
-		verifiedAccumulatorSender.sendVerifiedAccumulator(response);
+		verifiedSyncedCommandsSender.sendVerifiedCommands(dtoCommandsAndProof);
 
 		verify(ledger, times(1)).commit(any());
 	}
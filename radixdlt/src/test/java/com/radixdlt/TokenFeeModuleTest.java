@@ -39,14 +39,17 @@ import com.radixdlt.crypto.ECKeyPair;
 import com.radixdlt.engine.AtomChecker;
 import com.radixdlt.identifiers.RRI;
 import com.radixdlt.identifiers.RadixAddress;
+import com.radixdlt.mempool.FeeRate;
 import com.radixdlt.middleware.ParticleGroup;
 import com.radixdlt.middleware.SpunParticle;
 import com.radixdlt.middleware2.LedgerAtom;
+import com.radixdlt.middleware2.TokenFeeRate;
 import com.radixdlt.serialization.Serialization;
 import com.radixdlt.universe.Universe;
 import com.radixdlt.utils.UInt256;
 
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -106,6 +109,18 @@ public class TokenFeeModuleTest {
 		assertNotNull(checker);
 	}
 
+	@Test
+	public void testTokenFeeModuleMempoolFeeRate() {
+		Injector injector = Guice.createInjector(
+			new SupportModule(1),
+			new TokenFeeModule(),
+			new LedgerLocalMempoolModule(10)
+		);
+
+		FeeRate feeRate = injector.getInstance(FeeRate.class);
+		assertTrue(feeRate instanceof TokenFeeRate);
+	}
+
 	@Test(expected = ProvisionException.class)
 	public void testTokenFeeModuleMutableNoXrd() {
 		Injector injector = Guice.createInjector(
@@ -0,0 +1,203 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.consensus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.radixdlt.consensus.DisruptorEpochManagerRunner.WaitStrategyType;
+import com.radixdlt.consensus.bft.BFTUpdate;
+import com.radixdlt.consensus.epoch.EpochManager;
+import com.radixdlt.consensus.epoch.LocalTimeout;
+import com.radixdlt.consensus.liveness.PacemakerRx;
+import com.radixdlt.consensus.sync.GetVerticesRequest;
+import com.radixdlt.epochs.EpochsLedgerUpdate;
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.subjects.PublishSubject;
+import io.reactivex.rxjava3.subjects.Subject;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class DisruptorEpochManagerRunnerTest {
+	@Test
+	public void when_events_get_emitted__then_event_coordinator_should_be_called() {
+		BFTEventsRx networkRx = mock(BFTEventsRx.class);
+
+		Subject<EpochsLedgerUpdate> ledgerUpdates = PublishSubject.create();
+		Subject<BFTUpdate> bftUpdates = PublishSubject.create();
+
+		EpochManager epochManager = mock(EpochManager.class);
+
+		LocalTimeout timeout = mock(LocalTimeout.class);
+		PacemakerRx pacemakerRx = mock(PacemakerRx.class);
+		when(pacemakerRx.localTimeouts()).thenReturn(Observable.just(timeout).concatWith(Observable.never()));
+
+		NewView newView = mock(NewView.class);
+		Proposal proposal = mock(Proposal.class);
+		Vote vote = mock(Vote.class);
+
+		when(networkRx.bftEvents())
+			.thenReturn(Observable.just(newView, proposal, vote).concatWith(Observable.never()));
+
+		SyncVerticesRPCRx syncVerticesRPCRx = mock(SyncVerticesRPCRx.class);
+		GetVerticesRequest request = mock(GetVerticesRequest.class);
+		when(syncVerticesRPCRx.requests()).thenReturn(Observable.just(request).concatWith(Observable.never()));
+		when(syncVerticesRPCRx.responses()).thenReturn(Observable.never());
+		when(syncVerticesRPCRx.errorResponses()).thenReturn(Observable.never());
+
+		SyncEpochsRPCRx syncEpochsRPCRx = mock(SyncEpochsRPCRx.class);
+		when(syncEpochsRPCRx.epochRequests()).thenReturn(Observable.never());
+		when(syncEpochsRPCRx.epochResponses()).thenReturn(Observable.never());
+
+		DisruptorEpochManagerRunner consensusRunner = new DisruptorEpochManagerRunner(
+			ledgerUpdates,
+			bftUpdates,
+			networkRx,
+			pacemakerRx,
+			syncVerticesRPCRx,
+			syncEpochsRPCRx,
+			epochManager,
+			16,
+			WaitStrategyType.BLOCKING
+		);
+
+		consensusRunner.start();
+		verify(epochManager, timeout(1000).times(1)).start();
+
+		EpochsLedgerUpdate epochsLedgerUpdate = mock(EpochsLedgerUpdate.class);
+		ledgerUpdates.onNext(epochsLedgerUpdate);
+		BFTUpdate bftUpdate = mock(BFTUpdate.class);
+		bftUpdates.onNext(bftUpdate);
+
+		verify(epochManager, timeout(1000).times(1)).processLedgerUpdate(eq(epochsLedgerUpdate));
+		verify(epochManager, timeout(1000).times(1)).processConsensusEvent(eq(vote));
+		verify(epochManager, timeout(1000).times(1)).processConsensusEvent(eq(proposal));
+		verify(epochManager, timeout(1000).times(1)).processConsensusEvent(eq(newView));
+		verify(epochManager, timeout(1000).times(1)).processLocalTimeout(eq(timeout));
+		verify(epochManager, timeout(1000).times(1)).processBFTUpdate(eq(bftUpdate));
+		verify(epochManager, timeout(1000).times(1)).processGetVerticesRequest(eq(request));
+
+		consensusRunner.shutdown();
+	}
+
+	@Test
+	public void when_consumer_raises_more_events_than_ring_buffer_holds__then_all_are_processed() {
+		Subject<ConsensusEvent> bftEvents = PublishSubject.create();
+		Subject<BFTUpdate> bftUpdates = PublishSubject.create();
+		EpochManager epochManager = mock(EpochManager.class);
+		BFTUpdate bftUpdate = mock(BFTUpdate.class);
+		// As when inserting vertices, updates are emitted on the consensus thread
+		doAnswer(inv -> {
+			for (int i = 0; i < 32; i++) {
+				bftUpdates.onNext(bftUpdate);
+			}
+			return null;
+		}).when(epochManager).processConsensusEvent(any());
+		DisruptorEpochManagerRunner consensusRunner = createRunner(bftEvents, PublishSubject.create(), bftUpdates, epochManager, 4);
+
+		consensusRunner.start();
+		Vote vote = mock(Vote.class);
+		bftEvents.onNext(vote);
+
+		verify(epochManager, timeout(1000).times(32)).processBFTUpdate(eq(bftUpdate));
+		consensusRunner.shutdown();
+	}
+
+	@Test
+	public void when_ring_buffer_is_full__then_network_events_are_dropped_without_blocking() throws InterruptedException {
+		Subject<ConsensusEvent> bftEvents = PublishSubject.create();
+		Subject<EpochsLedgerUpdate> ledgerUpdates = PublishSubject.create();
+		EpochManager epochManager = mock(EpochManager.class);
+		CountDownLatch blocked = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		doAnswer(inv -> {
+			blocked.countDown();
+			release.await();
+			return null;
+		}).when(epochManager).processLedgerUpdate(any());
+		DisruptorEpochManagerRunner consensusRunner = createRunner(bftEvents, ledgerUpdates, PublishSubject.create(), epochManager, 4);
+
+		consensusRunner.start();
+		ledgerUpdates.onNext(mock(EpochsLedgerUpdate.class));
+		assertThat(blocked.await(1, TimeUnit.SECONDS)).isTrue();
+		Vote vote = mock(Vote.class);
+		for (int i = 0; i < 32; i++) {
+			bftEvents.onNext(vote);
+		}
+		release.countDown();
+
+		verify(epochManager, timeout(1000).atLeastOnce()).processConsensusEvent(eq(vote));
+		verify(epochManager, atMost(4)).processConsensusEvent(eq(vote));
+		consensusRunner.shutdown();
+	}
+
+	private static DisruptorEpochManagerRunner createRunner(
+		Observable<ConsensusEvent> bftEvents,
+		Observable<EpochsLedgerUpdate> ledgerUpdates,
+		Observable<BFTUpdate> bftUpdates,
+		EpochManager epochManager,
+		int ringBufferSize
+	) {
+		BFTEventsRx networkRx = mock(BFTEventsRx.class);
+		when(networkRx.bftEvents()).thenReturn(bftEvents);
+		PacemakerRx pacemakerRx = mock(PacemakerRx.class);
+		when(pacemakerRx.localTimeouts()).thenReturn(Observable.never());
+		SyncVerticesRPCRx syncVerticesRPCRx = mock(SyncVerticesRPCRx.class);
+		when(syncVerticesRPCRx.requests()).thenReturn(Observable.never());
+		when(syncVerticesRPCRx.responses()).thenReturn(Observable.never());
+		when(syncVerticesRPCRx.errorResponses()).thenReturn(Observable.never());
+		SyncEpochsRPCRx syncEpochsRPCRx = mock(SyncEpochsRPCRx.class);
+		when(syncEpochsRPCRx.epochRequests()).thenReturn(Observable.never());
+		when(syncEpochsRPCRx.epochResponses()).thenReturn(Observable.never());
+		return new DisruptorEpochManagerRunner(
+			ledgerUpdates,
+			bftUpdates,
+			networkRx,
+			pacemakerRx,
+			syncVerticesRPCRx,
+			syncEpochsRPCRx,
+			epochManager,
+			ringBufferSize,
+			WaitStrategyType.BLOCKING
+		);
+	}
+
+	@Test
+	public void when_ring_buffer_size_is_not_a_power_of_two__then_construction_fails() {
+		assertThatThrownBy(() -> new DisruptorEpochManagerRunner(
+			PublishSubject.create(),
+			PublishSubject.create(),
+			mock(BFTEventsRx.class),
+			mock(PacemakerRx.class),
+			mock(SyncVerticesRPCRx.class),
+			mock(SyncEpochsRPCRx.class),
+			mock(EpochManager.class),
+			10,
+			WaitStrategyType.YIELDING
+		)).isInstanceOf(IllegalArgumentException.class);
+	}
+}
\ No newline at end of file
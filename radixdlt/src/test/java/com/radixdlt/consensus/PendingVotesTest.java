@@ -22,6 +22,7 @@ import com.radixdlt.consensus.bft.ValidationState;
 import com.radixdlt.consensus.bft.BFTValidator;
 import com.radixdlt.consensus.bft.BFTValidatorSet;
 import com.radixdlt.consensus.bft.View;
+import com.radixdlt.consensus.liveness.PacemakerState;
 import com.radixdlt.crypto.ECDSASignature;
 import com.radixdlt.crypto.Hash;
 import com.radixdlt.utils.UInt256;
@@ -38,6 +39,8 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import nl.jqno.equalsverifier.EqualsVerifier;
@@ -45,12 +48,15 @@ import nl.jqno.equalsverifier.EqualsVerifier;
 public class PendingVotesTest {
 	private PendingVotes pendingVotes;
 	private Hasher hasher;
+	private PacemakerState pacemakerState;
 
 	@Before
 	public void setup() {
 		this.hasher = mock(Hasher.class);
 		when(hasher.hash(any())).thenReturn(Hash.random());
-		this.pendingVotes = new PendingVotes(hasher);
+		this.pacemakerState = mock(PacemakerState.class);
+		when(pacemakerState.getCurrentView()).thenReturn(View.genesis());
+		this.pendingVotes = new PendingVotes(hasher, pacemakerState, 2);
 	}
 
 	@Test
@@ -140,6 +146,39 @@ public class PendingVotesTest {
 		assertEquals(1, this.pendingVotes.previousVotesSize());
 	}
 
+	@Test
+	public void when_inserting_vote_outside_of_view_window__then_it_is_ignored_without_hashing() {
+		Vote vote = makeSignedVoteFor(mock(BFTNode.class), View.of(2), Hash.random());
+		BFTValidatorSet validatorSet = mock(BFTValidatorSet.class);
+		when(validatorSet.containsNode(any())).thenReturn(true);
+
+		assertThat(this.pendingVotes.insertVote(vote, validatorSet)).isNotPresent();
+		assertEquals(0, this.pendingVotes.voteStateSize());
+		assertEquals(0, this.pendingVotes.previousVotesSize());
+		verify(hasher, never()).hash(any());
+	}
+
+	@Test
+	public void when_current_view_moves_on__then_votes_for_old_views_are_evicted() {
+		BFTValidatorSet validatorSet = mock(BFTValidatorSet.class);
+		when(validatorSet.newValidationState()).thenAnswer(inv -> mock(ValidationState.class));
+		when(validatorSet.containsNode(any())).thenReturn(true);
+
+		Vote vote = makeSignedVoteFor(mock(BFTNode.class), View.genesis(), Hash.random());
+		assertThat(this.pendingVotes.insertVote(vote, validatorSet)).isNotPresent();
+		assertEquals(1, this.pendingVotes.voteStateSize());
+
+		when(pacemakerState.getCurrentView()).thenReturn(View.of(5));
+		assertEquals(0, this.pendingVotes.voteStateSize());
+
+		// Votes are for the view after their parent, so this vote for view 6 lands in
+		// slot 6 % 5 = 1 of the ring of length 5, replacing the evicted vote for view 1
+		Vote vote2 = makeSignedVoteFor(mock(BFTNode.class), View.of(5), Hash.random());
+		when(hasher.hash(eq(vote2.getVoteData()))).thenReturn(Hash.random());
+		assertThat(this.pendingVotes.insertVote(vote2, validatorSet)).isNotPresent();
+		assertEquals(1, this.pendingVotes.voteStateSize());
+	}
+
 	private Vote makeUnsignedVoteFor(BFTNode author, View parentView, Hash vertexId) {
 		Vote vote = makeVoteWithoutSignatureFor(author, parentView, vertexId);
 		when(vote.getSignature()).thenReturn(Optional.empty());
@@ -44,6 +44,7 @@ import org.junit.Test;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
@@ -224,6 +225,9 @@ public class BFTEventReducerTest {
 		when(proposal.getVertex()).thenReturn(proposedVertex);
 
 		when(pacemaker.getCurrentView()).thenReturn(currentView);
+		BFTHeader header = mock(BFTHeader.class);
+		when(header.getLedgerHeader()).thenReturn(mock(LedgerHeader.class));
+		when(vertexStore.insertVertex(any())).thenReturn(header);
 		Vote vote = mock(Vote.class);
 		doReturn(vote).when(safetyRules).voteFor(any(), any(), anyLong(), anyLong());
 
@@ -233,6 +237,44 @@ public class BFTEventReducerTest {
 		verify(pacemaker, times(0)).processNextView(any());
 	}
 
+	@Test
+	public void when_processing_new_view_after_proposal_as_next_leader__then_speculative_command_is_proposed()
+		throws SafetyViolationException {
+		View currentView = View.of(123);
+		when(proposerElection.getProposer(eq(currentView))).thenReturn(mock(BFTNode.class));
+		when(proposerElection.getProposer(eq(currentView.next()))).thenReturn(self);
+
+		UnverifiedVertex proposedVertex = mock(UnverifiedVertex.class);
+		when(proposedVertex.getView()).thenReturn(currentView);
+		Proposal proposal = mock(Proposal.class);
+		when(proposal.getVertex()).thenReturn(proposedVertex);
+		when(pacemaker.getCurrentView()).thenReturn(currentView);
+
+		Hash vertexId = mock(Hash.class);
+		BFTHeader header = mock(BFTHeader.class);
+		when(header.getVertexId()).thenReturn(vertexId);
+		when(header.getLedgerHeader()).thenReturn(mock(LedgerHeader.class));
+		when(vertexStore.insertVertex(any())).thenReturn(header);
+		doReturn(mock(Vote.class)).when(safetyRules).voteFor(any(), any(), anyLong(), anyLong());
+		Command command = mock(Command.class);
+		when(nextCommandGenerator.generateNextCommand(eq(currentView.next()), any())).thenReturn(command);
+
+		reducer.processProposal(proposal);
+		verify(nextCommandGenerator, times(1)).generateNextCommand(eq(currentView.next()), any());
+
+		QuorumCertificate highQC = mock(QuorumCertificate.class);
+		when(highQC.getProposed()).thenReturn(header);
+		when(vertexStore.getHighestQC()).thenReturn(highQC);
+		when(pacemaker.processNewView(any(), any())).thenReturn(Optional.of(currentView.next()));
+		when(validatorSet.getValidators()).thenReturn(ImmutableSet.of());
+
+		reducer.processNewView(mock(NewView.class));
+
+		verify(nextCommandGenerator, times(1)).generateNextCommand(any(), any());
+		verify(safetyRules, times(1)).signProposal(argThat(v -> v.getCommand() == command), any(), anyLong());
+		verify(sender, times(1)).broadcastProposal(any(), any());
+	}
+
 	@Test
 	public void when_processing_valid_stored_proposal_and_leader__then_atom_is_voted_on_and_no_new_view() throws SafetyViolationException {
 		View currentView = View.of(123);
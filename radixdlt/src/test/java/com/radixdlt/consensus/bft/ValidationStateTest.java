@@ -17,12 +17,14 @@
 
 package com.radixdlt.consensus.bft;
 
+import com.radixdlt.crypto.ECDSASignature;
 import com.radixdlt.utils.UInt256;
 import org.junit.Test;
 
 import com.google.common.collect.ImmutableList;
 import static org.hamcrest.Matchers.containsString;
 import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
 
 import nl.jqno.equalsverifier.EqualsVerifier;
 
@@ -39,6 +41,45 @@ public class ValidationStateTest {
 		assertThat(s, containsString(ValidationState.class.getSimpleName()));
 	}
 
+	@Test
+	public void when_adding_and_removing_signatures__then_quorum_is_tracked() {
+		checkQuorumTracking(UInt256.ONE);
+	}
+
+	@Test
+	public void when_adding_and_removing_signatures_with_power_exceeding_long__then_quorum_is_tracked() {
+		checkQuorumTracking(UInt256.MAX_VALUE.divide(UInt256.FIVE));
+	}
+
+	private void checkQuorumTracking(UInt256 power) {
+		BFTNode node1 = mock(BFTNode.class);
+		BFTNode node2 = mock(BFTNode.class);
+		BFTNode node3 = mock(BFTNode.class);
+		BFTNode node4 = mock(BFTNode.class);
+		ValidationState validationState = BFTValidatorSet.from(ImmutableList.of(
+			BFTValidator.from(node1, power),
+			BFTValidator.from(node2, power),
+			BFTValidator.from(node3, power),
+			BFTValidator.from(node4, power)
+		)).newValidationState();
+
+		assertTrue(validationState.isEmpty());
+		assertTrue(validationState.addSignature(node1, 1L, new ECDSASignature()));
+		assertFalse(validationState.addSignature(node1, 1L, new ECDSASignature()));
+		assertFalse(validationState.addSignature(mock(BFTNode.class), 1L, new ECDSASignature()));
+		assertTrue(validationState.addSignature(node2, 1L, new ECDSASignature()));
+		assertFalse(validationState.complete());
+		assertTrue(validationState.addSignature(node3, 1L, new ECDSASignature()));
+		assertTrue(validationState.complete());
+		assertEquals(3, validationState.signatures().count());
+
+		validationState.removeSignature(node3);
+		assertFalse(validationState.complete());
+		validationState.removeSignature(node2);
+		validationState.removeSignature(node1);
+		assertTrue(validationState.isEmpty());
+	}
+
 	@Test
 	public void testAcceptableFaults() {
 		assertEquals(UInt256.ZERO, ValidationState.acceptableFaults(UInt256.ZERO));
@@ -197,4 +197,40 @@ public class VertexStoreTest {
 		assertThat(vertexStore.getVertices(id, 2))
 			.contains(ImmutableList.of(vertex, genesisVertex));
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void when_committing_vertex__then_forks_off_committed_path_are_pruned() {
+		Hash id1 = mock(Hash.class);
+		Hash id2 = mock(Hash.class);
+		Hash id3 = mock(Hash.class);
+		VerifiedVertex vertex1 = nextVertex.apply(id1);
+		VerifiedVertex vertex2 = nextVertex.apply(id2);
+		VerifiedVertex vertex3 = nextVertex.apply(id3);
+
+		UnverifiedVertex rawForkVertex = mock(UnverifiedVertex.class);
+		when(rawForkVertex.getQC()).thenReturn(rootQC);
+		when(rawForkVertex.getView()).thenReturn(View.of(2));
+		Hash forkId = mock(Hash.class);
+		VerifiedVertex forkVertex = new VerifiedVertex(rawForkVertex, forkId);
+
+		vertexStore.insertVertex(vertex1);
+		vertexStore.insertVertex(forkVertex);
+		vertexStore.insertVertex(vertex2);
+		vertexStore.insertVertex(vertex3);
+		assertThat(vertexStore.getSize()).isEqualTo(5);
+
+		VoteData voteData = new VoteData(
+			new BFTHeader(vertex3.getView(), id3, mock(LedgerHeader.class)),
+			new BFTHeader(vertex2.getView(), id2, mock(LedgerHeader.class)),
+			new BFTHeader(vertex1.getView(), id1, mock(LedgerHeader.class))
+		);
+		QuorumCertificate qc = new QuorumCertificate(voteData, new TimestampedECDSASignatures());
+		assertThat(vertexStore.addQC(qc)).isTrue();
+
+		assertThat(vertexStore.getRoot()).isEqualTo(vertex1);
+		assertThat(vertexStore.getSize()).isEqualTo(3);
+		assertThat(vertexStore.containsVertex(forkId)).isFalse();
+		assertThat(vertexStore.containsVertex(genesisHash)).isFalse();
+		assertThat(vertexStore.getPathFromRoot(id3)).isEqualTo(ImmutableList.of(vertex2, vertex3));
+	}
+}
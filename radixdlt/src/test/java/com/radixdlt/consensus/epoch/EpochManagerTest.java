@@ -350,6 +350,7 @@ public class EpochManagerTest {
 		UnverifiedVertex vertex = mock(UnverifiedVertex.class);
 		when(vertex.getView()).thenReturn(View.of(1));
 		when(proposal.getEpoch()).thenReturn(2L);
+		when(proposal.getView()).thenReturn(View.of(1));
 		when(proposal.getVertex()).thenReturn(vertex);
 		when(proposal.getAuthor()).thenReturn(node);
 		epochManager.processConsensusEvent(proposal);
@@ -382,6 +383,7 @@ public class EpochManagerTest {
 	public void when_receive_next_epoch_events_and_then_epoch_change_and_not_part_of_validator_set__then_queued_events_should_be_cleared() {
 		Proposal proposal = mock(Proposal.class);
 		when(proposal.getEpoch()).thenReturn(2L);
+		when(proposal.getView()).thenReturn(View.of(1));
 		when(proposal.getAuthor()).thenReturn(mock(BFTNode.class));
 		epochManager.processConsensusEvent(proposal);
 		assertThat(systemCounters.get(CounterType.EPOCH_MANAGER_QUEUED_CONSENSUS_EVENTS)).isEqualTo(1);
@@ -404,6 +406,18 @@ public class EpochManagerTest {
 		assertThat(systemCounters.get(CounterType.EPOCH_MANAGER_QUEUED_CONSENSUS_EVENTS)).isEqualTo(0);
 	}
 
+	@Test
+	public void when_receive_events_beyond_next_epoch__then_they_are_dropped() {
+		Proposal proposal = mock(Proposal.class);
+		when(proposal.getEpoch()).thenReturn(3L);
+		when(proposal.getView()).thenReturn(View.of(1));
+		when(proposal.getAuthor()).thenReturn(mock(BFTNode.class));
+		epochManager.processConsensusEvent(proposal);
+
+		assertThat(systemCounters.get(CounterType.EPOCH_MANAGER_QUEUED_CONSENSUS_EVENTS)).isEqualTo(0);
+		assertThat(systemCounters.get(CounterType.EPOCH_MANAGER_DROPPED_CONSENSUS_EVENTS)).isEqualTo(1);
+	}
+
 	@Test
 	public void when_next_epoch__then_get_vertices_rpc_should_be_forwarded_to_vertex_store() {
 		when(vertexStore.getHighestQC()).thenReturn(mock(QuorumCertificate.class));
@@ -0,0 +1,119 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.consensus.epoch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.radixdlt.consensus.BFTHeader;
+import com.radixdlt.consensus.NewView;
+import com.radixdlt.consensus.Proposal;
+import com.radixdlt.consensus.Vote;
+import com.radixdlt.consensus.VoteData;
+import com.radixdlt.consensus.bft.BFTNode;
+import com.radixdlt.consensus.bft.View;
+import org.junit.Before;
+import org.junit.Test;
+
+public class QueuedConsensusEventsTest {
+	private QueuedConsensusEvents queuedEvents;
+
+	@Before
+	public void setUp() {
+		this.queuedEvents = new QueuedConsensusEvents(2, 3);
+	}
+
+	@Test
+	public void when_adding_same_type_and_view_from_same_sender__then_it_is_deduplicated() {
+		BFTNode author = mock(BFTNode.class);
+		assertThat(this.queuedEvents.add(proposal(author, 1))).isTrue();
+		assertThat(this.queuedEvents.add(proposal(author, 1))).isFalse();
+		assertThat(this.queuedEvents.add(vote(author, 1))).isTrue();
+		assertThat(this.queuedEvents.size()).isEqualTo(2);
+	}
+
+	@Test
+	public void when_sender_is_full__then_lowest_view_is_evicted_for_higher_view() {
+		BFTNode author = mock(BFTNode.class);
+		Vote vote1 = vote(author, 1);
+		Vote vote2 = vote(author, 2);
+		Vote vote3 = vote(author, 3);
+		this.queuedEvents.add(vote2);
+		this.queuedEvents.add(vote3);
+		assertThat(this.queuedEvents.add(vote1)).isFalse();
+		Vote vote4 = vote(author, 4);
+		assertThat(this.queuedEvents.add(vote4)).isTrue();
+		assertThat(this.queuedEvents.drain()).containsExactly(vote3, vote4);
+	}
+
+	@Test
+	public void when_queue_is_full__then_events_from_new_senders_are_rejected() {
+		BFTNode author0 = mock(BFTNode.class);
+		BFTNode author1 = mock(BFTNode.class);
+		this.queuedEvents.add(vote(author0, 1));
+		this.queuedEvents.add(vote(author0, 2));
+		this.queuedEvents.add(vote(author1, 1));
+		assertThat(this.queuedEvents.add(vote(mock(BFTNode.class), 1))).isFalse();
+		assertThat(this.queuedEvents.size()).isEqualTo(3);
+	}
+
+	@Test
+	public void when_draining__then_proposals_and_new_views_are_replayed_before_votes() {
+		QueuedConsensusEvents events = new QueuedConsensusEvents(4, 16);
+		BFTNode author0 = mock(BFTNode.class);
+		BFTNode author1 = mock(BFTNode.class);
+		Vote vote = vote(author0, 1);
+		NewView newView = newView(author1, 2);
+		Proposal proposal2 = proposal(author1, 2);
+		Proposal proposal1 = proposal(author0, 1);
+		events.add(vote);
+		events.add(newView);
+		events.add(proposal2);
+		events.add(proposal1);
+
+		assertThat(events.drain()).containsExactly(proposal1, proposal2, newView, vote);
+		assertThat(events.size()).isZero();
+		assertThat(events.drain()).isEmpty();
+	}
+
+	private static Proposal proposal(BFTNode author, long view) {
+		Proposal proposal = mock(Proposal.class);
+		when(proposal.getAuthor()).thenReturn(author);
+		when(proposal.getView()).thenReturn(View.of(view));
+		return proposal;
+	}
+
+	private static NewView newView(BFTNode author, long view) {
+		NewView newView = mock(NewView.class);
+		when(newView.getAuthor()).thenReturn(author);
+		when(newView.getView()).thenReturn(View.of(view));
+		return newView;
+	}
+
+	private static Vote vote(BFTNode author, long view) {
+		Vote vote = mock(Vote.class);
+		when(vote.getAuthor()).thenReturn(author);
+		VoteData voteData = mock(VoteData.class);
+		BFTHeader proposed = mock(BFTHeader.class);
+		when(proposed.getView()).thenReturn(View.of(view));
+		when(voteData.getProposed()).thenReturn(proposed);
+		when(vote.getVoteData()).thenReturn(voteData);
+		return vote;
+	}
+}
@@ -0,0 +1,96 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.consensus.liveness;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class AdaptiveBaseTimeoutTest {
+	private AdaptiveBaseTimeout baseTimeout;
+
+	@Before
+	public void setUp() {
+		this.baseTimeout = new AdaptiveBaseTimeout(1000L, 100L, 10_000L, 0.9, 1.5, 2.0, 10, 5);
+	}
+
+	@Test
+	public void when_not_enough_samples__then_base_timeout_is_unchanged() {
+		for (int i = 0; i < 4; i++) {
+			this.baseTimeout.viewCompleted(10L);
+		}
+		assertThat(this.baseTimeout.nextEpoch()).isEqualTo(1000L);
+		assertThat(this.baseTimeout.baseTimeoutMillis()).isEqualTo(1000L);
+	}
+
+	@Test
+	public void when_latencies_are_within_adjustment__then_base_timeout_is_percentile_plus_margin() {
+		for (int i = 1; i <= 10; i++) {
+			this.baseTimeout.viewCompleted(i * 100L);
+		}
+		// p90 of 100..1000 is 900, times 1.5 margin
+		assertThat(this.baseTimeout.nextEpoch()).isEqualTo(1350L);
+	}
+
+	@Test
+	public void when_latencies_are_low__then_base_timeout_decreases_by_at_most_max_adjustment_per_epoch() {
+		for (int i = 0; i < 10; i++) {
+			this.baseTimeout.viewCompleted(1L);
+		}
+		assertThat(this.baseTimeout.nextEpoch()).isEqualTo(500L);
+		assertThat(this.baseTimeout.nextEpoch()).isEqualTo(250L);
+		assertThat(this.baseTimeout.nextEpoch()).isEqualTo(125L);
+		assertThat(this.baseTimeout.nextEpoch()).isEqualTo(100L);
+		assertThat(this.baseTimeout.nextEpoch()).isEqualTo(100L);
+	}
+
+	@Test
+	public void when_latencies_are_high__then_base_timeout_increases_up_to_max() {
+		for (int i = 0; i < 10; i++) {
+			this.baseTimeout.viewCompleted(1_000_000L);
+		}
+		assertThat(this.baseTimeout.nextEpoch()).isEqualTo(2000L);
+		assertThat(this.baseTimeout.nextEpoch()).isEqualTo(4000L);
+		assertThat(this.baseTimeout.nextEpoch()).isEqualTo(8000L);
+		assertThat(this.baseTimeout.nextEpoch()).isEqualTo(10_000L);
+		assertThat(this.baseTimeout.maxBaseTimeoutMillis()).isEqualTo(10_000L);
+	}
+
+	@Test
+	public void when_window_is_full__then_oldest_samples_are_discarded() {
+		for (int i = 0; i < 10; i++) {
+			this.baseTimeout.viewCompleted(5000L);
+		}
+		for (int i = 0; i < 10; i++) {
+			this.baseTimeout.viewCompleted(800L);
+		}
+		assertThat(this.baseTimeout.nextEpoch()).isEqualTo(1200L);
+	}
+
+	@Test
+	public void when_creating_with_invalid_bounds__then_exception_is_thrown() {
+		assertThatThrownBy(() -> new AdaptiveBaseTimeout(1000L, 0L, 10_000L, 0.9, 1.5, 2.0, 10, 5))
+			.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new AdaptiveBaseTimeout(1000L, 2000L, 10_000L, 0.9, 1.5, 2.0, 10, 5))
+			.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new AdaptiveBaseTimeout(1000L, 100L, 10_000L, 0.9, 1.5, 2.0, 10, 11))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -283,6 +283,26 @@ public class ExponentialTimeoutPacemakerTest {
 		assertThat(this.pacemaker.highestCommitView()).isEqualTo(view);
 	}
 
+	@Test
+	public void when_processing_qc_for_current_view__then_view_latency_is_reported_to_base_timeout() {
+		PacemakerBaseTimeout baseTimeout = mock(PacemakerBaseTimeout.class);
+		when(baseTimeout.baseTimeoutMillis()).thenReturn(this.timeout);
+		when(baseTimeout.maxBaseTimeoutMillis()).thenReturn(this.timeout);
+		AtomicLong time = new AtomicLong(1000L);
+		ExponentialTimeoutPacemaker adaptivePacemaker = new ExponentialTimeoutPacemaker(
+			baseTimeout, this.rate, this.maxExponent, time::get, this.proceedToViewSender, this.timeoutSender, this.infoSender
+		);
+		adaptivePacemaker.processNextView(View.of(0));
+		time.addAndGet(150L);
+
+		QuorumCertificate qc = mock(QuorumCertificate.class);
+		when(qc.getView()).thenReturn(View.of(1));
+		adaptivePacemaker.processQC(qc, qc);
+
+		verify(baseTimeout, times(1)).viewCompleted(eq(150L));
+		assertThat(adaptivePacemaker.getCurrentView()).isEqualTo(View.of(2));
+	}
+
 	@Test
 	public void when_backoff_pow2_0__then_two_pacemakers_can_sync() {
 		assertTrue(testSyncAtRate(2.0, Integer.MAX_VALUE, 1L << 32, View.of(33)));
@@ -45,7 +45,20 @@ public class PendingNewViewsTest {
 
 	@Before
 	public void setup() {
-		this.pendingNewViews = new PendingNewViews();
+		PacemakerState pacemakerState = mock(PacemakerState.class);
+		when(pacemakerState.getCurrentView()).thenReturn(View.genesis());
+		this.pendingNewViews = new PendingNewViews(pacemakerState, 2);
+	}
+
+	@Test
+	public void when_inserting_newview_outside_of_view_window__then_it_is_ignored() {
+		NewView newView = makeSignedNewViewFor(mock(BFTNode.class), View.of(3));
+		BFTValidatorSet validatorSet = mock(BFTValidatorSet.class);
+		when(validatorSet.containsNode(any())).thenReturn(true);
+
+		assertThat(this.pendingNewViews.insertNewView(newView, validatorSet)).isNotPresent();
+		assertEquals(0, this.pendingNewViews.newViewStateSize());
+		assertEquals(0, this.pendingNewViews.previousNewViewsSize());
 	}
 
 	@Test
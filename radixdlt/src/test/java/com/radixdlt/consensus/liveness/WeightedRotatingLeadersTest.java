@@ -33,8 +33,11 @@ import com.radixdlt.consensus.bft.BFTValidatorSet;
 import com.radixdlt.crypto.ECPublicKey;
 import com.radixdlt.utils.UInt256;
 import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import org.junit.Test;
@@ -143,4 +146,28 @@ public class WeightedRotatingLeadersTest {
 		assertThat(proposerCounts).isEqualTo(expected);
 	}
 
+	@Test
+	public void when_get_proposer_for_random_views__then_should_return_same_result_as_in_order() {
+		final Random random = new Random(12345);
+		final int viewsToTest = 5000;
+		this.validatorsInOrder = Stream.generate(() -> mock(BFTNode.class))
+			.limit(7)
+			.map(node -> BFTValidator.from(node, UInt256.from(1 + random.nextInt(20))))
+			.collect(ImmutableList.toImmutableList());
+		BFTValidatorSet validatorSet = BFTValidatorSet.from(validatorsInOrder);
+		Comparator<BFTValidator> comparator = Comparator.comparingInt(validatorsInOrder::indexOf);
+
+		this.weightedRotatingLeaders = new WeightedRotatingLeaders(validatorSet, comparator, 16, Runnable::run);
+		List<BFTNode> inOrder = Stream.iterate(View.of(0), View::next)
+			.limit(viewsToTest)
+			.map(this.weightedRotatingLeaders::getProposer)
+			.collect(Collectors.toList());
+
+		this.weightedRotatingLeaders2 = new WeightedRotatingLeaders(validatorSet, comparator, 16, Runnable::run);
+		for (int i = 0; i < 1000; i++) {
+			int view = random.nextInt(viewsToTest);
+			assertThat(weightedRotatingLeaders2.getProposer(View.of(view))).isEqualTo(inOrder.get(view));
+		}
+	}
+
 }
\ No newline at end of file
@@ -28,12 +28,16 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.google.common.collect.ImmutableMap;
 import com.radixdlt.consensus.BFTHeader;
 import com.radixdlt.consensus.LedgerHeader;
 import com.radixdlt.consensus.QuorumCertificate;
+import com.radixdlt.consensus.TimestampedECDSASignature;
+import com.radixdlt.consensus.TimestampedECDSASignatures;
 import com.radixdlt.consensus.VerifiedLedgerHeaderAndProof;
 import com.radixdlt.consensus.bft.BFTNode;
 import com.radixdlt.consensus.bft.BFTSyncer.SyncResult;
+import com.radixdlt.consensus.bft.BFTUpdate;
 import com.radixdlt.consensus.bft.VerifiedVertex;
 import com.radixdlt.consensus.bft.VertexStore;
 import com.radixdlt.consensus.bft.View;
@@ -47,6 +51,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -58,6 +63,8 @@ public class BFTSyncTest {
 	private SyncVerticesRequestSender syncVerticesRequestSender;
 	private SyncLedgerRequestSender syncLedgerRequestSender;
 	private VerifiedLedgerHeaderAndProof verifiedLedgerHeaderAndProof;
+	private BFTNode self;
+	private AtomicLong time;
 
 	@Before
 	public void setup() {
@@ -67,13 +74,17 @@ public class BFTSyncTest {
 		this.syncVerticesRequestSender = mock(SyncVerticesRequestSender.class);
 		this.syncLedgerRequestSender = mock(SyncLedgerRequestSender.class);
 		this.verifiedLedgerHeaderAndProof = mock(VerifiedLedgerHeaderAndProof.class);
+		this.self = mock(BFTNode.class);
+		this.time = new AtomicLong(0L);
 
 		bftSync = new BFTSync(
+			self,
 			vertexStore,
 			pacemaker,
 			ledgerHeaderComparator,
 			syncVerticesRequestSender,
 			syncLedgerRequestSender,
+			time::get,
 			verifiedLedgerHeaderAndProof
 		);
 	}
@@ -89,6 +100,7 @@ public class BFTSyncTest {
 		BFTHeader header = mock(BFTHeader.class);
 		when(header.getView()).thenReturn(View.of(1));
 		when(qc.getProposed()).thenReturn(header);
+		when(qc.getTimestampedSignatures()).thenReturn(new TimestampedECDSASignatures());
 		when(vertexStore.addQC(eq(qc))).thenReturn(true);
 
 		assertThat(bftSync.syncToQC(qc, vertexStore.getHighestCommittedQC(), null)).isEqualTo(SyncResult.SYNCED);
@@ -104,6 +116,7 @@ public class BFTSyncTest {
 		BFTHeader header = mock(BFTHeader.class);
 		when(header.getView()).thenReturn(View.of(1));
 		when(qc.getProposed()).thenReturn(header);
+		when(qc.getTimestampedSignatures()).thenReturn(new TimestampedECDSASignatures());
 		when(vertexStore.addQC(eq(qc))).thenReturn(false);
 
 		assertThatThrownBy(() -> bftSync.syncToQC(qc, vertexStore.getHighestCommittedQC(), null))
@@ -154,6 +167,7 @@ public class BFTSyncTest {
 		when(header.getView()).thenReturn(View.of(2));
 		QuorumCertificate qc = mock(QuorumCertificate.class);
 		when(qc.getProposed()).thenReturn(header);
+		when(qc.getTimestampedSignatures()).thenReturn(new TimestampedECDSASignatures());
 		when(qc.getView()).thenReturn(View.of(2));
 		QuorumCertificate committedQC = mock(QuorumCertificate.class);
 		BFTHeader committedHeader = mock(BFTHeader.class);
@@ -182,6 +196,7 @@ public class BFTSyncTest {
 		when(header.getView()).thenReturn(View.of(2));
 		QuorumCertificate qc = mock(QuorumCertificate.class);
 		when(qc.getProposed()).thenReturn(header);
+		when(qc.getTimestampedSignatures()).thenReturn(new TimestampedECDSASignatures());
 		when(qc.getView()).thenReturn(View.of(2));
 		QuorumCertificate committedQC = mock(QuorumCertificate.class);
 		BFTHeader committedHeader = mock(BFTHeader.class);
@@ -207,6 +222,7 @@ public class BFTSyncTest {
 		when(header.getView()).thenReturn(View.of(3));
 		QuorumCertificate qc = mock(QuorumCertificate.class);
 		when(qc.getProposed()).thenReturn(header);
+		when(qc.getTimestampedSignatures()).thenReturn(new TimestampedECDSASignatures());
 		when(qc.getView()).thenReturn(View.of(3));
 		QuorumCertificate committedQC = mock(QuorumCertificate.class);
 		BFTHeader committedHeader = mock(BFTHeader.class);
@@ -232,6 +248,7 @@ public class BFTSyncTest {
 		when(header.getView()).thenReturn(View.of(5));
 		QuorumCertificate qc = mock(QuorumCertificate.class);
 		when(qc.getProposed()).thenReturn(header);
+		when(qc.getTimestampedSignatures()).thenReturn(new TimestampedECDSASignatures());
 		when(qc.getView()).thenReturn(View.of(5));
 		QuorumCertificate committedQC = mock(QuorumCertificate.class);
 		BFTHeader committedHeader = mock(BFTHeader.class);
@@ -260,6 +277,7 @@ public class BFTSyncTest {
 		when(header.getView()).thenReturn(View.of(5));
 		QuorumCertificate qc = mock(QuorumCertificate.class);
 		when(qc.getProposed()).thenReturn(header);
+		when(qc.getTimestampedSignatures()).thenReturn(new TimestampedECDSASignatures());
 		when(qc.getView()).thenReturn(View.of(5));
 		QuorumCertificate committedQC = mock(QuorumCertificate.class);
 		BFTHeader committedHeader = mock(BFTHeader.class);
@@ -301,6 +319,7 @@ public class BFTSyncTest {
 		when(header.getView()).thenReturn(View.of(5));
 		QuorumCertificate qc = mock(QuorumCertificate.class);
 		when(qc.getProposed()).thenReturn(header);
+		when(qc.getTimestampedSignatures()).thenReturn(new TimestampedECDSASignatures());
 		when(qc.getView()).thenReturn(View.of(5));
 		QuorumCertificate committedQC = mock(QuorumCertificate.class);
 		BFTHeader committedHeader = mock(BFTHeader.class);
@@ -345,6 +364,7 @@ public class BFTSyncTest {
 		when(header.getView()).thenReturn(View.of(2));
 		QuorumCertificate qc = mock(QuorumCertificate.class);
 		when(qc.getProposed()).thenReturn(header);
+		when(qc.getTimestampedSignatures()).thenReturn(new TimestampedECDSASignatures());
 		when(qc.getView()).thenReturn(View.of(2));
 		QuorumCertificate committedQC = mock(QuorumCertificate.class);
 		BFTHeader committedHeader = mock(BFTHeader.class);
@@ -375,6 +395,7 @@ public class BFTSyncTest {
 		when(header.getView()).thenReturn(View.of(2));
 		QuorumCertificate qc = mock(QuorumCertificate.class);
 		when(qc.getProposed()).thenReturn(header);
+		when(qc.getTimestampedSignatures()).thenReturn(new TimestampedECDSASignatures());
 		when(qc.getView()).thenReturn(View.of(2));
 		QuorumCertificate committedQC = mock(QuorumCertificate.class);
 		BFTHeader committedHeader = mock(BFTHeader.class);
@@ -398,4 +419,179 @@ public class BFTSyncTest {
 
 		verify(vertexStore, times(1)).insertVertex(eq(vertex));
 	}
-}
\ No newline at end of file
+
+	private QuorumCertificate qcRequiringQCSync(Hash vertexId, ImmutableMap<BFTNode, TimestampedECDSASignature> signatures) {
+		VerifiedVertex rootVertex = mock(VerifiedVertex.class);
+		when(rootVertex.getView()).thenReturn(View.of(1));
+		when(vertexStore.getRoot()).thenReturn(rootVertex);
+		when(vertexStore.addQC(any())).thenReturn(false);
+		BFTHeader header = mock(BFTHeader.class);
+		when(header.getVertexId()).thenReturn(vertexId);
+		when(header.getView()).thenReturn(View.of(2));
+		QuorumCertificate qc = mock(QuorumCertificate.class);
+		when(qc.getProposed()).thenReturn(header);
+		when(qc.getView()).thenReturn(View.of(2));
+		when(qc.getTimestampedSignatures()).thenReturn(new TimestampedECDSASignatures(signatures));
+		return qc;
+	}
+
+	private QuorumCertificate committedQC() {
+		QuorumCertificate committedQC = mock(QuorumCertificate.class);
+		BFTHeader committedHeader = mock(BFTHeader.class);
+		when(committedHeader.getView()).thenReturn(View.of(1));
+		when(committedQC.getCommittedAndLedgerStateProof())
+			.thenReturn(Optional.of(Pair.of(committedHeader, mock(VerifiedLedgerHeaderAndProof.class))));
+		return committedQC;
+	}
+
+	@Test
+	public void when_sync_to_qc__then_request_is_sent_to_author_and_signers_in_parallel_but_not_self() {
+		BFTNode author = mock(BFTNode.class);
+		BFTNode signer0 = mock(BFTNode.class);
+		BFTNode signer1 = mock(BFTNode.class);
+		BFTNode signer2 = mock(BFTNode.class);
+		Hash vertexId = mock(Hash.class);
+		QuorumCertificate qc = qcRequiringQCSync(vertexId, ImmutableMap.of(
+			self, mock(TimestampedECDSASignature.class),
+			signer0, mock(TimestampedECDSASignature.class),
+			signer1, mock(TimestampedECDSASignature.class),
+			signer2, mock(TimestampedECDSASignature.class)
+		));
+
+		bftSync.syncToQC(qc, committedQC(), author);
+
+		verify(syncVerticesRequestSender, times(1)).sendGetVerticesRequest(eq(author), eq(vertexId), eq(1));
+		verify(syncVerticesRequestSender, times(1)).sendGetVerticesRequest(eq(signer0), eq(vertexId), eq(1));
+		verify(syncVerticesRequestSender, times(1)).sendGetVerticesRequest(eq(signer1), eq(vertexId), eq(1));
+		verify(syncVerticesRequestSender, never()).sendGetVerticesRequest(eq(signer2), any(), anyInt());
+		verify(syncVerticesRequestSender, never()).sendGetVerticesRequest(eq(self), any(), anyInt());
+	}
+
+	@Test
+	public void when_peers_time_out__then_request_is_sent_to_next_peer() {
+		BFTNode author = mock(BFTNode.class);
+		BFTNode signer0 = mock(BFTNode.class);
+		BFTNode signer1 = mock(BFTNode.class);
+		BFTNode signer2 = mock(BFTNode.class);
+		Hash vertexId = mock(Hash.class);
+		QuorumCertificate qc = qcRequiringQCSync(vertexId, ImmutableMap.of(
+			signer0, mock(TimestampedECDSASignature.class),
+			signer1, mock(TimestampedECDSASignature.class),
+			signer2, mock(TimestampedECDSASignature.class)
+		));
+		bftSync.syncToQC(qc, committedQC(), author);
+		verify(syncVerticesRequestSender, never()).sendGetVerticesRequest(eq(signer2), any(), anyInt());
+
+		time.addAndGet(10_000L);
+		bftSync.processBFTUpdate(mock(BFTUpdate.class));
+
+		verify(syncVerticesRequestSender, times(1)).sendGetVerticesRequest(eq(signer2), eq(vertexId), eq(1));
+	}
+
+	@Test
+	public void when_no_peer_responds__then_request_is_dropped_after_max_rounds() {
+		BFTNode author = mock(BFTNode.class);
+		Hash vertexId = mock(Hash.class);
+		QuorumCertificate qc = qcRequiringQCSync(vertexId, ImmutableMap.of());
+		bftSync.syncToQC(qc, committedQC(), author);
+
+		for (int i = 0; i < 10; i++) {
+			time.addAndGet(10_000L);
+			bftSync.processSyncTimeouts();
+		}
+
+		verify(syncVerticesRequestSender, times(3)).sendGetVerticesRequest(eq(author), eq(vertexId), eq(1));
+		// Sync was dropped too, so it can be started again
+		assertThat(bftSync.syncToQC(qc, committedQC(), author)).isEqualTo(SyncResult.IN_PROGRESS);
+		verify(syncVerticesRequestSender, times(4)).sendGetVerticesRequest(eq(author), eq(vertexId), eq(1));
+	}
+
+	@Test
+	public void when_peer_responds_with_error__then_request_is_sent_to_next_peer_immediately() {
+		BFTNode author = mock(BFTNode.class);
+		BFTNode signer0 = mock(BFTNode.class);
+		BFTNode signer1 = mock(BFTNode.class);
+		BFTNode signer2 = mock(BFTNode.class);
+		Hash vertexId = mock(Hash.class);
+		QuorumCertificate qc = qcRequiringQCSync(vertexId, ImmutableMap.of(
+			signer0, mock(TimestampedECDSASignature.class),
+			signer1, mock(TimestampedECDSASignature.class),
+			signer2, mock(TimestampedECDSASignature.class)
+		));
+		bftSync.syncToQC(qc, committedQC(), author);
+		QuorumCertificate highestQC = mock(QuorumCertificate.class);
+		BFTHeader highestHeader = mock(BFTHeader.class);
+		when(highestHeader.getView()).thenReturn(View.of(3));
+		when(highestQC.getProposed()).thenReturn(highestHeader);
+		when(vertexStore.addQC(eq(highestQC))).thenReturn(true);
+
+		bftSync.processGetVerticesErrorResponse(new GetVerticesErrorResponse(signer0, highestQC, committedQC()));
+
+		verify(syncVerticesRequestSender, times(1)).sendGetVerticesRequest(eq(signer2), eq(vertexId), eq(1));
+		verify(syncVerticesRequestSender, times(4)).sendGetVerticesRequest(any(), any(), anyInt());
+	}
+
+	@Test
+	public void when_every_candidate_responds_with_error__then_request_is_not_retried() {
+		BFTNode author = mock(BFTNode.class);
+		Hash vertexId = mock(Hash.class);
+		QuorumCertificate qc = qcRequiringQCSync(vertexId, ImmutableMap.of());
+		bftSync.syncToQC(qc, committedQC(), author);
+		QuorumCertificate highestQC = mock(QuorumCertificate.class);
+		BFTHeader highestHeader = mock(BFTHeader.class);
+		when(highestHeader.getView()).thenReturn(View.of(3));
+		when(highestQC.getProposed()).thenReturn(highestHeader);
+		when(vertexStore.addQC(eq(highestQC))).thenReturn(true);
+
+		bftSync.processGetVerticesErrorResponse(new GetVerticesErrorResponse(author, highestQC, committedQC()));
+		time.addAndGet(10_000L);
+		bftSync.processSyncTimeouts();
+
+		verify(syncVerticesRequestSender, times(1)).sendGetVerticesRequest(any(), any(), anyInt());
+	}
+
+	@Test
+	public void when_receiving_duplicate_responses__then_only_first_is_processed() {
+		BFTNode author = mock(BFTNode.class);
+		BFTNode signer = mock(BFTNode.class);
+		Hash vertexId = mock(Hash.class);
+		QuorumCertificate qc = qcRequiringQCSync(vertexId, ImmutableMap.of(signer, mock(TimestampedECDSASignature.class)));
+		bftSync.syncToQC(qc, committedQC(), author);
+		Hash parentId = mock(Hash.class);
+		when(vertexStore.containsVertex(eq(parentId))).thenReturn(true);
+
+		VerifiedVertex vertex = mock(VerifiedVertex.class);
+		when(vertex.getParentId()).thenReturn(parentId);
+		when(vertex.getId()).thenReturn(vertexId);
+		when(vertexStore.addQC(any())).thenReturn(true);
+		bftSync.processGetVerticesResponse(new GetVerticesResponse(signer, Collections.singletonList(vertex)));
+		bftSync.processGetVerticesResponse(new GetVerticesResponse(author, Collections.singletonList(vertex)));
+
+		verify(vertexStore, times(1)).insertVertex(eq(vertex));
+	}
+
+	@Test
+	public void given_a_sync_in_progress__when_another_sync_needs_same_vertex__then_no_new_request_is_sent() {
+		BFTNode author = mock(BFTNode.class);
+		Hash vertexId = mock(Hash.class);
+		QuorumCertificate qc = qcRequiringQCSync(vertexId, ImmutableMap.of());
+		bftSync.syncToQC(qc, committedQC(), author);
+
+		Hash parentId = mock(Hash.class);
+		VerifiedVertex vertex = mock(VerifiedVertex.class);
+		when(vertex.getParentId()).thenReturn(parentId);
+		when(vertex.getId()).thenReturn(vertexId);
+		bftSync.processGetVerticesResponse(new GetVerticesResponse(author, Collections.singletonList(vertex)));
+		verify(syncVerticesRequestSender, times(1)).sendGetVerticesRequest(eq(author), eq(parentId), eq(1));
+
+		Hash otherVertexId = mock(Hash.class);
+		QuorumCertificate otherQC = qcRequiringQCSync(otherVertexId, ImmutableMap.of());
+		bftSync.syncToQC(otherQC, committedQC(), author);
+		VerifiedVertex otherVertex = mock(VerifiedVertex.class);
+		when(otherVertex.getParentId()).thenReturn(parentId);
+		when(otherVertex.getId()).thenReturn(otherVertexId);
+		bftSync.processGetVerticesResponse(new GetVerticesResponse(author, Collections.singletonList(otherVertex)));
+
+		verify(syncVerticesRequestSender, times(1)).sendGetVerticesRequest(eq(author), eq(parentId), eq(1));
+	}
+}
@@ -17,7 +17,9 @@
 
 package com.radixdlt.epochs;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -27,13 +29,20 @@ import static org.mockito.Mockito.when;
 
 import com.google.common.collect.ImmutableList;
 import com.radixdlt.consensus.BFTConfiguration;
+import com.radixdlt.consensus.BFTHeader;
+import com.radixdlt.consensus.TimestampedECDSASignatures;
 import com.radixdlt.consensus.VerifiedLedgerHeaderAndProof;
 import com.radixdlt.consensus.bft.BFTNode;
+import com.radixdlt.consensus.bft.BFTValidatorSet;
+import com.radixdlt.consensus.bft.ValidationState;
 import com.radixdlt.consensus.epoch.EpochChange;
+import com.radixdlt.crypto.Hash;
 import com.radixdlt.ledger.AccumulatorState;
+import com.radixdlt.ledger.DtoLedgerHeaderAndProof;
 import com.radixdlt.sync.LocalSyncRequest;
 import com.radixdlt.sync.LocalSyncServiceAccumulatorProcessor;
 import com.radixdlt.sync.LocalSyncServiceAccumulatorProcessor.SyncInProgress;
+import com.radixdlt.sync.RemoteSyncResponse;
 import com.radixdlt.sync.StateSyncNetwork;
 import com.radixdlt.utils.TypedMocks;
 
@@ -41,6 +50,7 @@ import java.util.Optional;
 import java.util.function.Function;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
 public class EpochsLocalSyncServiceProcessorTest {
 	private EpochsLocalSyncServiceProcessor processor;
@@ -88,7 +98,7 @@ public class EpochsLocalSyncServiceProcessorTest {
 		when(request.getTarget()).thenReturn(header);
 		processor.processLocalSyncRequest(request);
 
-		verify(stateSyncNetwork, never()).sendSyncRequest(any(), any());
+		verify(stateSyncNetwork, never()).sendSyncRequest(any(), any(), anyInt());
 		verify(syncedEpochSender, never()).sendSyncedEpoch(any());
 		verify(initialProcessor, times(1)).processLocalSyncRequest(eq(request));
 	}
@@ -105,7 +115,7 @@ public class EpochsLocalSyncServiceProcessorTest {
 		when(request.getTarget()).thenReturn(header);
 		processor.processLocalSyncRequest(request);
 
-		verify(stateSyncNetwork, times(1)).sendSyncRequest(any(), any());
+		verify(stateSyncNetwork, times(1)).sendSyncRequest(any(), any(), anyInt());
 		verify(syncedEpochSender, never()).sendSyncedEpoch(any());
 		verify(initialProcessor, never()).processLocalSyncRequest(any());
 	}
@@ -137,7 +147,7 @@ public class EpochsLocalSyncServiceProcessorTest {
 		when(request.getTarget()).thenReturn(header);
 		processor.processLocalSyncRequest(request);
 
-		verify(stateSyncNetwork, never()).sendSyncRequest(any(), any());
+		verify(stateSyncNetwork, never()).sendSyncRequest(any(), any(), anyInt());
 		verify(syncedEpochSender, never()).sendSyncedEpoch(any());
 		verify(initialProcessor, never()).processLocalSyncRequest(any());
 		verify(localSyncProcessor, never()).processLocalSyncRequest(any());
@@ -165,9 +175,96 @@ public class EpochsLocalSyncServiceProcessorTest {
 		when(request.getTarget()).thenReturn(header);
 		processor.processLocalSyncRequest(request);
 
-		verify(stateSyncNetwork, never()).sendSyncRequest(any(), any());
+		verify(stateSyncNetwork, never()).sendSyncRequest(any(), any(), anyInt());
 		verify(syncedEpochSender, never()).sendSyncedEpoch(any());
 		verify(initialProcessor, times(1)).processLocalSyncRequest(any());
 		verify(localSyncProcessor, never()).processLocalSyncRequest(any());
 	}
+
+	private static LocalSyncRequest endOfEpochRequest(long epoch, BFTNode node) {
+		DtoLedgerHeaderAndProof dto = mock(DtoLedgerHeaderAndProof.class);
+		when(dto.getOpaque0()).thenReturn(mock(BFTHeader.class));
+		when(dto.getOpaque1()).thenReturn(mock(BFTHeader.class));
+		when(dto.getOpaque3()).thenReturn(mock(Hash.class));
+		when(dto.getSignatures()).thenReturn(mock(TimestampedECDSASignatures.class));
+		VerifiedLedgerHeaderAndProof header = mock(VerifiedLedgerHeaderAndProof.class);
+		when(header.getEpoch()).thenReturn(epoch);
+		when(header.isEndOfEpoch()).thenReturn(true);
+		when(header.getAccumulatorState()).thenReturn(mock(AccumulatorState.class));
+		when(header.getSignatures()).thenReturn(mock(TimestampedECDSASignatures.class));
+		when(header.toDto()).thenReturn(dto);
+		return new LocalSyncRequest(header, ImmutableList.of(node));
+	}
+
+	private LocalSyncServiceAccumulatorProcessor changeToEpoch2(boolean quorum) {
+		LocalSyncServiceAccumulatorProcessor localSyncProcessor = mock(LocalSyncServiceAccumulatorProcessor.class);
+		when(localSyncFactory.apply(any())).thenReturn(localSyncProcessor);
+		ValidationState validationState = mock(ValidationState.class);
+		when(validationState.complete()).thenReturn(quorum);
+		BFTValidatorSet validatorSet = mock(BFTValidatorSet.class);
+		when(validatorSet.newValidationState()).thenReturn(validationState);
+		BFTConfiguration configuration = mock(BFTConfiguration.class);
+		when(configuration.getValidatorSet()).thenReturn(validatorSet);
+		VerifiedLedgerHeaderAndProof genesisHeader = mock(VerifiedLedgerHeaderAndProof.class);
+		when(genesisHeader.getAccumulatorState()).thenReturn(mock(AccumulatorState.class));
+		when(configuration.getGenesisHeader()).thenReturn(genesisHeader);
+		EpochChange epochChange = mock(EpochChange.class);
+		when(epochChange.getEpoch()).thenReturn(2L);
+		when(epochChange.getProof()).thenReturn(mock(VerifiedLedgerHeaderAndProof.class));
+		when(epochChange.getBFTConfiguration()).thenReturn(configuration);
+		EpochsLedgerUpdate ledgerUpdate = mock(EpochsLedgerUpdate.class);
+		when(ledgerUpdate.getEpochChange()).thenReturn(Optional.of(epochChange));
+		processor.processLedgerUpdate(ledgerUpdate);
+		return localSyncProcessor;
+	}
+
+	@Test
+	public void given_current_epoch_1__and_end_of_epoch_1_and_2_requests__then_should_prefetch_epoch_2_without_epoch_sync() {
+		when(initialEpoch.getEpoch()).thenReturn(1L);
+		BFTNode node = mock(BFTNode.class);
+
+		processor.processLocalSyncRequest(endOfEpochRequest(1L, node));
+		processor.processLocalSyncRequest(endOfEpochRequest(2L, node));
+
+		ArgumentCaptor<DtoLedgerHeaderAndProof> start = ArgumentCaptor.forClass(DtoLedgerHeaderAndProof.class);
+		verify(stateSyncNetwork, times(1)).sendSyncRequest(eq(node), start.capture(), anyInt());
+		assertThat(start.getValue().getLedgerHeader().getEpoch()).isEqualTo(2L);
+		assertThat(start.getValue().getLedgerHeader().isEndOfEpoch()).isFalse();
+		verify(initialEpoch, never()).getProof();
+	}
+
+	@Test
+	public void given_end_of_epoch_2_request__when_epoch_change_to_2__then_should_sync_to_it_without_epoch_sync() {
+		when(initialEpoch.getEpoch()).thenReturn(1L);
+		LocalSyncRequest request = endOfEpochRequest(2L, mock(BFTNode.class));
+		processor.processLocalSyncRequest(request);
+
+		LocalSyncServiceAccumulatorProcessor localSyncProcessor = changeToEpoch2(true);
+
+		verify(localSyncProcessor, times(1)).processLocalSyncRequest(eq(request));
+		verify(stateSyncNetwork, never()).sendSyncRequest(any(), any(), anyInt());
+	}
+
+	@Test
+	public void given_end_of_epoch_2_request_without_quorum__when_epoch_change_to_2__then_should_send_epoch_sync_request() {
+		when(initialEpoch.getEpoch()).thenReturn(1L);
+		BFTNode node = mock(BFTNode.class);
+		processor.processLocalSyncRequest(endOfEpochRequest(2L, mock(BFTNode.class)));
+		VerifiedLedgerHeaderAndProof header = mock(VerifiedLedgerHeaderAndProof.class);
+		when(header.getEpoch()).thenReturn(3L);
+		processor.processLocalSyncRequest(new LocalSyncRequest(header, ImmutableList.of(node)));
+		verify(stateSyncNetwork, never()).sendSyncRequest(any(), any(), anyInt());
+
+		LocalSyncServiceAccumulatorProcessor localSyncProcessor = changeToEpoch2(false);
+
+		verify(localSyncProcessor, never()).processLocalSyncRequest(any());
+		verify(stateSyncNetwork, times(1)).sendSyncRequest(eq(node), any(), eq(0));
+	}
+
+	@Test
+	public void when_verified_sync_response__then_should_forward_to_current_processor() {
+		RemoteSyncResponse syncResponse = mock(RemoteSyncResponse.class);
+		processor.processVerifiedSyncResponse(syncResponse);
+		verify(initialProcessor, times(1)).processVerifiedSyncResponse(eq(syncResponse));
+	}
 }
\ No newline at end of file
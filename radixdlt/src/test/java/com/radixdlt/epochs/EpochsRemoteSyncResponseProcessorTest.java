@@ -18,12 +18,14 @@
 package com.radixdlt.epochs;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.google.common.collect.ImmutableList;
 import com.radixdlt.consensus.BFTConfiguration;
 import com.radixdlt.consensus.BFTHeader;
 import com.radixdlt.consensus.LedgerHeader;
@@ -159,6 +161,7 @@ public class EpochsRemoteSyncResponseProcessorTest {
 		when(head.getLedgerHeader()).thenReturn(headHeader);
 		when(dtoCommandsAndProof.getHead()).thenReturn(head);
 		when(dtoCommandsAndProof.getTail()).thenReturn(tail);
+		when(dtoCommandsAndProof.getEpochProofs()).thenReturn(ImmutableList.of());
 		when(response.getCommandsAndProof()).thenReturn(dtoCommandsAndProof);
 		when(response.getSender()).thenReturn(mock(BFTNode.class));
 		this.responseProcessor.processSyncResponse(response);
@@ -167,4 +170,77 @@ public class EpochsRemoteSyncResponseProcessorTest {
 		verify(initialVerifier, never()).processSyncResponse(any());
 		verify(verifierFactory, never()).apply(any());
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void given_epoch_is_1__when_process_response_with_epoch_2_and_epoch_change__then_should_verify_it_with_next_verifier() {
+		when(initialEpoch.getEpoch()).thenReturn(1L);
+		RemoteSyncResponseValidatorSetVerifier nextValidatorSetVerifier = mock(RemoteSyncResponseValidatorSetVerifier.class);
+		when(verifierFactory.apply(any())).thenReturn(nextValidatorSetVerifier);
+
+		RemoteSyncResponse response = mock(RemoteSyncResponse.class);
+		DtoCommandsAndProof dtoCommandsAndProof = mock(DtoCommandsAndProof.class);
+		DtoLedgerHeaderAndProof tail = mock(DtoLedgerHeaderAndProof.class);
+		LedgerHeader ledgerHeader = mock(LedgerHeader.class);
+		when(ledgerHeader.getEpoch()).thenReturn(2L);
+		when(tail.getLedgerHeader()).thenReturn(ledgerHeader);
+		DtoLedgerHeaderAndProof head = mock(DtoLedgerHeaderAndProof.class);
+		when(head.getLedgerHeader()).thenReturn(mock(LedgerHeader.class));
+		when(dtoCommandsAndProof.getHead()).thenReturn(head);
+		when(dtoCommandsAndProof.getTail()).thenReturn(tail);
+		when(response.getCommandsAndProof()).thenReturn(dtoCommandsAndProof);
+		this.responseProcessor.processSyncResponse(response);
+
+		EpochsLedgerUpdate update = mock(EpochsLedgerUpdate.class);
+		EpochChange epochChange = mock(EpochChange.class);
+		when(epochChange.getEpoch()).thenReturn(2L);
+		when(epochChange.getProof()).thenReturn(mock(VerifiedLedgerHeaderAndProof.class));
+		when(epochChange.getBFTConfiguration()).thenReturn(mock(BFTConfiguration.class));
+		when(update.getEpochChange()).thenReturn(Optional.of(epochChange));
+		this.responseProcessor.processLedgerUpdate(update);
+
+		verify(initialVerifier, never()).processSyncResponse(any());
+		verify(nextValidatorSetVerifier, times(1)).processSyncResponse(eq(response));
+	}
+
+	private static DtoLedgerHeaderAndProof endOfEpoch(long epoch, long stateVersion) {
+		AccumulatorState accumulatorState = mock(AccumulatorState.class);
+		when(accumulatorState.getStateVersion()).thenReturn(stateVersion);
+		LedgerHeader ledgerHeader = mock(LedgerHeader.class);
+		when(ledgerHeader.getEpoch()).thenReturn(epoch);
+		when(ledgerHeader.isEndOfEpoch()).thenReturn(true);
+		when(ledgerHeader.getAccumulatorState()).thenReturn(accumulatorState);
+		DtoLedgerHeaderAndProof header = mock(DtoLedgerHeaderAndProof.class);
+		when(header.getOpaque0()).thenReturn(mock(BFTHeader.class));
+		when(header.getOpaque1()).thenReturn(mock(BFTHeader.class));
+		when(header.getOpaque3()).thenReturn(mock(Hash.class));
+		when(header.getSignatures()).thenReturn(mock(TimestampedECDSASignatures.class));
+		when(header.getLedgerHeader()).thenReturn(ledgerHeader);
+		return header;
+	}
+
+	@Test
+	public void given_epoch_is_1__when_process_epoch_sync_response_with_epoch_proofs__then_should_send_local_sync_request_for_each() {
+		LedgerHeader headHeader = mock(LedgerHeader.class);
+		when(initialEpoch.getEpoch()).thenReturn(1L);
+		VerifiedLedgerHeaderAndProof verifiedLedgerHeaderAndProof = mock(VerifiedLedgerHeaderAndProof.class);
+		when(verifiedLedgerHeaderAndProof.getRaw()).thenReturn(headHeader);
+		when(initialEpoch.getProof()).thenReturn(verifiedLedgerHeaderAndProof);
+
+		RemoteSyncResponse response = mock(RemoteSyncResponse.class);
+		DtoCommandsAndProof dtoCommandsAndProof = mock(DtoCommandsAndProof.class);
+		DtoLedgerHeaderAndProof head = mock(DtoLedgerHeaderAndProof.class);
+		when(head.getLedgerHeader()).thenReturn(headHeader);
+		when(dtoCommandsAndProof.getHead()).thenReturn(head);
+		when(dtoCommandsAndProof.getTail()).thenReturn(endOfEpoch(1L, 10L));
+		// The proof of epoch 4 does not follow on from epoch 2 so it and any after it are dropped
+		when(dtoCommandsAndProof.getEpochProofs()).thenReturn(ImmutableList.of(
+			endOfEpoch(2L, 20L), endOfEpoch(4L, 40L), endOfEpoch(5L, 50L)
+		));
+		when(response.getCommandsAndProof()).thenReturn(dtoCommandsAndProof);
+		when(response.getSender()).thenReturn(mock(BFTNode.class));
+		this.responseProcessor.processSyncResponse(response);
+
+		verify(localSyncRequestSender, times(2)).sendLocalSyncRequest(any());
+		verify(initialVerifier, never()).processSyncResponse(any());
+	}
+}
@@ -0,0 +1,173 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.ledger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.Longs;
+import com.radixdlt.consensus.Command;
+import com.radixdlt.consensus.Hasher;
+import com.radixdlt.crypto.Hash;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MerkleLedgerAccumulatorAndVerifierTest {
+	private MerkleLedgerAccumulatorAndVerifier accumulatorAndVerifier;
+	private AccumulatorState genesis;
+
+	@Before
+	public void setup() {
+		Hasher hasher = new Hasher() {
+			@Override
+			public Hash hash(Object o) {
+				throw new UnsupportedOperationException();
+			}
+
+			@Override
+			public Hash hashBytes(byte[] bytes) {
+				return Hash.of(bytes);
+			}
+		};
+
+		accumulatorAndVerifier = new MerkleLedgerAccumulatorAndVerifier(hasher);
+		genesis = new AccumulatorState(0, Hash.of(new byte[] {1, 2, 3}));
+	}
+
+	private static ImmutableList<Command> commands(long from, long to) {
+		return LongStream.range(from, to)
+			.mapToObj(i -> new Command(Longs.toByteArray(i)))
+			.collect(ImmutableList.toImmutableList());
+	}
+
+	private AccumulatorState accumulateEach(AccumulatorState start, List<Command> commands) {
+		AccumulatorState state = start;
+		for (Command command : commands) {
+			state = accumulatorAndVerifier.accumulate(state, command);
+		}
+		return state;
+	}
+
+	@Test
+	public void when_accumulate__then_should_verify() {
+		Command command = new Command(new byte[] {0});
+		AccumulatorState nextState = accumulatorAndVerifier.accumulate(genesis, command);
+		assertThat(nextState.getStateVersion()).isEqualTo(1);
+		assertThat(accumulatorAndVerifier.verify(genesis, ImmutableList.of(command), nextState)).isTrue();
+	}
+
+	@Test
+	public void when_accumulate_each__then_peaks_follow_version_bits() {
+		AccumulatorState state = genesis;
+		for (Command command : commands(1, 40)) {
+			state = accumulatorAndVerifier.accumulate(state, command);
+			assertThat(state.getPeaks()).hasSize(Long.bitCount(state.getStateVersion() + 1));
+		}
+	}
+
+	@Test
+	public void when_verify_batches__then_should_match_accumulating_each_command() {
+		AccumulatorState start = accumulateEach(genesis, commands(1, 13));
+		for (int size : new int[] {0, 1, 2, 3, 7, 64, 1500}) {
+			ImmutableList<Command> batch = commands(13, 13 + size);
+			AccumulatorState end = accumulateEach(start, batch);
+			assertThat(accumulatorAndVerifier.verify(start, batch, end)).isTrue();
+		}
+	}
+
+	@Test
+	public void when_verify_with_a_different_command__then_should_fail() {
+		ImmutableList<Command> batch = commands(1, 10);
+		AccumulatorState end = accumulateEach(genesis, batch);
+		List<Command> tampered = new ArrayList<>(batch);
+		tampered.set(4, new Command(new byte[] {42}));
+
+		assertThat(accumulatorAndVerifier.verify(genesis, ImmutableList.copyOf(tampered), end)).isFalse();
+	}
+
+	@Test
+	public void when_start_has_peaks_not_matching_hash__then_verify_should_fail() {
+		AccumulatorState start = accumulateEach(genesis, commands(1, 6));
+		AccumulatorState forged = new AccumulatorState(start.getStateVersion(), start.getAccumulatorHash(), start.getPeaks().reverse());
+		ImmutableList<Command> batch = commands(6, 9);
+		AccumulatorState end = accumulateEach(start, batch);
+
+		assertThat(accumulatorAndVerifier.verify(forged, batch, end)).isFalse();
+	}
+
+	@Test
+	public void when_accumulate_from_state_without_peaks__then_should_throw() {
+		AccumulatorState state = new AccumulatorState(5, Hash.ZERO_HASH);
+		assertThatThrownBy(() -> accumulatorAndVerifier.accumulate(state, new Command(new byte[] {0})))
+			.isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	public void when_overlapping_batch__then_should_return_extension() {
+		ImmutableList<Command> batch = commands(1, 20);
+		AccumulatorState current = accumulateEach(genesis, batch.subList(0, 7));
+		AccumulatorState tail = accumulateEach(genesis, batch);
+
+		assertThat(accumulatorAndVerifier.verifyAndGetExtension(current, batch, tail))
+			.hasValue(batch.subList(7, batch.size()));
+	}
+
+	@Test
+	public void when_tail_is_behind_current__then_should_return_empty() {
+		ImmutableList<Command> batch = commands(1, 20);
+		AccumulatorState current = accumulateEach(genesis, batch);
+		AccumulatorState tail = accumulateEach(genesis, batch.subList(0, 7));
+
+		assertThat(accumulatorAndVerifier.verifyAndGetExtension(current, batch.subList(5, 7), tail))
+			.isEmpty();
+	}
+
+	@Test
+	public void when_consistency_proof__then_should_verify_compactly() {
+		AccumulatorState start = accumulateEach(genesis, commands(1, 11));
+		ImmutableList<Command> batch = commands(11, 1000);
+		AccumulatorState end = accumulateEach(start, batch);
+
+		ImmutableList<Hash> proof = accumulatorAndVerifier.consistencyProof(start, batch);
+		assertThat(proof.size()).isLessThanOrEqualTo(2 * 10);
+		assertThat(accumulatorAndVerifier.verifyConsistency(start, proof, end)).isTrue();
+		assertThat(accumulatorAndVerifier.verifyConsistency(start, proof.subList(1, proof.size()), end)).isFalse();
+		assertThat(accumulatorAndVerifier.verifyConsistency(start, proof.reverse(), end)).isFalse();
+	}
+
+	@Test
+	public void when_inclusion_proof__then_should_verify_every_command() {
+		ImmutableList<Command> batch = commands(1, 22);
+		AccumulatorState state = accumulateEach(genesis, batch);
+
+		for (int version = 1; version <= batch.size(); version++) {
+			ImmutableList<Hash> proof = accumulatorAndVerifier.inclusionProof(
+				state,
+				version,
+				v -> v == 0 ? genesis.getAccumulatorHash() : accumulatorAndVerifier.leafHash(batch.get((int) v - 1))
+			);
+			Command command = batch.get(version - 1);
+			assertThat(accumulatorAndVerifier.verifyInclusion(state, version, command, proof)).isTrue();
+			assertThat(accumulatorAndVerifier.verifyInclusion(state, version, new Command(new byte[] {42}), proof)).isFalse();
+		}
+	}
+}
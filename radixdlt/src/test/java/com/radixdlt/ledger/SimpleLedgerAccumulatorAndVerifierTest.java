@@ -79,6 +79,17 @@ public class SimpleLedgerAccumulatorAndVerifierTest {
 			.isEmpty();
 	}
 
+	@Test
+	public void when_tail_is_behind_current__then_should_return_empty() {
+		AccumulatorState curState = mock(AccumulatorState.class);
+		when(curState.getStateVersion()).thenReturn(1236L);
+		AccumulatorState tailState = mock(AccumulatorState.class);
+		when(tailState.getStateVersion()).thenReturn(1235L);
+
+		assertThat(accumulatorAndVerifier.verifyAndGetExtension(curState, ImmutableList.of(mock(Command.class)), tailState))
+			.isEmpty();
+	}
+
 	@Test
 	public void when_empty_command_truncate_from_perfect_version__then_should_return_empty_list() {
 		AccumulatorState state = mock(AccumulatorState.class);
@@ -229,7 +229,7 @@ public class StateComputerLedgerTest {
 
 		stateComputerLedger.commit(verified);
 		verify(stateComputer, times(1)).commit(argThat(v -> v.getHeader().equals(proof)));
-		verify(mempool, times(1)).removeCommitted(eq(hash));
+		verify(mempool, times(1)).removeCommitted(eq(command));
 		verify(ledgerUpdateSender, times(1)).sendLedgerUpdate(any());
 	}
 }
\ No newline at end of file
@@ -0,0 +1,198 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.mempool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import com.radixdlt.consensus.Command;
+import com.radixdlt.identifiers.AID;
+import com.radixdlt.utils.Ints;
+import com.radixdlt.utils.UInt256;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+
+public class ConcurrentMempoolTest {
+	@Test
+	public void when_constructing_with_negative_size__then_exception_is_thrown() {
+		assertThatThrownBy(() -> new ConcurrentMempool(-1)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	public void when_adding_same_command_twice__then_duplicate_exception_is_thrown() throws MempoolRejectedException {
+		ConcurrentMempool mempool = new ConcurrentMempool(2);
+		mempool.add(makeCommand(1));
+		assertThatThrownBy(() -> mempool.add(makeCommand(1))).isInstanceOf(MempoolDuplicateException.class);
+		assertThat(mempool.count()).isEqualTo(1);
+	}
+
+	@Test
+	public void when_adding_too_many_commands__then_full_exception_is_thrown() throws MempoolRejectedException {
+		ConcurrentMempool mempool = new ConcurrentMempool(2);
+		mempool.add(makeCommand(1));
+		mempool.add(makeCommand(2));
+		assertThatThrownBy(() -> mempool.add(makeCommand(3))).isInstanceOf(MempoolFullException.class);
+		assertThat(mempool.count()).isEqualTo(2);
+	}
+
+	@Test
+	public void when_commands_requested__then_they_are_in_fifo_order_excluding_seen() throws MempoolRejectedException {
+		ConcurrentMempool mempool = new ConcurrentMempool(3);
+		Command first = makeCommand(2);
+		Command second = makeCommand(1);
+		Command third = makeCommand(3);
+		mempool.add(first);
+		mempool.add(second);
+		mempool.add(third);
+
+		assertThat(mempool.getCommands(3, Sets.newHashSet(second.getHash()))).containsExactly(first, third);
+	}
+
+	@Test
+	public void when_adding_higher_fee_command_to_full_mempool__then_lowest_fee_command_is_evicted() throws MempoolRejectedException {
+		ConcurrentMempool mempool = new ConcurrentMempool(2, ConcurrentMempoolTest::feeOf, ConflictIndexer.NONE);
+		Command low = makeCommand(1);
+		Command medium = makeCommand(2);
+		Command high = makeCommand(3);
+		mempool.add(medium);
+		mempool.add(low);
+		mempool.add(high);
+
+		assertThat(mempool.getCommands(3, Sets.newHashSet())).containsExactly(high, medium);
+		assertThatThrownBy(() -> mempool.add(makeCommand(1 + 256))).isInstanceOf(MempoolFullException.class);
+	}
+
+	@Test
+	public void when_committed_command_conflicts__then_conflicting_commands_are_removed() throws MempoolRejectedException {
+		ConcurrentMempool mempool = new ConcurrentMempool(10, FeeRate.NONE, ConcurrentMempoolTest::conflictKeysOf);
+		Command other = makeCommand(2 + 256);
+		mempool.add(makeCommand(1 + 256));
+		mempool.add(makeCommand(1 + 512));
+		mempool.add(other);
+
+		mempool.removeCommitted(makeCommand(1));
+
+		assertThat(mempool.getCommands(3, Sets.newHashSet())).containsExactly(other);
+	}
+
+	@Test
+	public void when_rejected_command_is_removed__then_conflicting_commands_are_retained() throws MempoolRejectedException {
+		ConcurrentMempool mempool = new ConcurrentMempool(10, FeeRate.NONE, ConcurrentMempoolTest::conflictKeysOf);
+		Command rejected = makeCommand(1 + 256);
+		Command conflicting = makeCommand(1 + 512);
+		mempool.add(rejected);
+		mempool.add(conflicting);
+
+		mempool.removeRejected(rejected.getHash());
+
+		assertThat(mempool.getCommands(2, Sets.newHashSet())).containsExactly(conflicting);
+	}
+
+	@Test
+	public void when_slicing_in_insertion_order__then_removed_commands_are_skipped_and_cursor_continues() throws MempoolRejectedException {
+		ConcurrentMempool mempool = new ConcurrentMempool(10, ConcurrentMempoolTest::feeOf, ConflictIndexer.NONE);
+		Command first = makeCommand(1);
+		Command second = makeCommand(3);
+		Command third = makeCommand(2);
+		Command fourth = makeCommand(4);
+		mempool.add(first);
+		mempool.add(second);
+		mempool.add(third);
+		mempool.add(fourth);
+		mempool.removeRejected(second.getHash());
+
+		OrderedMempool.Slice slice = mempool.getCommandsAddedAfter(OrderedMempool.START_CURSOR, 2);
+		assertThat(slice.getCommands()).containsExactly(first, third);
+		assertThat(mempool.getCommandsAddedAfter(slice.getNextCursor(), 2).getCommands()).containsExactly(fourth);
+	}
+
+	@Test
+	public void when_removing_added_before__then_only_older_commands_are_removed() throws MempoolRejectedException {
+		AtomicLong time = new AtomicLong(1000L);
+		ConcurrentMempool mempool = new ConcurrentMempool(10, FeeRate.NONE, ConflictIndexer.NONE, time::get);
+		Command old = makeCommand(1);
+		Command recent = makeCommand(2);
+		mempool.add(old);
+		time.set(2000L);
+		mempool.add(recent);
+
+		assertThat(mempool.removeAddedBefore(2000L)).containsExactly(old);
+		assertThat(mempool.count()).isEqualTo(1);
+		assertThat(mempool.getCommandsAddedAfter(OrderedMempool.START_CURSOR, 10).getCommands()).containsExactly(recent);
+	}
+
+	@Test
+	public void when_adding_and_removing_concurrently__then_count_is_consistent() throws Exception {
+		final int threads = 4;
+		final int perThread = 1000;
+		ConcurrentMempool mempool = new ConcurrentMempool(threads * perThread);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			final int base = t * perThread;
+			futures.add(executor.submit(() -> {
+				start.await();
+				for (int i = 0; i < perThread; i++) {
+					Command command = makeCommand(base + i);
+					mempool.add(command);
+					mempool.getCommands(1, Sets.newHashSet());
+					if (i % 2 == 0) {
+						mempool.removeCommitted(command);
+					}
+				}
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> future : futures) {
+			future.get(30, TimeUnit.SECONDS);
+		}
+		executor.shutdown();
+
+		assertThat(mempool.count()).isEqualTo(threads * perThread / 2);
+		assertThat(mempool.getCommands(threads * perThread, Sets.newHashSet())).hasSize(threads * perThread / 2);
+	}
+
+	// Uses the low byte of the command as its fee per byte
+	private static UInt256 feeOf(Command command) {
+		byte[] payload = command.getPayload();
+		return UInt256.from(payload[payload.length - 1] & 0xFF);
+	}
+
+	// Commands conflict when they share a low byte
+	private static ImmutableSet<?> conflictKeysOf(Command command) {
+		byte[] payload = command.getPayload();
+		return ImmutableSet.of(payload[payload.length - 1]);
+	}
+
+	private static Command makeCommand(int n) {
+		byte[] temp = new byte[AID.BYTES];
+		Ints.copyTo(n, temp, AID.BYTES - Integer.BYTES);
+		return new Command(temp);
+	}
+}
@@ -20,13 +20,16 @@ package com.radixdlt.mempool;
 import com.radixdlt.consensus.Command;
 import com.radixdlt.crypto.Hash;
 import java.util.List;
+import java.util.Optional;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
 import com.radixdlt.identifiers.AID;
 import com.radixdlt.utils.Ints;
+import com.radixdlt.utils.UInt256;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
@@ -77,7 +80,7 @@ public class LocalMempoolTest {
 		Command command = makeCommand(1234);
 		this.mempool.add(command);
 		assertEquals(1, this.mempool.count());
-		this.mempool.removeCommitted(command.getHash());
+		this.mempool.removeCommitted(command);
 		assertEquals(0, this.mempool.count());
 	}
 
@@ -155,6 +158,158 @@ public class LocalMempoolTest {
 		assertThat(tostring, containsString(LocalMempool.class.getSimpleName()));
 	}
 
+	@Test
+	public void when_atoms_requested__then_highest_fee_per_byte_is_returned_first()
+		throws MempoolFullException, MempoolDuplicateException {
+		LocalMempool feeMempool = new LocalMempool(3, LocalMempoolTest::feeOf);
+		Command low = makeCommand(1);
+		Command high = makeCommand(3);
+		Command medium = makeCommand(2);
+		feeMempool.add(low);
+		feeMempool.add(high);
+		feeMempool.add(medium);
+
+		List<Command> commands = feeMempool.getCommands(3, Sets.newHashSet());
+		assertEquals(List.of(high, medium, low), commands);
+	}
+
+	@Test
+	public void when_atoms_with_equal_fee_requested__then_oldest_is_returned_first()
+		throws MempoolFullException, MempoolDuplicateException {
+		LocalMempool feeMempool = new LocalMempool(2, command -> UInt256.ONE);
+		Command first = makeCommand(2);
+		Command second = makeCommand(1);
+		feeMempool.add(first);
+		feeMempool.add(second);
+
+		List<Command> commands = feeMempool.getCommands(1, Sets.newHashSet());
+		assertEquals(List.of(first), commands);
+	}
+
+	@Test
+	public void when_adding_higher_fee_atom_to_full_mempool__then_lowest_fee_atom_is_evicted()
+		throws MempoolFullException, MempoolDuplicateException {
+		LocalMempool feeMempool = new LocalMempool(2, LocalMempoolTest::feeOf);
+		Command low = makeCommand(1);
+		Command medium = makeCommand(2);
+		Command high = makeCommand(3);
+		feeMempool.add(medium);
+		feeMempool.add(low);
+		feeMempool.add(high);
+
+		assertEquals(2, feeMempool.count());
+		List<Command> commands = feeMempool.getCommands(2, Sets.newHashSet());
+		assertEquals(List.of(high, medium), commands);
+	}
+
+	@Test
+	public void when_adding_lower_or_equal_fee_atom_to_full_mempool__then_exception_is_thrown()
+		throws MempoolFullException, MempoolDuplicateException {
+		LocalMempool feeMempool = new LocalMempool(2, LocalMempoolTest::feeOf);
+		feeMempool.add(makeCommand(2));
+		feeMempool.add(makeCommand(3));
+		Command equalCommand = makeCommand(2 + 256);
+		try {
+			feeMempool.add(equalCommand);
+			fail();
+		} catch (MempoolFullException e) {
+			assertSame(equalCommand, e.command());
+		}
+		assertEquals(2, feeMempool.count());
+	}
+
+	@Test
+	public void when_evicted_atom_is_removed__then_mempool_is_unchanged()
+		throws MempoolFullException, MempoolDuplicateException {
+		LocalMempool feeMempool = new LocalMempool(1, LocalMempoolTest::feeOf);
+		Command low = makeCommand(1);
+		Command high = makeCommand(2);
+		feeMempool.add(low);
+		feeMempool.add(high);
+		feeMempool.removeCommitted(low);
+
+		assertEquals(1, feeMempool.count());
+		assertEquals(List.of(high), feeMempool.getCommands(1, Sets.newHashSet()));
+	}
+
+	@Test
+	public void when_committed_atom_conflicts__then_conflicting_atoms_are_removed()
+		throws MempoolFullException, MempoolDuplicateException {
+		LocalMempool conflictMempool = new LocalMempool(10, FeeRate.NONE, LocalMempoolTest::conflictKeysOf);
+		Command conflicting1 = makeCommand(1 + 256);
+		Command conflicting2 = makeCommand(1 + 512);
+		Command other = makeCommand(2 + 256);
+		conflictMempool.add(conflicting1);
+		conflictMempool.add(conflicting2);
+		conflictMempool.add(other);
+
+		// Committed command is not in the mempool itself
+		conflictMempool.removeCommitted(makeCommand(1));
+
+		assertEquals(1, conflictMempool.count());
+		assertEquals(List.of(other), conflictMempool.getCommands(3, Sets.newHashSet()));
+	}
+
+	@Test
+	public void when_rejected_atom_conflicts__then_conflicting_atoms_are_retained()
+		throws MempoolFullException, MempoolDuplicateException {
+		LocalMempool conflictMempool = new LocalMempool(10, FeeRate.NONE, LocalMempoolTest::conflictKeysOf);
+		Command rejected = makeCommand(1 + 256);
+		Command conflicting = makeCommand(1 + 512);
+		conflictMempool.add(rejected);
+		conflictMempool.add(conflicting);
+
+		conflictMempool.removeRejected(rejected.getHash());
+
+		assertEquals(List.of(conflicting), conflictMempool.getCommands(2, Sets.newHashSet()));
+	}
+
+	@Test
+	public void when_conflicting_atom_is_removed_before_commit__then_only_remaining_conflicts_are_removed()
+		throws MempoolFullException, MempoolDuplicateException {
+		LocalMempool conflictMempool = new LocalMempool(10, FeeRate.NONE, LocalMempoolTest::conflictKeysOf);
+		Command committed = makeCommand(1 + 256);
+		Command rejected = makeCommand(1 + 512);
+		Command conflicting = makeCommand(1 + 768);
+		conflictMempool.add(committed);
+		conflictMempool.add(rejected);
+		conflictMempool.add(conflicting);
+		conflictMempool.removeRejected(rejected.getHash());
+
+		conflictMempool.removeCommitted(committed);
+
+		assertEquals(0, conflictMempool.count());
+	}
+
+	@Test
+	public void when_adding_atoms_in_bulk__then_each_atom_has_its_own_result() {
+		Command first = makeCommand(1);
+		Command second = makeCommand(2);
+		Command third = makeCommand(3);
+
+		List<Optional<MempoolRejectedException>> results = this.mempool.addAll(List.of(first, first, second, third));
+
+		assertEquals(4, results.size());
+		assertTrue(results.get(0).isEmpty());
+		assertThat(results.get(1).get(), instanceOf(MempoolDuplicateException.class));
+		assertTrue(results.get(2).isEmpty());
+		assertThat(results.get(3).get(), instanceOf(MempoolFullException.class));
+		assertSame(third, results.get(3).get().command());
+		assertEquals(List.of(first, second), this.mempool.getCommands(2, Sets.newHashSet()));
+	}
+
+	// Commands conflict when they share a low byte
+	private static ImmutableSet<?> conflictKeysOf(Command command) {
+		byte[] payload = command.getPayload();
+		return ImmutableSet.of(payload[payload.length - 1]);
+	}
+
+	// Uses the low byte of the command as its fee per byte
+	private static UInt256 feeOf(Command command) {
+		byte[] payload = command.getPayload();
+		return UInt256.from(payload[payload.length - 1] & 0xFF);
+	}
+
 	private static Command makeCommand(int n) {
 		byte[] temp = new byte[AID.BYTES];
 		Ints.copyTo(n, temp, AID.BYTES - Integer.BYTES);
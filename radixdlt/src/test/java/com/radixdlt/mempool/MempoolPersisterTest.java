@@ -0,0 +1,169 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.mempool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+import com.radixdlt.consensus.Command;
+import com.radixdlt.counters.SystemCounters;
+import com.radixdlt.counters.SystemCounters.CounterType;
+import com.radixdlt.crypto.Hash;
+import com.radixdlt.identifiers.AID;
+import com.radixdlt.utils.Ints;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MempoolPersisterTest {
+	private static final class InMemoryCommandStore implements MempoolPersister.CommandStore {
+		private final LinkedHashMap<Hash, Command> commands = new LinkedHashMap<>();
+		private int updates = 0;
+
+		@Override
+		public ImmutableList<Command> loadAll() {
+			return ImmutableList.copyOf(commands.values());
+		}
+
+		@Override
+		public void update(List<Command> added, Collection<Hash> removed) {
+			removed.forEach(commands::remove);
+			added.forEach(command -> commands.put(command.getHash(), command));
+			updates += 1;
+		}
+	}
+
+	private LocalMempool localMempool;
+	private InMemoryCommandStore commandStore;
+	private Set<Command> invalidCommands;
+	private RecentCommandHashes recentCommandHashes;
+	private SystemCounters counters;
+	private MempoolPersister persister;
+
+	@Before
+	public void setUp() {
+		this.localMempool = new LocalMempool(1000);
+		this.commandStore = new InMemoryCommandStore();
+		this.invalidCommands = new HashSet<>();
+		this.recentCommandHashes = new RecentCommandHashes();
+		this.counters = mock(SystemCounters.class);
+		MempoolRevalidator.CommandValidator validator = command -> !invalidCommands.contains(command);
+		this.persister = new MempoolPersister(localMempool, commandStore, validator, recentCommandHashes, counters);
+	}
+
+	@After
+	public void tearDown() {
+		this.persister.stop();
+	}
+
+	@Test
+	public void when_start_and_stop__then_running_state_changes() {
+		assertThat(persister.running()).isFalse();
+		persister.start();
+		assertThat(persister.running()).isTrue();
+		persister.stop();
+		assertThat(persister.running()).isFalse();
+	}
+
+	@Test
+	public void when_persistence_is_disabled__then_start_does_nothing() {
+		MempoolPersister disabled = new MempoolPersister(
+			localMempool, MempoolPersister.CommandStore.NONE, MempoolRevalidator.CommandValidator.NONE, recentCommandHashes, counters
+		);
+		disabled.start();
+		assertThat(disabled.running()).isFalse();
+	}
+
+	@Test
+	public void when_mempool_changes__then_store_follows() throws MempoolRejectedException {
+		Command removed = makeCommand(1);
+		Command retained = makeCommand(2);
+		localMempool.add(removed);
+		localMempool.add(retained);
+		persister.persist();
+		assertThat(commandStore.loadAll()).containsExactly(removed, retained);
+
+		Command added = makeCommand(3);
+		localMempool.removeRejected(removed.getHash());
+		localMempool.add(added);
+		persister.persist();
+
+		assertThat(commandStore.loadAll()).containsExactly(retained, added);
+	}
+
+	@Test
+	public void when_mempool_is_unchanged__then_store_is_not_updated() throws MempoolRejectedException {
+		localMempool.add(makeCommand(1));
+		persister.persist();
+		persister.persist();
+
+		assertThat(commandStore.updates).isEqualTo(1);
+	}
+
+	@Test
+	public void when_stopped__then_mempool_is_persisted() throws MempoolRejectedException {
+		persister.start();
+		Command command = makeCommand(1);
+		localMempool.add(command);
+
+		persister.stop();
+
+		assertThat(commandStore.loadAll()).containsExactly(command);
+	}
+
+	@Test
+	public void when_loaded__then_valid_commands_are_added_in_order_and_invalid_dropped() {
+		Command first = makeCommand(2);
+		Command invalid = makeCommand(3);
+		Command second = makeCommand(1);
+		commandStore.update(ImmutableList.of(first, invalid, second), ImmutableList.of());
+		invalidCommands.add(invalid);
+
+		persister.load();
+
+		assertThat(localMempool.getCommands(3, Sets.newHashSet())).containsExactly(first, second);
+		assertThat(commandStore.loadAll()).containsExactly(first, second);
+		assertThat(recentCommandHashes.contains(first.getHash())).isTrue();
+		assertThat(recentCommandHashes.contains(invalid.getHash())).isFalse();
+		verify(counters).add(CounterType.MEMPOOL_RELOADED, 2);
+	}
+
+	@Test
+	public void when_loaded_commands_are_persisted__then_store_is_not_rewritten() {
+		commandStore.update(ImmutableList.of(makeCommand(1), makeCommand(2)), ImmutableList.of());
+
+		persister.load();
+		persister.persist();
+
+		assertThat(commandStore.updates).isEqualTo(1);
+	}
+
+	private static Command makeCommand(int n) {
+		byte[] temp = new byte[AID.BYTES];
+		Ints.copyTo(n, temp, AID.BYTES - Integer.BYTES);
+		return new Command(temp);
+	}
+}
@@ -17,7 +17,12 @@
 
 package com.radixdlt.mempool;
 
+import com.google.common.collect.ImmutableList;
 import com.radixdlt.consensus.Command;
+import com.radixdlt.counters.SystemCounters;
+import com.radixdlt.counters.SystemCounters.CounterType;
+import com.radixdlt.crypto.Hash;
+import com.radixdlt.identifiers.AID;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 
@@ -32,9 +37,11 @@ import io.reactivex.rxjava3.subjects.PublishSubject;
 
 public class MempoolReceiverTest {
 
-	private PublishSubject<Command> commands;
+	private PublishSubject<ImmutableList<Command>> commands;
 
 	private SubmissionControl submissionControl;
+	private RecentCommandHashes recentCommandHashes;
+	private SystemCounters counters;
 	private MempoolReceiver mempoolReceiver;
 
 	@Before
@@ -43,7 +50,9 @@ public class MempoolReceiverTest {
 		MempoolNetworkRx mempoolRx = mock(MempoolNetworkRx.class);
 		doReturn(this.commands).when(mempoolRx).commands();
 		this.submissionControl = mock(SubmissionControl.class);
-		this.mempoolReceiver = new MempoolReceiver(mempoolRx, this.submissionControl);
+		this.recentCommandHashes = mock(RecentCommandHashes.class);
+		this.counters = mock(SystemCounters.class);
+		this.mempoolReceiver = new MempoolReceiver(mempoolRx, this.submissionControl, this.recentCommandHashes, this.counters);
 	}
 
 	@After
@@ -70,22 +79,69 @@ public class MempoolReceiverTest {
 	}
 
 	@Test
-	public void testThroughput() throws MempoolRejectedException, InterruptedException {
+	public void testThroughput() throws InterruptedException {
 		Semaphore completed = new Semaphore(0);
 		doAnswer(inv -> {
 			completed.release();
-			return null;
-		}).when(this.submissionControl).submitCommand(any());
+			return ImmutableList.of(SubmissionResult.accepted(mock(AID.class)));
+		}).when(this.submissionControl).submitCommands(any());
 
 		this.mempoolReceiver.start();
 		assertTrue(this.mempoolReceiver.running());
 
 		Command command = mock(Command.class);
-		commands.onNext(command);
+		commands.onNext(ImmutableList.of(command));
 
 		// Wait for everything to get pushed through the pipeline
 		assertTrue(completed.tryAcquire(10, TimeUnit.SECONDS));
 
-		verify(this.submissionControl, times(1)).submitCommand(any());
+		verify(this.submissionControl, times(1)).submitCommands(any());
+	}
+
+	@Test
+	public void when_batch_received_with_rejected_command__then_remaining_commands_are_submitted() throws MempoolRejectedException {
+		Command rejected = mock(Command.class);
+		Command accepted = mock(Command.class);
+		when(this.submissionControl.submitCommands(any())).thenReturn(ImmutableList.of(
+			SubmissionResult.rejected(null, new MempoolRejectedException(rejected, "test")),
+			SubmissionResult.accepted(mock(AID.class))
+		));
+
+		this.mempoolReceiver.start();
+		commands.onNext(ImmutableList.of(rejected, accepted));
+
+		verify(this.submissionControl, times(1)).submitCommands(ImmutableList.of(rejected, accepted));
+		verify(this.submissionControl, never()).submitCommand(any());
+	}
+
+	@Test
+	public void when_recently_seen_command_received__then_it_is_not_submitted() throws MempoolRejectedException {
+		Command seen = mock(Command.class);
+		Hash seenHash = mock(Hash.class);
+		when(seen.getHash()).thenReturn(seenHash);
+		when(this.recentCommandHashes.contains(seenHash)).thenReturn(true);
+		Command unseen = mock(Command.class);
+		when(unseen.getHash()).thenReturn(mock(Hash.class));
+		when(this.submissionControl.submitCommands(any())).thenReturn(ImmutableList.of(SubmissionResult.accepted(mock(AID.class))));
+
+		this.mempoolReceiver.start();
+		commands.onNext(ImmutableList.of(seen, unseen));
+
+		verify(this.submissionControl, times(1)).submitCommands(ImmutableList.of(unseen));
+		verify(this.submissionControl, never()).submitCommand(any());
+		verify(this.counters, times(1)).increment(CounterType.MEMPOOL_RECENT_DUPLICATES);
+	}
+
+	@Test
+	public void when_only_recently_seen_commands_received__then_nothing_is_submitted() {
+		Command seen = mock(Command.class);
+		Hash seenHash = mock(Hash.class);
+		when(seen.getHash()).thenReturn(seenHash);
+		when(this.recentCommandHashes.contains(seenHash)).thenReturn(true);
+
+		this.mempoolReceiver.start();
+		commands.onNext(ImmutableList.of(seen));
+
+		verify(this.submissionControl, never()).submitCommands(any());
 	}
 }
@@ -0,0 +1,122 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.mempool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.collect.Sets;
+import com.radixdlt.consensus.Command;
+import com.radixdlt.counters.SystemCounters;
+import com.radixdlt.counters.SystemCounters.CounterType;
+import com.radixdlt.identifiers.AID;
+import com.radixdlt.utils.Ints;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MempoolRevalidatorTest {
+	private AtomicLong time;
+	private LocalMempool localMempool;
+	private Set<Command> invalidCommands;
+	private Set<Command> validated;
+	private SystemCounters counters;
+	private MempoolRevalidator revalidator;
+
+	@Before
+	public void setUp() {
+		this.time = new AtomicLong(0L);
+		this.localMempool = new LocalMempool(1000, FeeRate.NONE, ConflictIndexer.NONE, time::get);
+		this.invalidCommands = new HashSet<>();
+		this.validated = new HashSet<>();
+		this.counters = mock(SystemCounters.class);
+		MempoolRevalidator.CommandValidator validator = command -> {
+			validated.add(command);
+			return !invalidCommands.contains(command);
+		};
+		this.revalidator = new MempoolRevalidator(localMempool, validator, counters, time::get);
+	}
+
+	@After
+	public void tearDown() {
+		this.revalidator.stop();
+	}
+
+	@Test
+	public void when_start_and_stop__then_running_state_changes() {
+		assertThat(revalidator.running()).isFalse();
+		revalidator.start();
+		assertThat(revalidator.running()).isTrue();
+		revalidator.stop();
+		assertThat(revalidator.running()).isFalse();
+	}
+
+	@Test
+	public void when_command_becomes_invalid__then_it_is_removed_and_counted() throws MempoolRejectedException {
+		Command valid = makeCommand(1);
+		Command invalid = makeCommand(2);
+		localMempool.add(valid);
+		localMempool.add(invalid);
+		invalidCommands.add(invalid);
+
+		revalidator.revalidate();
+
+		assertThat(localMempool.getCommands(2, Sets.newHashSet())).containsExactly(valid);
+		verify(counters).add(CounterType.MEMPOOL_INVALIDATED, 1);
+		verify(counters).set(CounterType.MEMPOOL_COUNT, 1);
+	}
+
+	@Test
+	public void when_command_is_older_than_ttl__then_it_is_removed_and_counted() throws MempoolRejectedException {
+		Command old = makeCommand(1);
+		localMempool.add(old);
+		time.set(MempoolRevalidator.TTL_MS);
+		Command fresh = makeCommand(2);
+		localMempool.add(fresh);
+		time.set(MempoolRevalidator.TTL_MS + 1);
+
+		revalidator.revalidate();
+
+		assertThat(localMempool.getCommands(2, Sets.newHashSet())).containsExactly(fresh);
+		verify(counters).add(CounterType.MEMPOOL_EXPIRED, 1);
+	}
+
+	@Test
+	public void when_mempool_larger_than_slice__then_revalidation_is_bounded_and_resumes() throws MempoolRejectedException {
+		int total = MempoolRevalidator.SLICE_SIZE + 10;
+		for (int i = 0; i < total; i++) {
+			localMempool.add(makeCommand(i));
+		}
+
+		revalidator.revalidate();
+		assertThat(validated).hasSize(MempoolRevalidator.SLICE_SIZE);
+
+		revalidator.revalidate();
+		assertThat(validated).hasSize(total);
+	}
+
+	private static Command makeCommand(int n) {
+		byte[] temp = new byte[AID.BYTES];
+		Ints.copyTo(n, temp, AID.BYTES - Integer.BYTES);
+		return new Command(temp);
+	}
+}
@@ -0,0 +1,81 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.mempool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.base.Ticker;
+import com.radixdlt.crypto.Hash;
+import com.radixdlt.utils.Ints;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RecentCommandHashesTest {
+	private AtomicLong nanos;
+	private RecentCommandHashes recentCommandHashes;
+
+	@Before
+	public void setUp() {
+		this.nanos = new AtomicLong();
+		Ticker ticker = new Ticker() {
+			@Override
+			public long read() {
+				return nanos.get();
+			}
+		};
+		this.recentCommandHashes = new RecentCommandHashes(2, 1000L, ticker);
+	}
+
+	@Test
+	public void when_hash_added__then_it_is_contained() {
+		recentCommandHashes.add(makeHash(1));
+
+		assertThat(recentCommandHashes.contains(makeHash(1))).isTrue();
+		assertThat(recentCommandHashes.contains(makeHash(2))).isFalse();
+	}
+
+	@Test
+	public void when_retention_window_passes__then_hash_is_no_longer_contained() {
+		recentCommandHashes.add(makeHash(1));
+		nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(1001L));
+
+		assertThat(recentCommandHashes.contains(makeHash(1))).isFalse();
+	}
+
+	@Test
+	public void when_more_hashes_than_max_size_added__then_size_is_bounded() {
+		recentCommandHashes.add(makeHash(1));
+		recentCommandHashes.add(makeHash(2));
+		recentCommandHashes.add(makeHash(3));
+
+		long contained = IntStream.rangeClosed(1, 3)
+			.filter(i -> recentCommandHashes.contains(makeHash(i)))
+			.count();
+		assertThat(contained).isLessThanOrEqualTo(2L);
+		assertThat(recentCommandHashes.contains(makeHash(3))).isTrue();
+	}
+
+	private static Hash makeHash(int n) {
+		byte[] temp = new byte[256];
+		Ints.copyTo(n, temp, 256 - Integer.BYTES);
+		return Hash.of(temp);
+	}
+}
@@ -17,8 +17,11 @@
 
 package com.radixdlt.mempool;
 
+import com.google.common.collect.ImmutableList;
 import com.radixdlt.consensus.Command;
 import com.radixdlt.crypto.Hash;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 import org.junit.Before;
@@ -35,17 +38,19 @@ import static org.hamcrest.Matchers.*;
 public class SharedMempoolTest {
 	private static final Hash TEST_HASH = makeHash(1234);
 
-	private LocalMempool localMempool;
+	private OrderedMempool localMempool;
 	private MempoolNetworkTx mempoolNetworkTx;
 	private SystemCounters counters;
+	private RecentCommandHashes recentCommandHashes;
 	private Mempool sharedMempool;
 
 	@Before
 	public void setUp() {
-		this.localMempool = mock(LocalMempool.class);
+		this.localMempool = mock(OrderedMempool.class);
 		this.mempoolNetworkTx = mock(MempoolNetworkTx.class);
 		this.counters = mock(SystemCounters.class);
-		this.sharedMempool = new SharedMempool(counters, localMempool, mempoolNetworkTx);
+		this.recentCommandHashes = new RecentCommandHashes();
+		this.sharedMempool = new SharedMempool(counters, localMempool, mempoolNetworkTx, recentCommandHashes);
 	}
 
 	@Test
@@ -56,12 +61,50 @@ public class SharedMempoolTest {
 		this.sharedMempool.add(mockCommand);
 		verify(this.localMempool, times(1)).add(any());
 		verify(this.mempoolNetworkTx, times(1)).sendMempoolSubmission(any());
+		assertTrue(this.recentCommandHashes.contains(TEST_HASH));
+	}
+
+	@Test
+	public void when_adding_atom_fails__then_atom_is_not_recently_seen()
+		throws MempoolFullException, MempoolDuplicateException {
+		Command mockCommand = mock(Command.class);
+		when(mockCommand.getHash()).thenReturn(TEST_HASH);
+		doThrow(new MempoolFullException(mockCommand, "full")).when(this.localMempool).add(mockCommand);
+		try {
+			this.sharedMempool.add(mockCommand);
+			fail();
+		} catch (MempoolFullException e) {
+			assertFalse(this.recentCommandHashes.contains(TEST_HASH));
+			verify(this.mempoolNetworkTx, never()).sendMempoolSubmission(any());
+		}
+	}
+
+	@Test
+	public void when_adding_atoms_in_bulk__then_only_added_atoms_are_sent() {
+		Command added = mock(Command.class);
+		when(added.getHash()).thenReturn(TEST_HASH);
+		Hash rejectedHash = makeHash(5678);
+		Command rejected = mock(Command.class);
+		when(rejected.getHash()).thenReturn(rejectedHash);
+		MempoolFullException full = new MempoolFullException(rejected, "full");
+		when(this.localMempool.addAll(List.of(added, rejected))).thenReturn(ImmutableList.of(Optional.empty(), Optional.of(full)));
+
+		List<Optional<MempoolRejectedException>> results = this.sharedMempool.addAll(List.of(added, rejected));
+
+		assertEquals(List.of(Optional.empty(), Optional.of(full)), results);
+		verify(this.mempoolNetworkTx, times(1)).sendMempoolSubmission(added);
+		verify(this.mempoolNetworkTx, never()).sendMempoolSubmission(rejected);
+		assertTrue(this.recentCommandHashes.contains(TEST_HASH));
+		assertFalse(this.recentCommandHashes.contains(rejectedHash));
 	}
 
 	@Test
 	public void when_committed_atom_is_removed__then_local_mempool_removed() {
-		this.sharedMempool.removeCommitted(TEST_HASH);
-		verify(this.localMempool, times(1)).removeCommitted(TEST_HASH);
+		Command mockCommand = mock(Command.class);
+		when(mockCommand.getHash()).thenReturn(TEST_HASH);
+		this.sharedMempool.removeCommitted(mockCommand);
+		verify(this.localMempool, times(1)).removeCommitted(mockCommand);
+		assertTrue(this.recentCommandHashes.contains(TEST_HASH));
 	}
 
 	@Test
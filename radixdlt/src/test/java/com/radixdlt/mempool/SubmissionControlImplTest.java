@@ -17,6 +17,7 @@
 
 package com.radixdlt.mempool;
 
+import com.google.common.collect.ImmutableList;
 import com.radixdlt.consensus.Command;
 import com.radixdlt.engine.RadixEngineException;
 import com.radixdlt.mempool.SubmissionControlImpl.SubmissionControlSender;
@@ -25,6 +26,10 @@ import com.radixdlt.middleware2.LedgerAtom;
 import com.radixdlt.middleware2.converters.AtomToClientAtomConverter;
 import com.radixdlt.middleware2.converters.AtomConversionException;
 import com.radixdlt.serialization.DeserializeException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 import org.json.JSONObject;
@@ -169,12 +174,121 @@ public class SubmissionControlImplTest {
 		verify(this.mempool, times(1)).add(any());
 	}
 
+	@Test
+	public void when_batch_is_submitted__then_each_atom_has_its_own_result() throws Exception {
+		doNothing().when(this.radixEngine).staticCheck(any());
+		JSONObject goodJson = mock(JSONObject.class);
+		ClientAtom goodAtom = mockAtom(goodJson, mock(AID.class));
+		JSONObject unconvertibleJson = mock(JSONObject.class);
+		Atom unconvertibleAtom = mock(Atom.class);
+		AID unconvertibleAid = mock(AID.class);
+		when(unconvertibleAtom.getAID()).thenReturn(unconvertibleAid);
+		doReturn(unconvertibleAtom).when(this.serialization).fromJsonObject(eq(unconvertibleJson), eq(Atom.class));
+		when(converter.convert(eq(unconvertibleAtom))).thenThrow(mock(AtomConversionException.class));
+		JSONObject malformedJson = mock(JSONObject.class);
+		doThrow(new IllegalArgumentException()).when(this.serialization).fromJsonObject(eq(malformedJson), eq(Atom.class));
+		doReturn(ImmutableList.of(Optional.empty())).when(this.mempool).addAll(any());
+		// No type check issues with mocking generic here
+		@SuppressWarnings("unchecked")
+		Consumer<ClientAtom> callback = mock(Consumer.class);
+
+		List<SubmissionResult> results = this.submissionControl.submitAtoms(List.of(goodJson, unconvertibleJson, malformedJson), callback);
+
+		assertThat(results, hasSize(3));
+		assertTrue(results.get(0).isAccepted());
+		assertThat(results.get(0).getAid(), is(Optional.of(goodAtom.getAID())));
+		assertFalse(results.get(1).isAccepted());
+		assertThat(results.get(1).getAid(), is(Optional.of(unconvertibleAid)));
+		assertFalse(results.get(2).isAccepted());
+		assertThat(results.get(2).getAid(), is(Optional.empty()));
+		verify(callback, times(1)).accept(goodAtom);
+		verify(this.sender, times(1)).sendDeserializeFailure(eq(unconvertibleAtom), any());
+		verify(this.mempool, times(1)).addAll(argThat(commands -> commands.size() == 1));
+		verify(this.mempool, never()).add(any());
+	}
+
+	@Test
+	public void when_command_batch_is_submitted__then_passing_commands_are_added_together() throws Exception {
+		Command good = new Command(new byte[] {0});
+		ClientAtom goodAtom = mock(ClientAtom.class);
+		when(goodAtom.getAID()).thenReturn(mock(AID.class));
+		when(this.serialization.fromDson(eq(good.getPayload()), eq(ClientAtom.class))).thenReturn(goodAtom);
+		when(this.serialization.toDson(eq(goodAtom), any())).thenReturn(new byte[] {0});
+		Command malformed = new Command(new byte[] {1});
+		when(this.serialization.fromDson(eq(malformed.getPayload()), eq(ClientAtom.class))).thenThrow(new DeserializeException(""));
+		doNothing().when(this.radixEngine).staticCheck(any());
+		doReturn(ImmutableList.of(Optional.empty())).when(this.mempool).addAll(any());
+
+		List<SubmissionResult> results = this.submissionControl.submitCommands(List.of(good, malformed));
+
+		assertThat(results, hasSize(2));
+		assertTrue(results.get(0).isAccepted());
+		assertThat(results.get(0).getAid(), is(Optional.of(goodAtom.getAID())));
+		assertFalse(results.get(1).isAccepted());
+		assertThat(results.get(1).getError().get(), instanceOf(MempoolRejectedException.class));
+		verify(this.radixEngine, times(1)).staticCheck(goodAtom);
+		verify(this.mempool, times(1)).addAll(argThat(commands -> commands.size() == 1));
+		verify(this.mempool, never()).add(any());
+	}
+
+	@Test
+	public void when_large_batch_is_checked_in_parallel__then_results_are_in_submission_order() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			SubmissionControlImpl parallelSubmissionControl = new SubmissionControlImpl(
+				this.mempool, this.radixEngine, this.serialization, this.converter, this.sender, executor
+			);
+			doNothing().when(this.radixEngine).staticCheck(any());
+			ImmutableList.Builder<JSONObject> atomJsons = ImmutableList.builder();
+			ImmutableList.Builder<AID> aids = ImmutableList.builder();
+			for (int i = 0; i < 100; i++) {
+				JSONObject atomJson = mock(JSONObject.class);
+				AID aid = mock(AID.class);
+				ClientAtom clientAtom = mockAtom(atomJson, aid);
+				when(this.serialization.toDson(eq(clientAtom), any())).thenReturn(new byte[] {(byte) i});
+				atomJsons.add(atomJson);
+				aids.add(aid);
+			}
+			// Mempool rejects commands with odd payloads
+			doAnswer(inv -> {
+				List<Command> commands = inv.getArgument(0);
+				return commands.stream()
+					.map(command -> command.getPayload()[0] % 2 == 0
+						? Optional.<MempoolRejectedException>empty()
+						: Optional.<MempoolRejectedException>of(new MempoolDuplicateException(command, "duplicate")))
+					.collect(ImmutableList.toImmutableList());
+			}).when(this.mempool).addAll(any());
+
+			List<SubmissionResult> results = parallelSubmissionControl.submitAtoms(atomJsons.build(), a -> { });
+
+			List<AID> expectedAids = aids.build();
+			assertThat(results, hasSize(100));
+			for (int i = 0; i < 100; i++) {
+				assertThat(results.get(i).getAid(), is(Optional.of(expectedAids.get(i))));
+				assertThat(results.get(i).isAccepted(), is(i % 2 == 0));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
 	@Test
 	public void sensible_tostring() {
 		String tostring = this.submissionControl.toString();
 		assertThat(tostring, containsString(this.submissionControl.getClass().getSimpleName()));
 	}
 
+	private ClientAtom mockAtom(JSONObject atomJson, AID aid) throws AtomConversionException {
+		Atom atom = mock(Atom.class);
+		when(atom.getAID()).thenReturn(aid);
+		doReturn(atom).when(this.serialization).fromJsonObject(eq(atomJson), eq(Atom.class));
+		ClientAtom clientAtom = mock(ClientAtom.class);
+		when(clientAtom.getAID()).thenReturn(aid);
+		when(this.converter.convert(eq(atom))).thenReturn(clientAtom);
+		when(this.serialization.toDson(eq(clientAtom), any())).thenReturn(new byte[] {});
+		return clientAtom;
+	}
+
     private static <T> T throwingMock(Class<T> classToMock) {
     	return mock(classToMock, illegalStateAnswer());
     }
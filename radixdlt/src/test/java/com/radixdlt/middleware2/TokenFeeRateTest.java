@@ -0,0 +1,68 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.middleware2;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.radixdlt.consensus.Command;
+import com.radixdlt.serialization.DeserializeException;
+import com.radixdlt.serialization.Serialization;
+import com.radixdlt.utils.UInt256;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TokenFeeRateTest {
+	private TokenFeeLedgerAtomChecker feeChecker;
+	private Serialization serialization;
+	private TokenFeeRate feeRate;
+
+	@Before
+	public void setUp() {
+		this.feeChecker = mock(TokenFeeLedgerAtomChecker.class);
+		this.serialization = mock(Serialization.class);
+		this.feeRate = new TokenFeeRate(feeChecker, serialization);
+	}
+
+	@Test
+	public void when_compute_fee_rate__then_fee_paid_is_divided_by_command_size() throws DeserializeException {
+		ClientAtom clientAtom = mock(ClientAtom.class);
+		when(serialization.fromDson(any(), eq(ClientAtom.class))).thenReturn(clientAtom);
+		when(feeChecker.feePaid(clientAtom)).thenReturn(UInt256.from(1000L));
+
+		assertThat(feeRate.feePerByte(new Command(new byte[100]))).isEqualTo(UInt256.TEN);
+	}
+
+	@Test
+	public void when_compute_fee_rate_of_malformed_command__then_fee_rate_is_zero() throws DeserializeException {
+		when(serialization.fromDson(any(), eq(ClientAtom.class))).thenThrow(new DeserializeException(""));
+
+		assertThat(feeRate.feePerByte(new Command(new byte[100]))).isEqualTo(UInt256.ZERO);
+		verifyNoInteractions(feeChecker);
+	}
+
+	@Test
+	public void when_compute_fee_rate_of_empty_command__then_fee_rate_is_zero() {
+		assertThat(feeRate.feePerByte(new Command(new byte[0]))).isEqualTo(UInt256.ZERO);
+		verifyNoInteractions(serialization);
+	}
+}
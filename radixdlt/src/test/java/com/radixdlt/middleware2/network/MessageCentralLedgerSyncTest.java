@@ -17,6 +17,7 @@
 
 package com.radixdlt.middleware2.network;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
@@ -43,6 +44,8 @@ import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReference;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.radix.network.messaging.Message;
 import org.radix.universe.system.RadixSystem;
 
 public class MessageCentralLedgerSyncTest {
@@ -68,7 +71,7 @@ public class MessageCentralLedgerSyncTest {
 		Peer peer = mock(Peer.class);
 		when(peer.hasSystem()).thenReturn(true);
 		when(addressBook.peer(any(EUID.class))).thenReturn(Optional.of(peer));
-		messageCentralLedgerSync.sendSyncRequest(node, mock(DtoLedgerHeaderAndProof.class));
+		messageCentralLedgerSync.sendSyncRequest(node, mock(DtoLedgerHeaderAndProof.class), 1024);
 		verify(messageCentral, times(1)).send(eq(peer), argThat(msg -> msg.getMagic() == 123));
 	}
 
@@ -85,6 +88,24 @@ public class MessageCentralLedgerSyncTest {
 		verify(messageCentral, times(1)).send(eq(peer), argThat(msg -> msg.getMagic() == 123));
 	}
 
+	@Test
+	public void when_send_same_sync_response_to_two_nodes__then_should_send_same_message() {
+		BFTNode node = mock(BFTNode.class);
+		ECPublicKey key = mock(ECPublicKey.class);
+		when(key.euid()).thenReturn(EUID.ONE);
+		when(node.getKey()).thenReturn(key);
+		Peer peer = mock(Peer.class);
+		when(peer.hasSystem()).thenReturn(true);
+		when(addressBook.peer(any(EUID.class))).thenReturn(Optional.of(peer));
+		DtoCommandsAndProof commands = mock(DtoCommandsAndProof.class);
+		messageCentralLedgerSync.sendSyncResponse(node, commands);
+		messageCentralLedgerSync.sendSyncResponse(node, commands);
+
+		ArgumentCaptor<Message> messages = ArgumentCaptor.forClass(Message.class);
+		verify(messageCentral, times(2)).send(eq(peer), messages.capture());
+		assertThat(messages.getAllValues().get(0)).isSameAs(messages.getAllValues().get(1));
+	}
+
 	@Test
 	public void when_receive_sync_request__then_should_receive_it() {
 		AtomicReference<MessageListener<SyncRequestMessage>> messageListenerAtomicReference = new AtomicReference<>();
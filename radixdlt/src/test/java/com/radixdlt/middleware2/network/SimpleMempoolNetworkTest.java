@@ -17,25 +17,33 @@
 
 package com.radixdlt.middleware2.network;
 
+import com.google.common.collect.ImmutableList;
 import com.radixdlt.consensus.Command;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Stream;
 
 import org.junit.Test;
+import org.radix.Radix;
 import org.radix.universe.system.LocalSystem;
+import org.radix.universe.system.RadixSystem;
 
 import com.radixdlt.identifiers.EUID;
 import com.radixdlt.mempool.messages.MempoolAtomAddedMessage;
+import com.radixdlt.mempool.messages.MempoolAtomsAddedMessage;
 import com.radixdlt.network.addressbook.AddressBook;
 import com.radixdlt.network.addressbook.Peer;
 import com.radixdlt.network.messaging.MessageCentral;
 import com.radixdlt.network.messaging.MessageListener;
 import com.radixdlt.universe.Universe;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertNotNull;
 import static org.mockito.Mockito.*;
 
 import io.reactivex.rxjava3.observers.TestObserver;
+import org.mockito.ArgumentCaptor;
 
 public class SimpleMempoolNetworkTest {
 
@@ -53,14 +61,105 @@ public class SimpleMempoolNetworkTest {
 		AddressBook addressBook = mock(AddressBook.class);
 		when(addressBook.peers()).thenReturn(Stream.of(peer1, peer2));
 		MessageCentral messageCentral = mock(MessageCentral.class);
-		SimpleMempoolNetwork smn = new SimpleMempoolNetwork(system, universe, addressBook, messageCentral);
+		ScheduledExecutorService executor = mock(ScheduledExecutorService.class);
+		SimpleMempoolNetwork smn = new SimpleMempoolNetwork(system, universe, addressBook, messageCentral, executor);
 
-		Command command = mock(Command.class);
+		Command command = new Command(new byte[] {0, 1});
 		smn.sendMempoolSubmission(command);
+		verify(messageCentral, never()).send(any(), any());
+
+		ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+		verify(executor, times(1)).schedule(flush.capture(), eq(SimpleMempoolNetwork.BATCH_WINDOW_MS), eq(TimeUnit.MILLISECONDS));
+		flush.getValue().run();
 
+		// A batch of one is sent as a single command message
+		verify(messageCentral, times(1)).send(eq(peer1), any(MempoolAtomAddedMessage.class));
 		verify(messageCentral, times(1)).send(any(), any());
 	}
 
+	@Test
+	public void testSendMempoolSubmissionsBatched() {
+		Peer peer1 = mock(Peer.class);
+		when(peer1.hasSystem()).thenReturn(true);
+		when(peer1.getNID()).thenReturn(EUID.ONE);
+		RadixSystem peerSystem = mock(RadixSystem.class);
+		when(peerSystem.getAgentVersion()).thenReturn(Radix.MEMPOOL_BATCH_AGENT_VERSION);
+		when(peer1.getSystem()).thenReturn(peerSystem);
+		LocalSystem system = mock(LocalSystem.class);
+		when(system.getNID()).thenReturn(EUID.TWO);
+		Universe universe = mock(Universe.class);
+		AddressBook addressBook = mock(AddressBook.class);
+		when(addressBook.peers()).thenReturn(Stream.of(peer1));
+		MessageCentral messageCentral = mock(MessageCentral.class);
+		ScheduledExecutorService executor = mock(ScheduledExecutorService.class);
+		SimpleMempoolNetwork smn = new SimpleMempoolNetwork(system, universe, addressBook, messageCentral, executor);
+
+		Command command1 = new Command(new byte[] {0, 1});
+		Command command2 = new Command(new byte[] {0, 2});
+		smn.sendMempoolSubmission(command1);
+		smn.sendMempoolSubmission(command2);
+
+		ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+		verify(executor, times(1)).schedule(flush.capture(), anyLong(), any());
+		flush.getValue().run();
+
+		ArgumentCaptor<MempoolAtomsAddedMessage> message = ArgumentCaptor.forClass(MempoolAtomsAddedMessage.class);
+		verify(messageCentral, times(1)).send(eq(peer1), message.capture());
+		assertThat(message.getValue().commands()).containsExactly(command1, command2);
+	}
+
+	@Test
+	public void testSendMempoolSubmissionsToOldPeerUnbatched() {
+		Peer peer1 = mock(Peer.class);
+		when(peer1.hasSystem()).thenReturn(true);
+		when(peer1.getNID()).thenReturn(EUID.ONE);
+		RadixSystem peerSystem = mock(RadixSystem.class);
+		when(peerSystem.getAgentVersion()).thenReturn(Radix.MEMPOOL_BATCH_AGENT_VERSION - 1);
+		when(peer1.getSystem()).thenReturn(peerSystem);
+		LocalSystem system = mock(LocalSystem.class);
+		when(system.getNID()).thenReturn(EUID.TWO);
+		Universe universe = mock(Universe.class);
+		AddressBook addressBook = mock(AddressBook.class);
+		when(addressBook.peers()).thenReturn(Stream.of(peer1));
+		MessageCentral messageCentral = mock(MessageCentral.class);
+		ScheduledExecutorService executor = mock(ScheduledExecutorService.class);
+		SimpleMempoolNetwork smn = new SimpleMempoolNetwork(system, universe, addressBook, messageCentral, executor);
+
+		Command command1 = new Command(new byte[] {0, 1});
+		Command command2 = new Command(new byte[] {0, 2});
+		smn.sendMempoolSubmission(command1);
+		smn.sendMempoolSubmission(command2);
+
+		ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+		verify(executor, times(1)).schedule(flush.capture(), anyLong(), any());
+		flush.getValue().run();
+
+		ArgumentCaptor<MempoolAtomAddedMessage> message = ArgumentCaptor.forClass(MempoolAtomAddedMessage.class);
+		verify(messageCentral, times(2)).send(eq(peer1), message.capture());
+		assertThat(message.getAllValues()).extracting(MempoolAtomAddedMessage::command).containsExactly(command1, command2);
+	}
+
+	@Test
+	public void testSendMempoolSubmissionsOverBudgetSentImmediately() {
+		Peer peer1 = mock(Peer.class);
+		when(peer1.hasSystem()).thenReturn(true);
+		when(peer1.getNID()).thenReturn(EUID.ONE);
+		LocalSystem system = mock(LocalSystem.class);
+		when(system.getNID()).thenReturn(EUID.TWO);
+		Universe universe = mock(Universe.class);
+		AddressBook addressBook = mock(AddressBook.class);
+		when(addressBook.peers()).thenReturn(Stream.of(peer1));
+		MessageCentral messageCentral = mock(MessageCentral.class);
+		ScheduledExecutorService executor = mock(ScheduledExecutorService.class);
+		SimpleMempoolNetwork smn = new SimpleMempoolNetwork(system, universe, addressBook, messageCentral, executor);
+
+		Command command = new Command(new byte[SimpleMempoolNetwork.MAX_BATCH_BYTES]);
+		smn.sendMempoolSubmission(command);
+
+		verify(executor, never()).schedule(any(Runnable.class), anyLong(), any());
+		verify(messageCentral, times(1)).send(eq(peer1), any());
+	}
+
 	@Test
 	public void testCommandMessages() {
 		LocalSystem system = mock(LocalSystem.class);
@@ -79,7 +178,7 @@ public class SimpleMempoolNetworkTest {
 		assertNotNull(callbackRef.get());
 		MessageListener<MempoolAtomAddedMessage> callback = callbackRef.get();
 
-		TestObserver<Command> obs = smn.commands().test();
+		TestObserver<ImmutableList<Command>> obs = smn.commands().test();
 
 		Peer peer = mock(Peer.class);
 		Command command = mock(Command.class);
@@ -89,6 +188,37 @@ public class SimpleMempoolNetworkTest {
 
 		obs.awaitCount(1);
 		obs.assertNoErrors();
-		obs.assertValue(a -> a == command);
+		obs.assertValue(a -> a.size() == 1 && a.get(0) == command);
+	}
+
+	@Test
+	public void testCommandBatchMessages() {
+		LocalSystem system = mock(LocalSystem.class);
+		when(system.getNID()).thenReturn(EUID.TWO);
+		Universe universe = mock(Universe.class);
+		AddressBook addressBook = mock(AddressBook.class);
+		MessageCentral messageCentral = mock(MessageCentral.class);
+		AtomicReference<MessageListener<MempoolAtomsAddedMessage>> callbackRef = new AtomicReference<>();
+		doAnswer(inv -> {
+			callbackRef.set(inv.getArgument(1));
+			return null;
+		}).when(messageCentral).addListener(eq(MempoolAtomsAddedMessage.class), any());
+
+		SimpleMempoolNetwork smn = new SimpleMempoolNetwork(system, universe, addressBook, messageCentral);
+
+		assertNotNull(callbackRef.get());
+		MessageListener<MempoolAtomsAddedMessage> callback = callbackRef.get();
+
+		TestObserver<ImmutableList<Command>> obs = smn.commands().test();
+
+		Peer peer = mock(Peer.class);
+		ImmutableList<Command> commands = ImmutableList.of(mock(Command.class), mock(Command.class));
+		MempoolAtomsAddedMessage message = mock(MempoolAtomsAddedMessage.class);
+		when(message.commands()).thenReturn(commands);
+		callback.handleMessage(peer, message);
+
+		obs.awaitCount(1);
+		obs.assertNoErrors();
+		obs.assertValue(a -> a == commands);
 	}
 }
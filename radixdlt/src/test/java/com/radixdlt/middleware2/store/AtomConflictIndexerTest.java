@@ -0,0 +1,67 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.middleware2.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableSet;
+import com.radixdlt.consensus.Command;
+import com.radixdlt.middleware2.ClientAtom;
+import com.radixdlt.middleware2.store.CommittedAtomsStore.AtomIndexer;
+import com.radixdlt.serialization.DeserializeException;
+import com.radixdlt.serialization.Serialization;
+import com.radixdlt.store.StoreIndex;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AtomConflictIndexerTest {
+	private AtomIndexer atomIndexer;
+	private Serialization serialization;
+	private AtomConflictIndexer conflictIndexer;
+
+	@Before
+	public void setUp() {
+		this.atomIndexer = mock(AtomIndexer.class);
+		this.serialization = mock(Serialization.class);
+		this.conflictIndexer = new AtomConflictIndexer(atomIndexer, serialization);
+	}
+
+	@Test
+	public void when_index_atom__then_unique_indices_are_conflict_keys() throws DeserializeException {
+		ClientAtom clientAtom = mock(ClientAtom.class);
+		when(serialization.fromDson(any(), eq(ClientAtom.class))).thenReturn(clientAtom);
+		StoreIndex unique = new StoreIndex(new byte[] {1, 2});
+		StoreIndex duplicate = new StoreIndex(new byte[] {3, 4});
+		when(atomIndexer.getIndices(clientAtom)).thenReturn(new EngineAtomIndices(ImmutableSet.of(unique), ImmutableSet.of(duplicate)));
+
+		assertThat(conflictIndexer.conflictKeys(new Command(new byte[] {0}))).containsExactly(unique);
+	}
+
+	@Test
+	public void when_index_malformed_command__then_there_are_no_conflict_keys() throws DeserializeException {
+		when(serialization.fromDson(any(), eq(ClientAtom.class))).thenThrow(new DeserializeException(""));
+
+		assertThat(conflictIndexer.conflictKeys(new Command(new byte[] {0}))).isEmpty();
+		verifyNoInteractions(atomIndexer);
+	}
+}
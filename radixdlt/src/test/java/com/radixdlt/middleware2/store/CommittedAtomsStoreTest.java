@@ -19,11 +19,13 @@ package com.radixdlt.middleware2.store;
 
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.powermock.api.mockito.PowerMockito.when;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.radixdlt.consensus.Command;
 import com.radixdlt.consensus.VerifiedLedgerHeaderAndProof;
 import com.radixdlt.constraintmachine.CMInstruction;
@@ -35,10 +37,12 @@ import com.radixdlt.identifiers.EUID;
 import com.radixdlt.middleware2.ClientAtom;
 import com.radixdlt.serialization.Serialization;
 import com.radixdlt.statecomputer.ClientAtomToBinaryConverter;
+import com.radixdlt.statecomputer.CommittedAtom;
 import com.radixdlt.middleware2.store.CommittedAtomsStore.AtomIndexer;
 import com.radixdlt.statecomputer.RadixEngineStateComputer.CommittedAtomSender;
 import com.radixdlt.store.LedgerEntry;
 import com.radixdlt.store.LedgerEntryStore;
+import com.radixdlt.store.LedgerEntryStoreResult;
 import com.radixdlt.store.SearchCursor;
 import com.radixdlt.store.berkeley.NextCommittedLimitReachedException;
 import java.util.HashSet;
@@ -164,4 +168,71 @@ public class CommittedAtomsStoreTest {
 
 		assertThat(this.committedAtomsStore.getNextCommittedCommands(3, 4)).hasSize(4);
 	}
-}
\ No newline at end of file
+
+	private CommittedAtom batchableAtom(Particle particle) {
+		CommittedAtom committedAtom = mock(CommittedAtom.class);
+		ClientAtom clientAtom = mock(ClientAtom.class);
+		CMInstruction cmInstruction = mock(CMInstruction.class);
+		when(cmInstruction.getMicroInstructions())
+			.thenReturn(ImmutableList.of(
+				CMMicroInstruction.checkSpin(particle, Spin.NEUTRAL),
+				CMMicroInstruction.push(particle)
+			));
+		when(clientAtom.getCMInstruction()).thenReturn(cmInstruction);
+		when(committedAtom.getClientAtom()).thenReturn(clientAtom);
+		when(committedAtom.getAID()).thenReturn(mock(AID.class));
+		when(committedAtom.getStateAndProof()).thenReturn(mock(VerifiedLedgerHeaderAndProof.class));
+		when(clientAtomToBinaryConverter.toLedgerEntryContent(any())).thenReturn(new byte[0]);
+		when(commandToBinaryConverter.toLedgerEntryContent(any())).thenReturn(new byte[0]);
+		EngineAtomIndices indices = mock(EngineAtomIndices.class);
+		when(indices.getUniqueIndices()).thenReturn(ImmutableSet.of());
+		when(indices.getDuplicateIndices()).thenReturn(ImmutableSet.of());
+		when(atomIndexer.getIndices(committedAtom)).thenReturn(indices);
+		return committedAtom;
+	}
+
+	@Test
+	public void when_store_atom_in_batch__then_spin_is_visible_and_persisted_on_commit() {
+		Particle particle = mock(Particle.class);
+		when(particle.euid()).thenReturn(EUID.ONE);
+		when(store.storeCommitted(any(), any(), any())).thenReturn(LedgerEntryStoreResult.success());
+
+		committedAtomsStore.beginBatch();
+		committedAtomsStore.storeAtom(batchableAtom(particle));
+		committedAtomsStore.storeAtom(batchableAtom(mock(Particle.class)));
+
+		assertThat(committedAtomsStore.getSpin(particle)).isEqualTo(Spin.UP);
+		verify(store, never()).store(any(), any(), any());
+		verify(committedAtomSender, never()).sendCommittedAtom(any());
+
+		committedAtomsStore.commitBatch();
+
+		verify(store, times(1)).storeCommitted(argThat(entries -> entries.size() == 2), any(), any());
+		verify(store, never()).commit(any());
+		verify(committedAtomSender, times(2)).sendCommittedAtom(any());
+	}
+
+	@Test
+	public void when_batch_aborted__then_nothing_is_persisted_and_later_stores_are_immediate() {
+		committedAtomsStore.beginBatch();
+		committedAtomsStore.storeAtom(batchableAtom(mock(Particle.class)));
+
+		committedAtomsStore.abortBatch();
+		committedAtomsStore.storeAtom(batchableAtom(mock(Particle.class)));
+
+		verify(store, never()).storeCommitted(any(), any(), any());
+		verify(store, times(1)).store(any(), any(), any());
+		verify(committedAtomSender, times(1)).sendCommittedAtom(any());
+	}
+
+	@Test
+	public void when_store_atom_outside_batch__then_should_store_and_commit_immediately() {
+		CommittedAtom committedAtom = batchableAtom(mock(Particle.class));
+
+		committedAtomsStore.storeAtom(committedAtom);
+
+		verify(store, times(1)).store(any(), any(), any());
+		verify(store, times(1)).commit(any());
+		verify(store, never()).storeCommitted(any(), any(), any());
+	}
+}
@@ -0,0 +1,107 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.middleware2.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import com.radixdlt.consensus.Command;
+import com.radixdlt.constraintmachine.CMInstruction;
+import com.radixdlt.constraintmachine.CMMicroInstruction;
+import com.radixdlt.constraintmachine.Particle;
+import com.radixdlt.constraintmachine.Spin;
+import com.radixdlt.middleware2.ClientAtom;
+import com.radixdlt.serialization.DeserializeException;
+import com.radixdlt.serialization.Serialization;
+import com.radixdlt.statecomputer.CommittedAtom;
+import com.radixdlt.store.EngineStore;
+import org.junit.Before;
+import org.junit.Test;
+
+public class EngineStoreCommandValidatorTest {
+	private EngineStore<CommittedAtom> engineStore;
+	private Serialization serialization;
+	private EngineStoreCommandValidator validator;
+
+	@Before
+	@SuppressWarnings("unchecked")
+	public void setUp() {
+		this.engineStore = mock(EngineStore.class);
+		this.serialization = mock(Serialization.class);
+		this.validator = new EngineStoreCommandValidator(engineStore, serialization);
+	}
+
+	private void setupAtom(Particle particle, Spin checkSpin) throws DeserializeException {
+		ClientAtom clientAtom = mock(ClientAtom.class);
+		CMInstruction cmInstruction = mock(CMInstruction.class);
+		when(clientAtom.getCMInstruction()).thenReturn(cmInstruction);
+		when(cmInstruction.getMicroInstructions())
+			.thenReturn(ImmutableList.of(
+				CMMicroInstruction.checkSpin(particle, checkSpin),
+				CMMicroInstruction.push(particle)
+			));
+		when(serialization.fromDson(any(), eq(ClientAtom.class))).thenReturn(clientAtom);
+	}
+
+	@Test
+	public void when_input_is_still_up__then_command_is_valid() throws DeserializeException {
+		Particle particle = mock(Particle.class);
+		setupAtom(particle, Spin.UP);
+		when(engineStore.getSpin(particle)).thenReturn(Spin.UP);
+
+		assertThat(validator.isValid(new Command(new byte[] {0}))).isTrue();
+	}
+
+	@Test
+	public void when_input_is_already_spent__then_command_is_invalid() throws DeserializeException {
+		Particle particle = mock(Particle.class);
+		setupAtom(particle, Spin.UP);
+		when(engineStore.getSpin(particle)).thenReturn(Spin.DOWN);
+
+		assertThat(validator.isValid(new Command(new byte[] {0}))).isFalse();
+	}
+
+	@Test
+	public void when_output_already_exists__then_command_is_invalid() throws DeserializeException {
+		Particle particle = mock(Particle.class);
+		setupAtom(particle, Spin.NEUTRAL);
+		when(engineStore.getSpin(particle)).thenReturn(Spin.UP);
+
+		assertThat(validator.isValid(new Command(new byte[] {0}))).isFalse();
+	}
+
+	@Test
+	public void when_input_is_not_yet_created__then_command_is_valid() throws DeserializeException {
+		Particle particle = mock(Particle.class);
+		setupAtom(particle, Spin.UP);
+		when(engineStore.getSpin(particle)).thenReturn(Spin.NEUTRAL);
+
+		assertThat(validator.isValid(new Command(new byte[] {0}))).isTrue();
+	}
+
+	@Test
+	public void when_command_is_malformed__then_command_is_invalid() throws DeserializeException {
+		when(serialization.fromDson(any(), eq(ClientAtom.class))).thenThrow(new DeserializeException(""));
+
+		assertThat(validator.isValid(new Command(new byte[] {0}))).isFalse();
+	}
+}
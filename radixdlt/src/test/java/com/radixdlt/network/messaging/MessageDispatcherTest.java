@@ -17,16 +17,20 @@
 
 package com.radixdlt.network.messaging;
 
+import com.google.common.collect.ImmutableList;
 import com.radixdlt.DefaultSerialization;
+import com.radixdlt.consensus.Command;
 import com.radixdlt.counters.SystemCounters;
 import com.radixdlt.counters.SystemCounters.CounterType;
 import com.radixdlt.identifiers.EUID;
+import com.radixdlt.mempool.messages.MempoolAtomsAddedMessage;
 import com.radixdlt.network.addressbook.AddressBook;
 import com.radixdlt.network.addressbook.Peer;
 import com.radixdlt.network.addressbook.PeerWithSystem;
 import com.radixdlt.network.transport.SendResult;
 import com.radixdlt.network.transport.Transport;
 import com.radixdlt.network.transport.TransportOutboundConnection;
+import com.radixdlt.serialization.DsonOutput.Output;
 import com.radixdlt.serialization.Serialization;
 import org.hamcrest.Matchers;
 import org.junit.Before;
@@ -49,6 +53,7 @@ import java.util.concurrent.TimeUnit;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -114,6 +119,32 @@ public class MessageDispatcherTest extends RadixTest {
 		verify(message, times(1)).sign(getLocalSystem().getKeyPair());
 	}
 
+	@Test
+	public void sendSameMessageToSeveralPeersEncodesOnce() throws Exception {
+		Serialization serialization = spy(DefaultSerialization.getInstance());
+		MessageCentralConfiguration conf = new MessagingDummyConfigurations.DummyMessageCentralConfiguration();
+		MessageDispatcher dispatcher = new MessageDispatcher(counters, conf, serialization, () -> 30_000, getLocalSystem(), addressBook);
+		Message message = new MempoolAtomsAddedMessage(0, ImmutableList.of(new Command(new byte[] {0})));
+
+		assertTrue(dispatcher.send(transportManager, new MessageEvent(peer1, message, 10_000)).get().isComplete());
+		assertTrue(dispatcher.send(transportManager, new MessageEvent(peer2, message, 10_000)).get().isComplete());
+
+		verify(serialization, times(1)).toDson(eq(message), eq(Output.WIRE));
+	}
+
+	@Test
+	public void sendUnsharedMessageEncodesEachTime() throws Exception {
+		Serialization serialization = spy(DefaultSerialization.getInstance());
+		MessageCentralConfiguration conf = new MessagingDummyConfigurations.DummyMessageCentralConfiguration();
+		MessageDispatcher dispatcher = new MessageDispatcher(counters, conf, serialization, () -> 30_000, getLocalSystem(), addressBook);
+		Message message = new TestMessage(0);
+
+		assertTrue(dispatcher.send(transportManager, new MessageEvent(peer1, message, 10_000)).get().isComplete());
+		assertTrue(dispatcher.send(transportManager, new MessageEvent(peer2, message, 10_000)).get().isComplete());
+
+		verify(serialization, times(2)).toDson(eq(message), eq(Output.WIRE));
+	}
+
 	@Test
 	public void sendExpiredMessage() throws InterruptedException, ExecutionException {
 		Message message = spy(new TestMessage(0));
@@ -221,7 +252,7 @@ public class MessageDispatcherTest extends RadixTest {
 
 		messageDispatcher.receive(null, messageEvent);
 
-		String banMessage = "Old peer " + peer1 + " /Radix:/2710000:100";
+		String banMessage = "Old peer " + peer1 + " /Radix:/2710001:100";
 		verify(peer1, times(1)).ban(banMessage);
 	}
 
@@ -0,0 +1,122 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.statecomputer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.base.Ticker;
+import com.radixdlt.atomos.Result;
+import com.radixdlt.engine.AtomChecker;
+import com.radixdlt.identifiers.AID;
+import com.radixdlt.middleware2.LedgerAtom;
+import com.radixdlt.utils.TypedMocks;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PrecheckingAtomCheckerTest {
+	private AtomicLong nanos;
+	private AtomChecker<LedgerAtom> checker;
+	private PrecheckingAtomChecker precheckingAtomChecker;
+
+	@Before
+	public void setUp() {
+		this.nanos = new AtomicLong();
+		Ticker ticker = new Ticker() {
+			@Override
+			public long read() {
+				return nanos.get();
+			}
+		};
+		this.checker = TypedMocks.rmock(AtomChecker.class);
+		this.precheckingAtomChecker = new PrecheckingAtomChecker(checker, 2, 1000L, ticker);
+	}
+
+	private static LedgerAtom atom() {
+		LedgerAtom atom = mock(LedgerAtom.class);
+		when(atom.getAID()).thenReturn(mock(AID.class));
+		return atom;
+	}
+
+	@Test
+	public void when_check_after_successful_precheck__then_should_not_check_again() {
+		LedgerAtom atom = atom();
+		when(checker.check(atom)).thenReturn(Result.success());
+
+		assertThat(precheckingAtomChecker.precheck(atom).isSuccess()).isTrue();
+		assertThat(precheckingAtomChecker.check(atom).isSuccess()).isTrue();
+
+		verify(checker, times(1)).check(atom);
+	}
+
+	@Test
+	public void when_check_after_failed_precheck__then_should_check_again() {
+		LedgerAtom atom = atom();
+		when(checker.check(atom)).thenReturn(Result.error("bad"));
+
+		assertThat(precheckingAtomChecker.precheck(atom).isSuccess()).isFalse();
+		assertThat(precheckingAtomChecker.check(atom).isSuccess()).isFalse();
+
+		verify(checker, times(2)).check(atom);
+	}
+
+	@Test
+	public void when_check_twice_after_precheck__then_result_is_only_reused_once() {
+		LedgerAtom atom = atom();
+		when(checker.check(atom)).thenReturn(Result.success());
+
+		precheckingAtomChecker.precheck(atom);
+		precheckingAtomChecker.check(atom);
+		precheckingAtomChecker.check(atom);
+
+		verify(checker, times(2)).check(atom);
+	}
+
+	@Test
+	public void when_check_after_retention_window_passes__then_should_check_again() {
+		LedgerAtom atom = atom();
+		when(checker.check(atom)).thenReturn(Result.success());
+
+		precheckingAtomChecker.precheck(atom);
+		nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(1001L));
+		precheckingAtomChecker.check(atom);
+
+		verify(checker, times(2)).check(atom);
+	}
+
+	@Test
+	public void when_more_atoms_prechecked_than_max__then_latest_result_is_still_reused() {
+		LedgerAtom atom1 = atom();
+		LedgerAtom atom2 = atom();
+		LedgerAtom atom3 = atom();
+		when(checker.check(any())).thenReturn(Result.success());
+
+		precheckingAtomChecker.precheck(atom1);
+		precheckingAtomChecker.precheck(atom2);
+		precheckingAtomChecker.precheck(atom3);
+		precheckingAtomChecker.check(atom3);
+
+		verify(checker, times(1)).check(atom3);
+	}
+}
@@ -18,9 +18,14 @@
 package com.radixdlt.statecomputer;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -31,6 +36,7 @@ import com.google.common.collect.ImmutableList;
 import com.radixdlt.consensus.Command;
 import com.radixdlt.consensus.LedgerHeader;
 import com.radixdlt.consensus.VerifiedLedgerHeaderAndProof;
+import com.radixdlt.consensus.bft.BFTValidatorSet;
 import com.radixdlt.consensus.bft.VerifiedVertex;
 import com.radixdlt.consensus.bft.View;
 import com.radixdlt.constraintmachine.CMInstruction;
@@ -43,13 +49,19 @@ import com.radixdlt.ledger.VerifiedCommandsAndProof;
 import com.radixdlt.middleware2.ClientAtom;
 import com.radixdlt.middleware2.LedgerAtom;
 import com.radixdlt.middleware2.store.CommittedAtomsStore;
+import com.radixdlt.middleware2.store.StoredCommittedCommand;
 import com.radixdlt.serialization.DeserializeException;
 import com.radixdlt.serialization.Serialization;
 import com.radixdlt.statecomputer.RadixEngineStateComputer.CommittedAtomSender;
 import com.radixdlt.utils.TypedMocks;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.InOrder;
 
 public class RadixEngineStateComputerTest {
 	private Serialization serialization;
@@ -58,6 +70,8 @@ public class RadixEngineStateComputerTest {
 	private RadixEngine<LedgerAtom> radixEngine;
 	private View epochHighView;
 	private CommittedAtomSender committedAtomSender;
+	private UnstoredCommandsStore unstoredCommandsStore;
+	private CommittedAtomsBatcher committedAtomsBatcher;
 
 	@Before
 	public void setup() {
@@ -66,15 +80,39 @@ public class RadixEngineStateComputerTest {
 		this.committedAtomsStore = mock(CommittedAtomsStore.class);
 		this.epochHighView = View.of(100);
 		this.committedAtomSender = mock(CommittedAtomSender.class);
+		this.unstoredCommandsStore = mock(UnstoredCommandsStore.class);
+		this.committedAtomsBatcher = mock(CommittedAtomsBatcher.class);
 		this.stateComputer = new RadixEngineStateComputer(
-			serialization,
+			new StatelessCommandChecker(serialization, mock(PrecheckingAtomChecker.class), Runnable::run),
 			radixEngine,
 			epochHighView,
 			committedAtomsStore,
-			committedAtomSender
+			committedAtomSender,
+			unstoredCommandsStore,
+			committedAtomsBatcher
 		);
 	}
 
+	private static DtoLedgerHeaderAndProof startAt(long stateVersion) {
+		DtoLedgerHeaderAndProof start = mock(DtoLedgerHeaderAndProof.class);
+		LedgerHeader ledgerHeader = mock(LedgerHeader.class);
+		AccumulatorState accumulatorState = mock(AccumulatorState.class);
+		when(accumulatorState.getStateVersion()).thenReturn(stateVersion);
+		when(ledgerHeader.getAccumulatorState()).thenReturn(accumulatorState);
+		when(start.getLedgerHeader()).thenReturn(ledgerHeader);
+		return start;
+	}
+
+	private static VerifiedCommandsAndProof malformedCommands(int count, VerifiedLedgerHeaderAndProof proof) {
+		ImmutableList<Command> commands = IntStream.range(0, count)
+			.mapToObj(i -> new Command(new byte[] {0, 1}))
+			.collect(ImmutableList.toImmutableList());
+		VerifiedCommandsAndProof commandsAndProof = mock(VerifiedCommandsAndProof.class);
+		when(commandsAndProof.getHeader()).thenReturn(proof);
+		when(commandsAndProof.getCommands()).thenReturn(commands);
+		return commandsAndProof;
+	}
+
 	@Test
 	public void when_prepare_vertex_metadata_equal_to_high_view__then_should_return_epoch_change() {
 		VerifiedVertex vertex = mock(VerifiedVertex.class);
@@ -114,6 +152,69 @@ public class RadixEngineStateComputerTest {
 		verify(committedAtomSender, never()).sendCommittedAtom(any());
 	}
 
+	@Test
+	public void when_commit_commands__then_engine_stores_within_a_single_batch() throws Exception {
+		when(serialization.fromDson(any(), eq(ClientAtom.class))).thenReturn(mock(ClientAtom.class));
+		VerifiedLedgerHeaderAndProof proof = mock(VerifiedLedgerHeaderAndProof.class);
+		AccumulatorState accumulatorState = mock(AccumulatorState.class);
+		when(accumulatorState.getStateVersion()).thenReturn(3L);
+		when(proof.getAccumulatorState()).thenReturn(accumulatorState);
+		VerifiedCommandsAndProof commandsAndProof = mock(VerifiedCommandsAndProof.class);
+		when(commandsAndProof.getHeader()).thenReturn(proof);
+		when(commandsAndProof.getCommands()).thenReturn(ImmutableList.of(mock(Command.class), mock(Command.class), mock(Command.class)));
+
+		stateComputer.commit(commandsAndProof);
+
+		InOrder inOrder = inOrder(committedAtomsBatcher, radixEngine);
+		inOrder.verify(committedAtomsBatcher, times(1)).beginBatch();
+		inOrder.verify(radixEngine, times(3)).checkAndStore(any());
+		inOrder.verify(committedAtomsBatcher, times(1)).commitBatch();
+		verify(committedAtomsBatcher, never()).abortBatch();
+	}
+
+	@Test
+	public void when_commit_commands_fails__then_batch_is_aborted_and_not_committed() throws Exception {
+		when(serialization.fromDson(any(), eq(ClientAtom.class))).thenReturn(mock(ClientAtom.class));
+		IllegalStateException failure = new IllegalStateException();
+		doThrow(failure).when(radixEngine).checkAndStore(any());
+		VerifiedLedgerHeaderAndProof proof = mock(VerifiedLedgerHeaderAndProof.class);
+		AccumulatorState accumulatorState = mock(AccumulatorState.class);
+		when(accumulatorState.getStateVersion()).thenReturn(1L);
+		when(proof.getAccumulatorState()).thenReturn(accumulatorState);
+		VerifiedCommandsAndProof commandsAndProof = mock(VerifiedCommandsAndProof.class);
+		when(commandsAndProof.getHeader()).thenReturn(proof);
+		when(commandsAndProof.getCommands()).thenReturn(ImmutableList.of(mock(Command.class)));
+
+		assertThatThrownBy(() -> stateComputer.commit(commandsAndProof)).isSameAs(failure);
+
+		verify(committedAtomsBatcher, times(1)).beginBatch();
+		verify(committedAtomsBatcher, times(1)).abortBatch();
+		verify(committedAtomsBatcher, never()).commitBatch();
+	}
+
+	@Test
+	public void when_batch_with_unstored_command_is_aborted__then_unstored_command_is_not_persisted_or_served() throws Exception {
+		Command malformed = new Command(new byte[] {0});
+		Command failing = new Command(new byte[] {1});
+		when(serialization.fromDson(eq(malformed.getPayload()), eq(ClientAtom.class))).thenThrow(new DeserializeException(""));
+		when(serialization.fromDson(eq(failing.getPayload()), eq(ClientAtom.class))).thenReturn(mock(ClientAtom.class));
+		doThrow(new IllegalStateException()).when(radixEngine).checkAndStore(any());
+		VerifiedLedgerHeaderAndProof proof = mock(VerifiedLedgerHeaderAndProof.class);
+		AccumulatorState accumulatorState = mock(AccumulatorState.class);
+		when(accumulatorState.getStateVersion()).thenReturn(2L);
+		when(proof.getAccumulatorState()).thenReturn(accumulatorState);
+		VerifiedCommandsAndProof commandsAndProof = mock(VerifiedCommandsAndProof.class);
+		when(commandsAndProof.getHeader()).thenReturn(proof);
+		when(commandsAndProof.getCommands()).thenReturn(ImmutableList.of(malformed, failing));
+		when(committedAtomsStore.getNextCommittedCommands(anyLong(), anyInt())).thenReturn(new TreeMap<>());
+
+		assertThatThrownBy(() -> stateComputer.commit(commandsAndProof)).isInstanceOf(IllegalStateException.class);
+
+		verify(committedAtomsBatcher, times(1)).abortBatch();
+		verify(unstoredCommandsStore, never()).storeCommand(anyLong(), any());
+		assertThat(stateComputer.getNextCommittedCommands(startAt(0L), 10)).isNull();
+	}
+
 	@Test
 	public void when_execute_vertex_with_exception__then_is_available_for_query() throws Exception {
 		ClientAtom clientAtom = mock(ClientAtom.class);
@@ -175,4 +276,75 @@ public class RadixEngineStateComputerTest {
 		assertThat(commands).isNotNull();
 		assertThat(commands.getHeader()).isEqualTo(proof);
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void when_commit_malformed_command__then_it_is_persisted() throws DeserializeException {
+		when(serialization.fromDson(any(), eq(ClientAtom.class))).thenThrow(new DeserializeException(""));
+		VerifiedLedgerHeaderAndProof proof = mock(VerifiedLedgerHeaderAndProof.class);
+		AccumulatorState accumulatorState = mock(AccumulatorState.class);
+		when(accumulatorState.getStateVersion()).thenReturn(1L);
+		when(proof.getAccumulatorState()).thenReturn(accumulatorState);
+
+		stateComputer.commit(malformedCommands(1, proof));
+
+		verify(unstoredCommandsStore, times(1)).storeCommand(eq(1L), argThat(c -> c.getStateAndProof().equals(proof)));
+	}
+
+	@Test
+	public void when_commit_end_of_epoch__then_epoch_proof_is_persisted() {
+		VerifiedLedgerHeaderAndProof proof = mock(VerifiedLedgerHeaderAndProof.class);
+		AccumulatorState accumulatorState = mock(AccumulatorState.class);
+		when(accumulatorState.getStateVersion()).thenReturn(1L);
+		when(proof.getAccumulatorState()).thenReturn(accumulatorState);
+		when(proof.isEndOfEpoch()).thenReturn(true);
+		when(proof.getEpoch()).thenReturn(3L);
+		RadixEngineValidatorSetBuilder validatorSetBuilder = mock(RadixEngineValidatorSetBuilder.class);
+		when(validatorSetBuilder.build()).thenReturn(mock(BFTValidatorSet.class));
+		when(radixEngine.getComputedState(RadixEngineValidatorSetBuilder.class)).thenReturn(validatorSetBuilder);
+		VerifiedCommandsAndProof commandsAndProof = mock(VerifiedCommandsAndProof.class);
+		when(commandsAndProof.getHeader()).thenReturn(proof);
+		when(commandsAndProof.getCommands()).thenReturn(ImmutableList.of());
+
+		stateComputer.commit(commandsAndProof);
+
+		verify(unstoredCommandsStore, times(1)).storeEpochProof(4L, proof);
+		assertThat(stateComputer.getEpochProof(4L)).isEqualTo(proof);
+	}
+
+	@Test
+	public void when_query_before_in_memory_tail__then_should_read_from_store() throws DeserializeException {
+		when(serialization.fromDson(any(), eq(ClientAtom.class))).thenThrow(new DeserializeException(""));
+		VerifiedLedgerHeaderAndProof proof = mock(VerifiedLedgerHeaderAndProof.class);
+		AccumulatorState accumulatorState = mock(AccumulatorState.class);
+		when(accumulatorState.getStateVersion()).thenReturn(2000L);
+		when(proof.getAccumulatorState()).thenReturn(accumulatorState);
+		when(proof.getStateVersion()).thenReturn(2000L);
+		stateComputer.commit(malformedCommands(2000, proof));
+
+		StoredCommittedCommand storedCommand = new StoredCommittedCommand(new Command(new byte[] {0, 1}), proof);
+		when(unstoredCommandsStore.getNextCommand(0L)).thenReturn(Optional.of(storedCommand));
+		when(unstoredCommandsStore.getCommands(0L, 2000L)).thenReturn(new TreeMap<>(Map.of(1L, storedCommand)));
+
+		VerifiedCommandsAndProof commands = stateComputer.getNextCommittedCommands(startAt(0L), 1);
+		assertThat(commands).isNotNull();
+		assertThat(commands.getHeader()).isEqualTo(proof);
+		verify(unstoredCommandsStore, times(1)).getCommands(0L, 2000L);
+	}
+
+	@Test
+	public void when_query_within_in_memory_tail__then_should_not_read_from_store() throws DeserializeException {
+		when(serialization.fromDson(any(), eq(ClientAtom.class))).thenThrow(new DeserializeException(""));
+		VerifiedLedgerHeaderAndProof proof = mock(VerifiedLedgerHeaderAndProof.class);
+		AccumulatorState accumulatorState = mock(AccumulatorState.class);
+		when(accumulatorState.getStateVersion()).thenReturn(2000L);
+		when(proof.getAccumulatorState()).thenReturn(accumulatorState);
+		when(proof.getStateVersion()).thenReturn(2000L);
+		stateComputer.commit(malformedCommands(2000, proof));
+
+		VerifiedCommandsAndProof commands = stateComputer.getNextCommittedCommands(startAt(1990L), 1);
+		assertThat(commands).isNotNull();
+		assertThat(commands.getCommands()).hasSize(10);
+		verify(unstoredCommandsStore, never()).getNextCommand(anyLong());
+		verify(unstoredCommandsStore, never()).getCommands(anyLong(), anyLong());
+	}
+}
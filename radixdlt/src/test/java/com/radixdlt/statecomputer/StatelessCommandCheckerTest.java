@@ -0,0 +1,94 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.statecomputer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import com.radixdlt.consensus.Command;
+import com.radixdlt.middleware2.ClientAtom;
+import com.radixdlt.serialization.DeserializeException;
+import com.radixdlt.serialization.Serialization;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class StatelessCommandCheckerTest {
+	private Serialization serialization;
+	private PrecheckingAtomChecker atomChecker;
+	private ExecutorService executor;
+	private StatelessCommandChecker statelessCommandChecker;
+
+	@Before
+	public void setUp() {
+		this.serialization = mock(Serialization.class);
+		this.atomChecker = mock(PrecheckingAtomChecker.class);
+		this.executor = Executors.newFixedThreadPool(4);
+		this.statelessCommandChecker = new StatelessCommandChecker(serialization, atomChecker, executor);
+	}
+
+	@After
+	public void tearDown() {
+		this.executor.shutdownNow();
+	}
+
+	@Test
+	public void when_check_malformed_command__then_should_return_empty_without_precheck() throws DeserializeException {
+		when(serialization.fromDson(any(), eq(ClientAtom.class))).thenThrow(new DeserializeException(""));
+
+		assertThat(statelessCommandChecker.check(ImmutableList.of(new Command(new byte[] {0}))))
+			.containsExactly(Optional.empty());
+		verify(atomChecker, never()).precheck(any());
+	}
+
+	@Test
+	public void when_check_many_commands__then_results_should_keep_command_order() throws DeserializeException {
+		ImmutableList<Command> commands = IntStream.range(0, 100)
+			.mapToObj(i -> new Command(new byte[] {(byte) i}))
+			.collect(ImmutableList.toImmutableList());
+		ImmutableList<ClientAtom> clientAtoms = IntStream.range(0, 100)
+			.mapToObj(i -> mock(ClientAtom.class))
+			.collect(ImmutableList.toImmutableList());
+		for (int i = 0; i < commands.size(); i++) {
+			if (i % 10 == 3) {
+				when(serialization.fromDson(eq(commands.get(i).getPayload()), eq(ClientAtom.class))).thenThrow(new DeserializeException(""));
+			} else {
+				when(serialization.fromDson(eq(commands.get(i).getPayload()), eq(ClientAtom.class))).thenReturn(clientAtoms.get(i));
+			}
+		}
+
+		ImmutableList<Optional<ClientAtom>> result = statelessCommandChecker.check(commands);
+
+		assertThat(result).hasSize(100);
+		for (int i = 0; i < commands.size(); i++) {
+			assertThat(result.get(i)).isEqualTo(i % 10 == 3 ? Optional.empty() : Optional.of(clientAtoms.get(i)));
+		}
+		verify(atomChecker, times(90)).precheck(any());
+	}
+}
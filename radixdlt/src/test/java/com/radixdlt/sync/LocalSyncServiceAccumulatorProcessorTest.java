@@ -18,33 +18,47 @@
 package com.radixdlt.sync;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 import com.google.common.collect.ImmutableList;
+import com.radixdlt.consensus.Command;
+import com.radixdlt.consensus.LedgerHeader;
 import com.radixdlt.consensus.VerifiedLedgerHeaderAndProof;
 import com.radixdlt.consensus.bft.BFTNode;
 import com.radixdlt.ledger.AccumulatorState;
+import com.radixdlt.ledger.DtoCommandsAndProof;
 import com.radixdlt.ledger.DtoLedgerHeaderAndProof;
 import com.radixdlt.ledger.LedgerUpdate;
+import com.radixdlt.network.TimeSupplier;
 import com.radixdlt.sync.LocalSyncServiceAccumulatorProcessor.SyncInProgress;
 import com.radixdlt.sync.LocalSyncServiceAccumulatorProcessor.SyncTimeoutScheduler;
+import com.radixdlt.sync.LocalSyncServiceAccumulatorProcessor.VerifiedSyncedCommandsSender;
 import com.radixdlt.utils.TypedMocks;
 
 import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 
 public class LocalSyncServiceAccumulatorProcessorTest {
 	private StateSyncNetwork stateSyncNetwork;
 	private LocalSyncServiceAccumulatorProcessor syncServiceProcessor;
 	private SyncTimeoutScheduler syncTimeoutScheduler;
+	private VerifiedSyncedCommandsSender verifiedSyncedCommandsSender;
 	private VerifiedLedgerHeaderAndProof currentHeader;
 	private Comparator<AccumulatorState> accumulatorComparator;
 	private AccumulatorState currentAccumulatorState;
@@ -53,6 +67,7 @@ public class LocalSyncServiceAccumulatorProcessorTest {
 	public void setUp() {
 		this.stateSyncNetwork = mock(StateSyncNetwork.class);
 		this.syncTimeoutScheduler = mock(SyncTimeoutScheduler.class);
+		this.verifiedSyncedCommandsSender = mock(VerifiedSyncedCommandsSender.class);
 		this.currentHeader = mock(VerifiedLedgerHeaderAndProof.class);
 		this.currentAccumulatorState = mock(AccumulatorState.class);
 		when(currentHeader.getAccumulatorState()).thenReturn(currentAccumulatorState);
@@ -61,9 +76,69 @@ public class LocalSyncServiceAccumulatorProcessorTest {
 		this.syncServiceProcessor = new LocalSyncServiceAccumulatorProcessor(
 			stateSyncNetwork,
 			syncTimeoutScheduler,
+			verifiedSyncedCommandsSender,
 			accumulatorComparator,
+			mock(TimeSupplier.class),
 			currentHeader,
-			1
+			1,
+			4
+		);
+	}
+
+	private static DtoLedgerHeaderAndProof dtoHeader(long stateVersion) {
+		AccumulatorState accumulatorState = mock(AccumulatorState.class);
+		when(accumulatorState.getStateVersion()).thenReturn(stateVersion);
+		LedgerHeader ledgerHeader = mock(LedgerHeader.class);
+		when(ledgerHeader.getAccumulatorState()).thenReturn(accumulatorState);
+		DtoLedgerHeaderAndProof dto = mock(DtoLedgerHeaderAndProof.class);
+		when(dto.getLedgerHeader()).thenReturn(ledgerHeader);
+		return dto;
+	}
+
+	private static VerifiedLedgerHeaderAndProof verifiedHeader(DtoLedgerHeaderAndProof dto) {
+		AccumulatorState accumulatorState = dto.getLedgerHeader().getAccumulatorState();
+		long stateVersion = accumulatorState.getStateVersion();
+		VerifiedLedgerHeaderAndProof header = mock(VerifiedLedgerHeaderAndProof.class);
+		when(header.getAccumulatorState()).thenReturn(accumulatorState);
+		when(header.getStateVersion()).thenReturn(stateVersion);
+		when(header.toDto()).thenReturn(dto);
+		return header;
+	}
+
+	private static LocalSyncRequest localSyncRequest(VerifiedLedgerHeaderAndProof target, ImmutableList<BFTNode> targetNodes) {
+		LocalSyncRequest request = mock(LocalSyncRequest.class);
+		when(request.getTarget()).thenReturn(target);
+		when(request.getTargetNodes()).thenReturn(targetNodes);
+		return request;
+	}
+
+	private static RemoteSyncResponse response(BFTNode sender, DtoLedgerHeaderAndProof head, DtoLedgerHeaderAndProof tail) {
+		return response(sender, head, tail, ImmutableList.of());
+	}
+
+	private static RemoteSyncResponse response(
+		BFTNode sender,
+		DtoLedgerHeaderAndProof head,
+		DtoLedgerHeaderAndProof tail,
+		ImmutableList<Command> commands
+	) {
+		DtoCommandsAndProof commandsAndProof = mock(DtoCommandsAndProof.class);
+		when(commandsAndProof.getCommands()).thenReturn(commands);
+		when(commandsAndProof.getHead()).thenReturn(head);
+		when(commandsAndProof.getTail()).thenReturn(tail);
+		return new RemoteSyncResponse(sender, commandsAndProof);
+	}
+
+	private LocalSyncServiceAccumulatorProcessor processorAt(DtoLedgerHeaderAndProof current, TimeSupplier timeSupplier) {
+		return new LocalSyncServiceAccumulatorProcessor(
+			stateSyncNetwork,
+			syncTimeoutScheduler,
+			verifiedSyncedCommandsSender,
+			Comparator.comparingLong(AccumulatorState::getStateVersion),
+			timeSupplier,
+			verifiedHeader(current),
+			100,
+			4
 		);
 	}
 
@@ -77,7 +152,7 @@ public class LocalSyncServiceAccumulatorProcessorTest {
 		LocalSyncRequest request = mock(LocalSyncRequest.class);
 		when(request.getTarget()).thenReturn(targetHeader);
 		syncServiceProcessor.processLocalSyncRequest(request);
-		verify(stateSyncNetwork, never()).sendSyncRequest(any(), any());
+		verify(stateSyncNetwork, never()).sendSyncRequest(any(), any(), anyInt());
 		verify(syncTimeoutScheduler, never()).scheduleTimeout(any(), anyLong());
 	}
 
@@ -93,7 +168,7 @@ public class LocalSyncServiceAccumulatorProcessorTest {
 
 		syncServiceProcessor.processLocalSyncRequest(request);
 
-		verify(stateSyncNetwork, times(1)).sendSyncRequest(any(), any());
+		verify(stateSyncNetwork, times(1)).sendSyncRequest(any(), any(), anyInt());
 		verify(syncTimeoutScheduler, times(1)).scheduleTimeout(any(), anyLong());
 	}
 
@@ -119,7 +194,109 @@ public class LocalSyncServiceAccumulatorProcessorTest {
 		syncServiceProcessor.processSyncTimeout(sync.get());
 
 		// Once only for initial setup
-		verify(stateSyncNetwork, times(1)).sendSyncRequest(any(), any());
+		verify(stateSyncNetwork, times(1)).sendSyncRequest(any(), any(), anyInt());
 		verify(syncTimeoutScheduler, times(1)).scheduleTimeout(any(), anyLong());
 	}
+
+	@Test
+	public void given_a_sync_in_progress__when_local_request_has_higher_target__then_should_request_range_after_previous_target_from_another_node() {
+		DtoLedgerHeaderAndProof header0 = dtoHeader(0);
+		DtoLedgerHeaderAndProof header10 = dtoHeader(10);
+		DtoLedgerHeaderAndProof header20 = dtoHeader(20);
+		BFTNode node1 = mock(BFTNode.class);
+		BFTNode node2 = mock(BFTNode.class);
+		LocalSyncServiceAccumulatorProcessor processor = processorAt(header0, () -> 0L);
+
+		processor.processLocalSyncRequest(localSyncRequest(verifiedHeader(header10), ImmutableList.of(node1, node2)));
+		processor.processLocalSyncRequest(localSyncRequest(verifiedHeader(header20), ImmutableList.of(node1, node2)));
+
+		ArgumentCaptor<BFTNode> firstNode = ArgumentCaptor.forClass(BFTNode.class);
+		ArgumentCaptor<BFTNode> secondNode = ArgumentCaptor.forClass(BFTNode.class);
+		verify(stateSyncNetwork, times(1)).sendSyncRequest(firstNode.capture(), eq(header0), anyInt());
+		verify(stateSyncNetwork, times(1)).sendSyncRequest(secondNode.capture(), eq(header10), anyInt());
+		assertThat(firstNode.getValue()).isNotEqualTo(secondNode.getValue());
+	}
+
+	@Test
+	public void given_two_ranges_in_flight__when_later_range_responds_first__then_should_commit_both_in_order() {
+		DtoLedgerHeaderAndProof header0 = dtoHeader(0);
+		DtoLedgerHeaderAndProof header10 = dtoHeader(10);
+		DtoLedgerHeaderAndProof header20 = dtoHeader(20);
+		BFTNode node = mock(BFTNode.class);
+		LocalSyncServiceAccumulatorProcessor processor = processorAt(header0, () -> 0L);
+		processor.processLocalSyncRequest(localSyncRequest(verifiedHeader(header10), ImmutableList.of(node, mock(BFTNode.class))));
+		processor.processLocalSyncRequest(localSyncRequest(verifiedHeader(header20), ImmutableList.of(node, mock(BFTNode.class))));
+
+		RemoteSyncResponse laterResponse = response(node, header10, header20);
+		processor.processVerifiedSyncResponse(laterResponse);
+		verify(verifiedSyncedCommandsSender, never()).sendVerifiedCommands(any());
+
+		RemoteSyncResponse earlierResponse = response(node, header0, header10);
+		processor.processVerifiedSyncResponse(earlierResponse);
+
+		InOrder inOrder = inOrder(verifiedSyncedCommandsSender);
+		inOrder.verify(verifiedSyncedCommandsSender).sendVerifiedCommands(earlierResponse.getCommandsAndProof());
+		inOrder.verify(verifiedSyncedCommandsSender).sendVerifiedCommands(laterResponse.getCommandsAndProof());
+		verify(stateSyncNetwork, times(2)).sendSyncRequest(any(), any(), anyInt());
+	}
+
+	@Test
+	public void given_a_request_in_flight__when_response_extends_current__then_should_commit_and_request_from_tail() {
+		DtoLedgerHeaderAndProof header0 = dtoHeader(0);
+		DtoLedgerHeaderAndProof header5 = dtoHeader(5);
+		DtoLedgerHeaderAndProof header10 = dtoHeader(10);
+		BFTNode node = mock(BFTNode.class);
+		LocalSyncServiceAccumulatorProcessor processor = processorAt(header0, () -> 0L);
+		processor.processLocalSyncRequest(localSyncRequest(verifiedHeader(header10), ImmutableList.of(node)));
+
+		RemoteSyncResponse syncResponse = response(node, header0, header5);
+		processor.processVerifiedSyncResponse(syncResponse);
+
+		verify(verifiedSyncedCommandsSender, times(1)).sendVerifiedCommands(syncResponse.getCommandsAndProof());
+		verify(stateSyncNetwork, times(1)).sendSyncRequest(eq(node), eq(header5), anyInt());
+	}
+
+	@Test
+	public void given_a_request_in_flight__when_fast_response_fills_budget__then_should_grow_next_request_budget() {
+		DtoLedgerHeaderAndProof header0 = dtoHeader(0);
+		DtoLedgerHeaderAndProof header1 = dtoHeader(1);
+		DtoLedgerHeaderAndProof header10 = dtoHeader(10);
+		BFTNode node = mock(BFTNode.class);
+		AtomicLong time = new AtomicLong(0);
+		LocalSyncServiceAccumulatorProcessor processor = processorAt(header0, time::get);
+		processor.processLocalSyncRequest(localSyncRequest(verifiedHeader(header10), ImmutableList.of(node)));
+		ArgumentCaptor<Integer> initialBytes = ArgumentCaptor.forClass(Integer.class);
+		verify(stateSyncNetwork, times(1)).sendSyncRequest(eq(node), eq(header0), initialBytes.capture());
+
+		time.set(5);
+		Command command = new Command(new byte[initialBytes.getValue()]);
+		processor.processVerifiedSyncResponse(response(node, header0, header1, ImmutableList.of(command)));
+
+		verify(stateSyncNetwork, times(1)).sendSyncRequest(eq(node), eq(header1), eq(initialBytes.getValue() * 2));
+	}
+
+	@Test
+	public void given_a_request_to_a_slow_node__when_sync_timeout__then_should_retry_with_another_node() {
+		DtoLedgerHeaderAndProof header0 = dtoHeader(0);
+		DtoLedgerHeaderAndProof header10 = dtoHeader(10);
+		BFTNode node1 = mock(BFTNode.class);
+		BFTNode node2 = mock(BFTNode.class);
+		AtomicLong time = new AtomicLong(0);
+		AtomicReference<SyncInProgress> sync = new AtomicReference<>();
+		doAnswer(invocation -> {
+			sync.set(invocation.getArgument(0));
+			return null;
+		}).when(syncTimeoutScheduler).scheduleTimeout(any(), anyLong());
+		LocalSyncServiceAccumulatorProcessor processor = processorAt(header0, time::get);
+		processor.processLocalSyncRequest(localSyncRequest(verifiedHeader(header10), ImmutableList.of(node1, node2)));
+		ArgumentCaptor<BFTNode> slowNode = ArgumentCaptor.forClass(BFTNode.class);
+		verify(stateSyncNetwork, times(1)).sendSyncRequest(slowNode.capture(), eq(header0), anyInt());
+
+		time.set(100);
+		processor.processSyncTimeout(sync.get());
+
+		BFTNode otherNode = slowNode.getValue().equals(node1) ? node2 : node1;
+		verify(stateSyncNetwork, times(1)).sendSyncRequest(eq(otherNode), eq(header0), anyInt());
+		verify(syncTimeoutScheduler, times(2)).scheduleTimeout(any(), anyLong());
+	}
 }
\ No newline at end of file
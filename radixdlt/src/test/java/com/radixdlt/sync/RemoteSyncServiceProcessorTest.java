@@ -17,6 +17,7 @@
 
 package com.radixdlt.sync;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
@@ -26,16 +27,21 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.google.common.collect.ImmutableList;
 import com.radixdlt.consensus.BFTHeader;
+import com.radixdlt.consensus.Command;
 import com.radixdlt.consensus.LedgerHeader;
 import com.radixdlt.consensus.TimestampedECDSASignatures;
 import com.radixdlt.consensus.VerifiedLedgerHeaderAndProof;
 import com.radixdlt.consensus.bft.BFTNode;
+import com.radixdlt.counters.SystemCounters;
 import com.radixdlt.crypto.Hash;
+import com.radixdlt.ledger.DtoCommandsAndProof;
 import com.radixdlt.ledger.DtoLedgerHeaderAndProof;
 import com.radixdlt.ledger.VerifiedCommandsAndProof;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
 public class RemoteSyncServiceProcessorTest {
 
@@ -47,7 +53,46 @@ public class RemoteSyncServiceProcessorTest {
 	public void setUp() {
 		this.reader = mock(CommittedReader.class);
 		this.network =  mock(StateSyncNetwork.class);
-		this.processor = new RemoteSyncServiceProcessor(reader, network, 1);
+		this.processor = new RemoteSyncServiceProcessor(reader, network, mock(SystemCounters.class), 1, 100);
+	}
+
+	private static DtoLedgerHeaderAndProof dtoHeader() {
+		DtoLedgerHeaderAndProof header = mock(DtoLedgerHeaderAndProof.class);
+		when(header.getOpaque0()).thenReturn(mock(BFTHeader.class));
+		when(header.getOpaque1()).thenReturn(mock(BFTHeader.class));
+		when(header.getOpaque3()).thenReturn(mock(Hash.class));
+		when(header.getLedgerHeader()).thenReturn(mock(LedgerHeader.class));
+		when(header.getSignatures()).thenReturn(mock(TimestampedECDSASignatures.class));
+		return header;
+	}
+
+	private static VerifiedCommandsAndProof committed(long stateVersion, DtoLedgerHeaderAndProof dto, Command... commands) {
+		VerifiedLedgerHeaderAndProof header = mock(VerifiedLedgerHeaderAndProof.class);
+		when(header.getStateVersion()).thenReturn(stateVersion);
+		when(header.toDto()).thenReturn(dto);
+		VerifiedCommandsAndProof verifiedCommandsAndProof = mock(VerifiedCommandsAndProof.class);
+		when(verifiedCommandsAndProof.getHeader()).thenReturn(header);
+		when(verifiedCommandsAndProof.getCommands()).thenReturn(ImmutableList.copyOf(commands));
+		return verifiedCommandsAndProof;
+	}
+
+	private static VerifiedCommandsAndProof endOfEpoch(long epoch, DtoLedgerHeaderAndProof dto) {
+		VerifiedCommandsAndProof epochProof = committed(0, dto);
+		when(epochProof.getHeader().getEpoch()).thenReturn(epoch);
+		when(epochProof.getHeader().isEndOfEpoch()).thenReturn(true);
+		return epochProof;
+	}
+
+	private DtoCommandsAndProof respondTo(int maxBytes, DtoLedgerHeaderAndProof start) {
+		RemoteSyncRequest request = mock(RemoteSyncRequest.class);
+		when(request.getCurrentHeader()).thenReturn(start);
+		when(request.getMaxBytes()).thenReturn(maxBytes);
+		BFTNode node = mock(BFTNode.class);
+		when(request.getNode()).thenReturn(node);
+		processor.processRemoteSyncRequest(request);
+		ArgumentCaptor<DtoCommandsAndProof> response = ArgumentCaptor.forClass(DtoCommandsAndProof.class);
+		verify(network, times(1)).sendSyncResponse(eq(node), response.capture());
+		return response.getValue();
 	}
 
 	@Test
@@ -66,6 +111,7 @@ public class RemoteSyncServiceProcessorTest {
 		VerifiedLedgerHeaderAndProof verifiedHeader = mock(VerifiedLedgerHeaderAndProof.class);
 		when(verifiedHeader.toDto()).thenReturn(header);
 		when(verifiedCommandsAndProof.getHeader()).thenReturn(verifiedHeader);
+		when(verifiedCommandsAndProof.getCommands()).thenReturn(ImmutableList.of());
 		when(reader.getNextCommittedCommands(any(), anyInt())).thenReturn(verifiedCommandsAndProof);
 		processor.processRemoteSyncRequest(request);
 		verify(network, times(1)).sendSyncResponse(eq(node), any());
@@ -99,4 +145,99 @@ public class RemoteSyncServiceProcessorTest {
 		when(reader.getNextCommittedCommands(any(), anyInt())).thenReturn(null);
 		verify(network, never()).sendSyncResponse(any(), any());
 	}
+
+	@Test
+	public void when_remote_sync_request_with_budget_for_more__then_should_extend_response_with_next_batch() {
+		DtoLedgerHeaderAndProof start = dtoHeader();
+		DtoLedgerHeaderAndProof first = dtoHeader();
+		DtoLedgerHeaderAndProof second = dtoHeader();
+		Command command0 = new Command(new byte[30]);
+		Command command1 = new Command(new byte[30]);
+		VerifiedCommandsAndProof firstBatch = committed(1, first, command0);
+		VerifiedCommandsAndProof secondBatch = committed(2, second, command1);
+		when(reader.getNextCommittedCommands(eq(start), anyInt())).thenReturn(firstBatch);
+		when(reader.getNextCommittedCommands(eq(first), anyInt())).thenReturn(secondBatch);
+
+		DtoCommandsAndProof response = respondTo(60, start);
+
+		assertThat(response.getCommands()).containsExactly(command0, command1);
+		assertThat(response.getHead()).isEqualTo(start);
+		assertThat(response.getTail()).isEqualTo(second);
+	}
+
+	@Test
+	public void when_remote_sync_request_with_small_budget__then_should_only_send_first_batch() {
+		DtoLedgerHeaderAndProof start = dtoHeader();
+		DtoLedgerHeaderAndProof first = dtoHeader();
+		Command command0 = new Command(new byte[30]);
+		VerifiedCommandsAndProof firstBatch = committed(1, first, command0);
+		VerifiedCommandsAndProof secondBatch = committed(2, dtoHeader(), new Command(new byte[30]));
+		when(reader.getNextCommittedCommands(eq(start), anyInt())).thenReturn(firstBatch);
+		when(reader.getNextCommittedCommands(eq(first), anyInt())).thenReturn(secondBatch);
+
+		DtoCommandsAndProof response = respondTo(50, start);
+
+		assertThat(response.getCommands()).containsExactly(command0);
+		assertThat(response.getTail()).isEqualTo(first);
+	}
+
+	@Test
+	public void when_same_remote_sync_request_twice_with_budget_used__then_should_send_cached_response() {
+		DtoLedgerHeaderAndProof start = dtoHeader();
+		DtoLedgerHeaderAndProof first = dtoHeader();
+		VerifiedCommandsAndProof firstBatch = committed(1, first, new Command(new byte[30]));
+		VerifiedCommandsAndProof secondBatch = committed(2, dtoHeader(), new Command(new byte[30]));
+		when(reader.getNextCommittedCommands(eq(start), anyInt())).thenReturn(firstBatch);
+		when(reader.getNextCommittedCommands(eq(first), anyInt())).thenReturn(secondBatch);
+
+		DtoCommandsAndProof response0 = respondTo(50, start);
+		DtoCommandsAndProof response1 = respondTo(50, start);
+
+		assertThat(response1).isSameAs(response0);
+		verify(reader, times(1)).getNextCommittedCommands(eq(start), anyInt());
+	}
+
+	@Test
+	public void when_same_remote_sync_request_twice_with_budget_left__then_should_build_response_again() {
+		DtoLedgerHeaderAndProof start = dtoHeader();
+		DtoLedgerHeaderAndProof first = dtoHeader();
+		when(reader.getNextCommittedCommands(eq(start), anyInt())).thenReturn(committed(1, first, new Command(new byte[30])));
+
+		DtoCommandsAndProof response0 = respondTo(50, start);
+		DtoCommandsAndProof response1 = respondTo(50, start);
+
+		assertThat(response1).isNotSameAs(response0);
+		verify(reader, times(2)).getNextCommittedCommands(eq(start), anyInt());
+	}
+
+	@Test
+	public void when_remote_sync_request_at_end_of_epoch__then_should_send_proofs_of_further_epochs() {
+		DtoLedgerHeaderAndProof start = dtoHeader();
+		when(start.getLedgerHeader().isEndOfEpoch()).thenReturn(true);
+		DtoLedgerHeaderAndProof epoch1 = dtoHeader();
+		DtoLedgerHeaderAndProof epoch2 = dtoHeader();
+		DtoLedgerHeaderAndProof epoch3 = dtoHeader();
+		when(reader.getNextCommittedCommands(eq(start), anyInt())).thenReturn(endOfEpoch(1, epoch1));
+		when(reader.getNextCommittedCommands(eq(epoch1), anyInt())).thenReturn(endOfEpoch(2, epoch2));
+		when(reader.getNextCommittedCommands(eq(epoch2), anyInt())).thenReturn(endOfEpoch(3, epoch3));
+
+		DtoCommandsAndProof response = respondTo(0, start);
+
+		assertThat(response.getCommands()).isEmpty();
+		assertThat(response.getTail()).isEqualTo(epoch1);
+		assertThat(response.getEpochProofs()).containsExactly(epoch2, epoch3);
+	}
+
+	@Test
+	public void when_remote_sync_request_within_epoch__then_should_not_send_epoch_proofs() {
+		DtoLedgerHeaderAndProof start = dtoHeader();
+		DtoLedgerHeaderAndProof epoch1 = dtoHeader();
+		when(reader.getNextCommittedCommands(eq(start), anyInt())).thenReturn(endOfEpoch(1, epoch1));
+		when(reader.getNextCommittedCommands(eq(epoch1), anyInt())).thenReturn(endOfEpoch(2, dtoHeader()));
+
+		DtoCommandsAndProof response = respondTo(0, start);
+
+		assertThat(response.getTail()).isEqualTo(epoch1);
+		assertThat(response.getEpochProofs()).isEmpty();
+	}
 }
\ No newline at end of file
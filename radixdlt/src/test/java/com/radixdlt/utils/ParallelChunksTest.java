@@ -0,0 +1,74 @@
+/*
+ * (C) Copyright 2020 Radix DLT Ltd
+ *
+ * Radix DLT Ltd licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.radixdlt.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.Test;
+
+public class ParallelChunksTest {
+	@Test
+	public void when_mapping_single_chunk__then_executor_is_not_used() {
+		Executor executor = task -> {
+			throw new AssertionError("Executor used");
+		};
+		List<Integer> elements = IntStream.range(0, ParallelChunks.CHUNK_SIZE).boxed().collect(Collectors.toList());
+
+		assertThat(ParallelChunks.map(elements, executor, i -> i * 2))
+			.isEqualTo(elements.stream().map(i -> i * 2).collect(Collectors.toList()));
+	}
+
+	@Test
+	public void when_mapping_several_chunks__then_results_are_in_order_and_chunks_run_on_executor() {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			Set<String> threads = ConcurrentHashMap.newKeySet();
+			List<Integer> elements = IntStream.range(0, ParallelChunks.CHUNK_SIZE * 5 + 3).boxed().collect(Collectors.toList());
+
+			List<Integer> mapped = ParallelChunks.map(elements, executor, i -> {
+				threads.add(Thread.currentThread().getName());
+				return i + 1;
+			});
+
+			assertThat(mapped).isEqualTo(elements.stream().map(i -> i + 1).collect(Collectors.toList()));
+			assertThat(threads).doesNotContain(Thread.currentThread().getName());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void when_mapper_throws__then_exception_is_propagated() {
+		List<Integer> elements = IntStream.range(0, ParallelChunks.CHUNK_SIZE * 2).boxed().collect(Collectors.toList());
+
+		assertThatThrownBy(() -> ParallelChunks.map(elements, MoreExecutors.directExecutor(), i -> {
+			throw new IllegalStateException();
+		})).isInstanceOf(CompletionException.class).hasCauseInstanceOf(IllegalStateException.class);
+	}
+}
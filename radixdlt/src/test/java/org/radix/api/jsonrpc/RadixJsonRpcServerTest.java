@@ -19,12 +19,20 @@ package org.radix.api.jsonrpc;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.google.common.collect.ImmutableList;
 import com.radixdlt.consensus.EpochManagerRunner;
+import com.radixdlt.identifiers.AID;
+import com.radixdlt.mempool.SubmissionResult;
 import com.radixdlt.store.LedgerEntryStore;
 import com.radixdlt.universe.Universe;
+import org.json.JSONArray;
 import org.json.JSONObject;
 import org.junit.Test;
 import org.radix.api.services.AtomsService;
@@ -87,6 +95,71 @@ public class RadixJsonRpcServerTest {
 		assertThat(response.getJSONObject("result").has("timestamp")).isTrue();
 	}
 
+	@Test
+	public void when_send_json_rpc_request_submit_atoms__return_result_per_atom() {
+		JSONObject atom1 = new JSONObject().put("n", 1);
+		JSONObject atom2 = new JSONObject().put("n", 2);
+		JSONObject request = new JSONObject()
+			.put("id", 0)
+			.put("method", "Atoms.submitAtoms")
+			.put("params", new JSONObject().put("atoms", new JSONArray().put(atom1).put(atom2)));
+
+		Serialization serializer = mock(Serialization.class);
+		when(serializer.toJsonObject(any(), any())).thenAnswer(i -> i.getArguments()[0]);
+		AtomsService atomsService = mock(AtomsService.class);
+		AID aid = mock(AID.class);
+		when(aid.toString()).thenReturn("accepted-aid");
+		when(atomsService.submitAtoms(any())).thenReturn(ImmutableList.of(
+			SubmissionResult.accepted(aid),
+			SubmissionResult.rejected(null, new IllegalArgumentException("bad atom"))
+		));
+
+		RadixJsonRpcServer server = new RadixJsonRpcServer(
+			mock(EpochManagerRunner.class),
+			serializer,
+			mock(LedgerEntryStore.class),
+			atomsService,
+			mock(LocalSystem.class),
+			mock(AddressBook.class),
+			mock(Universe.class));
+
+		JSONObject response = new JSONObject(server.handleChecked(request.toString()));
+		assertThat(response.get("id")).isEqualTo(0);
+		JSONArray results = response.getJSONArray("result");
+		assertThat(results.length()).isEqualTo(2);
+		assertThat(results.getJSONObject(0).getString("aid")).isEqualTo("accepted-aid");
+		assertThat(results.getJSONObject(0).getString("status")).isEqualTo(AtomStatus.PENDING_CM_VERIFICATION.name());
+		assertThat(results.getJSONObject(0).has("error")).isFalse();
+		assertThat(results.getJSONObject(1).has("aid")).isFalse();
+		assertThat(results.getJSONObject(1).getString("error")).isEqualTo("bad atom");
+
+		verify(atomsService, times(1)).submitAtoms(argThat(atoms -> atoms.size() == 2
+			&& atoms.get(0).similar(atom1) && atoms.get(1).similar(atom2)));
+	}
+
+	@Test
+	public void when_send_json_rpc_request_submit_atoms_without_atoms__return_json_error_response() {
+		JSONObject request = new JSONObject()
+			.put("id", 0)
+			.put("method", "Atoms.submitAtoms")
+			.put("params", new JSONObject());
+		AtomsService atomsService = mock(AtomsService.class);
+
+		RadixJsonRpcServer server = new RadixJsonRpcServer(
+			mock(EpochManagerRunner.class),
+			mock(Serialization.class),
+			mock(LedgerEntryStore.class),
+			atomsService,
+			mock(LocalSystem.class),
+			mock(AddressBook.class),
+			mock(Universe.class));
+
+		JSONObject response = new JSONObject(server.handleChecked(request.toString()));
+		assertThat(response.has("result")).isFalse();
+		assertThat(response.getJSONObject("error").getString("message")).isEqualTo("No atoms present");
+		verify(atomsService, never()).submitAtoms(any());
+	}
+
 	@Test
 	public void when_send_oversized_json_rpc_request_with__return_json_error_response() {
 		RadixJsonRpcServer server = new RadixJsonRpcServer(
@@ -17,17 +17,27 @@
 
 package org.radix.api.services;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.google.common.collect.ImmutableList;
 import com.radixdlt.api.SubmissionErrorsRx;
+import com.radixdlt.identifiers.AID;
 import com.radixdlt.mempool.SubmissionControl;
+import com.radixdlt.mempool.SubmissionResult;
 import com.radixdlt.statecomputer.ClientAtomToBinaryConverter;
 import com.radixdlt.middleware2.store.CommandToBinaryConverter;
 import com.radixdlt.statecomputer.RadixEngineStateComputer.CommittedAtomWithResult;
 import com.radixdlt.store.LedgerEntryStore;
 import io.reactivex.rxjava3.core.Observable;
 import io.reactivex.rxjava3.subjects.PublishSubject;
+import java.util.List;
+import org.json.JSONObject;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -62,6 +72,19 @@ public class AtomsServiceTest {
 		);
 	}
 
+	@Test
+	public void when_submit_atoms__then_batch_is_passed_to_submission_control() {
+		List<JSONObject> jsonAtoms = ImmutableList.of(new JSONObject(), new JSONObject());
+		ImmutableList<SubmissionResult> results = ImmutableList.of(
+			SubmissionResult.accepted(mock(AID.class)),
+			SubmissionResult.rejected(null, new IllegalArgumentException())
+		);
+		when(this.submissionControl.submitAtoms(eq(jsonAtoms), any())).thenReturn(results);
+
+		assertThat(atomsService.submitAtoms(jsonAtoms)).isEqualTo(results);
+		verify(this.submissionControl, times(1)).submitAtoms(eq(jsonAtoms), any());
+	}
+
 	@Test
 	public void when_process_command_no_listeners__no_exceptions_occur() {
 		atomsService.start();